@@ -26,10 +26,12 @@ import java.util.Date;
 
 import org.neo4j.consistency.checking.full.ConsistencyCheckIncompleteException;
 import org.neo4j.consistency.checking.full.FullCheck;
+import org.neo4j.consistency.checking.full.TransactionRangeCheck;
 import org.neo4j.consistency.report.ConsistencySummaryStatistics;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.index.lucene.LuceneLabelScanStoreBuilder;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCacheMonitor;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
@@ -45,6 +47,16 @@ import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.store.StoreAccess;
 import org.neo4j.kernel.impl.nioneo.store.StoreFactory;
 import org.neo4j.kernel.impl.pagecache.LifecycledPageCache;
+import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.xaframework.IOCursor;
+import org.neo4j.kernel.impl.transaction.xaframework.NoSuchTransactionException;
+import org.neo4j.kernel.impl.transaction.xaframework.PhysicalLogFile;
+import org.neo4j.kernel.impl.transaction.xaframework.PhysicalLogFiles;
+import org.neo4j.kernel.impl.transaction.xaframework.PhysicalTransactionCursor;
+import org.neo4j.kernel.impl.transaction.xaframework.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.xaframework.ReadableLogChannel;
+import org.neo4j.kernel.impl.transaction.xaframework.ReaderLogVersionBridge;
+import org.neo4j.kernel.impl.transaction.xaframework.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -65,10 +77,81 @@ public class ConsistencyCheckService
         this.timestamp = timestamp;
     }
 
-    public Result runFullConsistencyCheck( String storeDir,
+    public Result runFullConsistencyCheck( final String storeDir,
                                                   Config tuningConfiguration,
-                                                  ProgressMonitorFactory progressFactory,
-                                           StringLogger logger ) throws ConsistencyCheckIncompleteException
+                                                  final ProgressMonitorFactory progressFactory,
+                                           final StringLogger logger ) throws ConsistencyCheckIncompleteException
+    {
+        return runCheck( storeDir, tuningConfiguration, logger, new StoreCheck()
+        {
+            @Override
+            public ConsistencySummaryStatistics check( StoreAccess store, FileSystemAbstraction fileSystem,
+                                                       Config config, StringLogger checkLogger )
+                    throws ConsistencyCheckIncompleteException
+            {
+                LabelScanStore labelScanStore = null;
+                try
+                {
+                    labelScanStore = new LuceneLabelScanStoreBuilder(
+                            storeDir, store.getRawNeoStore(), fileSystem, logger ).build();
+                    SchemaIndexProvider indexes = new LuceneSchemaIndexProvider( DirectoryFactory.PERSISTENT, config );
+                    DirectStoreAccess stores = new DirectStoreAccess( store, labelScanStore, indexes );
+                    return new FullCheck( config, progressFactory ).execute( stores, checkLogger );
+                }
+                finally
+                {
+                    try
+                    {
+                        if ( null != labelScanStore )
+                        {
+                            labelScanStore.shutdown();
+                        }
+                    }
+                    catch ( IOException e )
+                    {
+                        logger.error( "Failure during shutdown of label scan store", e );
+                    }
+                }
+            }
+        } );
+    }
+
+    /**
+     * Checks only the records touched by transactions {@code fromTxId} through {@code toTxId}, and their
+     * neighbours, as read from the transaction logs of the store.
+     *
+     * @see TransactionRangeCheck
+     */
+    public Result runTransactionRangeConsistencyCheck( final String storeDir, Config tuningConfiguration,
+                                                       final long fromTxId, final long toTxId, StringLogger logger )
+            throws ConsistencyCheckIncompleteException
+    {
+        return runCheck( storeDir, tuningConfiguration, logger, new StoreCheck()
+        {
+            @Override
+            public ConsistencySummaryStatistics check( StoreAccess store, FileSystemAbstraction fileSystem,
+                                                       Config config, StringLogger checkLogger )
+                    throws ConsistencyCheckIncompleteException
+            {
+                try ( IOCursor<CommittedTransactionRepresentation> transactions =
+                              transactionsFrom( fileSystem, new File( storeDir ), fromTxId ) )
+                {
+                    return new TransactionRangeCheck().execute( store, transactions, fromTxId, toTxId, checkLogger );
+                }
+                catch ( IOException e )
+                {
+                    throw new ConsistencyCheckIncompleteException( e );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Opens the store, with its page cache, runs the given check on it and writes any inconsistencies found
+     * to the report file as well as to the given logger.
+     */
+    private Result runCheck( String storeDir, Config tuningConfiguration, StringLogger logger, StoreCheck check )
+            throws ConsistencyCheckIncompleteException
     {
         DefaultFileSystemAbstraction fileSystem = new DefaultFileSystemAbstraction();
         Monitors monitors = new Monitors();
@@ -94,31 +177,8 @@ public class ConsistencyCheckService
         try
         {
             neoStore.makeStoreOk();
-            StoreAccess store = new StoreAccess( neoStore );
-            LabelScanStore labelScanStore = null;
-            try {
-
-                labelScanStore =
-                    new LuceneLabelScanStoreBuilder( storeDir, store.getRawNeoStore(), fileSystem, logger ).build();
-                SchemaIndexProvider indexes = new LuceneSchemaIndexProvider( DirectoryFactory.PERSISTENT, tuningConfiguration );
-                DirectStoreAccess stores = new DirectStoreAccess( store, labelScanStore, indexes );
-                summary = new FullCheck( tuningConfiguration, progressFactory )
-                        .execute( stores, StringLogger.tee( logger, report ) );
-            }
-            finally
-            {
-                try
-                {
-                    if ( null != labelScanStore )
-                    {
-                        labelScanStore.shutdown();
-                    }
-                }
-                catch ( IOException e )
-                {
-                    logger.error( "Failure during shutdown of label scan store", e );
-                }
-            }
+            summary = check.check( new StoreAccess( neoStore ), fileSystem, tuningConfiguration,
+                    StringLogger.tee( logger, report ) );
         }
         finally
         {
@@ -144,6 +204,38 @@ public class ConsistencyCheckService
         return Result.SUCCESS;
     }
 
+    private interface StoreCheck
+    {
+        ConsistencySummaryStatistics check( StoreAccess store, FileSystemAbstraction fileSystem, Config config,
+                                            StringLogger checkLogger ) throws ConsistencyCheckIncompleteException;
+    }
+
+    private static IOCursor<CommittedTransactionRepresentation> transactionsFrom( FileSystemAbstraction fileSystem,
+            File storeDir, long fromTxId ) throws IOException
+    {
+        // Find the log version containing fromTxId, i.e. the newest one whose header says that
+        // the last transaction committed before it is older than fromTxId
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( storeDir, fileSystem );
+        long version = logFiles.getHighestLogVersion();
+        if ( version < 0 )
+        {
+            throw new NoSuchTransactionException( fromTxId, "No transaction logs found in " + storeDir );
+        }
+        while ( logFiles.extractHeader( version ).lastCommittedTxId >= fromTxId )
+        {
+            if ( !logFiles.versionExists( version - 1 ) )
+            {
+                throw new NoSuchTransactionException( fromTxId, "Transaction logs have been pruned" );
+            }
+            version--;
+        }
+
+        ReadableLogChannel channel = new ReadAheadLogChannel(
+                PhysicalLogFile.openForVersion( logFiles, fileSystem, version ),
+                new ReaderLogVersionBridge( fileSystem, logFiles ), ReadAheadLogChannel.DEFAULT_READ_AHEAD_SIZE );
+        return new PhysicalTransactionCursor( channel, new VersionAwareLogEntryReader() );
+    }
+
     private File chooseReportPath( Config tuningConfiguration )
     {
         final File reportPath = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_report_file );
@@ -41,6 +41,8 @@ public class ConsistencyCheckTool
 {
     private static final String RECOVERY = "recovery";
     private static final String CONFIG = "config";
+    private static final String FROM_TX = "from-tx";
+    private static final String TO_TX = "to-tx";
 
     public static void main( String[] args )
     {
@@ -75,8 +77,18 @@ public class ConsistencyCheckTool
         StringLogger logger = StringLogger.SYSTEM;
         try
         {
-            consistencyCheckService.runFullConsistencyCheck( storeDir, tuningConfiguration,
-                    ProgressMonitorFactory.textual( System.err ), logger );
+            if ( arguments.has( FROM_TX ) )
+            {
+                long fromTxId = parseTxId( arguments.get( FROM_TX ) );
+                long toTxId = parseTxId( arguments.get( TO_TX, String.valueOf( Long.MAX_VALUE ) ) );
+                consistencyCheckService.runTransactionRangeConsistencyCheck( storeDir, tuningConfiguration,
+                        fromTxId, toTxId, logger );
+            }
+            else
+            {
+                consistencyCheckService.runFullConsistencyCheck( storeDir, tuningConfiguration,
+                        ProgressMonitorFactory.textual( System.err ), logger );
+            }
         }
         catch ( ConsistencyCheckIncompleteException e )
         {
@@ -115,6 +127,19 @@ public class ConsistencyCheckTool
         }
     }
 
+    private long parseTxId( String value ) throws ToolFailureException
+    {
+        try
+        {
+            return Long.parseLong( value );
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new ToolFailureException( lines( String.format( "'%s' is not a transaction id", value ) ) +
+                    usage() );
+        }
+    }
+
     private String determineStoreDirectory( Args arguments ) throws ToolFailureException
     {
         List<String> unprefixedArguments = arguments.orphans();
@@ -155,9 +180,13 @@ public class ConsistencyCheckTool
     private String usage()
     {
         return lines(
-                Args.jarUsage( getClass(), "[-propowner] [-recovery] [-config <neo4j.properties>] <storedir>" ),
+                Args.jarUsage( getClass(), "[-propowner] [-recovery] [-config <neo4j.properties>] " +
+                        "[-from-tx <txid> [-to-tx <txid>]] <storedir>" ),
                 "WHERE:   <storedir>         is the path to the store to check",
                 "         -recovery          to perform recovery on the store before checking",
+                "         -from-tx           to only check the records touched by the transactions from",
+                "                            <txid> up to and including -to-tx <txid>, which defaults to",
+                "                            the last transaction in the transaction logs",
                 "         <neo4j.properties> is the location of an optional properties file",
                 "                            containing tuning parameters for the consistency check"
         );
@@ -21,6 +21,7 @@ package org.neo4j.consistency.checking.full;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.neo4j.consistency.checking.SchemaRecordCheck;
 import org.neo4j.consistency.checking.index.IndexAccessors;
@@ -49,16 +50,28 @@ import static org.neo4j.consistency.checking.full.MultiPassStore.STRINGS;
 
 public class ConsistencyCheckTasks
 {
+    static final long MIN_RECORDS_PER_RANGE = 100_000;
+
     private final ProgressMonitorFactory.MultiPartBuilder progress;
     private final TaskExecutionOrder order;
     private final StoreProcessor processor;
+    private final ExecutorService rangeExecutor;
+    private final int ranges;
+
+    ConsistencyCheckTasks( ProgressMonitorFactory.MultiPartBuilder progress, TaskExecutionOrder order,
+                           StoreProcessor processor, ExecutorService rangeExecutor )
+    {
+        this( progress, order, processor, rangeExecutor, Runtime.getRuntime().availableProcessors() );
+    }
 
     ConsistencyCheckTasks( ProgressMonitorFactory.MultiPartBuilder progress, TaskExecutionOrder order,
-                           StoreProcessor processor )
+                           StoreProcessor processor, ExecutorService rangeExecutor, int ranges )
     {
         this.progress = progress;
         this.order = order;
         this.processor = processor;
+        this.rangeExecutor = rangeExecutor;
+        this.ranges = ranges;
     }
 
     public List<StoppableRunnable> createTasks(
@@ -68,20 +81,21 @@ public class ConsistencyCheckTasks
     {
         List<StoppableRunnable> tasks = new ArrayList<>();
 
-        tasks.add( create( nativeStores.getNodeStore(),
+        tasks.addAll( createRanged( nativeStores.getNodeStore(),
                 multiPass.processors( PROPERTIES, RELATIONSHIPS ) ) );
 
-        tasks.add( create( nativeStores.getRelationshipStore(),
+        tasks.addAll( createRanged( nativeStores.getRelationshipStore(),
                 multiPass.processors(  NODES, PROPERTIES, RELATIONSHIPS  ) ) );
 
-        tasks.add( create( nativeStores.getPropertyStore(),
+        tasks.addAll( createRanged( nativeStores.getPropertyStore(),
                 multiPass.processors(  PROPERTIES, STRINGS, ARRAYS  ) ) );
 
-        tasks.add( create( nativeStores.getStringStore(), multiPass.processors( STRINGS ) ) );
+        tasks.addAll( createRanged( nativeStores.getStringStore(), multiPass.processors( STRINGS ) ) );
 
-        tasks.add( create( nativeStores.getArrayStore(), multiPass.processors( ARRAYS ) ) );
+        tasks.addAll( createRanged( nativeStores.getArrayStore(), multiPass.processors( ARRAYS ) ) );
 
-        tasks.add( create( nativeStores.getRelationshipGroupStore(), multiPass.processors( RELATIONSHIP_GROUPS ) ) );
+        tasks.addAll( createRanged( nativeStores.getRelationshipGroupStore(),
+                multiPass.processors( RELATIONSHIP_GROUPS ) ) );
 
         // The schema store is verified in multiple passes that share state since it fits into memory
         // and we care about the consistency of back references (cf. SemanticCheck)
@@ -148,6 +162,45 @@ public class ConsistencyCheckTasks
         return tasks;
     }
 
+    /**
+     * Large stores are split into consecutive id ranges that are checked by separate tasks, so that checking a
+     * single large store, like the relationship store, scales with the number of cores rather than being bound
+     * to one thread. Each range is scanned in id order, i.e. sequentially through the page cache.
+     * When running {@link TaskExecutionOrder#MULTI_THREADED multi threaded} the ranges are separate tasks, when
+     * running {@link TaskExecutionOrder#MULTI_PASS multi pass} they are grouped into one task that checks them
+     * in parallel, pass by pass, so that the stores are still checked one after the other.
+     */
+    <RECORD extends AbstractBaseRecord> List<StoppableRunnable> createRanged( RecordStore<RECORD> input,
+                                                                          StoreProcessor[] processors )
+    {
+        List<StoppableRunnable> tasks = new ArrayList<>();
+        long highId = input.getHighId();
+        if ( order == TaskExecutionOrder.SINGLE_THREADED || highId < 2 * MIN_RECORDS_PER_RANGE || ranges < 2 )
+        {
+            tasks.add( create( input, processors ) );
+            return tasks;
+        }
+
+        long recordsPerRange = Math.max( MIN_RECORDS_PER_RANGE, (highId + ranges - 1) / ranges );
+        List<StoreProcessorTask<RECORD>> rangeTasks = new ArrayList<>();
+        int range = 0;
+        for ( long fromId = 0; fromId < highId; fromId += recordsPerRange, range++ )
+        {
+            long toId = Math.min( highId, fromId + recordsPerRange );
+            rangeTasks.add( new StoreProcessorTask<>( input, "range_" + range, fromId, toId,
+                    progress, order, processor, processors ) );
+        }
+        if ( order == TaskExecutionOrder.MULTI_PASS )
+        {
+            tasks.add( new ParallelRangesTask( rangeTasks, rangeExecutor ) );
+        }
+        else
+        {
+            tasks.addAll( rangeTasks );
+        }
+        return tasks;
+    }
+
     <RECORD extends AbstractBaseRecord> StoreProcessorTask<RECORD> create( RecordStore<RECORD> input )
     {
         return new StoreProcessorTask<>(
@@ -21,6 +21,8 @@ package org.neo4j.consistency.checking.full;
 
 import java.lang.reflect.Array;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.neo4j.consistency.ConsistencyCheckSettings;
 import org.neo4j.consistency.checking.CheckDecorator;
@@ -33,6 +35,7 @@ import org.neo4j.consistency.store.CacheSmallStoresRecordAccess;
 import org.neo4j.consistency.store.DiffRecordAccess;
 import org.neo4j.consistency.store.DirectRecordAccess;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.kernel.api.direct.DirectStoreAccess;
 import org.neo4j.kernel.configuration.Config;
@@ -90,11 +93,15 @@ public class FullCheck
         ProgressMonitorFactory.MultiPartBuilder progress = progressFactory.multipleParts( "Full consistency check" );
 
         final StoreAccess nativeStores = directStoreAccess.nativeStores();
+        ExecutorService rangeExecutor = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors(),
+                new NamedThreadFactory( "consistency-checker-range" ) );
         try ( IndexAccessors indexes = new IndexAccessors( directStoreAccess.indexes(), nativeStores.getSchemaStore() ) )
         {
             MultiPassStore.Factory multiPass = new MultiPassStore.Factory(
                     decorator, totalMappedMemory, nativeStores, recordAccess, report );
-            List<StoppableRunnable> tasks = new ConsistencyCheckTasks( progress, order, processEverything ).createTasks(
+            ConsistencyCheckTasks taskCreator =
+                    new ConsistencyCheckTasks( progress, order, processEverything, rangeExecutor );
+            List<StoppableRunnable> tasks = taskCreator.createTasks(
                     nativeStores,
                     directStoreAccess.labelScanStore(),
                     indexes,
@@ -110,7 +117,10 @@ public class FullCheck
         {
             throw new ConsistencyCheckIncompleteException( e );
         }
-
+        finally
+        {
+            rangeExecutor.shutdown();
+        }
     }
 
     static DiffRecordAccess recordAccess( StoreAccess store )
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Checks the id ranges of a large store in parallel when the tasks themselves are executed one after the other,
+ * as with {@link TaskExecutionOrder#MULTI_PASS}. The ranges are checked pass by pass: all ranges finish a pass
+ * before any of them starts the next, so that the passes don't overlap. The ranges run on an executor that is
+ * shared by all stores of the check.
+ */
+class ParallelRangesTask implements StoppableRunnable
+{
+    private final List<? extends StoreProcessorTask<?>> ranges;
+    private final ExecutorService executor;
+
+    ParallelRangesTask( List<? extends StoreProcessorTask<?>> ranges, ExecutorService executor )
+    {
+        this.ranges = ranges;
+        this.executor = executor;
+    }
+
+    @Override
+    public void run()
+    {
+        int passes = ranges.get( 0 ).passes();
+        try
+        {
+            for ( int pass = 0; pass < passes; pass++ )
+            {
+                List<Future<?>> futures = new ArrayList<>( ranges.size() );
+                for ( StoreProcessorTask<?> range : ranges )
+                {
+                    futures.add( executor.submit( new RangePass( range, pass ) ) );
+                }
+                for ( Future<?> future : futures )
+                {
+                    future.get();
+                }
+            }
+        }
+        catch ( Exception e )
+        {
+            stopScanning();
+            throw new RuntimeException( e );
+        }
+    }
+
+    @Override
+    public void stopScanning()
+    {
+        for ( StoreProcessorTask<?> range : ranges )
+        {
+            range.stopScanning();
+        }
+    }
+
+    private static class RangePass implements Runnable
+    {
+        private final StoreProcessorTask<?> range;
+        private final int pass;
+
+        RangePass( StoreProcessorTask<?> range, int pass )
+        {
+            this.range = range;
+            this.pass = pass;
+        }
+
+        @Override
+        public void run()
+        {
+            range.runPass( pass );
+        }
+    }
+}
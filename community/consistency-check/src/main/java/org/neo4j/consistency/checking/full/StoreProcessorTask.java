@@ -31,6 +31,8 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
     private final RecordStore<R> store;
     private final StoreProcessor[] processors;
     private final ProgressListener[] progressListeners;
+    private final long fromId;
+    private final long toId;
 
 
     StoreProcessorTask( RecordStore<R> store,
@@ -45,8 +47,23 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
                         ProgressMonitorFactory.MultiPartBuilder builder,
                         TaskExecutionOrder order, StoreProcessor singlePassProcessor,
                         StoreProcessor... multiPassProcessors )
+    {
+        this( store, builderPrefix, 0, -1, builder, order, singlePassProcessor, multiPassProcessors );
+    }
+
+    /**
+     * Processes only the records with ids in [{@code fromId}, {@code toId}), so that several tasks can check
+     * different ranges of the same store in parallel. A negative {@code toId} means the whole store.
+     */
+    StoreProcessorTask( RecordStore<R> store, String builderPrefix, long fromId, long toId,
+                        ProgressMonitorFactory.MultiPartBuilder builder,
+                        TaskExecutionOrder order, StoreProcessor singlePassProcessor,
+                        StoreProcessor... multiPassProcessors )
     {
         this.store = store;
+        this.fromId = fromId;
+        this.toId = toId;
+        long recordCount = toId < 0 ? store.getHighId() : toId - fromId;
         String storeFileName = store.getStorageFileName().getName();
 
         String sanitizedBuilderPrefix = builderPrefix == null ? "" : builderPrefix;
@@ -58,7 +75,7 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
             for ( int i = 0; i < multiPassProcessors.length; i++ )
             {
                 String partName = indexedPartName( storeFileName, sanitizedBuilderPrefix, i );
-                progressListeners[i] = builder.progressForPart( partName, store.getHighId() );
+                progressListeners[i] = builder.progressForPart( partName, recordCount );
             }
         }
         else
@@ -66,7 +83,7 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
             this.processors = new StoreProcessor[]{singlePassProcessor};
             String partName = partName( storeFileName, sanitizedBuilderPrefix );
             this.progressListeners = new ProgressListener[]{
-                    builder.progressForPart( partName, store.getHighId() )};
+                    builder.progressForPart( partName, recordCount )};
         }
     }
 
@@ -84,27 +101,48 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
         return format( "%s_pass_%s%d", storeFileName, prefix, i );
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void run()
     {
         for ( int i = 0; i < processors.length; i++ )
         {
-            StoreProcessor processor = processors[i];
-            beforeProcessing(processor);
-            try
+            runPass( i );
+        }
+    }
+
+    int passes()
+    {
+        return processors.length;
+    }
+
+    /**
+     * Runs only the given pass, so that the ranges of a store can be checked pass by pass, all ranges
+     * finishing one pass before any of them starts the next.
+     */
+    @SuppressWarnings("unchecked")
+    void runPass( int i )
+    {
+        StoreProcessor processor = processors[i];
+        beforeProcessing(processor);
+        try
+        {
+            if ( toId < 0 )
             {
                 processor.applyFiltered( store, progressListeners[i] );
             }
-            catch ( Throwable e )
+            else
             {
-                progressListeners[i].failed( e );
-            }
-            finally
-            {
-                afterProcessing(processor);
+                processor.applyFiltered( store, fromId, toId, progressListeners[i] );
             }
         }
+        catch ( Throwable e )
+        {
+            progressListeners[i].failed( e );
+        }
+        finally
+        {
+            afterProcessing(processor);
+        }
     }
 
     protected void beforeProcessing( StoreProcessor processor )
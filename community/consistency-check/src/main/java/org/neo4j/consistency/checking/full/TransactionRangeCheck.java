@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.consistency.checking.CheckDecorator;
+import org.neo4j.consistency.report.ConsistencyReporter;
+import org.neo4j.consistency.report.ConsistencySummaryStatistics;
+import org.neo4j.consistency.report.InconsistencyMessageLogger;
+import org.neo4j.consistency.report.InconsistencyReport;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.impl.nioneo.store.AbstractBaseRecord;
+import org.neo4j.kernel.impl.nioneo.store.DynamicRecord;
+import org.neo4j.kernel.impl.nioneo.store.LabelTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.NeoStoreRecord;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyBlock;
+import org.neo4j.kernel.impl.nioneo.store.PropertyKeyTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyRecord;
+import org.neo4j.kernel.impl.nioneo.store.PropertyType;
+import org.neo4j.kernel.impl.nioneo.store.Record;
+import org.neo4j.kernel.impl.nioneo.store.RecordStore;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipTypeTokenRecord;
+import org.neo4j.kernel.impl.nioneo.store.StoreAccess;
+import org.neo4j.kernel.impl.nioneo.store.TokenRecord;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command;
+import org.neo4j.kernel.impl.nioneo.xa.command.CommandRecordVisitor;
+import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.xaframework.IOCursor;
+import org.neo4j.kernel.impl.transaction.xaframework.LogicalTransactionStore;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static org.neo4j.helpers.collection.IteratorUtil.asIterable;
+
+/**
+ * Checks the records touched by a range of committed transactions, and their immediate neighbours, against the
+ * store as it looks now. This is a lot cheaper than a {@link FullCheck} when only a small part of the store has
+ * changed since it was last verified, for example since the previous nightly check.
+ * <p/>
+ * Since only a subset of the records is visited, checks that need to see every record of a store, like
+ * detecting orphaned property or dynamic record chains, are not performed.
+ */
+public class TransactionRangeCheck
+{
+    public ConsistencySummaryStatistics execute( StoreAccess stores, LogicalTransactionStore transactions,
+                                                 long fromTxId, long toTxId, StringLogger logger )
+            throws ConsistencyCheckIncompleteException
+    {
+        try ( IOCursor<CommittedTransactionRepresentation> cursor = transactions.getTransactions( fromTxId ) )
+        {
+            return execute( stores, cursor, fromTxId, toTxId, logger );
+        }
+        catch ( IOException e )
+        {
+            throw new ConsistencyCheckIncompleteException( e );
+        }
+    }
+
+    public ConsistencySummaryStatistics execute( StoreAccess stores,
+                                                 IOCursor<CommittedTransactionRepresentation> transactions,
+                                                 long fromTxId, long toTxId, StringLogger logger )
+            throws ConsistencyCheckIncompleteException
+    {
+        try ( TouchedRecords touched = new TouchedRecords() )
+        {
+            while ( transactions.next() )
+            {
+                CommittedTransactionRepresentation transaction = transactions.get();
+                long txId = transaction.getCommitEntry().getTxId();
+                if ( txId < fromTxId )
+                {
+                    continue;
+                }
+                if ( txId > toTxId )
+                {
+                    break;
+                }
+                transaction.getTransactionRepresentation().accept( touched );
+            }
+
+            ConsistencySummaryStatistics summary = check( stores, touched, logger );
+            if ( !summary.isConsistent() )
+            {
+                logger.logMessage( "Inconsistencies found in transactions " + fromTxId + "-" + toTxId + ": " +
+                        summary );
+            }
+            return summary;
+        }
+        catch ( IOException e )
+        {
+            throw new ConsistencyCheckIncompleteException( e );
+        }
+    }
+
+    ConsistencySummaryStatistics check( StoreAccess stores, TouchedRecords touched, StringLogger logger )
+    {
+        ConsistencySummaryStatistics summary = new ConsistencySummaryStatistics();
+        InconsistencyReport report = new InconsistencyReport( new InconsistencyMessageLogger( logger ), summary );
+        StoreProcessor processor = new StoreProcessor( CheckDecorator.NONE,
+                new ConsistencyReporter( FullCheck.recordAccess( stores ), report ) );
+
+        apply( processor, stores.getNodeStore(), touched.nodes );
+        apply( processor, stores.getRelationshipStore(), touched.relationships );
+        apply( processor, stores.getRelationshipGroupStore(), touched.relationshipGroups );
+        apply( processor, stores.getPropertyStore(), touched.properties );
+        apply( processor, stores.getStringStore(), touched.strings );
+        apply( processor, stores.getArrayStore(), touched.arrays );
+        apply( processor, stores.getSchemaStore(), touched.schemaRecords );
+        apply( processor, stores.getRelationshipTypeTokenStore(), touched.relationshipTypeTokens );
+        apply( processor, stores.getRelationshipTypeNameStore(), touched.relationshipTypeNames );
+        apply( processor, stores.getLabelTokenStore(), touched.labelTokens );
+        apply( processor, stores.getLabelNameStore(), touched.labelNames );
+        apply( processor, stores.getPropertyKeyTokenStore(), touched.propertyKeyTokens );
+        apply( processor, stores.getPropertyKeyNameStore(), touched.propertyKeyNames );
+        return summary;
+    }
+
+    private static <R extends AbstractBaseRecord> void apply( StoreProcessor processor, RecordStore<R> store,
+                                                              PrimitiveLongSet ids )
+    {
+        // Visit the records in id order, i.e. in the order they are laid out in the store file
+        long[] sortedIds = PrimitiveLongCollections.asArray( ids.iterator() );
+        Arrays.sort( sortedIds );
+        processor.applyById( store, asIterable( sortedIds ) );
+    }
+
+    /**
+     * Collects the ids of the records changed by the visited commands, together with the ids of the records
+     * they point to, since a change in one record may very well make a neighbouring record inconsistent.
+     */
+    static class TouchedRecords implements Visitor<Command, IOException>, CommandRecordVisitor, AutoCloseable
+    {
+        final PrimitiveLongSet nodes = Primitive.longSet();
+        final PrimitiveLongSet relationships = Primitive.longSet();
+        final PrimitiveLongSet relationshipGroups = Primitive.longSet();
+        final PrimitiveLongSet properties = Primitive.longSet();
+        final PrimitiveLongSet strings = Primitive.longSet();
+        final PrimitiveLongSet arrays = Primitive.longSet();
+        final PrimitiveLongSet schemaRecords = Primitive.longSet();
+        final PrimitiveLongSet relationshipTypeTokens = Primitive.longSet();
+        final PrimitiveLongSet relationshipTypeNames = Primitive.longSet();
+        final PrimitiveLongSet labelTokens = Primitive.longSet();
+        final PrimitiveLongSet labelNames = Primitive.longSet();
+        final PrimitiveLongSet propertyKeyTokens = Primitive.longSet();
+        final PrimitiveLongSet propertyKeyNames = Primitive.longSet();
+
+        @Override
+        public boolean visit( Command command ) throws IOException
+        {
+            command.accept( this );
+            return true;
+        }
+
+        @Override
+        public void visitNode( NodeRecord record )
+        {
+            nodes.add( record.getId() );
+            if ( record.inUse() )
+            {
+                if ( !Record.NO_NEXT_RELATIONSHIP.is( record.getNextRel() ) )
+                {
+                    (record.isDense() ? relationshipGroups : relationships).add( record.getNextRel() );
+                }
+                addProperty( record.getNextProp() );
+            }
+        }
+
+        @Override
+        public void visitRelationship( RelationshipRecord record )
+        {
+            relationships.add( record.getId() );
+            if ( record.inUse() )
+            {
+                nodes.add( record.getFirstNode() );
+                nodes.add( record.getSecondNode() );
+                addRelationship( record.getFirstNextRel() );
+                addRelationship( record.getSecondNextRel() );
+                // The previous pointer of the first relationship in a chain holds the chain length
+                if ( !record.isFirstInFirstChain() )
+                {
+                    addRelationship( record.getFirstPrevRel() );
+                }
+                if ( !record.isFirstInSecondChain() )
+                {
+                    addRelationship( record.getSecondPrevRel() );
+                }
+                addProperty( record.getNextProp() );
+            }
+        }
+
+        @Override
+        public void visitRelationshipGroup( RelationshipGroupRecord record )
+        {
+            relationshipGroups.add( record.getId() );
+            if ( record.inUse() )
+            {
+                nodes.add( record.getOwningNode() );
+                addRelationship( record.getFirstOut() );
+                addRelationship( record.getFirstIn() );
+                addRelationship( record.getFirstLoop() );
+                if ( !Record.NO_NEXT_RELATIONSHIP.is( record.getNext() ) )
+                {
+                    relationshipGroups.add( record.getNext() );
+                }
+            }
+        }
+
+        @Override
+        public void visitProperty( PropertyRecord record )
+        {
+            properties.add( record.getId() );
+            for ( PropertyBlock block : record.getPropertyBlocks() )
+            {
+                addDynamic( block.getValueRecords() );
+            }
+            addDynamic( record.getDeletedRecords() );
+            if ( record.inUse() )
+            {
+                addProperty( record.getPrevProp() );
+                addProperty( record.getNextProp() );
+                if ( record.isNodeSet() )
+                {
+                    nodes.add( record.getNodeId() );
+                }
+                else if ( record.isRelSet() )
+                {
+                    relationships.add( record.getRelId() );
+                }
+            }
+        }
+
+        @Override
+        public void visitRelationshipTypeToken( RelationshipTypeTokenRecord record )
+        {
+            addToken( relationshipTypeTokens, relationshipTypeNames, record );
+        }
+
+        @Override
+        public void visitLabelToken( LabelTokenRecord record )
+        {
+            addToken( labelTokens, labelNames, record );
+        }
+
+        @Override
+        public void visitPropertyKeyToken( PropertyKeyTokenRecord record )
+        {
+            addToken( propertyKeyTokens, propertyKeyNames, record );
+        }
+
+        @Override
+        public void visitNeoStore( NeoStoreRecord record )
+        {
+            // The graph properties are checked through the property chain they point to, if changed
+        }
+
+        @Override
+        public void visitSchemaRule( Collection<DynamicRecord> records )
+        {
+            for ( DynamicRecord record : records )
+            {
+                schemaRecords.add( record.getId() );
+            }
+        }
+
+        private void addRelationship( long id )
+        {
+            if ( !Record.NO_NEXT_RELATIONSHIP.is( id ) )
+            {
+                relationships.add( id );
+            }
+        }
+
+        private void addProperty( long id )
+        {
+            if ( !Record.NO_NEXT_PROPERTY.is( id ) )
+            {
+                properties.add( id );
+            }
+        }
+
+        private void addDynamic( Collection<DynamicRecord> records )
+        {
+            for ( DynamicRecord record : records )
+            {
+                PrimitiveLongSet store = record.getType() == PropertyType.STRING.intValue() ? strings : arrays;
+                store.add( record.getId() );
+                if ( !Record.NO_NEXT_BLOCK.is( record.getNextBlock() ) )
+                {
+                    store.add( record.getNextBlock() );
+                }
+            }
+        }
+
+        private static void addToken( PrimitiveLongSet tokens, PrimitiveLongSet names, TokenRecord record )
+        {
+            tokens.add( record.getId() );
+            for ( DynamicRecord name : record.getNameRecords() )
+            {
+                names.add( name.getId() );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            for ( PrimitiveLongSet set : new PrimitiveLongSet[]{nodes, relationships, relationshipGroups, properties,
+                    strings, arrays, schemaRecords, relationshipTypeTokens, relationshipTypeNames, labelTokens,
+                    labelNames, propertyKeyTokens, propertyKeyNames} )
+            {
+                set.close();
+            }
+        }
+    }
+}
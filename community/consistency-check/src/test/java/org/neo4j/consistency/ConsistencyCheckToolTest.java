@@ -47,6 +47,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 public class ConsistencyCheckToolTest
@@ -68,6 +69,24 @@ public class ConsistencyCheckToolTest
                 any( ProgressMonitorFactory.class ), any( StringLogger.class ) );
     }
 
+    @Test
+    public void runsTransactionRangeConsistencyCheckIfFromTxIsGiven() throws Exception
+    {
+        // given
+        String storeDirectoryPath = storeDirectory.directory().getPath();
+        String[] args = {storeDirectoryPath, "-from-tx", "42", "-to-tx", "1337"};
+        ConsistencyCheckService service = mock( ConsistencyCheckService.class );
+        PrintStream systemError = mock( PrintStream.class );
+
+        // when
+        new ConsistencyCheckTool( service, systemError ).run( args );
+
+        // then
+        verify( service ).runTransactionRangeConsistencyCheck( eq( storeDirectoryPath ), any( Config.class ),
+                eq( 42l ), eq( 1337l ), any( StringLogger.class ) );
+        verifyNoMoreInteractions( service );
+    }
+
     @Test
     public void appliesDefaultTuningConfigurationForConsistencyChecker() throws Exception
     {
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.neo4j.helpers.progress.ProgressListener;
+import org.neo4j.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.kernel.impl.nioneo.store.NodeStore;
+
+import static java.util.Arrays.asList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.consistency.checking.full.ConsistencyCheckTasks.MIN_RECORDS_PER_RANGE;
+import static org.neo4j.consistency.checking.full.TaskExecutionOrder.MULTI_PASS;
+import static org.neo4j.consistency.checking.full.TaskExecutionOrder.MULTI_THREADED;
+import static org.neo4j.consistency.checking.full.TaskExecutionOrder.SINGLE_THREADED;
+
+public class ConsistencyCheckTasksTest
+{
+    private final NodeStore store = mock( NodeStore.class );
+    private final StoreProcessor pass1 = mock( StoreProcessor.class );
+    private final StoreProcessor pass2 = mock( StoreProcessor.class );
+    private final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+
+    @After
+    public void shutDownExecutor()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    public void multiThreadedShouldCheckEachRangeInItsOwnTask() throws Exception
+    {
+        // given
+        givenStoreWithHighId( MIN_RECORDS_PER_RANGE * 4 );
+
+        // when
+        List<StoppableRunnable> tasks = tasks( MULTI_THREADED ).createRanged( store, processors() );
+
+        // then
+        assertEquals( 4, tasks.size() );
+    }
+
+    @Test
+    public void multiPassShouldCheckAllRangesOfEachPassInOneTask() throws Exception
+    {
+        // given
+        givenStoreWithHighId( MIN_RECORDS_PER_RANGE * 4 );
+
+        // when
+        List<StoppableRunnable> tasks = tasks( MULTI_PASS ).createRanged( store, processors() );
+        assertEquals( 1, tasks.size() );
+        assertTrue( tasks.get( 0 ) instanceof ParallelRangesTask );
+        tasks.get( 0 ).run();
+
+        // then
+        for ( long fromId = 0; fromId < MIN_RECORDS_PER_RANGE * 4; fromId += MIN_RECORDS_PER_RANGE )
+        {
+            for ( StoreProcessor processor : processors() )
+            {
+                verify( processor ).applyFiltered( same( store ), eq( fromId ), eq( fromId + MIN_RECORDS_PER_RANGE ),
+                        any( ProgressListener.class ) );
+            }
+        }
+    }
+
+    @Test
+    public void multiPassShouldFinishEachPassForAllRangesBeforeStartingTheNext() throws Exception
+    {
+        // given
+        givenStoreWithHighId( MIN_RECORDS_PER_RANGE * 4 );
+        List<String> passes = new CopyOnWriteArrayList<>();
+        recordPass( pass1, "pass1", passes );
+        recordPass( pass2, "pass2", passes );
+
+        // when
+        tasks( MULTI_PASS ).createRanged( store, processors() ).get( 0 ).run();
+
+        // then
+        assertEquals( asList( "pass1", "pass1", "pass1", "pass1", "pass2", "pass2", "pass2", "pass2" ), passes );
+    }
+
+    @Test
+    public void singleThreadedShouldNotSplitStoresIntoRanges() throws Exception
+    {
+        // given
+        givenStoreWithHighId( MIN_RECORDS_PER_RANGE * 4 );
+
+        // when
+        List<StoppableRunnable> tasks = tasks( SINGLE_THREADED ).createRanged( store, processors() );
+
+        // then
+        assertEquals( 1, tasks.size() );
+        assertTrue( tasks.get( 0 ) instanceof StoreProcessorTask );
+    }
+
+    private void givenStoreWithHighId( long highId )
+    {
+        when( store.getStorageFileName() ).thenReturn( new File( "node-store" ) );
+        when( store.getHighId() ).thenReturn( highId );
+    }
+
+    private void recordPass( StoreProcessor processor, final String name, final List<String> passes )
+    {
+        doAnswer( new Answer<Void>()
+        {
+            @Override
+            public Void answer( InvocationOnMock invocation ) throws Throwable
+            {
+                passes.add( name );
+                return null;
+            }
+        } ).when( processor ).applyFiltered( same( store ), anyLong(), anyLong(),
+                any( ProgressListener.class ) );
+    }
+
+    private StoreProcessor[] processors()
+    {
+        return new StoreProcessor[]{pass1, pass2};
+    }
+
+    private ConsistencyCheckTasks tasks( TaskExecutionOrder order )
+    {
+        return new ConsistencyCheckTasks( ProgressMonitorFactory.NONE.multipleParts( "check" ), order,
+                mock( StoreProcessor.class ), executor, 4 );
+    }
+}
@@ -21,12 +21,15 @@ package org.neo4j.consistency.checking.full;
 
 import static org.junit.Assert.assertNotSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.consistency.checking.full.TaskExecutionOrder.MULTI_PASS;
+import static org.neo4j.consistency.checking.full.TaskExecutionOrder.MULTI_THREADED;
 import static org.neo4j.consistency.checking.full.TaskExecutionOrder.SINGLE_THREADED;
 
 import java.io.File;
@@ -113,4 +116,26 @@ public class StoreProcessorTaskTest
 
         assertNotSame(listener1.getValue(), listener2.getValue());
     }
+
+    @Test
+    public void rangedTaskShouldOnlyProcessItsRangeOfTheStore() throws Exception
+    {
+        // given
+        StoreProcessor singlePassProcessor = mock( StoreProcessor.class );
+
+        NodeStore store = mock( NodeStore.class );
+        when( store.getStorageFileName() ).thenReturn( new File("node-store") );
+
+        StoreProcessorTask<NodeRecord> task = new StoreProcessorTask<NodeRecord>(
+                store, "range_1", 100, 200, ProgressMonitorFactory.NONE.multipleParts( "check" ), MULTI_THREADED,
+                singlePassProcessor );
+
+        // when
+        task.run();
+
+        // then
+        verify( singlePassProcessor ).applyFiltered( same( store ), eq( 100l ), eq( 200l ),
+                any( ProgressListener.class ) );
+        verifyNoMoreInteractions( singlePassProcessor );
+    }
 }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import org.junit.Test;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.consistency.report.ConsistencySummaryStatistics;
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
+import org.neo4j.kernel.impl.nioneo.store.RelationshipRecord;
+import org.neo4j.kernel.impl.nioneo.store.StoreAccess;
+import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
+import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider;
+import org.neo4j.kernel.impl.transaction.xaframework.LogicalTransactionStore;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asSet;
+import static org.neo4j.graphdb.DynamicRelationshipType.withName;
+
+public class TransactionRangeCheckTest
+{
+    @Test
+    public void shouldCollectChangedRelationshipAndItsNeighbours() throws Exception
+    {
+        // Given
+        RelationshipRecord relationship = new RelationshipRecord( 10, 1, 2, 0 );
+        relationship.setInUse( true );
+        relationship.setFirstInFirstChain( true );
+        relationship.setFirstPrevRel( 5 ); // chain length, not a relationship
+        relationship.setFirstNextRel( 11 );
+        relationship.setFirstInSecondChain( false );
+        relationship.setSecondPrevRel( 12 );
+        relationship.setSecondNextRel( -1 );
+        relationship.setNextProp( 20 );
+
+        // When
+        try ( TransactionRangeCheck.TouchedRecords touched = new TransactionRangeCheck.TouchedRecords() )
+        {
+            touched.visitRelationship( relationship );
+
+            // Then
+            assertEquals( 3, touched.relationships.size() );
+            assertTrue( touched.relationships.contains( 10 ) );
+            assertTrue( touched.relationships.contains( 11 ) );
+            assertTrue( touched.relationships.contains( 12 ) );
+            assertFalse( touched.relationships.contains( 5 ) );
+            assertTrue( touched.nodes.contains( 1 ) );
+            assertTrue( touched.nodes.contains( 2 ) );
+            assertTrue( touched.properties.contains( 20 ) );
+        }
+    }
+
+    @Test
+    public void shouldOnlyCollectIdOfDeletedNode() throws Exception
+    {
+        // Given
+        NodeRecord node = new NodeRecord( 3, false, 7, 8 );
+        node.setInUse( false );
+
+        // When
+        try ( TransactionRangeCheck.TouchedRecords touched = new TransactionRangeCheck.TouchedRecords() )
+        {
+            touched.visitNode( node );
+
+            // Then
+            assertEquals( 1, touched.nodes.size() );
+            assertTrue( touched.nodes.contains( 3 ) );
+            assertTrue( touched.relationships.isEmpty() );
+            assertTrue( touched.properties.isEmpty() );
+        }
+    }
+
+    @Test
+    public void shouldCollectAllRecordsChangedByCommittedTransactions() throws Exception
+    {
+        // Given
+        GraphDatabaseAPI db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try
+        {
+            long[] nodeIds;
+            long[] relationshipIds;
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node first = db.createNode();
+                Node second = db.createNode();
+                Node third = db.createNode();
+                Relationship knows = first.createRelationshipTo( second, withName( "KNOWS" ) );
+                Relationship likes = second.createRelationshipTo( third, withName( "LIKES" ) );
+                nodeIds = new long[]{first.getId(), second.getId(), third.getId()};
+                relationshipIds = new long[]{knows.getId(), likes.getId()};
+                tx.success();
+            }
+            DependencyResolver resolver = db.getDependencyResolver();
+            long txId = resolver.resolveDependency( TransactionIdStore.class ).getLastCommittedTransactionId();
+            CapturingTransactionRangeCheck check = new CapturingTransactionRangeCheck();
+
+            // When
+            ConsistencySummaryStatistics summary = check.execute(
+                    new StoreAccess( resolver.resolveDependency( NeoStoreProvider.class ).evaluate() ),
+                    resolver.resolveDependency( LogicalTransactionStore.class ), txId, txId, StringLogger.DEV_NULL );
+
+            // Then
+            assertTrue( summary.isConsistent() );
+            for ( long nodeId : nodeIds )
+            {
+                assertTrue( "Node " + nodeId + " not checked", check.nodes.contains( nodeId ) );
+            }
+            for ( long relationshipId : relationshipIds )
+            {
+                assertTrue( "Relationship " + relationshipId + " not checked",
+                        check.relationships.contains( relationshipId ) );
+            }
+        }
+        finally
+        {
+            db.shutdown();
+        }
+    }
+
+    private static class CapturingTransactionRangeCheck extends TransactionRangeCheck
+    {
+        private PrimitiveLongSet nodes;
+        private PrimitiveLongSet relationships;
+
+        @Override
+        ConsistencySummaryStatistics check( StoreAccess stores, TouchedRecords touched, StringLogger logger )
+        {
+            nodes = asSet( touched.nodes.iterator() );
+            relationships = asSet( touched.relationships.iterator() );
+            return super.check( stores, touched, logger );
+        }
+    }
+}
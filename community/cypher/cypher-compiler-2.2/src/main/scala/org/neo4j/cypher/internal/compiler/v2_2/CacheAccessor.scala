@@ -19,17 +19,32 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2
 
-object CacheAccessor {
-  type PlanCache[K, T] = (K, => T) => T
-}
+import org.neo4j.cypher.internal.LRUCache
 
 trait CacheAccessor[K, T] {
-  def getOrElseUpdate(cache: CacheAccessor.PlanCache[K, T])(key: K, f: => T): T
+  def getOrElseUpdate(cache: LRUCache[K, T])(key: K, isStale: T => Boolean, f: => T): T
 }
 
 class MonitoringCacheAccessor[K, T](monitor: CypherCacheHitMonitor[K]) extends CacheAccessor[K, T] {
 
-  def getOrElseUpdate(cache: CacheAccessor.PlanCache[K, T])(key: K, f: => T): T = {
+  def getOrElseUpdate(cache: LRUCache[K, T])(key: K, isStale: T => Boolean, f: => T): T = {
+    cache.get(key) match {
+      case Some(value) if !isStale(value) =>
+        monitor.cacheHit(key)
+        value
+
+      case Some(staleValue) =>
+        // Somebody else may have replaced it already, in which case we go with whatever is there now
+        cache.remove(key, staleValue)
+        monitor.cacheDiscard(key)
+        update(cache, key, f)
+
+      case None =>
+        update(cache, key, f)
+    }
+  }
+
+  private def update(cache: LRUCache[K, T], key: K, f: => T): T = {
     var updated = false
     val value = cache(key, {
       updated = true
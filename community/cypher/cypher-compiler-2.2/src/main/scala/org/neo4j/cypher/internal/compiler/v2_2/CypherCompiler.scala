@@ -48,6 +48,7 @@ trait CypherCacheFlushingMonitor[T] {
 trait CypherCacheHitMonitor[T] {
   def cacheHit(key: T)
   def cacheMiss(key: T)
+  def cacheDiscard(key: T)
 }
 
 trait CypherCacheMonitor[T, E] extends CypherCacheHitMonitor[T] with CypherCacheFlushingMonitor[E]
@@ -68,11 +69,11 @@ object CypherCompilerFactory {
     val planner = new Planner(monitors, metricsFactory, planningMonitor)
     val pipeBuilder = new LegacyVsNewPipeBuilder(new LegacyPipeBuilder(monitors), planner, planBuilderMonitor)
     val execPlanBuilder = new ExecutionPlanBuilder(graph, pipeBuilder)
-    val planCacheFactory = () => new LRUCache[PreparedQuery, ExecutionPlan](queryCacheSize)
+    val planCache = new LRUCache[PreparedQuery, ExecutionPlan](queryCacheSize)
     val cacheMonitor = monitors.newMonitor[AstCacheMonitor](monitorTag)
     val cache = new MonitoringCacheAccessor[PreparedQuery, ExecutionPlan](cacheMonitor)
 
-    new CypherCompiler(parser, checker, execPlanBuilder, rewriter, cache, planCacheFactory, cacheMonitor, monitors)
+    new CypherCompiler(parser, checker, execPlanBuilder, rewriter, cache, planCache, cacheMonitor, monitors)
   }
 
   def legacyCompiler(graph: GraphDatabaseService, queryCacheSize: Int, kernelMonitors: KernelMonitors): CypherCompiler = {
@@ -82,11 +83,11 @@ object CypherCompilerFactory {
     val rewriter = new ASTRewriter(monitors.newMonitor[AstRewritingMonitor](monitorTag))
     val pipeBuilder = new LegacyPipeBuilder(monitors)
     val execPlanBuilder = new ExecutionPlanBuilder(graph, pipeBuilder)
-    val planCacheFactory = () => new LRUCache[PreparedQuery, ExecutionPlan](queryCacheSize)
+    val planCache = new LRUCache[PreparedQuery, ExecutionPlan](queryCacheSize)
     val cacheMonitor = monitors.newMonitor[AstCacheMonitor](monitorTag)
     val cache = new MonitoringCacheAccessor[PreparedQuery, ExecutionPlan](cacheMonitor)
 
-    new CypherCompiler(parser, checker, execPlanBuilder, rewriter, cache, planCacheFactory, cacheMonitor, monitors)
+    new CypherCompiler(parser, checker, execPlanBuilder, rewriter, cache, planCache, cacheMonitor, monitors)
   }
 }
 
@@ -95,7 +96,7 @@ case class CypherCompiler(parser: CypherParser,
                           executionPlanBuilder: ExecutionPlanBuilder,
                           astRewriter: ASTRewriter,
                           cacheAccessor: CacheAccessor[PreparedQuery, ExecutionPlan],
-                          planCacheFactory: () => LRUCache[PreparedQuery, ExecutionPlan],
+                          planCache: LRUCache[PreparedQuery, ExecutionPlan],
                           cacheMonitor: CypherCacheFlushingMonitor[CacheAccessor[PreparedQuery, ExecutionPlan]],
                           monitors: Monitors) {
 
@@ -116,18 +117,19 @@ case class CypherCompiler(parser: CypherParser,
   }
 
   def planPreparedQuery(parsedQuery: PreparedQuery, context: PlanContext): (ExecutionPlan, Map[String, Any]) = {
-    val cache = provideCache(cacheAccessor, cacheMonitor, context)
-    val plan = cacheAccessor.getOrElseUpdate(cache)(parsedQuery, {
+    detectCacheFlush(cacheAccessor, cacheMonitor, context)
+    val plan = cacheAccessor.getOrElseUpdate(planCache)(parsedQuery, _.isStale(context), {
       executionPlanBuilder.build(context, parsedQuery)
     })
     (plan, parsedQuery.extractedParams)
   }
 
-  private def provideCache(cacheAccessor: CacheAccessor[PreparedQuery, ExecutionPlan],
-                           monitor: CypherCacheFlushingMonitor[CacheAccessor[PreparedQuery, ExecutionPlan]],
-                           context: PlanContext) =
+  // Plans are no longer thrown away on schema changes, each plan checks whether the changes affect it instead
+  private def detectCacheFlush(cacheAccessor: CacheAccessor[PreparedQuery, ExecutionPlan],
+                               monitor: CypherCacheFlushingMonitor[CacheAccessor[PreparedQuery, ExecutionPlan]],
+                               context: PlanContext) =
     context.getOrCreateFromSchemaState(cacheAccessor, {
       monitor.cacheFlushDetected(cacheAccessor)
-      planCacheFactory()
+      new Object
     })
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2
+
+import org.neo4j.cypher.internal.compiler.v2_2.Foldable._
+import org.neo4j.cypher.internal.compiler.v2_2.ast.{LabelName, RelTypeName, Statement}
+import org.neo4j.cypher.internal.compiler.v2_2.spi.PlanContext
+import org.neo4j.helpers.Clock
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+case class LabelSnapshot(labelId: Option[Int], indexes: Set[IndexDescriptor], uniqueIndexes: Set[IndexDescriptor], nodeCount: Long) {
+  def divergesFrom(current: LabelSnapshot, compareCounts: Boolean): Boolean =
+    labelId != current.labelId ||
+    indexes != current.indexes ||
+    uniqueIndexes != current.uniqueIndexes ||
+    (compareCounts && PlanFingerprint.countsDiverge(nodeCount, current.nodeCount))
+}
+
+object LabelSnapshot {
+  def apply(labelName: String, context: PlanContext): LabelSnapshot = context.getOptLabelId(labelName) match {
+    case Some(labelId) =>
+      LabelSnapshot(Some(labelId), context.indexesGetForLabel(labelId).toSet, context.uniqueIndexesGetForLabel(labelId).toSet,
+                    context.nodeCountByCountStore(labelId))
+    case None =>
+      LabelSnapshot(None, Set.empty, Set.empty, 0)
+  }
+}
+
+/*
+What a plan was built against: the labels and relationship types of its query, the indexes on those labels and how many
+nodes had them. A plan only goes stale when one of these changes, instead of on every schema change in the database.
+
+The schema is compared again after the schema state has been flushed, which is what the kernel does on schema changes.
+Counts and tokens are compared at most once per MIN_CHECK_INTERVAL_MILLIS, since data changes all the time.
+
+Parameters are not part of the fingerprint. Literals are extracted into parameters before planning and the planner never
+looks at parameter values, so one plan serves every set of parameters of a query.
+ */
+class PlanFingerprint(labels: Map[String, LabelSnapshot],
+                      relTypes: Map[String, Option[Int]],
+                      clock: Clock,
+                      generation: AnyRef) {
+
+  @volatile private var validatedGeneration = generation
+  @volatile private var lastCheck = clock.currentTimeMillis()
+
+  def isStale(context: PlanContext): Boolean = {
+    val currentGeneration = PlanFingerprint.schemaGeneration(context)
+    val now = clock.currentTimeMillis()
+    val schemaChanged = currentGeneration ne validatedGeneration
+    val checkCounts = now - lastCheck >= PlanFingerprint.MIN_CHECK_INTERVAL_MILLIS
+
+    if (!schemaChanged && !checkCounts)
+      false
+    else {
+      val stale =
+        labels.exists { case (name, snapshot) => snapshot.divergesFrom(LabelSnapshot(name, context), checkCounts) } ||
+        (checkCounts && relTypes.exists { case (name, relTypeId) => context.getOptRelTypeId(name) != relTypeId })
+
+      if (!stale) {
+        validatedGeneration = currentGeneration
+        if (checkCounts) lastCheck = now
+      }
+      stale
+    }
+  }
+}
+
+object PlanFingerprint {
+  val MIN_CHECK_INTERVAL_MILLIS = 1000L
+  val DIVERGENCE_THRESHOLD = 0.5
+  val MIN_NODE_COUNT_CHANGE = 100L
+
+  def apply(statement: Statement, context: PlanContext, clock: Clock = Clock.SYSTEM_CLOCK): PlanFingerprint = {
+    val (labelNames, relTypeNames) = statement.fold((Set.empty[String], Set.empty[String])) {
+      case LabelName(name) => { case (labelAcc, relTypeAcc) => (labelAcc + name, relTypeAcc) }
+      case RelTypeName(name) => { case (labelAcc, relTypeAcc) => (labelAcc, relTypeAcc + name) }
+    }
+
+    new PlanFingerprint(
+      labelNames.map(name => name -> LabelSnapshot(name, context)).toMap,
+      relTypeNames.map(name => name -> context.getOptRelTypeId(name)).toMap,
+      clock,
+      schemaGeneration(context))
+  }
+
+  def countsDiverge(before: Long, after: Long): Boolean = {
+    val change = math.abs(after - before)
+    change >= MIN_NODE_COUNT_CHANGE && change > DIVERGENCE_THRESHOLD * math.max(before, after)
+  }
+
+  // A new object is put in the schema state every time the kernel flushes it
+  private object SchemaGenerationKey
+
+  private def schemaGeneration(context: PlanContext): AnyRef =
+    context.getOrCreateFromSchemaState(SchemaGenerationKey, new Object)
+}
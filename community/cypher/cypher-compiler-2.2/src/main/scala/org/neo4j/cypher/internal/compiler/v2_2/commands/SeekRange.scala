@@ -17,17 +17,23 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.cypher.internal.compiler.v2_2.commands
 
-public interface PageReplacementStrategy
-{
-    <PAYLOAD, PAGE extends Page<PAYLOAD>> PAYLOAD acquire( PAGE page, Storage<PAYLOAD, PAGE> storage )
-            throws PageLoadFailureException;
+/*
+A range of values to seek a schema index for, as opposed to the exact values of a QueryExpression.
+ */
+sealed trait SeekRange[T] {
+  def map[R](f: T => R): SeekRange[R]
+}
 
-    <PAYLOAD> void forceEvict( Page<PAYLOAD> page );
+case class Bound[T](expression: T, inclusive: Boolean) {
+  def map[R](f: T => R) = Bound(f(expression), inclusive)
+}
+
+case class NumericSeekRange[T](lower: Option[Bound[T]], upper: Option[Bound[T]]) extends SeekRange[T] {
+  def map[R](f: T => R) = NumericSeekRange(lower.map(_.map(f)), upper.map(_.map(f)))
+}
 
-    public interface Storage<PAYLOAD, PAGE extends Page<PAYLOAD>>
-    {
-        PAYLOAD load( PAGE page ) throws PageLoadFailureException;
-    }
+case class PrefixSeekRange[T](prefix: String) extends SeekRange[T] {
+  def map[R](f: T => R) = PrefixSeekRange[R](prefix)
 }
@@ -25,11 +25,8 @@ import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
 import pipes.QueryState
 import symbols._
 import org.neo4j.cypher.SyntaxException
-import org.neo4j.graphalgo.GraphAlgoFactory
-import org.neo4j.graphdb.{Path, DynamicRelationshipType, Node, Expander}
-import org.neo4j.kernel.Traversal
+import org.neo4j.graphdb.{Path, Node}
 import collection.Map
-import scala.collection.JavaConverters._
 
 case class ShortestPathExpression(ast: ShortestPath) extends Expression with PathExtractor {
   val pathPattern:Seq[Pattern] = Seq(ast)
@@ -42,10 +39,10 @@ case class ShortestPathExpression(ast: ShortestPath) extends Expression with Pat
     }
   }
 
-  private def getMatches(m: Map[String, Any]): Any = {
+  private def getMatches(m: Map[String, Any])(implicit state: QueryState): Any = {
     val start = getEndPoint(m, ast.left)
     val end = getEndPoint(m, ast.right)
-    shortestPathStrategy.findResult(start, end)
+    shortestPathStrategy.findResult(start, end, state)
   }
 
   def getEndPoint(m: Map[String, Any], start: SingleNode): Node = m.getOrElse(start.name,
@@ -60,18 +57,12 @@ case class ShortestPathExpression(ast: ShortestPath) extends Expression with Pat
 
   def rewrite(f: (Expression) => Expression): Expression = f(ShortestPathExpression(ast.rewrite(f)))
 
-  private lazy val expander: Expander = if (ast.relTypes.isEmpty) {
-    Traversal.expanderForAllTypes(ast.dir)
-  } else {
-    ast.relTypes.foldLeft(Traversal.emptyExpander()) {
-      case (e, t) => e.add(DynamicRelationshipType.withName(t), ast.dir)
-    }
-  }
+  private val search = new ShortestPathSearch(ast.relTypes, ast.dir, ast.maxDepth.getOrElse(15))
 
   val shortestPathStrategy = if (ast.single)
-    new SingleShortestPathStrategy(expander, ast.maxDepth.getOrElse(15))
+    new SingleShortestPathStrategy(search)
   else
-    new AllShortestPathsStrategy(expander, ast.maxDepth.getOrElse(15))
+    new AllShortestPathsStrategy(search)
 
   def calculateType(symbols: SymbolTable) =  shortestPathStrategy.typ
 
@@ -81,24 +72,18 @@ case class ShortestPathExpression(ast: ShortestPath) extends Expression with Pat
 }
 
 trait ShortestPathStrategy {
-  def findResult(start: Node, end: Node): Any
+  def findResult(start: Node, end: Node, state: QueryState): Any
   def typ: CypherType
 }
 
-class SingleShortestPathStrategy(expander: Expander, depth: Int) extends ShortestPathStrategy {
-  private val finder = GraphAlgoFactory.shortestPath(expander, depth)
-
-  def findResult(start: Node, end: Node): Path = finder.findSinglePath(start, end)
+class SingleShortestPathStrategy(search: ShortestPathSearch) extends ShortestPathStrategy {
+  def findResult(start: Node, end: Node, state: QueryState): Path = search.findSinglePath(start, end, state).orNull
 
   def typ = CTPath
 }
 
-class AllShortestPathsStrategy(expander: Expander, depth: Int) extends ShortestPathStrategy {
-  private val finder = GraphAlgoFactory.shortestPath(expander, depth)
-
-  def findResult(start: Node, end: Node): Stream[Path] = {
-    finder.findAllPaths(start, end).asScala.toStream
-  }
+class AllShortestPathsStrategy(search: ShortestPathSearch) extends ShortestPathStrategy {
+  def findResult(start: Node, end: Node, state: QueryState): Stream[Path] = search.findAllPaths(start, end, state)
 
   def typ = CTCollection(CTPath)
 }
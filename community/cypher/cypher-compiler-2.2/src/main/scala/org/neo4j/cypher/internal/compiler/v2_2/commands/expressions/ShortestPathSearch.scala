@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.commands.expressions
+
+import org.neo4j.collection.primitive.{Primitive, PrimitiveLongObjectMap, PrimitiveLongSet}
+import org.neo4j.cypher.internal.PathImpl
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.{QueryState, RelationshipTypeIds}
+import org.neo4j.graphdb.{Direction, Node, Path}
+
+/*
+Bidirectional breadth first search between two nodes. Both sides keep the nodes they have reached in primitive maps
+from node id to how they got there, and expand whichever frontier is smaller. Paths are only turned into entities
+once the sides have met, and only for the paths that are asked for.
+ */
+class ShortestPathSearch(types: Seq[String], dir: Direction, maxDepth: Int) {
+
+  def findSinglePath(start: Node, end: Node, state: QueryState): Option[Path] =
+    search(start, end, state, single = true).headOption
+
+  def findAllPaths(start: Node, end: Node, state: QueryState): Stream[Path] =
+    search(start, end, state, single = false)
+
+  private def search(start: Node, end: Node, state: QueryState, single: Boolean): Stream[Path] = {
+    if (start.getId == end.getId)
+      return Stream(PathImpl(start))
+
+    val typeIds = RelationshipTypeIds(types, state.query)
+    val left = new Side(start.getId, dir, typeIds)
+    val right = new Side(end.getId, dir.reverse(), typeIds)
+
+    var meetingNodes = List.empty[Long]
+    while (meetingNodes.isEmpty && left.depth + right.depth < maxDepth && !left.exhausted && !right.exhausted) {
+      val (expanding, other) = if (left.frontier.size() <= right.frontier.size()) (left, right) else (right, left)
+      meetingNodes = expanding.expand(other, single)
+    }
+
+    meetingNodes.toStream.flatMap { meetingNode =>
+      for {
+        toMeetingNode <- left.pathsTo(meetingNode)
+        fromMeetingNode <- right.pathsTo(meetingNode)
+      } yield toPath(toMeetingNode, fromMeetingNode, state)
+    }
+  }
+
+  // Both halves run from their own end node to the meeting node, so the right half is turned around
+  private def toPath(leftHalf: List[Long], rightHalf: List[Long], state: QueryState): Path = {
+    val ids = leftHalf ++ rightHalf.reverse.tail
+    val entities = ids.zipWithIndex.map {
+      case (id, i) if i % 2 == 0 => state.query.nodeOps.proxyById(id)
+      case (id, _)               => state.query.relationshipOps.proxyById(id)
+    }
+    PathImpl(entities: _*)
+  }
+
+  // How a node was first reached, along with every other relationship that reached it at the same depth
+  private class Visit(val depth: Int, var predecessors: List[(Long, Long)])
+
+  private class Side(origin: Long, dir: Direction, typeIds: RelationshipTypeIds) {
+    private val visits: PrimitiveLongObjectMap[Visit] = Primitive.longObjectMap()
+    var frontier: PrimitiveLongSet = Primitive.longSet()
+    var depth = 0
+
+    visits.put(origin, new Visit(0, Nil))
+    frontier.add(origin)
+
+    def exhausted = frontier.isEmpty
+
+    /**
+     * Expands the frontier one step, and returns the nodes where this side met the other one
+     */
+    def expand(other: Side, single: Boolean): List[Long] = {
+      val next = Primitive.longSet()
+      var meetingNodes = List.empty[Long]
+      val nodes = frontier.iterator()
+
+      while (nodes.hasNext && !(single && meetingNodes.nonEmpty)) {
+        val nodeId = nodes.next()
+        val cursor = typeIds.cursor(nodeId, dir)
+        try {
+          while (cursor.next() && !(single && meetingNodes.nonEmpty)) {
+            val otherNodeId = cursor.otherNodeId
+            val visit = visits.get(otherNodeId)
+            if (visit == null) {
+              visits.put(otherNodeId, new Visit(depth + 1, List(cursor.relationshipId -> nodeId)))
+              next.add(otherNodeId)
+              if (other.visits.containsKey(otherNodeId))
+                meetingNodes = otherNodeId :: meetingNodes
+            } else if (visit.depth == depth + 1 && !single) {
+              visit.predecessors = (cursor.relationshipId -> nodeId) :: visit.predecessors
+            }
+          }
+        } finally {
+          cursor.close()
+        }
+      }
+
+      frontier = next
+      depth += 1
+      meetingNodes
+    }
+
+    /**
+     * All shortest paths from the origin of this side to a node it has reached, as alternating node and relationship
+     * ids
+     */
+    def pathsTo(nodeId: Long): Stream[List[Long]] = {
+      val visit = visits.get(nodeId)
+      if (visit.depth == 0)
+        Stream(List(nodeId))
+      else
+        visit.predecessors.toStream.flatMap {
+          case (relationshipId, previous) => pathsTo(previous).map(_ ++ List(relationshipId, nodeId))
+        }
+    }
+  }
+}
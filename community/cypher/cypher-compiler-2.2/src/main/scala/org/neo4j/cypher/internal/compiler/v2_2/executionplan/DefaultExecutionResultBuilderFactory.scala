@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.executionplan
 
+import java.io.File
+
 import org.neo4j.cypher.internal.{Explained, PlanType}
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription
 import org.neo4j.cypher.{ExecutionResult, CypherException}
@@ -26,6 +28,9 @@ import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes._
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{QueryContext, CSVResources}
 import org.neo4j.graphdb.GraphDatabaseService
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.kernel.GraphDatabaseAPI
+import org.neo4j.kernel.configuration.Config
 
 case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo, columns: List[String], planType: PlanType) extends ExecutionResultBuilderFactory {
   def create(): ExecutionResultBuilder =
@@ -58,7 +63,8 @@ case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo, columns: Lis
 
     def build(graph: GraphDatabaseService, queryId: AnyRef, params: Map[String, Any]): InternalExecutionResult = {
       taskCloser.addTask(queryContext.close)
-      val state = new QueryState(graph, queryContext, externalResource, params, pipeDecorator, queryId = queryId)
+      val state = new QueryState(graph, queryContext, externalResource, params, pipeDecorator, queryId = queryId,
+                                 memory = queryMemory(graph))
       try {
         try {
           createResults(state)
@@ -87,6 +93,14 @@ case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo, columns: Lis
 
     private def queryContext = maybeQueryContext.get
 
+    private def queryMemory(graph: GraphDatabaseService): QueryMemory = graph match {
+      case api: GraphDatabaseAPI =>
+        val maxRows = api.getDependencyResolver.resolveDependency(classOf[Config]).get(GraphDatabaseSettings.query_max_rows_in_memory)
+        new SpillingQueryMemory(maxRows.longValue(), new File(api.getStoreDir, "cypher-spill"), taskCloser)
+      case _ =>
+        UnboundedQueryMemory
+    }
+
     private def buildResultIterator(results: Iterator[ExecutionContext], isUpdating: Boolean): ResultIterator = {
       val closingIterator = new ClosingIterator(results, taskCloser, exceptionDecorator)
       val resultIterator = if (isUpdating) closingIterator.toEager else closingIterator
@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.executionplan
 
-import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{PlanContext, QueryContext}
 import org.neo4j.cypher.{CypherVersion, ExecutionResult}
 
 abstract class ExecutionPlan {
@@ -27,5 +27,6 @@ abstract class ExecutionPlan {
   def profile(queryContext: QueryContext, params: Map[String, Any]): InternalExecutionResult
   def isPeriodicCommit: Boolean
   def version: CypherVersion
+  def isStale(context: PlanContext): Boolean
 }
 
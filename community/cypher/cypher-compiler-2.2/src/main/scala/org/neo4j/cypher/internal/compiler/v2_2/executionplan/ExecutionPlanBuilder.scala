@@ -27,7 +27,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.commands._
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.builders._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes._
 import org.neo4j.cypher.internal.compiler.v2_2.planner.CantHandleQueryException
-import org.neo4j.cypher.internal.compiler.v2_2.profiler.Profiler
+import org.neo4j.cypher.internal.compiler.v2_2.profiler.{PageCacheCounters, Profiler}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{PlanContext, QueryContext, UpdateCountingQueryContext}
 import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
 import org.neo4j.graphdb.GraphDatabaseService
@@ -64,12 +64,14 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService,
     val func = getExecutionPlanFunction(periodicCommitInfo, abstractQuery.getQueryText, updating, resultBuilderFactory)
 
     val profileMarker = inputQuery.planType == Profiled
+    val fingerprint = PlanFingerprint(inputQuery.statement, planContext)
 
     new ExecutionPlan {
       def execute(queryContext: QueryContext, params: Map[String, Any]) = func(queryContext, params, profileMarker)
       def profile(queryContext: QueryContext, params: Map[String, Any]) = func(new UpdateCountingQueryContext(queryContext), params, true)
       def isPeriodicCommit = periodicCommitInfo.isDefined
       def version = compilerVersion
+      def isStale(context: PlanContext) = fingerprint.isStale(context)
     }
   }
 
@@ -114,7 +116,7 @@ class ExecutionPlanBuilder(graph: GraphDatabaseService,
       }
 
       if (profile)
-        builder.setPipeDecorator(new Profiler())
+        builder.setPipeDecorator(new Profiler(PageCacheCounters(graph)))
 
       builder.build(graph, queryId, params)
     }
@@ -40,23 +40,43 @@ case class DistinctPipe(source: Pipe, expressions: Map[String, Expression])
       ctx.copy(m = newMap)
     })
 
-    /*
-     * The filtering is done by extracting from the context the values of all return expressions, and keeping them
-     * in a set.
-     */
-    var seen = mutable.Set[NiceHasher]()
+    distinct(returnExpressions, state, depth = 0)
+  }
+
+  /*
+   * The filtering is done by extracting from the context the values of all return expressions, and keeping them
+   * in a set. Once the query is out of memory, rows with values that have not been seen yet are written to hash
+   * partitions instead, and each partition is filtered on its own after the rest.
+   */
+  private def distinct(input: Iterator[ExecutionContext], state: QueryState, depth: Int): Iterator[ExecutionContext] = {
+    val memory = state.memory
+    val seen = mutable.Set[NiceHasher]()
+    var spilled: Spilling.HashPartitions = null
 
-    returnExpressions.filter {
+    val unspilled = input.filter {
        case ctx =>
          val values = new NiceHasher(keyNames.map(ctx).toSeq)
 
          if (seen.contains(values)) {
            false
-         } else {
+         } else if (spilled != null) {
+           spilled.write(values.hashCode(), ctx)
+           false
+         } else if (memory.reserveRow() || seen.size < QueryMemory.MIN_SPILL_ROWS || depth >= Spilling.MAX_PARTITION_DEPTH) {
            seen += values
            true
+         } else {
+           memory.releaseRows(1)
+           spilled = new Spilling.HashPartitions(memory, depth)
+           spilled.write(values.hashCode(), ctx)
+           false
          }
     }
+
+    Spilling.releasedWhenExhausted(unspilled, memory, seen.size) ++ {
+      if (spilled == null) Iterator.empty
+      else spilled.partitions(state).flatMap(partition => distinct(partition, state, depth + 1))
+    }
   }
 
   def planDescription = source.planDescription.andThen(this, "Distinct")
@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.pipes
 
 import org.neo4j.cypher.internal.compiler.v2_2._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{AggregationExpression, Expression}
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{AggregationExpression, Expression, Identifier}
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes.aggregation.AggregationFunction
@@ -34,7 +34,7 @@ import scala.collection.mutable.{Map => MutableMap}
 // Cypher is lazy until it can't - this pipe will eagerly load the full match
 case class EagerAggregationPipe(source: Pipe, keyExpressions: Map[String, Expression], aggregations: Map[String, AggregationExpression])
                                (val estimatedCardinality: Option[Long] = None)
-                               (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with RonjaPipe {
+                               (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with RonjaPipe with SlottedPipe {
 
   val symbols: SymbolTable = createSymbols()
 
@@ -49,47 +49,90 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Map[String, Expres
     SymbolTable(keyIdentifiers ++ aggrIdentifiers)
   }
 
+  // Output rows only ever hold the grouping keys and the aggregates, so their slots are known up front
+  val slots = Slots(symbols)
+
+  private val keyNames: Seq[String] = keyExpressions.map(_._1).toSeq
+  private val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
+  private val keyOffsets: Array[Int] = keyNames.map(slots.offsetFor).toArray
+  private val aggregationOffsets: Array[Int] = aggregationNames.map(slots.offsetFor).toArray
+  // The grouping keys have already been projected by the source, read them by offset if its rows are slotted
+  private val keyReaders: Seq[Expression] = keyNames.map(name => Slots.resolve(Identifier(name), source))
+
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
-    // This is the temporary storage used while the aggregation is going on
-    val result = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
-    val keyNames: Seq[String] = keyExpressions.map(_._1).toSeq
-    val aggregationNames: Seq[String] = aggregations.map(_._1).toSeq
-    val mapSize = keyNames.size + aggregationNames.size
+    val memory = state.memory
 
     def createResults(key: NiceHasher, aggregator: scala.Seq[AggregationFunction], ctx: ExecutionContext): ExecutionContext = {
-      val newMap = MutableMaps.create(mapSize)
+      val row = slots.newRow()
 
       //add key values
-      (keyNames zip key.original).foreach(newMap += _)
+      var i = 0
+      key.original.foreach { value =>
+        row.setSlot(keyOffsets(i), value)
+        i += 1
+      }
 
       //add aggregated values
-      (aggregationNames zip aggregator.map(_.result)).foreach(newMap += _)
+      i = 0
+      aggregator.foreach { function =>
+        row.setSlot(aggregationOffsets(i), function.result)
+        i += 1
+      }
 
-      ctx.newFromMutableMap( newMap )
+      ctx.newFromMutableMap( row )
     }
 
     def createEmptyResult(params:Map[String,Any]): Iterator[ExecutionContext] = {
-      val newMap = MutableMaps.empty
+      val row = slots.newRow()
       val aggregationNamesAndFunctions = aggregationNames zip aggregations.map(_._2.createAggregationFunction.result)
 
       aggregationNamesAndFunctions.toMap
-        .foreach { case (name, zeroValue) => newMap += name -> zeroValue  }
-      Iterator.single(ExecutionContext(newMap))
+        .foreach { case (name, zeroValue) => row += name -> zeroValue  }
+      Iterator.single(ExecutionContext(row))
     }
 
-    input.foreach(ctx => {
-      val groupValues: NiceHasher = new NiceHasher(keyNames.map(ctx))
-      val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
-      val (_, functions) = result.getOrElseUpdate(groupValues, (ctx, aggregateFunctions))
-      functions.foreach(func => func(ctx)(state))
-    })
+    // Once the query is out of memory, rows of groups that have not been seen yet are written to hash partitions
+    // instead, and each partition is aggregated on its own after the groups that were kept in memory
+    def aggregate(rows: Iterator[ExecutionContext], depth: Int): Iterator[ExecutionContext] = {
+      // This is the temporary storage used while the aggregation is going on
+      val result = MutableMap[NiceHasher, (ExecutionContext, Seq[AggregationFunction])]()
+      var spilled: Spilling.HashPartitions = null
+
+      rows.foreach(ctx => {
+        val groupValues: NiceHasher = new NiceHasher(keyReaders.map(_(ctx)(state)))
+        result.get(groupValues) match {
+          case Some((_, functions)) =>
+            functions.foreach(func => func(ctx)(state))
+
+          case None if spilled != null =>
+            spilled.write(groupValues.hashCode(), ctx)
+
+          case None if memory.reserveRow() || result.size < QueryMemory.MIN_SPILL_ROWS || depth >= Spilling.MAX_PARTITION_DEPTH =>
+            val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toSeq
+            result.put(groupValues, (ctx, aggregateFunctions))
+            aggregateFunctions.foreach(func => func(ctx)(state))
+
+          case None =>
+            memory.releaseRows(1)
+            spilled = new Spilling.HashPartitions(memory, depth)
+            spilled.write(groupValues.hashCode(), ctx)
+        }
+      })
+
+      val groups = result.iterator.map {
+        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
+      }
+
+      Spilling.releasedWhenExhausted(groups, memory, result.size) ++ {
+        if (spilled == null) Iterator.empty
+        else spilled.partitions(state).flatMap(partition => aggregate(partition, depth + 1))
+      }
+    }
 
-    if (result.isEmpty && keyNames.isEmpty) {
+    if (!input.hasNext && keyNames.isEmpty) {
       createEmptyResult(state.params)
     } else {
-      result.map {
-        case (key, (ctx, aggregator)) => createResults(key, aggregator, ctx)
-      }.toIterator
+      aggregate(input, depth = 0)
     }
   }
 
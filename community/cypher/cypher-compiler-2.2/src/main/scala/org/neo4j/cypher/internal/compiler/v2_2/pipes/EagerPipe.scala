@@ -29,7 +29,7 @@ case class EagerPipe(src: Pipe)(implicit pipeMonitor: PipeMonitor) extends PipeW
   def planDescription = src.planDescription.andThen(this, "Eager")
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
-    input.toList.toIterator
+    Spilling.buffer(input, state)
 
   override val effects = Effects.NONE
 
@@ -24,20 +24,19 @@ import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.IntroducedIdentifier
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
-import org.neo4j.graphdb.{Direction, Node, Relationship}
+import org.neo4j.graphdb.{Direction, Node}
 
 case class ExpandPipe(source: Pipe, from: String, relName: String, to: String, dir: Direction, types: Seq[String])
                      (val estimatedCardinality: Option[Long] = None)
                      (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with RonjaPipe {
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val typeIds = RelationshipTypeIds(types, state.query)
     input.flatMap {
       row =>
         getFromNode(row) match {
           case n: Node =>
-            val relationships: Iterator[Relationship] = state.query.getRelationshipsFor(n, dir, types)
-            relationships.map {
-              case r =>
-                row.newWith2(relName, r, to, r.getOtherNode(n))
+            typeIds.expand(n, dir) {
+              cursor => row.newWith2(relName, cursor.relationship, to, cursor.otherNode)
             }
 
           case null => None
@@ -74,18 +74,29 @@ case class ExtractPipe(source: Pipe, expressions: Map[String, Expression], hack_
       case (name, _) => source.symbols.hasIdentifierNamed(name)
     }
 
+    val names: Array[String] = expressions.keys.toArray
+    val expressionArray: Array[Expression] = expressions.values.toArray
+
     val applyExpressionsOverwritingOriginal = (ctx: ExecutionContext, state: QueryState) => {
-      expressions.foreach {
-        case (name, expression) =>
-          ctx += name -> expression(ctx)(state)
+      var i = 0
+      while (i < names.length) {
+        ctx.update(names(i), expressionArray(i)(ctx)(state))
+        i += 1
       }
       ctx
     }
+    // Evaluate everything against the untouched row before writing anything back, instead of cloning the row
     val applyExpressionsWhileKeepingOriginal = (ctx: ExecutionContext, state: QueryState) => {
-      val original = ctx.clone()
-      expressions.foreach {
-        case (name, expression) =>
-          ctx += name -> expression(original)(state)
+      val results = new Array[Any](names.length)
+      var i = 0
+      while (i < names.length) {
+        results(i) = expressionArray(i)(ctx)(state)
+        i += 1
+      }
+      i = 0
+      while (i < names.length) {
+        ctx.update(names(i), results(i))
+        i += 1
       }
       ctx
     }
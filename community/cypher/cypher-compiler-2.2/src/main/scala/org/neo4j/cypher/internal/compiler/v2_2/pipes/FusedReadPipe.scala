@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.InternalException
+import org.neo4j.cypher.internal.compiler.v2_2._
+import org.neo4j.cypher.internal.compiler.v2_2.commands.Predicate
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
+import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
+import org.neo4j.graphdb.{Direction, Node}
+
+sealed trait FusedStep
+
+case class FusedFilter(predicate: Predicate) extends FusedStep
+
+case class FusedExpand(from: String, relName: String, to: String, dir: Direction, types: Seq[String]) extends FusedStep
+
+case class FusedProjection(expressions: Map[String, Expression]) extends FusedStep {
+  private val slots = Slots(expressions.keys)
+  private val slottedExpressions: Array[(Int, Expression)] = expressions.toArray.map {
+    case (name, expression) => slots.offsetFor(name) -> expression
+  }
+
+  def project(original: ExecutionContext, state: QueryState): ExecutionContext = {
+    val row = slots.newRow()
+    var i = 0
+    while (i < slottedExpressions.length) {
+      val (offset, expression) = slottedExpressions(i)
+      row.setSlot(offset, expression(original)(state))
+      i += 1
+    }
+    ExecutionContext(row)
+  }
+}
+
+object FusedReadPipe {
+  def isLeaf(pipe: Pipe): Boolean = pipe match {
+    case _: AllNodesScanPipe | _: NodeByLabelScanPipe | _: NodeIndexSeekPipe | _: NodeIndexRangeSeekPipe => true
+    case _ => false
+  }
+}
+
+/*
+Runs a chain of filters, projections and single step expands on top of a node scan or index seek as one loop,
+instead of stacking one iterator and one closure per pipe. Every row is pushed through the steps directly;
+only expands keep state between rows.
+
+The pipes the chain was built from are kept around. They describe the plan, and they are what actually runs
+when the query is profiled, so that rows and db hits are still reported per operator.
+ */
+case class FusedReadPipe(interpreted: Pipe with RonjaPipe, leaf: Pipe, steps: Seq[FusedStep])
+                        (implicit val monitor: PipeMonitor) extends Pipe with RonjaPipe {
+
+  private val stepArray = steps.toArray
+
+  override def createResults(state: QueryState): Iterator[ExecutionContext] =
+    if (state.decorator eq NullPipeDecorator)
+      internalCreateResults(state)
+    else
+      interpreted.createResults(state)
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
+    new FusedIterator(leaf.createResults(state), state)
+
+  def exists(pred: Pipe => Boolean): Boolean = pred(this) || interpreted.exists(pred)
+
+  def planDescription = interpreted.planDescription
+
+  def symbols: SymbolTable = interpreted.symbols
+
+  override def localEffects: Effects = interpreted.effects
+
+  def dup(sources: List[Pipe]): Pipe = {
+    require(sources.isEmpty)
+    this
+  }
+
+  def sources: Seq[Pipe] = Seq.empty
+
+  def estimatedCardinality: Option[Long] = interpreted.estimatedCardinality
+
+  def setEstimatedCardinality(estimated: Long) = copy(interpreted = interpreted.setEstimatedCardinality(estimated))
+
+  private class FusedIterator(input: Iterator[ExecutionContext], state: QueryState) extends Iterator[ExecutionContext] {
+    // For every expand step, what is left of the rows it produces from the row being expanded
+    private val expansions = new Array[Iterator[ExecutionContext]](stepArray.length)
+    private val typeIds: Array[RelationshipTypeIds] = stepArray.map {
+      case FusedExpand(_, _, _, _, types) => RelationshipTypeIds(types, state.query)
+      case _ => null
+    }
+    private var deepest = -1
+    private var nextRow: ExecutionContext = null
+
+    def hasNext: Boolean = {
+      if (nextRow == null)
+        nextRow = produceNext()
+      nextRow != null
+    }
+
+    def next(): ExecutionContext = {
+      if (!hasNext)
+        Iterator.empty.next()
+      val row = nextRow
+      nextRow = null
+      row
+    }
+
+    private def produceNext(): ExecutionContext = {
+      while (true) {
+        var row: ExecutionContext = null
+        var start = 0
+        if (deepest >= 0) {
+          val expanded = expansions(deepest)
+          if (expanded.hasNext) {
+            row = expanded.next()
+            start = deepest + 1
+          } else {
+            closeDeepest()
+          }
+        } else if (input.hasNext) {
+          row = input.next()
+        } else {
+          return null
+        }
+
+        if (row != null) {
+          val result = push(row, start)
+          if (result != null)
+            return result
+        }
+      }
+      null
+    }
+
+    // Runs the row through the steps from `start`, returning it if it made it through all of them
+    private def push(input: ExecutionContext, start: Int): ExecutionContext = {
+      var row = input
+      var i = start
+      while (i < stepArray.length) {
+        stepArray(i) match {
+          case FusedFilter(predicate) =>
+            if (!predicate.isTrue(row)(state))
+              return null
+
+          case projection: FusedProjection =>
+            row = projection.project(row, state)
+
+          case FusedExpand(from, relName, to, dir, _) =>
+            row.getOrElse(from, throw new InternalException(s"Expected to find a node at $from but found nothing")) match {
+              case n: Node =>
+                val expandedRow = row
+                expansions(i) = typeIds(i).expand(n, dir) {
+                  cursor => expandedRow.newWith2(relName, cursor.relationship, to, cursor.otherNode)
+                }
+                deepest = i
+              case null =>
+              case value => throw new InternalException(s"Expected to find a node at $from but found $value instead")
+            }
+            return null
+        }
+        i += 1
+      }
+      row
+    }
+
+    private def closeDeepest() {
+      expansions(deepest) = null
+      deepest -= 1
+      while (deepest >= 0 && expansions(deepest) == null)
+        deepest -= 1
+    }
+  }
+}
@@ -31,8 +31,7 @@ case class LegacySortPipe(source: Pipe, sortDescription: List[SortItem])
   def symbols = source.symbols
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) =
-    input.toList.
-      sortWith((a, b) => compareBy(a, b, sortDescription)(state)).iterator
+    Spilling.sort(input, (a, b) => compareBy(a, b, sortDescription)(state), state)
 
   def planDescription =
     source.planDescription.andThen(this, "Sort", sortDescription.map(item => LegacyExpression(item.expression)):_*)
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.util.regex.Pattern
+
+import org.neo4j.cypher.CypherTypeException
+import org.neo4j.cypher.internal.compiler.v2_2._
+import org.neo4j.cypher.internal.compiler.v2_2.ast.{LabelToken, PropertyKeyToken}
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, NumericSeekRange, PrefixSeekRange, SeekRange}
+import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.{Index, IntroducedIdentifier}
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{NoChildren, PlanDescriptionImpl}
+import org.neo4j.cypher.internal.compiler.v2_2.symbols.{CTNode, SymbolTable}
+import org.neo4j.graphdb.Node
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+case class NodeIndexRangeSeekPipe(ident: String,
+                                  label: LabelToken,
+                                  propertyKey: PropertyKeyToken,
+                                  range: SeekRange[Expression])
+                                 (val estimatedCardinality: Option[Long] = None)(implicit pipeMonitor: PipeMonitor)
+  extends Pipe with RonjaPipe {
+
+  val descriptor = new IndexDescriptor(label.nameId.id, propertyKey.nameId.id)
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
+    val resultNodes = range match {
+      case NumericSeekRange(lower, upper) =>
+        numberRangeSeek(lower.map(number(_, state)), upper.map(number(_, state)), state)
+
+      case PrefixSeekRange(prefix) =>
+        prefixSeek(prefix, state)
+    }
+    val baseContext = state.initialContext.getOrElse(ExecutionContext.empty)
+    resultNodes.map(node => baseContext.newWith1(ident, node))
+  }
+
+  private def number(bound: Bound[Expression], state: QueryState): Bound[Option[Number]] =
+    bound.map(expression => expression(ExecutionContext.empty)(state) match {
+      case null => None
+      case value: Number => Some(value)
+      case _ => throw new CypherTypeException(s"Expected the bounds for seeking :${label.name}(${propertyKey.name}) to be numbers but they were not.")
+    })
+
+  private def numberRangeSeek(lower: Option[Bound[Option[Number]]], upper: Option[Bound[Option[Number]]],
+                              state: QueryState): Iterator[Node] =
+    // Comparing with null is never true
+    if (lower.exists(_.expression.isEmpty) || upper.exists(_.expression.isEmpty))
+      Iterator.empty
+    else
+      state.query.numberRangeIndexSearch(descriptor,
+        lower.flatMap(_.expression), lower.exists(_.inclusive),
+        upper.flatMap(_.expression), upper.exists(_.inclusive))
+
+  private def prefixSeek(prefix: String, state: QueryState): Iterator[Node] = {
+    // The index seeks strings starting with the prefix, but the . of the regular expression does not match line breaks
+    val pattern = Pattern.compile(Pattern.quote(prefix) + ".*")
+    val propertyKeyId = propertyKey.nameId.id
+    state.query.prefixIndexSearch(descriptor, prefix).filter {
+      node => state.query.nodeOps.getProperty(node.getId, propertyKeyId) match {
+        case value: String => pattern.matcher(value).matches()
+        case _ => false
+      }
+    }
+  }
+
+  def exists(predicate: Pipe => Boolean): Boolean = predicate(this)
+
+  def planDescription =
+    new PlanDescriptionImpl(this, "NodeIndexRangeSeek", NoChildren, Seq(
+      IntroducedIdentifier(ident), Index(label.name, propertyKey.name))
+    )
+
+  def symbols: SymbolTable = new SymbolTable(Map(ident -> CTNode))
+
+  override def monitor = pipeMonitor
+
+  def dup(sources: List[Pipe]): Pipe = {
+    require(sources.isEmpty)
+    this
+  }
+
+  def sources: Seq[Pipe] = Seq.empty
+
+  override def localEffects = Effects.READS_NODES
+
+  def setEstimatedCardinality(estimated: Long) = copy()(Some(estimated))
+}
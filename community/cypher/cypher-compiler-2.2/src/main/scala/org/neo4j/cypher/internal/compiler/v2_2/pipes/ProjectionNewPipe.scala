@@ -26,7 +26,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects._
 
 case class ProjectionNewPipe(source: Pipe, expressions: Map[String, Expression])(val estimatedCardinality: Option[Long] = None)
-                            (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with RonjaPipe {
+                            (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with RonjaPipe with SlottedPipe {
   val symbols: SymbolTable = {
     val newIdentifiers = expressions.map {
       case (name, expression) => name -> expression.getType(source.symbols)
@@ -35,16 +35,24 @@ case class ProjectionNewPipe(source: Pipe, expressions: Map[String, Expression])
     source.symbols.add(newIdentifiers)
   }
 
+  val slots = Slots(expressions.keys)
+  // Both the offsets written to and the identifiers read from slotted source rows are resolved up front
+  private val slottedExpressions: Array[(Int, Expression)] = expressions.toArray.map {
+    case (name, expression) => slots.offsetFor(name) -> Slots.resolve(expression, source)
+  }
+
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) =
     input.map {
       original =>
-        val m = MutableMaps.create(expressions.size)
-        expressions.foreach {
-          case (name, expression) =>
-            m.put(name, expression(original)(state))
+        val row = slots.newRow()
+        var i = 0
+        while (i < slottedExpressions.length) {
+          val (offset, expression) = slottedExpressions(i)
+          row.setSlot(offset, expression(original)(state))
+          i += 1
         }
 
-        ExecutionContext(m)
+        ExecutionContext(row)
     }
 
   override def planDescription =
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.io.File
+
+import org.neo4j.cypher.internal.compiler.v2_2.TaskCloser
+
+/*
+Keeps track of how many rows the eager operators of a query hold in memory. Operators reserve a row before buffering
+it, and once the query is over its budget they write what they hold to spill files and release it.
+ */
+trait QueryMemory {
+  /**
+   * Reserves room for one more row. Returns false when the query already holds more rows than it may, in which case
+   * the caller should spill what it holds.
+   */
+  def reserveRow(): Boolean
+
+  def releaseRows(count: Long)
+
+  def newSpillFile(): SpillFile
+}
+
+object QueryMemory {
+  /**
+   * Operators do not spill fewer rows than this, so that one operator cannot be made to write a spill file per row
+   * while others hold the budget.
+   */
+  val MIN_SPILL_ROWS = 1000
+}
+
+object UnboundedQueryMemory extends QueryMemory {
+  def reserveRow() = true
+
+  def releaseRows(count: Long) {}
+
+  def newSpillFile() = throw new IllegalStateException("Queries with unbounded memory never spill")
+}
+
+class SpillingQueryMemory(maxRows: Long, directory: File, closer: TaskCloser) extends QueryMemory {
+  private var reservedRows = 0L
+
+  def reserveRow() = {
+    reservedRows += 1
+    reservedRows <= maxRows
+  }
+
+  def releaseRows(count: Long) {
+    reservedRows -= count
+  }
+
+  def newSpillFile() = {
+    directory.mkdirs()
+    val spillFile = new SpillFile(File.createTempFile("rows", ".spill", directory))
+    closer.addTask(_ => spillFile.delete())
+    spillFile
+  }
+}
@@ -33,7 +33,8 @@ case class QueryState(db: GraphDatabaseService,
                       decorator: PipeDecorator,
                       timeReader: TimeReader = new TimeReader,
                       var initialContext: Option[ExecutionContext] = None,
-                      queryId: AnyRef = UUID.randomUUID().toString) {
+                      queryId: AnyRef = UUID.randomUUID().toString,
+                      memory: QueryMemory = UnboundedQueryMemory) {
   def readTimeStamp(): Long = timeReader.getTime
 
   def graphDatabaseAPI: GraphDatabaseAPI = db match {
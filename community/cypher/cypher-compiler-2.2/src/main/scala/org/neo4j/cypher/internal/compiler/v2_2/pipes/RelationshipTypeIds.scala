@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{QueryContext, RelationshipCursor}
+import org.neo4j.graphdb.{Direction, Node}
+
+/*
+Relationship type names resolved to ids once per query execution, rather than once per expanded node.
+ */
+case class RelationshipTypeIds(types: Seq[String], query: QueryContext) {
+  private val ids: Seq[Int] = types.flatMap(query.getOptRelTypeId)
+
+  // None of the types asked for exist, so nothing can match
+  private val matchesNothing = types.nonEmpty && ids.isEmpty
+
+  def expand[T](node: Node, dir: Direction)(f: RelationshipCursor => T): Iterator[T] =
+    if (matchesNothing)
+      Iterator.empty
+    else
+      new RelationshipCursorIterator(query.expand(node.getId, dir, ids), f)
+
+  /*
+  For callers that step through the relationships of many nodes themselves. The cursor has to be closed by the caller.
+   */
+  def cursor(nodeId: Long, dir: Direction): RelationshipCursor =
+    if (matchesNothing)
+      EmptyRelationshipCursor
+    else
+      query.expand(nodeId, dir, ids)
+}
+
+object EmptyRelationshipCursor extends RelationshipCursor {
+  def next() = false
+
+  def relationshipId = throw new NoSuchElementException
+
+  def relationshipTypeId = throw new NoSuchElementException
+
+  def otherNodeId = throw new NoSuchElementException
+
+  def relationship = throw new NoSuchElementException
+
+  def otherNode = throw new NoSuchElementException
+
+  def close() {}
+}
+
+class RelationshipCursorIterator[T](cursor: RelationshipCursor, f: RelationshipCursor => T) extends Iterator[T] {
+  private var fetched = false
+  private var available = false
+
+  def hasNext: Boolean = {
+    if (!fetched) {
+      available = cursor.next()
+      fetched = true
+      if (!available)
+        cursor.close()
+    }
+    available
+  }
+
+  def next(): T = {
+    if (!hasNext)
+      Iterator.empty.next()
+    val result = f(cursor)
+    fetched = false
+    result
+  }
+}
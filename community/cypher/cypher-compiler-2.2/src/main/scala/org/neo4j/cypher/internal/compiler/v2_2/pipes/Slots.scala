@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{Expression, Identifier}
+import org.neo4j.cypher.internal.compiler.v2_2.symbols.{CTAny, CypherType, SymbolTable}
+import org.neo4j.graphdb.NotFoundException
+
+import scala.collection.mutable.{Map => MutableMap}
+
+object Slots {
+  def apply(names: Iterable[String]): Slots = new Slots(names.toArray.distinct)
+
+  def apply(symbols: SymbolTable): Slots = apply(symbols.identifiers.keys)
+
+  /*
+  Rewrites the identifiers of an expression that is evaluated against the rows of the given source, so that they
+  are read by offset rather than by name when the source is known to emit slotted rows.
+   */
+  def resolve(expression: Expression, source: Pipe): Expression = source match {
+    case slotted: SlottedPipe => expression.rewrite {
+      case Identifier(name) if slotted.slots.offsetFor(name) >= 0 =>
+        new SlotIdentifier(name, slotted.slots, slotted.slots.offsetFor(name))
+      case e => e
+    }
+    case _ => expression
+  }
+
+  private[pipes] object Absent
+}
+
+/*
+A pipe that emits rows backed by a SlottedMap with the given slots, so that pipes reading from it can resolve the
+offsets of identifiers when they are built.
+ */
+trait SlottedPipe {
+  self: Pipe =>
+
+  def slots: Slots
+}
+
+/*
+Fixed offsets for the identifiers a pipe is known to produce. The offsets are assigned once, when the pipe is
+built, so that every row the pipe emits can be a plain array instead of a freshly allocated hash map.
+ */
+final class Slots(val names: Array[String]) {
+  private val offsets: Map[String, Int] = names.zipWithIndex.toMap
+  private val template: Array[Any] = Array.fill[Any](names.length)(Slots.Absent)
+
+  def size: Int = names.length
+
+  def offsetFor(name: String): Int = offsets.getOrElse(name, -1)
+
+  def newRow(): SlottedMap = new SlottedMap(this, template.clone(), null)
+}
+
+/*
+An array backed row. Identifiers that have a slot are read and written by offset, anything else that later pipes
+add to the row ends up in a small overflow map. Cloning a row copies the array rather than rehashing every entry.
+ */
+final class SlottedMap(val slots: Slots, values: Array[Any], private var overflow: MutableMap[String, Any])
+  extends MutableMap[String, Any] {
+
+  def setSlot(offset: Int, value: Any) {
+    values(offset) = value
+  }
+
+  // The raw value of a slot, which is Slots.Absent for slots that haven't been set
+  def getSlot(offset: Int): Any = values(offset)
+
+  def get(key: String): Option[Any] = {
+    val offset = slots.offsetFor(key)
+    if (offset >= 0) {
+      val value = values(offset)
+      if (value.asInstanceOf[AnyRef] eq Slots.Absent) None else Some(value)
+    } else if (overflow == null) None
+    else overflow.get(key)
+  }
+
+  def iterator: Iterator[(String, Any)] = {
+    val slotted = slots.names.iterator.zip(values.iterator).filterNot(_._2.asInstanceOf[AnyRef] eq Slots.Absent)
+    if (overflow == null) slotted else slotted ++ overflow.iterator
+  }
+
+  override def size: Int = {
+    var count = 0
+    var i = 0
+    while (i < values.length) {
+      if (!(values(i).asInstanceOf[AnyRef] eq Slots.Absent)) count += 1
+      i += 1
+    }
+    if (overflow == null) count else count + overflow.size
+  }
+
+  def +=(kv: (String, Any)) = {
+    update(kv._1, kv._2)
+    this
+  }
+
+  override def update(key: String, value: Any) {
+    val offset = slots.offsetFor(key)
+    if (offset >= 0)
+      values(offset) = value
+    else {
+      if (overflow == null)
+        overflow = MutableMaps.empty
+      overflow.update(key, value)
+    }
+  }
+
+  def -=(key: String) = {
+    val offset = slots.offsetFor(key)
+    if (offset >= 0)
+      values(offset) = Slots.Absent
+    else if (overflow != null)
+      overflow -= key
+    this
+  }
+
+  override def clone(): SlottedMap =
+    new SlottedMap(slots, values.clone(), if (overflow == null) null else overflow.clone())
+}
+
+/*
+An identifier whose offset in the rows of a SlottedPipe was resolved when the reading pipe was built. Rows that
+turn out not to have those slots are read by name, like any other identifier.
+ */
+final class SlotIdentifier(name: String, slots: Slots, offset: Int) extends Expression {
+  def apply(ctx: ExecutionContext)(implicit state: QueryState): Any = ctx.m match {
+    case row: SlottedMap if row.slots eq slots =>
+      val value = row.getSlot(offset)
+      if (value.asInstanceOf[AnyRef] eq Slots.Absent)
+        throw new NotFoundException("Unknown identifier `%s`.".format(name))
+      value
+    case _ =>
+      ctx.getOrElse(name, throw new NotFoundException("Unknown identifier `%s`.".format(name)))
+  }
+
+  override def toString: String = name
+
+  def rewrite(f: (Expression) => Expression) = f(this)
+
+  def arguments = Seq()
+
+  protected def calculateType(symbols: SymbolTable) = symbols.evaluateType(name, CTAny)
+
+  override def evaluateType(expectedType: CypherType, symbols: SymbolTable) = symbols.evaluateType(name, expectedType)
+
+  def symbolTableDependencies = Set(name)
+}
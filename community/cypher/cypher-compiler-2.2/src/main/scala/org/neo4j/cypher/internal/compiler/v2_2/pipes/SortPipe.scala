@@ -33,8 +33,7 @@ case class SortPipe(source: Pipe, orderBy: Seq[SortDescription])
                    (val estimatedCardinality: Option[Long] = None)(implicit monitor: PipeMonitor)
   extends PipeWithSource(source, monitor) with Comparer with RonjaPipe {
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] =
-    input.toList.
-      sortWith((a, b) => compareBy(a, b, orderBy)(state)).iterator
+    Spilling.sort(input, (a, b) => compareBy(a, b, orderBy)(state), state)
 
   def planDescription = source.planDescription.andThen(this, "Sort", KeyNames(orderBy.map(_.id)))
 
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.io._
+import java.nio.charset.Charset
+import java.util.{ArrayList => JavaArrayList, HashMap => JavaHashMap, List => JavaList, Map => JavaMap}
+
+import org.neo4j.cypher.InternalException
+import org.neo4j.cypher.internal.PathImpl
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
+import org.neo4j.graphdb.{Node, Path, PropertyContainer, Relationship}
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ListBuffer
+
+/*
+A temporary file that rows are written to once and then read back once. Nodes and relationships are written as ids, and
+come back as proxies that are not checked for existence, since the query may have deleted them in the meantime.
+
+The file is deleted as soon as all of its rows have been read, so that f.ex. the runs of a merge sort don't take up disk
+space until the query is over. Files that are not read to the end are deleted when the query closes.
+ */
+class SpillFile(file: File) {
+  private var out: DataOutputStream = null
+  private var rowCount = 0L
+  private val openStreams = ListBuffer.empty[Closeable]
+
+  def write(row: ExecutionContext) {
+    if (out == null) {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), SpillFile.BUFFER_SIZE))
+      openStreams += out
+    }
+    out.writeInt(row.size)
+    row.foreach {
+      case (key, value) =>
+        SpillFile.writeString(out, key)
+        SpillFile.writeValue(out, value)
+    }
+    rowCount += 1
+  }
+
+  def rows(query: QueryContext): Iterator[ExecutionContext] = {
+    if (out != null) out.flush()
+    if (rowCount == 0) {
+      delete()
+      Iterator.empty
+    } else {
+      val in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), SpillFile.BUFFER_SIZE))
+      openStreams += in
+
+      new Iterator[ExecutionContext] {
+        private var remaining = rowCount
+
+        def hasNext = remaining > 0
+
+        def next() = {
+          if (!hasNext) Iterator.empty.next()
+          remaining -= 1
+          val row = ExecutionContext.empty
+          var columns = in.readInt()
+          while (columns > 0) {
+            row += SpillFile.readString(in) -> SpillFile.readValue(in, query)
+            columns -= 1
+          }
+          if (remaining == 0) delete()
+          row
+        }
+      }
+    }
+  }
+
+  def delete() {
+    openStreams.foreach(_.close())
+    openStreams.clear()
+    file.delete()
+  }
+}
+
+object SpillFile {
+  val BUFFER_SIZE = 64 * 1024
+
+  private val UTF8 = Charset.forName("UTF-8")
+
+  private val NULL: Byte = 0
+  private val TRUE: Byte = 1
+  private val FALSE: Byte = 2
+  private val BYTE: Byte = 3
+  private val SHORT: Byte = 4
+  private val INT: Byte = 5
+  private val LONG: Byte = 6
+  private val FLOAT: Byte = 7
+  private val DOUBLE: Byte = 8
+  private val CHAR: Byte = 9
+  private val STRING: Byte = 10
+  private val NODE: Byte = 11
+  private val RELATIONSHIP: Byte = 12
+  private val PATH: Byte = 13
+  private val LIST: Byte = 14
+  private val MAP: Byte = 15
+  private val JAVA_LIST: Byte = 16
+  private val JAVA_MAP: Byte = 17
+  private val ARRAY: Byte = 18
+  private val BOOLEAN_ARRAY: Byte = 19
+  private val BYTE_ARRAY: Byte = 20
+  private val SHORT_ARRAY: Byte = 21
+  private val INT_ARRAY: Byte = 22
+  private val LONG_ARRAY: Byte = 23
+  private val FLOAT_ARRAY: Byte = 24
+  private val DOUBLE_ARRAY: Byte = 25
+  private val CHAR_ARRAY: Byte = 26
+  private val STRING_ARRAY: Byte = 27
+
+  def writeValue(out: DataOutput, value: Any): Unit = value match {
+    case null => out.writeByte(NULL)
+    case x: Boolean => out.writeByte(if (x) TRUE else FALSE)
+    case x: Byte => out.writeByte(BYTE); out.writeByte(x)
+    case x: Short => out.writeByte(SHORT); out.writeShort(x)
+    case x: Int => out.writeByte(INT); out.writeInt(x)
+    case x: Long => out.writeByte(LONG); out.writeLong(x)
+    case x: Float => out.writeByte(FLOAT); out.writeFloat(x)
+    case x: Double => out.writeByte(DOUBLE); out.writeDouble(x)
+    case x: Char => out.writeByte(CHAR); out.writeChar(x)
+    case x: String => out.writeByte(STRING); writeString(out, x)
+    case x: Node => out.writeByte(NODE); out.writeLong(x.getId)
+    case x: Relationship => out.writeByte(RELATIONSHIP); out.writeLong(x.getId)
+    case x: Path =>
+      out.writeByte(PATH)
+      out.writeInt(x.length())
+      x.iterator().asScala.foreach(entity => writeValue(out, entity))
+    case x: Array[Boolean] => out.writeByte(BOOLEAN_ARRAY); out.writeInt(x.length); x.foreach(out.writeBoolean)
+    case x: Array[Byte] => out.writeByte(BYTE_ARRAY); out.writeInt(x.length); out.write(x)
+    case x: Array[Short] => out.writeByte(SHORT_ARRAY); out.writeInt(x.length); x.foreach(out.writeShort(_))
+    case x: Array[Int] => out.writeByte(INT_ARRAY); out.writeInt(x.length); x.foreach(out.writeInt)
+    case x: Array[Long] => out.writeByte(LONG_ARRAY); out.writeInt(x.length); x.foreach(out.writeLong)
+    case x: Array[Float] => out.writeByte(FLOAT_ARRAY); out.writeInt(x.length); x.foreach(out.writeFloat)
+    case x: Array[Double] => out.writeByte(DOUBLE_ARRAY); out.writeInt(x.length); x.foreach(out.writeDouble)
+    case x: Array[Char] => out.writeByte(CHAR_ARRAY); out.writeInt(x.length); x.foreach(out.writeChar(_))
+    case x: Array[String] => out.writeByte(STRING_ARRAY); out.writeInt(x.length); x.foreach(writeString(out, _))
+    case x: Array[_] => out.writeByte(ARRAY); out.writeInt(x.length); x.foreach(writeValue(out, _))
+    case x: collection.Map[_, _] =>
+      out.writeByte(MAP)
+      out.writeInt(x.size)
+      x.foreach { case (k, v) => writeString(out, k.toString); writeValue(out, v) }
+    case x: Traversable[_] => out.writeByte(LIST); out.writeInt(x.size); x.foreach(writeValue(out, _))
+    case x: JavaMap[_, _] =>
+      out.writeByte(JAVA_MAP)
+      out.writeInt(x.size())
+      x.asScala.foreach { case (k, v) => writeString(out, k.toString); writeValue(out, v) }
+    case x: JavaList[_] => out.writeByte(JAVA_LIST); out.writeInt(x.size()); x.asScala.foreach(writeValue(out, _))
+    case x => throw new InternalException(s"Can't write values of type ${x.getClass.getName} to a spill file")
+  }
+
+  def readValue(in: DataInput, query: QueryContext): Any = in.readByte() match {
+    case NULL => null
+    case TRUE => true
+    case FALSE => false
+    case BYTE => in.readByte()
+    case SHORT => in.readShort()
+    case INT => in.readInt()
+    case LONG => in.readLong()
+    case FLOAT => in.readFloat()
+    case DOUBLE => in.readDouble()
+    case CHAR => in.readChar()
+    case STRING => readString(in)
+    case NODE => query.nodeOps.proxyById(in.readLong())
+    case RELATIONSHIP => query.relationshipOps.proxyById(in.readLong())
+    case PATH =>
+      val entities = Array.fill(in.readInt() * 2 + 1)(readValue(in, query).asInstanceOf[PropertyContainer])
+      PathImpl(entities: _*)
+    case BOOLEAN_ARRAY => Array.fill(in.readInt())(in.readBoolean())
+    case BYTE_ARRAY =>
+      val bytes = new Array[Byte](in.readInt())
+      in.readFully(bytes)
+      bytes
+    case SHORT_ARRAY => Array.fill(in.readInt())(in.readShort())
+    case INT_ARRAY => Array.fill(in.readInt())(in.readInt())
+    case LONG_ARRAY => Array.fill(in.readInt())(in.readLong())
+    case FLOAT_ARRAY => Array.fill(in.readInt())(in.readFloat())
+    case DOUBLE_ARRAY => Array.fill(in.readInt())(in.readDouble())
+    case CHAR_ARRAY => Array.fill(in.readInt())(in.readChar())
+    case STRING_ARRAY => Array.fill(in.readInt())(readString(in))
+    case ARRAY => Array.fill[Any](in.readInt())(readValue(in, query))
+    case MAP => List.fill(in.readInt())(readString(in) -> readValue(in, query)).toMap
+    case LIST => List.fill(in.readInt())(readValue(in, query))
+    case JAVA_MAP =>
+      val size = in.readInt()
+      val map = new JavaHashMap[String, Any](size)
+      (0 until size).foreach(_ => map.put(readString(in), readValue(in, query)))
+      map
+    case JAVA_LIST =>
+      val size = in.readInt()
+      val list = new JavaArrayList[Any](size)
+      (0 until size).foreach(_ => list.add(readValue(in, query)))
+      list
+    case tag => throw new InternalException(s"Unknown value tag $tag in spill file")
+  }
+
+  def writeString(out: DataOutput, value: String) {
+    val bytes = value.getBytes(UTF8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  def readString(in: DataInput): String = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    new String(bytes, UTF8)
+  }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.QueryMemory.MIN_SPILL_ROWS
+
+import scala.collection.mutable
+
+/*
+The parts that eager operators share for staying within the memory budget of their query
+ */
+object Spilling {
+  /**
+   * Runs that are merged in one go. More than that are first merged into longer runs, so that a large sort doesn't
+   * keep more files open than this.
+   */
+  val MAX_MERGED_RUNS = 64
+
+  /**
+   * Hash partitioning uses PARTITION_BITS bits of the hash per level, so it can only go this deep before it runs out
+   * of bits. Partitions at this depth are kept in memory regardless of the budget.
+   */
+  val MAX_PARTITION_DEPTH = 7
+
+  private val PARTITION_BITS = 4
+
+  /**
+   * All rows of the input, in order.
+   */
+  def buffer(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val memory = state.memory
+    val rows = new mutable.ArrayBuffer[ExecutionContext]
+    var spillFile: SpillFile = null
+
+    input.foreach { row =>
+      if (spillFile != null)
+        spillFile.write(row)
+      else {
+        rows += row
+        if (!memory.reserveRow() && rows.size >= MIN_SPILL_ROWS) {
+          spillFile = memory.newSpillFile()
+          rows.foreach(spillFile.write)
+          memory.releaseRows(rows.size)
+          rows.clear()
+        }
+      }
+    }
+
+    if (spillFile != null)
+      spillFile.rows(state.query)
+    else
+      releasedWhenExhausted(rows.iterator, memory, rows.size)
+  }
+
+  /**
+   * All rows of the input in the order given by lessThan. Rows that are equal keep their input order.
+   */
+  def sort(input: Iterator[ExecutionContext], lessThan: (ExecutionContext, ExecutionContext) => Boolean,
+           state: QueryState): Iterator[ExecutionContext] = {
+    val memory = state.memory
+    val rows = new mutable.ArrayBuffer[ExecutionContext]
+    var runs = Vector.empty[SpillFile]
+
+    input.foreach { row =>
+      rows += row
+      if (!memory.reserveRow() && rows.size >= MIN_SPILL_ROWS) {
+        runs :+= writeRun(rows.sortWith(lessThan).iterator, memory)
+        memory.releaseRows(rows.size)
+        rows.clear()
+      }
+    }
+
+    val lastRun = rows.sortWith(lessThan)
+    rows.clear()
+
+    while (runs.size > MAX_MERGED_RUNS) {
+      runs = runs.grouped(MAX_MERGED_RUNS).map {
+        case Seq(run) => run
+        case group => writeRun(merge(group.map(_.rows(state.query)), lessThan), memory)
+      }.toVector
+    }
+
+    val sorted =
+      if (runs.isEmpty) lastRun.iterator
+      else merge(runs.map(_.rows(state.query)) :+ lastRun.iterator, lessThan)
+
+    releasedWhenExhausted(sorted, memory, lastRun.size)
+  }
+
+  private def writeRun(rows: Iterator[ExecutionContext], memory: QueryMemory): SpillFile = {
+    val run = memory.newSpillFile()
+    rows.foreach(run.write)
+    run
+  }
+
+  private def merge(runs: IndexedSeq[Iterator[ExecutionContext]],
+                    lessThan: (ExecutionContext, ExecutionContext) => Boolean): Iterator[ExecutionContext] = {
+    case class Head(row: ExecutionContext, run: Int)
+
+    // The priority queue dequeues the largest element first, so the smallest row has to compare as the largest
+    val ordering = new Ordering[Head] {
+      def compare(a: Head, b: Head) =
+        if (lessThan(a.row, b.row)) 1
+        else if (lessThan(b.row, a.row)) -1
+        else b.run - a.run
+    }
+
+    val heads = mutable.PriorityQueue.empty[Head](ordering)
+    runs.zipWithIndex.foreach {
+      case (run, i) => if (run.hasNext) heads.enqueue(Head(run.next(), i))
+    }
+
+    new Iterator[ExecutionContext] {
+      def hasNext = heads.nonEmpty
+
+      def next() = {
+        val head = heads.dequeue()
+        val run = runs(head.run)
+        if (run.hasNext) heads.enqueue(Head(run.next(), head.run))
+        head.row
+      }
+    }
+  }
+
+  def releasedWhenExhausted(rows: Iterator[ExecutionContext], memory: QueryMemory,
+                            count: => Long): Iterator[ExecutionContext] = new Iterator[ExecutionContext] {
+    private var released = false
+
+    def hasNext = {
+      val result = rows.hasNext
+      if (!result && !released) {
+        released = true
+        memory.releaseRows(count)
+      }
+      result
+    }
+
+    def next() = rows.next()
+  }
+
+  /**
+   * Rows that did not fit in memory, split on the hash of their grouping key so that every partition can be handled
+   * on its own.
+   */
+  class HashPartitions(memory: QueryMemory, depth: Int) {
+    private val files = new Array[SpillFile](1 << PARTITION_BITS)
+
+    def write(hash: Int, row: ExecutionContext) {
+      // Spread the hash first, since hash codes of small numbers and of sequences of them are far from random
+      val partition = ((hash * 0x9E3779B9) >>> (depth * PARTITION_BITS)) & (files.length - 1)
+      if (files(partition) == null)
+        files(partition) = memory.newSpillFile()
+      files(partition).write(row)
+    }
+
+    def partitions(state: QueryState): Iterator[Iterator[ExecutionContext]] =
+      files.iterator.filter(_ != null).map(_.rows(state.query))
+  }
+}
@@ -30,33 +30,60 @@ import scala.collection.mutable
 
 case class VarLengthExpandPipe(source: Pipe, fromName: String, relName: String, toName: String, dir: Direction,
                                projectedDir: Direction, types: Seq[String], min: Int, max: Option[Int],
-                               filteringStep: (ExecutionContext, QueryState, Relationship) => Boolean = (_, _, _) => true)
+                               filteringStep: Option[(ExecutionContext, QueryState, Relationship) => Boolean] = None)
                                (val estimatedCardinality: Option[Long] = None)(implicit pipeMonitor: PipeMonitor)
   extends PipeWithSource(source, pipeMonitor) with RonjaPipe {
 
-  private def varLengthExpand(node: Node, state: QueryState, maxDepth: Option[Int],
-                              row: ExecutionContext): Iterator[(Node, Seq[Relationship])] = {
-    val stack = new mutable.Stack[(Node, Seq[Relationship])]
-    stack.push((node, Seq.empty))
-
-    new Iterator[(Node, Seq[Relationship])] {
-      def next(): (Node, Seq[Relationship]) = {
-        val (node, rels) = stack.pop()
-        if (rels.length < maxDepth.getOrElse(Int.MaxValue)) {
-          val relationships: Iterator[Relationship] = state.query.getRelationshipsFor(node, dir, types)
-          relationships.filter(filteringStep.curried(row)(state)).foreach { rel =>
-            val otherNode = rel.getOtherNode(node)
-            if (!rels.contains(rel)) {
-              stack.push((otherNode, rels :+ rel))
+  /*
+  The end of a path being expanded. Steps only hold ids and point back at the step they were expanded from, so paths
+  share their prefixes and relationships are only turned into entities for the rows that are emitted.
+   */
+  private class PathStep(val relationshipId: Long, val nodeId: Long, val previous: PathStep, val length: Int) {
+    def contains(relationship: Long): Boolean = {
+      var step = this
+      while (step.previous != null) {
+        if (step.relationshipId == relationship)
+          return true
+        step = step.previous
+      }
+      false
+    }
+
+    // Relationships from the start of the path to this step
+    def relationships(state: QueryState): List[Relationship] = {
+      var result = List.empty[Relationship]
+      var step = this
+      while (step.previous != null) {
+        result = state.query.relationshipOps.proxyById(step.relationshipId) :: result
+        step = step.previous
+      }
+      result
+    }
+  }
+
+  private def varLengthExpand(node: Node, state: QueryState, typeIds: RelationshipTypeIds,
+                              row: ExecutionContext): Iterator[PathStep] = {
+    val maxDepth = max.getOrElse(Int.MaxValue)
+    val stack = new mutable.Stack[PathStep]
+    stack.push(new PathStep(-1, node.getId, null, 0))
+
+    new Iterator[PathStep] {
+      def next(): PathStep = {
+        val step = stack.pop()
+        if (step.length < maxDepth) {
+          val cursor = typeIds.cursor(step.nodeId, dir)
+          try {
+            while (cursor.next()) {
+              val relationshipId = cursor.relationshipId
+              if (!step.contains(relationshipId) && filteringStep.forall(_(row, state, cursor.relationship))) {
+                stack.push(new PathStep(relationshipId, cursor.otherNodeId, step, step.length + 1))
+              }
             }
+          } finally {
+            cursor.close()
           }
         }
-        val projectedRels = if (dir != projectedDir) {
-          rels.reverse
-        } else {
-          rels
-        }
-        (node, projectedRels)
+        step
       }
 
       def hasNext: Boolean = stack.nonEmpty
@@ -64,15 +91,19 @@ case class VarLengthExpandPipe(source: Pipe, fromName: String, relName: String,
   }
 
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    val typeIds = RelationshipTypeIds(types, state.query)
     input.flatMap {
       row => {
         val fromNode: Any = getFromNode(row)
         fromNode match {
           case n: Node =>
-            val paths = varLengthExpand(n, state, max, row)
+            val paths = varLengthExpand(n, state, typeIds, row)
             paths.collect {
-              case (node, rels) if rels.length >= min =>
-                row.newWith2(relName, rels, toName, node)
+              case step if step.length >= min =>
+                val rels = step.relationships(state)
+                val projectedRels = if (dir != projectedDir) rels.reverse else rels
+                val toNode = if (step.previous == null) n else state.query.nodeOps.proxyById(step.nodeId)
+                row.newWith2(relName, projectedRels, toName, toNode)
             }
 
           case value => throw new InternalException(s"Expected to find a node at $fromName but found $value instead")
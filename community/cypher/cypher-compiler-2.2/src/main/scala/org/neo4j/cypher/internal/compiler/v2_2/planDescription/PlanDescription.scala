@@ -83,6 +83,9 @@ object PlanDescription {
     case class KeyExpressions(expressions: Seq[commands.expressions.Expression]) extends Argument
     case class EntityByIdRhs(value: PipeEntityByIdRhs) extends Argument
     case class EstimatedRows(value: Long) extends Argument
+    case class Time(nanos: Long) extends Argument
+    case class PageCacheHits(value: Long) extends Argument
+    case class PageCacheMisses(value: Long) extends Argument
   }
 }
 
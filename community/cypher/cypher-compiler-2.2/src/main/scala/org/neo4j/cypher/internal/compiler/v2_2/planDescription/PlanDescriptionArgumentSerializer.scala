@@ -38,6 +38,9 @@ object PlanDescriptionArgumentSerializer {
       case _: IntroducedIdentifier => arg.toString
       case _: Rows => arg.toString
       case _: EstimatedRows => arg.toString
+      case _: Time => arg.toString
+      case _: PageCacheHits => arg.toString
+      case _: PageCacheMisses => arg.toString
 
       // Do not add a fallthrough here - we rely on exhaustive checking to ensure
       // that we don't forget to add new types of arguments here
@@ -19,6 +19,8 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.planDescription
 
+import java.util.Locale
+
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments._
 
 import scala.collection.mutable
@@ -32,7 +34,14 @@ object renderDetails extends (PlanDescription => String) {
     val plans: Seq[PlanDescription] = plan.toSeq
     val names = renderAsTree.createUniqueNames(plan)
 
-    val headers = Seq("Operator", "EstimatedRows", "Rows", "DbHits", "Identifiers", "Other")
+    // Timings and page cache counters are only there when the plan was profiled
+    val timed = plans.exists(_.arguments.exists(_.isInstanceOf[Time]))
+
+    val headers =
+      if (timed)
+        Seq("Operator", "EstimatedRows", "Rows", "DbHits", "Time(ms)", "PageCacheHits", "PageCacheMisses", "Identifiers", "Other")
+      else
+        Seq("Operator", "EstimatedRows", "Rows", "DbHits", "Identifiers", "Other")
     val rows = plans.map {
       p =>
         val name: String = names(p)
@@ -45,10 +54,19 @@ object renderDetails extends (PlanDescription => String) {
             if !x.isInstanceOf[Rows] &&
               !x.isInstanceOf[DbHits] &&
               !x.isInstanceOf[EstimatedRows] &&
+              !x.isInstanceOf[Time] &&
+              !x.isInstanceOf[PageCacheHits] &&
+              !x.isInstanceOf[PageCacheMisses] &&
               !x.isInstanceOf[IntroducedIdentifier] => PlanDescriptionArgumentSerializer.serialize(x)
         }.mkString("; ")
 
-        Seq(name, estimatedRows, rows, dbHits, ids, other)
+        if (timed) {
+          val time: String = p.arguments.collectFirst { case Time(nanos) => "%.3f".formatLocal(Locale.ROOT, nanos / 1000000.0) }.getOrElse("?")
+          val hits: String = p.arguments.collectFirst { case PageCacheHits(count) => count.toString }.getOrElse("?")
+          val misses: String = p.arguments.collectFirst { case PageCacheMisses(count) => count.toString }.getOrElse("?")
+          Seq(name, estimatedRows, rows, dbHits, time, hits, misses, ids, other)
+        } else
+          Seq(name, estimatedRows, rows, dbHits, ids, other)
     }
 
     renderTable(headers, rows)
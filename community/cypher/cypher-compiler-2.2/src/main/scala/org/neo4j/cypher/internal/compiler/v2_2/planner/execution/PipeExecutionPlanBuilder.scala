@@ -87,6 +87,12 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
         case NodeByLabelScan(IdName(id), label, _) =>
           NodeByLabelScanPipe(id, label)()
 
+        case NodeCountFromCountStore(IdName(id), labelName) =>
+          NodeCountFromCountStorePipe(id, labelName.map(_.name))()
+
+        case RelationshipCountFromCountStore(IdName(id), typeNames) =>
+          RelationshipCountFromCountStorePipe(id, typeNames.map(_.name))()
+
         case NodeByIdSeek(IdName(id), nodeIdExpr, _) =>
           NodeByIdSeekPipe(id, nodeIdExpr.asEntityByIdRhs)()
 
@@ -102,6 +108,9 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
         case NodeIndexUniqueSeek(IdName(id), label, propertyKey, valueExpr, _) =>
           NodeIndexSeekPipe(id, label, propertyKey, valueExpr.map(buildExpression), unique = true)()
 
+        case NodeIndexRangeSeek(IdName(id), label, propertyKey, range, _) =>
+          NodeIndexRangeSeekPipe(id, label, propertyKey, range.map(buildExpression))()
+
         case Selection(predicates, left) =>
           FilterPipe(buildPipe(left), predicates.map(buildPredicate).reduce(_ ++ _))()
 
@@ -122,7 +131,9 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
               result
             }
           }
-          VarLengthExpandPipe(buildPipe(left), fromName, relName, toName, dir, projectedDir, types.map(_.name), min, max, predicate)()
+          // Without predicates, relationships never have to be turned into entities while expanding
+          val filteringStep = if (predicates.isEmpty) None else Some(predicate)
+          VarLengthExpandPipe(buildPipe(left), fromName, relName, toName, dir, projectedDir, types.map(_.name), min, max, filteringStep)()
 
         case OptionalExpand(left, IdName(fromName), dir, types, IdName(toName), IdName(relName), SimplePatternLength, predicates) =>
           val predicate = predicates.map(buildPredicate).reduceOption(_ ++ _).getOrElse(True())
@@ -198,7 +209,7 @@ class PipeExecutionPlanBuilder(monitors: Monitors) {
           throw new CantHandleQueryException(x.toString)
       }
 
-      result.setEstimatedCardinality(context.cardinality(plan).amount.toLong)
+      fuseReadPipes(result.setEstimatedCardinality(context.cardinality(plan).amount.toLong))
     }
 
     val topLevelPipe = buildPipe(plan)
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.execution
+
+import org.neo4j.cypher.internal.compiler.v2_2.pipes._
+
+/*
+Folds filter, projection and expand pipes sitting on top of a node scan or index seek into a single FusedReadPipe.
+Anything else is left as it is, which makes the interpreted pipes the fallback for operators that can't be fused.
+ */
+object fuseReadPipes extends (Pipe with RonjaPipe => Pipe with RonjaPipe) {
+
+  def apply(pipe: Pipe with RonjaPipe): Pipe with RonjaPipe = {
+    val fusable: Option[(Pipe, FusedStep)] = pipe match {
+      case p: FilterPipe => Some(p.source -> FusedFilter(p.predicate))
+      case p: ProjectionNewPipe => Some(p.source -> FusedProjection(p.expressions))
+      case p: ExpandPipe => Some(p.source -> FusedExpand(p.from, p.relName, p.to, p.dir, p.types))
+      case _ => None
+    }
+
+    fusable match {
+      case Some((source: FusedReadPipe, step)) =>
+        FusedReadPipe(pipe, source.leaf, source.steps :+ step)(source.monitor)
+      case Some((source, step)) if FusedReadPipe.isLeaf(source) =>
+        FusedReadPipe(pipe, source, Seq(step))(source.monitor)
+      case _ =>
+        pipe
+    }
+  }
+}
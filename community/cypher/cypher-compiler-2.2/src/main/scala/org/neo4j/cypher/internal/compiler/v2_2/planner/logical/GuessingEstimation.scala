@@ -53,7 +53,7 @@ class StatisticsBackedCardinalityModel(statistics: GraphStatistics,
       _: Expand | _: OuterHashJoin | _: OptionalExpand | _: FindShortestPaths | _: Selection | _: Apply |
       _: SemiApply | _: LetSemiApply | _: LetAntiSemiApply | _: SelectOrSemiApply | _: LetSelectOrSemiApply |
       _: SelectOrAntiSemiApply | _: LetSelectOrAntiSemiApply | _: DirectedRelationshipByIdSeek |
-      _: UndirectedRelationshipByIdSeek | _: DirectedRelationshipByIdSeek | _: Optional | _: NodeIndexSeek  | _: AntiSemiApply =>
+      _: UndirectedRelationshipByIdSeek | _: DirectedRelationshipByIdSeek | _: Optional | _: NodeIndexSeek | _: NodeIndexRangeSeek | _: AntiSemiApply =>
 
       queryGraphCardinalityModel(plan.solved.lastQueryGraph)
 
@@ -105,6 +105,9 @@ class StatisticsBackedCardinalityModel(statistics: GraphStatistics,
     case _: Aggregation =>
       Cardinality(1)
 
+    case _: NodeCountFromCountStore | _: RelationshipCountFromCountStore =>
+      Cardinality(1)
+
     case _: UnwindCollection =>
       Cardinality(1)
 
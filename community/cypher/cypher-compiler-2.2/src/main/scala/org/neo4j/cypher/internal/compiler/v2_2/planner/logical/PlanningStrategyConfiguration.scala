@@ -25,7 +25,10 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.QueryGraph
 case class PlanningStrategyConfiguration(
   leafPlanners: LeafPlannerList,
   applySelections: PlanTransformer[QueryGraph],
-  pickBestCandidate: CandidateSelector
+  pickBestCandidate: CandidateSelector,
+  // Whether simple counts, f.ex. MATCH (n:Person) RETURN count(n), are read from the counts store instead of
+  // being computed by scanning and aggregating
+  planCountsFromCountStore: Boolean = true
 )
 
 object PlanningStrategyConfiguration {
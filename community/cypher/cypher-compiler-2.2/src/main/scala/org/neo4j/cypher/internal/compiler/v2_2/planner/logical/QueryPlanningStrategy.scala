@@ -42,8 +42,11 @@ class QueryPlanningStrategy(config: PlanningStrategyConfiguration = PlanningStra
   }
 
   protected def planSingleQuery(query: PlannerQuery)(implicit context: LogicalPlanningContext, leafPlan: Option[LogicalPlan] = None): LogicalPlan = {
-    val firstPart = planPart(query, leafPlan)
-    val projectedFirstPart = planEventHorizon(query, firstPart)
+    val countStorePlan = if (leafPlan.isEmpty && config.planCountsFromCountStore) countStorePlanner(query) else None
+    val projectedFirstPart = countStorePlan match {
+      case Some(plan) => sortSkipAndLimit(plan, query)
+      case None => planEventHorizon(query, planPart(query, leafPlan))
+    }
     val finalPlan = planWithTail(projectedFirstPart, query.tail)
     verifyBestPlan(finalPlan, query)
   }
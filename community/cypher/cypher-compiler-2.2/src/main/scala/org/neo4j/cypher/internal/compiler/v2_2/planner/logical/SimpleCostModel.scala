@@ -64,6 +64,9 @@ class SimpleCostModel(cardinality: CardinalityModel) extends CostModel {
     case NodeIndexUniqueSeek(_, _, _, ManyQueryExpression(_), _) =>
       cardinality(plan) * INDEX_OVERHEAD_COST_PER_ROW * 10 // This is a wild guess.
 
+    case _: NodeIndexRangeSeek =>
+      cardinality(plan) * INDEX_OVERHEAD_COST_PER_ROW
+
     case _: NodeByLabelScan =>
       cardinality(plan) * LABEL_INDEX_OVERHEAD_COST_PER_ROW
 
@@ -76,6 +79,9 @@ class SimpleCostModel(cardinality: CardinalityModel) extends CostModel {
     case _: UndirectedRelationshipByIdSeek =>
       cardinality(plan) * STORE_ACCESS_COST_PER_ROW
 
+    case _: NodeCountFromCountStore | _: RelationshipCountFromCountStore =>
+      cardinality(plan) * STORE_ACCESS_COST_PER_ROW
+
     case projection: Projection =>
       cost(projection.left) +
       cardinality(projection.left) * EXPRESSION_PROJECTION_OVERHEAD_PER_ROW * projection.numExpressions
@@ -17,11 +17,15 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans
 
-public interface TemporalUtilityCounter
-{
-    void increment( TemporalUtility utility );
+import org.neo4j.cypher.internal.compiler.v2_2.ast.LabelName
+import org.neo4j.cypher.internal.compiler.v2_2.planner.PlannerQuery
 
-    void decrement( TemporalUtility utility );
+/*
+Produces a single row with the number of nodes, optionally with a given label, read straight from the counts store.
+ */
+case class NodeCountFromCountStore(idName: IdName, labelName: Option[LabelName])(val solved: PlannerQuery)
+  extends LogicalLeafPlan {
+  def availableSymbols: Set[IdName] = Set(idName)
 }
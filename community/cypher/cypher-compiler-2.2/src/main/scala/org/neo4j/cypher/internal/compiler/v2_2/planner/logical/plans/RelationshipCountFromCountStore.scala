@@ -17,14 +17,17 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans
 
-import java.io.IOException;
+import org.neo4j.cypher.internal.compiler.v2_2.ast.RelTypeName
+import org.neo4j.cypher.internal.compiler.v2_2.planner.PlannerQuery
 
-public class PageLoadFailureException extends Exception
-{
-    public PageLoadFailureException( IOException e )
-    {
-        super(e);
-    }
+/*
+Produces a single row with the number of relationships of any of the given types, or of any type when no types
+are given, read straight from the counts store. The counts store does not keep track of the labels on either end,
+so these can not be part of the pattern.
+ */
+case class RelationshipCountFromCountStore(idName: IdName, typeNames: Seq[RelTypeName])(val solved: PlannerQuery)
+  extends LogicalLeafPlan {
+  def availableSymbols: Set[IdName] = Set(idName)
 }
@@ -25,7 +25,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
 import org.neo4j.cypher.internal.compiler.v2_2.planner.QueryGraph
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical._
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.LogicalPlanProducer._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.{SingleQueryExpression, ManyQueryExpression, QueryExpression}
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, ManyQueryExpression, NumericSeekRange, PrefixSeekRange, QueryExpression, SeekRange}
 
 
 abstract class IndexLeafPlanner extends LeafPlanner {
@@ -34,7 +34,8 @@ abstract class IndexLeafPlanner extends LeafPlanner {
     val predicates: Seq[Expression] = qg.selections.flatPredicates
     val labelPredicateMap: Map[IdName, Set[HasLabels]] = qg.selections.labelPredicates
 
-    def producePlanFor(name: String, propertyKeyName: PropertyKeyName, propertyPredicate: Expression, queryExpression: QueryExpression[Expression]) = {
+    def producePlanFor(name: String, propertyKeyName: PropertyKeyName, propertyPredicates: Seq[Expression],
+                       planConstructor: (IdName, LabelToken, PropertyKeyToken, Option[UsingIndexHint]) => (Seq[Expression]) => LogicalPlan) = {
       val idName = IdName(name)
       for (labelPredicate <- labelPredicateMap.getOrElse(idName, Set.empty);
            labelName <- labelPredicate.labels;
@@ -46,20 +47,48 @@ abstract class IndexLeafPlanner extends LeafPlanner {
           case hint @ UsingIndexHint(Identifier(`name`), `labelName`, Identifier(`propertyName`)) => hint
         }
         val entryConstructor: (Seq[Expression]) => LogicalPlan =
-          constructPlan(idName, LabelToken(labelName, labelId), PropertyKeyToken(propertyKeyName, propertyKeyName.id.head),
-                        queryExpression, hint, qg.argumentIds)
-        entryConstructor(Seq(propertyPredicate, labelPredicate))
+          planConstructor(idName, LabelToken(labelName, labelId), PropertyKeyToken(propertyKeyName, propertyKeyName.id.head), hint)
+        entryConstructor(propertyPredicates :+ labelPredicate)
       }
     }
 
-    CandidateList(
-      predicates.collect {
-        case inPredicate@In(Property(identifier@Identifier(name), propertyKeyName), ConstantExpression(valueExpr)) =>
-          producePlanFor(name, propertyKeyName, inPredicate, ManyQueryExpression(valueExpr))
-      }.flatten
-    )
+    val exactSeeks = predicates.collect {
+      case inPredicate@In(Property(identifier@Identifier(name), propertyKeyName), ConstantExpression(valueExpr)) =>
+        producePlanFor(name, propertyKeyName, Seq(inPredicate),
+          constructPlan(_, _, _, ManyQueryExpression(valueExpr), _, qg.argumentIds))
+    }.flatten
+
+    // Of several bounds on the same property, the first lower and the first upper one are sought, the rest are filtered
+    val numericRangeSeeks = predicates.collect {
+      case predicate@NumericRangeBound(name, propertyKeyName, bound) => (name, propertyKeyName, predicate, bound)
+    }.groupBy { case (name, propertyKeyName, _, _) => (name, propertyKeyName.name) }.values.flatMap { bounds =>
+      val (name, propertyKeyName, _, _) = bounds.head
+      val lower = bounds.collectFirst { case (_, _, predicate, Left(bound)) => (predicate, bound) }
+      val upper = bounds.collectFirst { case (_, _, predicate, Right(bound)) => (predicate, bound) }
+      val range = NumericSeekRange(lower.map(_._2), upper.map(_._2))
+      producePlanFor(name, propertyKeyName, (lower ++ upper).map(_._1).toSeq,
+        constructRangePlan(_, _, _, range, _, qg.argumentIds))
+    }
+
+    val prefixSeeks = predicates.collect {
+      case regex@RegexMatch(Property(Identifier(name), propertyKeyName), StringLiteral(PrefixPattern(prefix))) =>
+        producePlanFor(name, propertyKeyName, Seq(regex),
+          constructRangePlan(_, _, _, PrefixSeekRange[Expression](prefix), _, qg.argumentIds))
+    }.flatten
+
+    CandidateList(exactSeeks ++ numericRangeSeeks ++ prefixSeeks)
   }
 
+  protected def constructRangePlan(idName: IdName,
+                                   label: LabelToken,
+                                   propertyKey: PropertyKeyToken,
+                                   range: SeekRange[Expression],
+                                   hint: Option[UsingIndexHint],
+                                   argumentIds: Set[IdName])
+                                  (implicit context: LogicalPlanningContext): (Seq[Expression]) => LogicalPlan =
+    (predicates: Seq[Expression]) =>
+      planNodeIndexRangeSeek(idName, label, propertyKey, range, predicates, hint, argumentIds)
+
   protected def constructPlan(idName: IdName,
                               label: LabelToken,
                               propertyKey: PropertyKeyToken,
@@ -104,3 +133,32 @@ object indexSeekLeafPlanner extends IndexLeafPlanner {
     context.planContext.getIndexRule(label, property)
 
 }
+
+/*
+Comparisons of a node property with a number literal, as the lower (Left) or upper (Right) bound of a range
+ */
+object NumericRangeBound {
+  def unapply(predicate: Expression): Option[(String, PropertyKeyName, Either[Bound[Expression], Bound[Expression]])] = predicate match {
+    case GreaterThan(Property(Identifier(name), key), number: NumberLiteral)        => Some((name, key, Left(Bound(number, inclusive = false))))
+    case GreaterThanOrEqual(Property(Identifier(name), key), number: NumberLiteral) => Some((name, key, Left(Bound(number, inclusive = true))))
+    case LessThan(Property(Identifier(name), key), number: NumberLiteral)           => Some((name, key, Right(Bound(number, inclusive = false))))
+    case LessThanOrEqual(Property(Identifier(name), key), number: NumberLiteral)    => Some((name, key, Right(Bound(number, inclusive = true))))
+    case GreaterThan(number: NumberLiteral, Property(Identifier(name), key))        => Some((name, key, Right(Bound(number, inclusive = false))))
+    case GreaterThanOrEqual(number: NumberLiteral, Property(Identifier(name), key)) => Some((name, key, Right(Bound(number, inclusive = true))))
+    case LessThan(number: NumberLiteral, Property(Identifier(name), key))           => Some((name, key, Left(Bound(number, inclusive = false))))
+    case LessThanOrEqual(number: NumberLiteral, Property(Identifier(name), key))    => Some((name, key, Left(Bound(number, inclusive = true))))
+    case _                                                                          => None
+  }
+}
+
+/*
+Regular expressions that are a plain prefix followed by .*, like 'Andr.*'
+ */
+object PrefixPattern {
+  private val pattern = """([\p{L}\p{N}_ ,:;'"#@%&/<>=~!-]+)\.\*""".r
+
+  def unapply(regex: String): Option[String] = regex match {
+    case pattern(prefix) => Some(prefix)
+    case _               => None
+  }
+}
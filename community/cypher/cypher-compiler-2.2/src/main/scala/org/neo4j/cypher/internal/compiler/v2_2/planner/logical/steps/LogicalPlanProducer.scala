@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps
 
 import org.neo4j.cypher.internal.compiler.v2_2.ast._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.QueryExpression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{QueryExpression, SeekRange}
 import org.neo4j.cypher.internal.compiler.v2_2.pipes.SortDescription
 import org.neo4j.cypher.internal.compiler.v2_2.planner._
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans.{Limit => LimitPlan, Skip => SkipPlan, _}
@@ -38,6 +38,16 @@ object LogicalPlanProducer {
         AggregatingQueryProjection(groupingKeys = grouping, aggregationExpressions = aggregation)
       )))
 
+  def planNodeCountFromCountStore(idName: IdName, labelName: Option[LabelName], queryGraph: QueryGraph,
+                                  aggregation: Map[String, Expression]) =
+    NodeCountFromCountStore(idName, labelName)(
+      PlannerQuery(graph = queryGraph, horizon = AggregatingQueryProjection(aggregationExpressions = aggregation)))
+
+  def planRelationshipCountFromCountStore(idName: IdName, typeNames: Seq[RelTypeName], queryGraph: QueryGraph,
+                                          aggregation: Map[String, Expression]) =
+    RelationshipCountFromCountStore(idName, typeNames)(
+      PlannerQuery(graph = queryGraph, horizon = AggregatingQueryProjection(aggregationExpressions = aggregation)))
+
   def planAllNodesScan(idName: IdName, argumentIds: Set[IdName]) =
     AllNodesScan(idName, argumentIds)(
       PlannerQuery(graph = QueryGraph(
@@ -144,6 +154,22 @@ object LogicalPlanProducer {
     )
   }
 
+  def planNodeIndexRangeSeek(idName: IdName,
+                             label: ast.LabelToken,
+                             propertyKey: ast.PropertyKeyToken,
+                             range: SeekRange[Expression],
+                             solvedPredicates: Seq[Expression] = Seq.empty,
+                             solvedHint: Option[UsingIndexHint] = None,
+                             argumentIds: Set[IdName]) =
+    NodeIndexRangeSeek(idName, label, propertyKey, range, argumentIds)(
+      PlannerQuery(graph = QueryGraph.empty
+        .addPatternNodes(idName)
+        .addPredicates(solvedPredicates: _*)
+        .addHints(solvedHint)
+        .addArgumentId(argumentIds.toSeq)
+      )
+    )
+
   def planNodeHashJoin(node: IdName, left: LogicalPlan, right: LogicalPlan) =
     NodeHashJoin(node, left, right)(
       left.solved ++ right.solved
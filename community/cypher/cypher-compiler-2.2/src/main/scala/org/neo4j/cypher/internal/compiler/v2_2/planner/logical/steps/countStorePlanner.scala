@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps
+
+import org.neo4j.cypher.internal.compiler.v2_2.ast._
+import org.neo4j.cypher.internal.compiler.v2_2.functions
+import org.neo4j.cypher.internal.compiler.v2_2.planner.{AggregatingQueryProjection, PlannerQuery, QueryGraph}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.LogicalPlanProducer._
+import org.neo4j.graphdb.Direction
+
+/*
+Answers queries that do nothing but count the nodes or relationships of a single pattern straight from the counts
+store, instead of finding and aggregating every matching entity:
+
+MATCH (n:Label) RETURN count(n)
+MATCH ()-[r:TYPE]->() RETURN count(*)
+
+Ordering, skipping and limiting is planned on top as usual.
+ */
+object countStorePlanner {
+
+  def apply(query: PlannerQuery): Option[LogicalPlan] = query.horizon match {
+    case AggregatingQueryProjection(groupingKeys, aggregations, _) if groupingKeys.isEmpty && aggregations.size == 1 =>
+      val (columnName, expression) = aggregations.head
+      if (isCount(expression, query.graph) && isPlainPattern(query.graph))
+        planCount(IdName(columnName), query.graph, aggregations)
+      else
+        None
+
+    case _ =>
+      None
+  }
+
+  private def planCount(idName: IdName, queryGraph: QueryGraph, aggregations: Map[String, Expression]): Option[LogicalPlan] =
+    (queryGraph.patternNodes.toSeq, queryGraph.patternRelationships.toSeq) match {
+      // MATCH (n) RETURN count(n)
+      // MATCH (n:Label) RETURN count(n)
+      case (Seq(node), Seq()) =>
+        nodeLabel(node, queryGraph).map {
+          labelName => planNodeCountFromCountStore(idName, labelName, queryGraph, aggregations)
+        }
+
+      // MATCH ()-[r:TYPE]->() RETURN count(r)
+      case (_, Seq(PatternRelationship(_, (left, right), dir, types, SimplePatternLength)))
+        if dir != Direction.BOTH && left != right && queryGraph.patternNodes == Set(left, right) &&
+           queryGraph.selections.predicates.isEmpty =>
+        Some(planRelationshipCountFromCountStore(idName, types, queryGraph, aggregations))
+
+      case _ =>
+        None
+    }
+
+  // Some(None) for no label at all, None if the predicates are more than the counts store can answer
+  private def nodeLabel(node: IdName, queryGraph: QueryGraph): Option[Option[LabelName]] =
+    queryGraph.selections.flatPredicates.foldLeft[Option[Seq[LabelName]]](Some(Seq.empty)) {
+      case (Some(acc), HasLabels(Identifier(name), labels)) if name == node.name => Some(acc ++ labels)
+      case _ => None
+    } collect {
+      case Seq() => None
+      case Seq(labelName) => Some(labelName)
+    }
+
+  private def isCount(expression: Expression, queryGraph: QueryGraph): Boolean = expression match {
+    case CountStar() =>
+      true
+
+    case func@FunctionInvocation(_, false, IndexedSeq(Identifier(name)))
+      if func.function == Some(functions.Count) =>
+      queryGraph.patternNodes.contains(IdName(name)) || queryGraph.patternRelationships.exists(_.name.name == name)
+
+    case _ =>
+      false
+  }
+
+  private def isPlainPattern(queryGraph: QueryGraph): Boolean =
+    queryGraph.argumentIds.isEmpty &&
+    queryGraph.optionalMatches.isEmpty &&
+    queryGraph.shortestPathPatterns.isEmpty &&
+    queryGraph.hints.isEmpty
+}
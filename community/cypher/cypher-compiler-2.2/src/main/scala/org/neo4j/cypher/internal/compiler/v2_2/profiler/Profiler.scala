@@ -25,24 +25,31 @@ import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.A
 import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes.{NullPipe, Pipe, PipeDecorator, QueryState}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{DelegatingOperations, DelegatingQueryContext, Operations, QueryContext}
-import org.neo4j.graphdb.{Node, PropertyContainer, Relationship}
+import org.neo4j.graphdb.{GraphDatabaseService, Node, PropertyContainer, Relationship}
+import org.neo4j.io.pagecache.{CountingPageCacheMonitor, PageCacheMonitor}
+import org.neo4j.kernel.GraphDatabaseAPI
 
 import scala.collection.mutable
 
-class Profiler extends PipeDecorator {
+class Profiler(pageCache: PageCacheCounters = PageCacheCounters.NONE) extends PipeDecorator {
 
   val dbHitsStats: mutable.Map[Pipe, ProfilingQueryContext] = mutable.Map.empty
   val rowStats: mutable.Map[Pipe, ProfilingIterator] = mutable.Map.empty
+  val timeStats: mutable.Map[Pipe, OperatorClock] = mutable.Map.empty
 
+  private val clock = new ProfilingClock(pageCache)
 
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
-    val resultIter = new ProfilingIterator(iter)
+    // Closes the setup that was opened when the state was decorated
+    clock.leave()
+    val resultIter = new ProfilingIterator(iter, clock, operatorClock(pipe))
 
     rowStats(pipe) = resultIter
     resultIter
   }
 
   def decorate(pipe: Pipe, state: QueryState): QueryState = {
+    clock.enter(operatorClock(pipe))
     val decoratedContext = state.query match {
       case p: ProfilingQueryContext => new ProfilingQueryContext(p.inner, pipe)
       case _                        => new ProfilingQueryContext(state.query, pipe)
@@ -62,12 +69,94 @@ class Profiler extends PipeDecorator {
         val pipe = input.pipe
         val rows = rowStats.get(pipe).map(_.count).getOrElse(0L)
         val dbhits = dbHitsStats.get(pipe).map(_.count).getOrElse(0L)
+        val time = timeStats.getOrElse(pipe, new OperatorClock)
 
         input
           .addArgument(Arguments.Rows(rows))
           .addArgument(Arguments.DbHits(dbhits))
+          .addArgument(Arguments.Time(time.nanos))
+          .addArgument(Arguments.PageCacheHits(time.pageCacheHits))
+          .addArgument(Arguments.PageCacheMisses(time.pageCacheMisses))
     }
   }
+
+  private def operatorClock(pipe: Pipe) = timeStats.getOrElseUpdate(pipe, new OperatorClock)
+}
+
+/**
+ * Reads the page cache counters of the database. They are shared by every query that is running, so what a profile
+ * reports is only exact when nothing else is using the page cache at the same time.
+ */
+trait PageCacheCounters {
+  def pins: Int
+  def faults: Int
+}
+
+object PageCacheCounters {
+  val NONE = new PageCacheCounters {
+    def pins = 0
+    def faults = 0
+  }
+
+  def apply(graph: GraphDatabaseService): PageCacheCounters = graph match {
+    case api: GraphDatabaseAPI =>
+      api.getDependencyResolver.resolveDependency(classOf[PageCacheMonitor]) match {
+        case monitor: CountingPageCacheMonitor => new PageCacheCounters {
+          def pins = monitor.countPins()
+          def faults = monitor.countFaults()
+        }
+        case _ => NONE
+      }
+    case _ => NONE
+  }
+}
+
+/**
+ * Time and page cache accesses spent in a single operator, not counting the operators it pulls rows from
+ */
+final class OperatorClock {
+  var nanos = 0L
+  var pageCacheHits = 0L
+  var pageCacheMisses = 0L
+}
+
+/*
+Keeps track of which operator is running. Whenever control moves from one operator to another, whatever happened
+since the last switch is charged to the operator that was running, so nested calls are never counted twice.
+ */
+final class ProfilingClock(pageCache: PageCacheCounters) {
+  private var running: List[OperatorClock] = Nil
+  private var lastSwitch = 0L
+  private var lastPins = 0
+  private var lastFaults = 0
+
+  def enter(operator: OperatorClock) {
+    charge()
+    running = operator :: running
+  }
+
+  def leave() {
+    charge()
+    if (running.nonEmpty)
+      running = running.tail
+  }
+
+  private def charge() {
+    val now = System.nanoTime()
+    val pins = pageCache.pins
+    val faults = pageCache.faults
+    if (running.nonEmpty) {
+      val operator = running.head
+      // The counters are ints that may wrap around, but the difference between two readings is still right
+      val faulted = faults - lastFaults
+      operator.nanos += now - lastSwitch
+      operator.pageCacheMisses += faulted
+      operator.pageCacheHits += (pins - lastPins) - faulted
+    }
+    lastSwitch = now
+    lastPins = pins
+    lastFaults = faults
+  }
 }
 
 trait Counter {
@@ -107,12 +196,25 @@ final class ProfilingQueryContext(val inner: QueryContext, val p: Pipe) extends
   override def relationshipOps: Operations[Relationship] = new ProfilerOperations(inner.relationshipOps)
 }
 
-class ProfilingIterator(inner: Iterator[ExecutionContext]) extends Iterator[ExecutionContext] with Counter {
+class ProfilingIterator(inner: Iterator[ExecutionContext], clock: ProfilingClock, operator: OperatorClock)
+  extends Iterator[ExecutionContext] with Counter {
 
-  def hasNext: Boolean = inner.hasNext
+  def hasNext: Boolean = {
+    clock.enter(operator)
+    try {
+      inner.hasNext
+    } finally {
+      clock.leave()
+    }
+  }
 
   def next(): ExecutionContext = {
     increment()
-    inner.next()
+    clock.enter(operator)
+    try {
+      inner.next()
+    } finally {
+      clock.leave()
+    }
   }
 }
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compiler.v2_2.spi
 
 import java.net.{CookieHandler, CookieManager, CookiePolicy, URL}
 import java.io._
+import java.util.concurrent.ArrayBlockingQueue
 import au.com.bytecode.opencsv.CSVReader
 import org.neo4j.cypher.internal.compiler.v2_2.TaskCloser
 import org.neo4j.cypher.LoadExternalResourceException
@@ -28,6 +29,8 @@ import org.neo4j.cypher.internal.compiler.v2_2.pipes.ExternalResource
 
 object CSVResources {
   val DEFAULT_FIELD_TERMINATOR: Char = ','
+  val ROWS_PER_BATCH = 512
+  val BATCHES_READ_AHEAD = 16
 }
 
 class CSVResources(cleaner: TaskCloser) extends ExternalResource {
@@ -36,23 +39,14 @@ class CSVResources(cleaner: TaskCloser) extends ExternalResource {
     val inputStream = openStream(url)
     val reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"))
     val csvReader = new CSVReader(reader, fieldTerminator.map(_.charAt(0)).getOrElse(CSVResources.DEFAULT_FIELD_TERMINATOR))
+    val rows = new ReadAheadCsvIterator(csvReader, url)
 
     cleaner.addTask(_ => {
+      rows.stop()
       csvReader.close()
     })
 
-    new Iterator[Array[String]] {
-      var nextRow: Array[String] = csvReader.readNext()
-
-      def hasNext: Boolean = nextRow != null
-
-      def next(): Array[String] = {
-        if (!hasNext) Iterator.empty.next()
-        val row = nextRow
-        nextRow = csvReader.readNext()
-        row
-      }
-    }
+    rows
   }
 
   private def openStream(url: URL, connectionTimeout: Int = 2000, readTimeout: Int = 10 * 60 * 1000): InputStream = {
@@ -70,6 +64,87 @@ class CSVResources(cleaner: TaskCloser) extends ExternalResource {
   }
 }
 
+/*
+Reads and parses the file on a thread of its own, handing rows over to the query in batches through a bounded queue.
+Parsing then runs alongside the updates the query makes for each row, and never gets more than a few batches ahead.
+ */
+class ReadAheadCsvIterator(csvReader: CSVReader, url: URL) extends Iterator[Array[String]] {
+
+  private sealed trait Batch
+  private case class Rows(rows: Array[Array[String]]) extends Batch
+  private case object End extends Batch
+  private case class Failed(cause: Throwable) extends Batch
+
+  private val queue = new ArrayBlockingQueue[Batch](CSVResources.BATCHES_READ_AHEAD)
+  @volatile private var stopped = false
+
+  private var current: Array[Array[String]] = Array.empty
+  private var position = 0
+  private var done = false
+
+  private val reader = new Thread(s"LOAD CSV reader for $url") {
+    override def run() {
+      try {
+        val rows = new Array[Array[String]](CSVResources.ROWS_PER_BATCH)
+        var count = 0
+        var row = csvReader.readNext()
+        while (row != null && !stopped) {
+          rows(count) = row
+          count += 1
+          if (count == rows.length) {
+            queue.put(Rows(rows.clone()))
+            count = 0
+          }
+          row = csvReader.readNext()
+        }
+        if (count > 0)
+          queue.put(Rows(java.util.Arrays.copyOf(rows, count)))
+        queue.put(End)
+      } catch {
+        case e: InterruptedException =>
+          // Stopped while waiting for the query to catch up
+        case e: Throwable =>
+          if (!stopped)
+            queue.put(Failed(e))
+      }
+    }
+  }
+  reader.setDaemon(true)
+  reader.start()
+
+  def hasNext: Boolean = {
+    while (position == current.length && !done) {
+      queue.take() match {
+        case Rows(rows) =>
+          current = rows
+          position = 0
+        case End =>
+          done = true
+        case Failed(cause) =>
+          done = true
+          throw cause
+      }
+    }
+    position < current.length
+  }
+
+  def next(): Array[String] = {
+    if (!hasNext) Iterator.empty.next()
+    val row = current(position)
+    current(position) = null
+    position += 1
+    row
+  }
+
+  def stop() {
+    stopped = true
+    reader.interrupt()
+    // Whatever was read ahead is dropped, and the query sees the end of the file instead of waiting for more rows
+    queue.clear()
+    queue.offer(End)
+  }
+}
+
 object TheCookieManager {
   private lazy val theCookieManager = create
 
@@ -54,6 +54,18 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]): Iterator[Relationship] = manyDbHits(inner.getRelationshipsFor(node, dir, types))
 
+  def expand(nodeId: Long, dir: Direction, typeIds: Seq[Int]): RelationshipCursor =
+    new DelegatingRelationshipCursor(singleDbHit(inner.expand(nodeId, dir, typeIds))) {
+      override def next(): Boolean = {
+        val hasNext = cursor.next()
+        if (hasNext) singleDbHit(hasNext) else hasNext
+      }
+    }
+
+  def nodeCountByCountStore(labelId: Option[Int]): Long = singleDbHit(inner.nodeCountByCountStore(labelId))
+
+  def relationshipCountByCountStore(typeId: Option[Int]): Long = singleDbHit(inner.relationshipCountByCountStore(typeId))
+
   def nodeOps = inner.nodeOps
 
   def relationshipOps = inner.relationshipOps
@@ -75,6 +87,13 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] = manyDbHits(inner.exactIndexSearch(index, value))
 
+  def numberRangeIndexSearch(index: IndexDescriptor, lower: Option[Number], includeLower: Boolean,
+                             upper: Option[Number], includeUpper: Boolean): Iterator[Node] =
+    manyDbHits(inner.numberRangeIndexSearch(index, lower, includeLower, upper, includeUpper))
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] =
+    manyDbHits(inner.prefixIndexSearch(index, prefix))
+
   def getNodesByLabel(id: Int): Iterator[Node] = manyDbHits(inner.getNodesByLabel(id))
 
   def upgrade(context: QueryContext): LockingQueryContext = inner.upgrade(context)
@@ -117,6 +136,8 @@ class DelegatingOperations[T <: PropertyContainer](protected val inner: Operatio
 
   def getById(id: Long): T = singleDbHit(inner.getById(id))
 
+  def proxyById(id: Long): T = inner.proxyById(id)
+
   def getProperty(obj: Long, propertyKeyId: Int): Any = singleDbHit(inner.getProperty(obj, propertyKeyId))
 
   def hasProperty(obj: Long, propertyKeyId: Int): Boolean = singleDbHit(inner.hasProperty(obj, propertyKeyId))
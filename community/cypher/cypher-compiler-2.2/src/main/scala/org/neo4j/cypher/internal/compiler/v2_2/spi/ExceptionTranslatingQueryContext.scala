@@ -58,6 +58,17 @@ class ExceptionTranslatingQueryContext(inner: QueryContext) extends DelegatingQu
   override def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]): Iterator[Relationship] =
     translateException(super.getRelationshipsFor(node, dir, types))
 
+  override def expand(nodeId: Long, dir: Direction, typeIds: Seq[Int]): RelationshipCursor =
+    new DelegatingRelationshipCursor(translateException(super.expand(nodeId, dir, typeIds))) {
+      override def next(): Boolean = translateException(cursor.next())
+    }
+
+  override def nodeCountByCountStore(labelId: Option[Int]): Long =
+    translateException(super.nodeCountByCountStore(labelId))
+
+  override def relationshipCountByCountStore(typeId: Option[Int]): Long =
+    translateException(super.relationshipCountByCountStore(typeId))
+
   override def nodeOps: Operations[Node] =
     new ExceptionTranslatingOperations[Node](super.nodeOps)
 
@@ -88,6 +99,13 @@ class ExceptionTranslatingQueryContext(inner: QueryContext) extends DelegatingQu
   override def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] =
     translateException(super.exactIndexSearch(index, value))
 
+  override def numberRangeIndexSearch(index: IndexDescriptor, lower: Option[Number], includeLower: Boolean,
+                                      upper: Option[Number], includeUpper: Boolean): Iterator[Node] =
+    translateException(super.numberRangeIndexSearch(index, lower, includeLower, upper, includeUpper))
+
+  override def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] =
+    translateException(super.prefixIndexSearch(index, prefix))
+
   override def getNodesByLabel(id: Int): Iterator[Node] =
     translateException(super.getNodesByLabel(id))
 
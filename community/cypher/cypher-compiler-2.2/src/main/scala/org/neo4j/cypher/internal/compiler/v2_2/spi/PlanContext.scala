@@ -38,6 +38,13 @@ trait PlanContext extends TokenContext {
 
   def getUniquenessConstraint(labelName: String, propertyKey: String): Option[UniquenessConstraint]
 
+  def indexesGetForLabel(labelId: Int): Iterator[IndexDescriptor]
+
+  def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor]
+
+  // The number of nodes with the label in committed data, without the changes of the current transaction
+  def nodeCountByCountStore(labelId: Int): Long
+
   def checkNodeIndex(idxName: String)
 
   def checkRelIndex(idxName: String)
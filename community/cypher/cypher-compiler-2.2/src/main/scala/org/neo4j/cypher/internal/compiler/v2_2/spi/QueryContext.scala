@@ -48,6 +48,21 @@ trait QueryContext extends TokenContext {
 
   def getRelationshipsFor(node: Node, dir: Direction, types: Seq[String]): Iterator[Relationship]
 
+  /**
+   * Expands from a node by id. An empty sequence of relationship type ids means relationships of any type.
+   */
+  def expand(nodeId: Long, dir: Direction, typeIds: Seq[Int]): RelationshipCursor
+
+  /**
+   * Number of nodes with the given label, or of all nodes when no label is given, as kept by the counts store.
+   */
+  def nodeCountByCountStore(labelId: Option[Int]): Long
+
+  /**
+   * Number of relationships of the given type, or of all relationships when no type is given, as kept by the counts store.
+   */
+  def relationshipCountByCountStore(typeId: Option[Int]): Long
+
   def getOrCreateLabelId(labelName: String): Int
 
   def getLabelsForNode(node: Long): Iterator[Int]
@@ -72,6 +87,11 @@ trait QueryContext extends TokenContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node]
 
+  def numberRangeIndexSearch(index: IndexDescriptor, lower: Option[Number], includeLower: Boolean,
+                             upper: Option[Number], includeUpper: Boolean): Iterator[Node]
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node]
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node]
 
   def getNodesByLabel(id: Int): Iterator[Node]
@@ -121,6 +141,12 @@ trait Operations[T <: PropertyContainer] {
 
   def getById(id: Long): T
 
+  /**
+   * Like getById, but without checking that the entity exists. Meant for ids that were read earlier in the same
+   * query, and whose entity may have been deleted since.
+   */
+  def proxyById(id: Long): T
+
   def indexGet(name: String, key: String, value: Any): Iterator[T]
 
   def indexQuery(name: String, query: Any): Iterator[T]
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.spi
+
+import org.neo4j.graphdb.{Node, Relationship}
+
+/*
+ * Steps through the relationships of a node one at a time, exposing them as ids. The relationship and the node on
+ * the other side are only turned into entities when asked for, so callers that only need ids never pay for them.
+ */
+trait RelationshipCursor {
+  def next(): Boolean
+
+  def relationshipId: Long
+
+  def relationshipTypeId: Int
+
+  def otherNodeId: Long
+
+  def relationship: Relationship
+
+  def otherNode: Node
+
+  def close()
+}
+
+class DelegatingRelationshipCursor(protected val cursor: RelationshipCursor) extends RelationshipCursor {
+  def next(): Boolean = cursor.next()
+
+  def relationshipId: Long = cursor.relationshipId
+
+  def relationshipTypeId: Int = cursor.relationshipTypeId
+
+  def otherNodeId: Long = cursor.otherNodeId
+
+  def relationship: Relationship = cursor.relationship
+
+  def otherNode: Node = cursor.otherNode
+
+  def close() {
+    cursor.close()
+  }
+}
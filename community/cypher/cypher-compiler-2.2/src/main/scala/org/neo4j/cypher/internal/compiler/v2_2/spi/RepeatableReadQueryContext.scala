@@ -36,6 +36,18 @@ final class RepeatableReadQueryContext(inner: QueryContext, locker: Locker) exte
     lockAll(inner.getRelationshipsFor(node, dir, types))
   }
 
+  override def expand(nodeId: Long, dir: Direction, typeIds: Seq[Int]): RelationshipCursor = {
+    lockNode(nodeId)
+    new DelegatingRelationshipCursor(inner.expand(nodeId, dir, typeIds)) {
+      override def next(): Boolean = {
+        val hasNext = cursor.next()
+        if (hasNext)
+          locker.acquireLock(cursor.relationship)
+        hasNext
+      }
+    }
+  }
+
   override def getLabelsForNode(node: Long): Iterator[Int] = {
     lockNode(node)
     inner.getLabelsForNode(node)
@@ -49,6 +61,13 @@ final class RepeatableReadQueryContext(inner: QueryContext, locker: Locker) exte
   override def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] =
     lockAll(inner.exactIndexSearch(index, value))
 
+  override def numberRangeIndexSearch(index: IndexDescriptor, lower: Option[Number], includeLower: Boolean,
+                                      upper: Option[Number], includeUpper: Boolean): Iterator[Node] =
+    lockAll(inner.numberRangeIndexSearch(index, lower, includeLower, upper, includeUpper))
+
+  override def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] =
+    lockAll(inner.prefixIndexSearch(index, prefix))
+
   override def getNodesByLabel(id: Int): Iterator[Node] = lockAll(inner.getNodesByLabel(id))
 
   val nodeOpsValue = new RepeatableReadOperations[Node](inner.nodeOps)
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+class PlanFingerprintTest extends CypherFunSuite {
+
+  test("small changes in node counts do not diverge") {
+    PlanFingerprint.countsDiverge(0, 10) should be(false)
+    PlanFingerprint.countsDiverge(1000, 1400) should be(false)
+    PlanFingerprint.countsDiverge(1000, 600) should be(false)
+  }
+
+  test("large relative changes in node counts diverge") {
+    PlanFingerprint.countsDiverge(0, 100) should be(true)
+    PlanFingerprint.countsDiverge(1000, 2500) should be(true)
+    PlanFingerprint.countsDiverge(1000, 400) should be(true)
+  }
+
+  test("label snapshots diverge when indexes change") {
+    val before = LabelSnapshot(Some(1), Set.empty, Set.empty, 10)
+    val after = before.copy(indexes = Set(new IndexDescriptor(1, 2)))
+
+    before.divergesFrom(after, compareCounts = false) should be(true)
+    before.divergesFrom(before, compareCounts = false) should be(false)
+  }
+
+  test("label snapshots diverge when the label is created") {
+    val before = LabelSnapshot(None, Set.empty, Set.empty, 0)
+    val after = LabelSnapshot(Some(1), Set.empty, Set.empty, 0)
+
+    before.divergesFrom(after, compareCounts = false) should be(true)
+  }
+
+  test("label snapshots only compare node counts when asked to") {
+    val before = LabelSnapshot(Some(1), Set.empty, Set.empty, 10)
+    val after = before.copy(nodeCount = 10000)
+
+    before.divergesFrom(after, compareCounts = false) should be(false)
+    before.divergesFrom(after, compareCounts = true) should be(true)
+  }
+}
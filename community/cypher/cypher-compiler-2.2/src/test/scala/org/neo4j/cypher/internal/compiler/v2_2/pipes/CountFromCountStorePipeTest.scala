@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.mockito.Matchers._
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
+
+class CountFromCountStorePipeTest extends CypherFunSuite {
+
+  private implicit val monitor = mock[PipeMonitor]
+
+  test("should produce the node count for a label") {
+    // given
+    val query = mock[QueryContext]
+    when(query.getOptLabelId("A")).thenReturn(Some(12))
+    when(query.nodeCountByCountStore(Some(12))).thenReturn(42L)
+
+    // when
+    val result = NodeCountFromCountStorePipe("count(n)", Some("A"))().createResults(QueryStateHelper.emptyWith(query = query))
+
+    // then
+    result.map(_("count(n)")).toList should equal(List(42L))
+  }
+
+  test("should count zero nodes for a label that does not exist") {
+    // given
+    val query = mock[QueryContext]
+    when(query.getOptLabelId("A")).thenReturn(None)
+
+    // when
+    val result = NodeCountFromCountStorePipe("count(n)", Some("A"))().createResults(QueryStateHelper.emptyWith(query = query))
+
+    // then
+    result.map(_("count(n)")).toList should equal(List(0L))
+    verify(query, never()).nodeCountByCountStore(any())
+  }
+
+  test("should sum the relationship counts of all existing types") {
+    // given
+    val query = mock[QueryContext]
+    when(query.getOptRelTypeId("X")).thenReturn(Some(1))
+    when(query.getOptRelTypeId("Y")).thenReturn(Some(2))
+    when(query.getOptRelTypeId("Z")).thenReturn(None)
+    when(query.relationshipCountByCountStore(Some(1))).thenReturn(10L)
+    when(query.relationshipCountByCountStore(Some(2))).thenReturn(5L)
+
+    // when
+    val pipe = RelationshipCountFromCountStorePipe("count(r)", Seq("X", "Y", "Z"))()
+    val result = pipe.createResults(QueryStateHelper.emptyWith(query = query))
+
+    // then
+    result.map(_("count(r)")).toList should equal(List(15L))
+  }
+
+  test("should count relationships of any type when no types are given") {
+    // given
+    val query = mock[QueryContext]
+    when(query.relationshipCountByCountStore(None)).thenReturn(7L)
+
+    // when
+    val result = RelationshipCountFromCountStorePipe("count(r)", Seq.empty)().createResults(QueryStateHelper.emptyWith(query = query))
+
+    // then
+    result.map(_("count(r)")).toList should equal(List(7L))
+  }
+}
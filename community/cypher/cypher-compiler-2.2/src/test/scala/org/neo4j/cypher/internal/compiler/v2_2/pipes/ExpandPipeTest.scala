@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.pipes
 
 import org.neo4j.cypher.internal.commons.CypherFunSuite
-import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{QueryContext, RelationshipCursor}
 import org.mockito.Mockito._
 import org.mockito.Matchers._
 import org.mockito.stubbing.Answer
@@ -112,11 +112,43 @@ class ExpandPipeTest extends CypherFunSuite {
     single.m should equal(Map("a" -> startNode, "r" -> relationship1, "b" -> endNode1))
   }
 
+  test("should expand using relationship type ids") {
+    // given
+    mockRelationships(relationship1)
+    when(query.getOptRelTypeId("T")).thenReturn(Some(5))
+    val left = newMockedPipe("a",
+      row("a" -> startNode))
+
+    // when
+    val result = ExpandPipe(left, "a", "r", "b", Direction.OUTGOING, Seq("T"))().createResults(queryState).toList
+
+    // then
+    val (single :: Nil) = result
+    single.m should equal(Map("a" -> startNode, "r" -> relationship1, "b" -> endNode1))
+    verify(query).expand(1, Direction.OUTGOING, Seq(5))
+  }
+
+  test("should not expand when none of the relationship types exist") {
+    // given
+    val query = mock[QueryContext]
+    when(query.getOptRelTypeId("T")).thenReturn(None)
+    val left = newMockedPipe("a",
+      row("a" -> startNode))
+
+    // when
+    val result = ExpandPipe(left, "a", "r", "b", Direction.OUTGOING, Seq("T"))().createResults(QueryStateHelper.emptyWith(query = query)).toList
+
+    // then
+    result should be (empty)
+    verify(query, never()).expand(anyLong(), any(), any())
+  }
+
   private def row(values: (String, Any)*) = ExecutionContext.from(values: _*)
 
   private def mockRelationships(rels: Relationship*) {
-    when(query.getRelationshipsFor(any(), any(), any())).thenAnswer(new Answer[Iterator[Relationship]] {
-      def answer(invocation: InvocationOnMock): Iterator[Relationship] = rels.iterator
+    when(query.expand(anyLong(), any(), any())).thenAnswer(new Answer[RelationshipCursor] {
+      def answer(invocation: InvocationOnMock): RelationshipCursor =
+        new FakeRelationshipCursor(rels.map(rel => rel -> rel.getEndNode): _*)
     })
   }
 
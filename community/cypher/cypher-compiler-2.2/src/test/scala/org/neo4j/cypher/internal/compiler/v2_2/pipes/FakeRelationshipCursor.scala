@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.compiler.v2_2.spi.RelationshipCursor
+import org.neo4j.graphdb.{Node, Relationship}
+
+class FakeRelationshipCursor(relationships: (Relationship, Node)*) extends RelationshipCursor {
+  private val iterator = relationships.iterator
+  private var current: (Relationship, Node) = null
+  var closed = false
+
+  def next(): Boolean = if (iterator.hasNext) {
+    current = iterator.next()
+    true
+  } else false
+
+  def relationshipId: Long = current._1.getId
+
+  def relationshipTypeId: Int = 0
+
+  def otherNodeId: Long = current._2.getId
+
+  def relationship: Relationship = current._1
+
+  def otherNode: Node = current._2
+
+  def close() {
+    closed = true
+  }
+}
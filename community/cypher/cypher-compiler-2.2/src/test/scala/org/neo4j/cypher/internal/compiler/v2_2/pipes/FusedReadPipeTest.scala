@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.mockito.Matchers._
+import org.mockito.Mockito._
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Identifier
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Not, True}
+import org.neo4j.cypher.internal.compiler.v2_2.profiler.Profiler
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{QueryContext, RelationshipCursor}
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+import org.neo4j.graphdb.{Direction, Node, Relationship}
+
+class FusedReadPipeTest extends CypherFunSuite {
+
+  implicit val monitor = mock[PipeMonitor]
+  val startNode = mock[Node]
+  val endNode1 = mock[Node]
+  val endNode2 = mock[Node]
+  val relationship1 = newMockedRelationship(startNode, endNode1)
+  val relationship2 = newMockedRelationship(startNode, endNode2)
+  val query = mock[QueryContext]
+
+  test("should expand, filter and project in one go") {
+    // given
+    mockRelationships(relationship1, relationship2)
+    val leaf = newMockedPipe("a", row("a" -> startNode), row("a" -> null))
+    val expand = ExpandPipe(leaf, "a", "r", "b", Direction.OUTGOING, Seq.empty)()
+    val filter = FilterPipe(expand, True())()
+    val projection = ProjectionNewPipe(filter, Map("x" -> Identifier("b")))()
+    val steps = Seq(
+      FusedExpand("a", "r", "b", Direction.OUTGOING, Seq.empty),
+      FusedFilter(True()),
+      FusedProjection(Map("x" -> Identifier("b"))))
+
+    // when
+    val result = FusedReadPipe(projection, leaf, steps).createResults(QueryStateHelper.emptyWith(query = query)).toList
+
+    // then
+    result.map(_.toMap) should equal(List(Map("x" -> endNode1), Map("x" -> endNode2)))
+  }
+
+  test("should not produce rows that fail a filter") {
+    // given
+    mockRelationships(relationship1, relationship2)
+    val leaf = newMockedPipe("a", row("a" -> startNode))
+    val expand = ExpandPipe(leaf, "a", "r", "b", Direction.OUTGOING, Seq.empty)()
+    val filter = FilterPipe(expand, Not(True()))()
+    val steps = Seq(FusedExpand("a", "r", "b", Direction.OUTGOING, Seq.empty), FusedFilter(Not(True())))
+
+    // when
+    val result = FusedReadPipe(filter, leaf, steps).createResults(QueryStateHelper.emptyWith(query = query)).toList
+
+    // then
+    result should be(empty)
+  }
+
+  test("should run the interpreted pipes when profiling") {
+    // given
+    mockRelationships(relationship1)
+    val leaf = newMockedPipe("a", row("a" -> startNode))
+    val expand = ExpandPipe(leaf, "a", "r", "b", Direction.OUTGOING, Seq.empty)()
+    val profiler = new Profiler
+    val state = QueryStateHelper.emptyWith(query = query, decorator = profiler)
+
+    // when
+    val result = FusedReadPipe(expand, leaf, Seq(FusedExpand("a", "r", "b", Direction.OUTGOING, Seq.empty))).createResults(state).toList
+
+    // then
+    result.map(_.toMap) should equal(List(Map("a" -> startNode, "r" -> relationship1, "b" -> endNode1)))
+    profiler.rowStats.get(expand).map(_.count) should equal(Some(1L))
+  }
+
+  private def row(values: (String, Any)*) = ExecutionContext.from(values: _*)
+
+  private def mockRelationships(rels: Relationship*) {
+    when(query.expand(anyLong(), any(), any())).thenAnswer(new Answer[RelationshipCursor] {
+      def answer(invocation: InvocationOnMock): RelationshipCursor =
+        new FakeRelationshipCursor(rels.map(rel => rel -> rel.getEndNode): _*)
+    })
+  }
+
+  private def newMockedRelationship(startNode: Node, endNode: Node): Relationship = {
+    val relationship = mock[Relationship]
+    when(relationship.getEndNode).thenReturn(endNode)
+    relationship
+  }
+
+  private def newMockedPipe(node: String, rows: ExecutionContext*): Pipe = {
+    val pipe = mock[Pipe]
+    when(pipe.sources).thenReturn(Seq.empty)
+    when(pipe.symbols).thenReturn(SymbolTable(Map(node -> CTNode)))
+    when(pipe.createResults(any())).thenAnswer(new Answer[Iterator[ExecutionContext]] {
+      def answer(invocation: InvocationOnMock): Iterator[ExecutionContext] = rows.iterator
+    })
+    pipe
+  }
+}
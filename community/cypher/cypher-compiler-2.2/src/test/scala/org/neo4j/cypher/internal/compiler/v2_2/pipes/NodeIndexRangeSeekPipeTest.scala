@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ast._
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{Expression, Literal}
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, NumericSeekRange, PrefixSeekRange}
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{Operations, QueryContext}
+import org.neo4j.cypher.internal.compiler.v2_2.{LabelId, PropertyKeyId}
+import org.neo4j.graphdb.Node
+import org.neo4j.kernel.api.index.IndexDescriptor
+
+class NodeIndexRangeSeekPipeTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  implicit val monitor = mock[PipeMonitor]
+
+  val label = LabelToken(LabelName("LabelName")_, LabelId(11))
+  val propertyKey = PropertyKeyToken(PropertyKeyName("PropertyName")_, PropertyKeyId(10))
+  val descriptor = new IndexDescriptor(label.nameId.id, propertyKey.nameId.id)
+  val node = nodeWithId(1)
+  val node2 = nodeWithId(2)
+
+  test("should return nodes found by seeking a range of numbers") {
+    // given
+    val query = mock[QueryContext]
+    when(query.numberRangeIndexSearch(descriptor, Some(Integer.valueOf(6)), false, Some(Integer.valueOf(42)), true)).thenReturn(Iterator(node, node2))
+    val queryState = QueryStateHelper.emptyWith(query = query)
+
+    // when
+    val range = NumericSeekRange[Expression](Some(Bound(Literal(6), inclusive = false)), Some(Bound(Literal(42), inclusive = true)))
+    val pipe = NodeIndexRangeSeekPipe("n", label, propertyKey, range)()
+    val result = pipe.createResults(queryState)
+
+    // then
+    result.map(_("n")).toList should equal(List(node, node2))
+  }
+
+  test("should not seek the index when a bound is null") {
+    // given
+    val query = mock[QueryContext]
+    val queryState = QueryStateHelper.emptyWith(query = query)
+
+    // when
+    val range = NumericSeekRange[Expression](Some(Bound(Literal(null), inclusive = false)), None)
+    val pipe = NodeIndexRangeSeekPipe("n", label, propertyKey, range)()
+    val result = pipe.createResults(queryState)
+
+    // then
+    result.toList shouldBe empty
+    verifyZeroInteractions(query)
+  }
+
+  test("should only return nodes found by prefix that match the prefix pattern") {
+    // given
+    val nodeOps = mock[Operations[Node]]
+    doReturn("Andres").when(nodeOps).getProperty(1, propertyKey.nameId.id)
+    doReturn("Andr\nes").when(nodeOps).getProperty(2, propertyKey.nameId.id)
+    val query = mock[QueryContext]
+    when(query.nodeOps).thenReturn(nodeOps)
+    when(query.prefixIndexSearch(descriptor, "Andr")).thenReturn(Iterator(node, node2))
+    val queryState = QueryStateHelper.emptyWith(query = query)
+
+    // when
+    val pipe = NodeIndexRangeSeekPipe("n", label, propertyKey, PrefixSeekRange[Expression]("Andr"))()
+    val result = pipe.createResults(queryState)
+
+    // then
+    result.map(_("n")).toList should equal(List(node))
+  }
+
+  private def nodeWithId(id: Long) = {
+    val node = mock[Node]
+    when(node.getId).thenReturn(id)
+    node
+  }
+}
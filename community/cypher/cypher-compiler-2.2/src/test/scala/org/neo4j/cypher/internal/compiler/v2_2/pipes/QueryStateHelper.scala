@@ -26,6 +26,7 @@ object QueryStateHelper {
   def empty: QueryState = emptyWith()
 
   def emptyWith(db: GraphDatabaseService = null, query: QueryContext = null, resources: ExternalResource = null,
-                params: Map[String, Any] = Map.empty, decorator: PipeDecorator = NullPipeDecorator) =
-    QueryState(db = db, query = query, resources = resources, params = params, decorator = decorator)
+                params: Map[String, Any] = Map.empty, decorator: PipeDecorator = NullPipeDecorator,
+                memory: QueryMemory = UnboundedQueryMemory) =
+    QueryState(db = db, query = query, resources = resources, params = params, decorator = decorator, memory = memory)
 }
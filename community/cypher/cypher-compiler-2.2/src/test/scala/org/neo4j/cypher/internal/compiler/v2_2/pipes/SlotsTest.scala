@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Identifier
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+
+class SlotsTest extends CypherFunSuite {
+
+  implicit val monitor = mock[PipeMonitor]
+
+  test("unset slots are not part of the row") {
+    val row = Slots(Seq("a", "b")).newRow()
+    row.setSlot(0, 1)
+
+    row.toMap should equal(Map("a" -> 1))
+    row.get("b") should equal(None)
+  }
+
+  test("null values are kept in the row") {
+    val slots = Slots(Seq("a"))
+    val row = slots.newRow()
+    row.setSlot(slots.offsetFor("a"), null)
+
+    row.get("a") should equal(Some(null))
+    row.size should equal(1)
+  }
+
+  test("identifiers without a slot end up in the row anyway") {
+    val row = Slots(Seq("a")).newRow()
+    row += "a" -> 1
+    row += "x" -> 2
+
+    row.toMap should equal(Map("a" -> 1, "x" -> 2))
+  }
+
+  test("clones do not share values") {
+    val row = Slots(Seq("a")).newRow()
+    row += "a" -> 1
+    row += "x" -> 2
+
+    val clone = row.clone()
+    clone += "a" -> 3
+    clone -= "x"
+
+    row.toMap should equal(Map("a" -> 1, "x" -> 2))
+    clone.toMap should equal(Map("a" -> 3))
+  }
+
+  test("rows compare equal to hash map rows with the same content") {
+    val row = Slots(Seq("a", "b")).newRow()
+    row += "a" -> 1
+
+    row should equal(MutableMaps.create("a" -> 1))
+  }
+
+  test("identifiers read from a slotted source are resolved to offsets when the reading pipe is built") {
+    val source = new FakePipe(Iterator(Map("a" -> 1, "b" -> 2)), "a" -> CTNumber, "b" -> CTNumber)
+    val projection = ProjectionNewPipe(source, Map("x" -> Identifier("b"), "y" -> Identifier("a")))()
+
+    Slots.resolve(Identifier("x"), projection) shouldBe a [SlotIdentifier]
+    Slots.resolve(Identifier("z"), projection) should equal(Identifier("z"))
+    Slots.resolve(Identifier("a"), source) should equal(Identifier("a"))
+  }
+
+  test("resolved identifiers read slotted rows by offset and other rows by name") {
+    val slots = Slots(Seq("a", "b"))
+    val source = new FakePipe(Iterator.empty, "x" -> CTNumber)
+    val projection = ProjectionNewPipe(source, Map("a" -> Identifier("x"), "b" -> Identifier("x")))()
+    val identifier = Slots.resolve(Identifier("b"), projection)
+    val row = projection.slots.newRow()
+    row.setSlot(projection.slots.offsetFor("b"), 42)
+    val otherRow = slots.newRow()
+    otherRow += "b" -> 43
+
+    identifier(ExecutionContext(row))(QueryStateHelper.empty) should equal(42)
+    identifier(ExecutionContext(otherRow))(QueryStateHelper.empty) should equal(43)
+    identifier(ExecutionContext.from("b" -> 44))(QueryStateHelper.empty) should equal(44)
+  }
+
+  test("projections read the rows of slotted sources by offset") {
+    val source = new FakePipe(Iterator(Map("a" -> 1, "b" -> 2)), "a" -> CTNumber, "b" -> CTNumber)
+    val first = ProjectionNewPipe(source, Map("x" -> Identifier("a"), "y" -> Identifier("b")))()
+    val second = ProjectionNewPipe(first, Map("z" -> Identifier("y")))()
+
+    second.createResults(QueryStateHelper.empty).toList should equal(List(Map("z" -> 2)))
+  }
+}
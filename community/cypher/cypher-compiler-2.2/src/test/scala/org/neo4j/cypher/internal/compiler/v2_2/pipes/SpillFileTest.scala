@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.io.File
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
+
+class SpillFileTest extends CypherFunSuite {
+
+  test("reads back the rows that were written") {
+    val spillFile = new SpillFile(File.createTempFile("rows", ".spill"))
+    val rows = Seq(
+      ExecutionContext.from("a" -> 1, "b" -> "one"),
+      ExecutionContext.from("a" -> 2L, "b" -> null),
+      ExecutionContext.from("a" -> 3.5, "b" -> true))
+
+    try {
+      rows.foreach(spillFile.write)
+      spillFile.rows(null).toList should equal(rows)
+    } finally {
+      spillFile.delete()
+    }
+  }
+
+  test("reads back collections, maps and arrays") {
+    val spillFile = new SpillFile(File.createTempFile("rows", ".spill"))
+
+    try {
+      spillFile.write(ExecutionContext.from(
+        "list" -> List(1, "two", List(3.0)),
+        "map" -> Map("key" -> Map("inner" -> 'c')),
+        "ints" -> Array(1, 2, 3),
+        "strings" -> Array("a", "b")))
+
+      val row = spillFile.rows(null).next()
+      row("list") should equal(List(1, "two", List(3.0)))
+      row("map") should equal(Map("key" -> Map("inner" -> 'c')))
+      row("ints").asInstanceOf[Array[Int]].toList should equal(List(1, 2, 3))
+      row("strings").asInstanceOf[Array[String]].toList should equal(List("a", "b"))
+    } finally {
+      spillFile.delete()
+    }
+  }
+
+  test("deletes the file once all rows have been read") {
+    val file = File.createTempFile("rows", ".spill")
+    val spillFile = new SpillFile(file)
+
+    try {
+      spillFile.write(ExecutionContext.from("a" -> 1))
+      spillFile.write(ExecutionContext.from("a" -> 2))
+      val rows = spillFile.rows(null)
+
+      rows.next()
+      file.exists() should be(true)
+      rows.next()
+      file.exists() should be(false)
+    } finally {
+      spillFile.delete()
+    }
+  }
+}
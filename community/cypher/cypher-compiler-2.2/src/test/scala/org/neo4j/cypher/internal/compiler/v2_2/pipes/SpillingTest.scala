@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.pipes
+
+import java.io.File
+import java.nio.file.Files
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{CountStar, Identifier}
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+import org.neo4j.cypher.internal.compiler.v2_2.{ExecutionContext, TaskCloser}
+
+class SpillingTest extends CypherFunSuite {
+
+  private implicit val monitor = mock[PipeMonitor]
+
+  private var directory: File = null
+  private var closer: TaskCloser = null
+  private var memory: CountingMemory = null
+
+  class CountingMemory(maxRows: Long) extends SpillingQueryMemory(maxRows, directory, closer) {
+    var spillFiles = 0
+
+    override def newSpillFile() = {
+      spillFiles += 1
+      super.newSpillFile()
+    }
+  }
+
+  override protected def beforeEach() {
+    super.beforeEach()
+    directory = Files.createTempDirectory("spilling").toFile
+    closer = new TaskCloser
+    memory = new CountingMemory(1000)
+  }
+
+  override protected def afterEach() {
+    closer.close(success = true)
+    directory.listFiles() should be(empty)
+    directory.delete()
+    super.afterEach()
+  }
+
+  private def state = QueryStateHelper.emptyWith(memory = memory)
+
+  private def rows(values: Seq[Any]) = values.map(x => ExecutionContext.from("x" -> x)).iterator
+
+  test("sorts what does not fit in memory") {
+    val values = (0 until 5000).map(i => (i * 7919) % 5000)
+
+    val result = Spilling.sort(rows(values), (a, b) => a("x").asInstanceOf[Int] < b("x").asInstanceOf[Int], state)
+
+    result.map(_("x")).toList should equal(0 until 5000)
+    memory.spillFiles should be > 0
+  }
+
+  test("keeps the input order of equal rows when spilling") {
+    val input = (0 until 5000).map(i => ExecutionContext.from("x" -> i % 3, "y" -> i)).iterator
+
+    val result = Spilling.sort(input, (a, b) => a("x").asInstanceOf[Int] < b("x").asInstanceOf[Int], state).toList
+
+    result.map(_("x")) should equal((0 until 5000).map(_ % 3).sorted)
+    result.filter(_("x") == 0).map(_("y")) should equal((0 until 5000).filter(_ % 3 == 0))
+  }
+
+  test("merges runs in several passes when there are too many of them") {
+    val count = (Spilling.MAX_MERGED_RUNS + 2) * 1001
+    val values = (0 until count).reverse
+
+    val result = Spilling.sort(rows(values), (a, b) => a("x").asInstanceOf[Int] < b("x").asInstanceOf[Int], state)
+
+    result.map(_("x")).toList should equal(0 until count)
+    memory.spillFiles should be > Spilling.MAX_MERGED_RUNS + 1
+  }
+
+  test("buffers what does not fit in memory in order") {
+    val result = Spilling.buffer(rows(0 until 5000), state)
+
+    result.map(_("x")).toList should equal(0 until 5000)
+    memory.spillFiles should equal(1)
+  }
+
+  test("does not spill within the budget") {
+    Spilling.sort(rows((0 until 500).reverse), (a, b) => a("x").asInstanceOf[Int] < b("x").asInstanceOf[Int], state).toList
+    Spilling.buffer(rows(0 until 500), state).toList
+
+    memory.spillFiles should equal(0)
+  }
+
+  test("removes duplicates that do not fit in memory") {
+    val pipe = DistinctPipe(new FakePipe((0 until 10000).map(i => Map("x" -> i % 5000)), "x" -> CTInteger),
+                            Map("x" -> Identifier("x")))
+
+    val result = pipe.createResults(state).map(_("x")).toList
+
+    result.sortBy(_.asInstanceOf[Int]) should equal(0 until 5000)
+    memory.spillFiles should be > 0
+  }
+
+  test("aggregates groups that do not fit in memory") {
+    val pipe = new EagerAggregationPipe(new FakePipe((0 until 10000).map(i => Map("x" -> i % 5000)), "x" -> CTInteger),
+                                        Map("x" -> Identifier("x")), Map("count(*)" -> CountStar()))()
+
+    val result = pipe.createResults(state).map(row => row("x") -> row("count(*)")).toList
+
+    result.sortBy(_._1.asInstanceOf[Int]) should equal((0 until 5000).map(_ -> 2L))
+    memory.spillFiles should be > 0
+  }
+}
@@ -25,7 +25,7 @@ import org.mockito.Matchers._
 import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
 import org.neo4j.graphdb.{Relationship, Direction, Node}
 import org.neo4j.cypher.internal.compiler.v2_2.symbols._
-import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
+import org.neo4j.cypher.internal.compiler.v2_2.spi.{Operations, QueryContext, RelationshipCursor}
 import org.mockito.stubbing.Answer
 import org.mockito.invocation.InvocationOnMock
 
@@ -39,9 +39,11 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
     val endNode = newMockedNode(2)
     val relationship = newMockedRealtionship(1, startNode, endNode)
     val query = mock[QueryContext]
-    when(query.getRelationshipsFor(any(), any(), any())).thenAnswer(new Answer[Iterator[Relationship]] {
-      def answer(invocation: InvocationOnMock): Iterator[Relationship] = Iterator(relationship)
-    })
+    replyWithMap(query, Map(
+        (startNode, Direction.OUTGOING) -> Seq(relationship),
+        (endNode, Direction.INCOMING) -> Seq(relationship)
+      ).withDefaultValue(Seq.empty)
+    )
 
     val queryState = QueryStateHelper.emptyWith(query = query)
 
@@ -325,7 +327,7 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
 
     // when
     val result = VarLengthExpandPipe(left, "a", "r", "b", Direction.OUTGOING, Direction.OUTGOING,
-                                     Seq.empty, 3, None, filteringStep)().createResults(queryState).toList
+                                     Seq.empty, 3, None, Some(filteringStep _))().createResults(queryState).toList
 
     // then
     val (single :: Nil) = result
@@ -353,12 +355,29 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
   }
 
   private def replyWithMap(query: QueryContext, mapping: Map[(Node, Direction), Seq[Relationship]]) {
-    when(query.getRelationshipsFor(any(), any(), any())).thenAnswer(new Answer[Iterator[Relationship]] {
-      def answer(invocation: InvocationOnMock): Iterator[Relationship] = {
-        val (startNode :: dir :: _ :: Nil) = invocation.getArguments.toList
-        mapping((startNode.asInstanceOf[Node], dir.asInstanceOf[Direction])).iterator
+    val relationships = mapping.values.flatten.map(rel => rel.getId -> rel).toMap
+    val nodes = relationships.values.flatMap(rel => Seq(rel.getStartNode, rel.getEndNode)).map(node => node.getId -> node).toMap
+
+    when(query.expand(anyLong(), any(), any())).thenAnswer(new Answer[RelationshipCursor] {
+      def answer(invocation: InvocationOnMock): RelationshipCursor = {
+        val (nodeId :: dir :: _ :: Nil) = invocation.getArguments.toList
+        val node = nodes(nodeId.asInstanceOf[Long])
+        val rels = mapping((node, dir.asInstanceOf[Direction]))
+        new FakeRelationshipCursor(rels.map(rel => rel -> rel.getOtherNode(node)): _*)
       }
     })
+
+    val nodeOps = mock[Operations[Node]]
+    when(query.nodeOps).thenReturn(nodeOps)
+    when(nodeOps.proxyById(anyLong())).thenAnswer(new Answer[Node] {
+      def answer(invocation: InvocationOnMock): Node = nodes(invocation.getArguments()(0).asInstanceOf[Long])
+    })
+
+    val relationshipOps = mock[Operations[Relationship]]
+    when(query.relationshipOps).thenReturn(relationshipOps)
+    when(relationshipOps.proxyById(anyLong())).thenAnswer(new Answer[Relationship] {
+      def answer(invocation: InvocationOnMock): Relationship = relationships(invocation.getArguments()(0).asInstanceOf[Long])
+    })
   }
 
   private def newMockedPipe(symbolTable: SymbolTable): Pipe = {
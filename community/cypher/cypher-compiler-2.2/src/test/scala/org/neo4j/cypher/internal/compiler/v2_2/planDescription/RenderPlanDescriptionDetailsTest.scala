@@ -115,4 +115,18 @@ class RenderPlanDescriptionDetailsTest extends CypherFunSuite {
         |+----------+---------------+------+--------+-------------+--------------+
         |""".stripMargin)
   }
+
+  test("profiled plans show time and page cache accesses") {
+    val arguments = Seq(IntroducedIdentifier("n"), Rows(42), DbHits(33), Time(1500000), PageCacheHits(12), PageCacheMisses(2))
+
+    val plan = PlanDescriptionImpl(pipe, "NAME", NoChildren, arguments)
+
+    renderDetails(plan) should equal(
+      """+----------+---------------+------+--------+----------+---------------+-----------------+-------------+-------+
+        || Operator | EstimatedRows | Rows | DbHits | Time(ms) | PageCacheHits | PageCacheMisses | Identifiers | Other |
+        |+----------+---------------+------+--------+----------+---------------+-----------------+-------------+-------+
+        ||     NAME |             1 |   42 |     33 |    1.500 |            12 |               2 |           n |       |
+        |+----------+---------------+------+--------+----------+---------------+-----------------+-------------+-------+
+        |""".stripMargin)
+  }
 }
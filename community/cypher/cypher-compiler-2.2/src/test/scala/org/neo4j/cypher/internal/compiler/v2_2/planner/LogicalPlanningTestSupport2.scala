@@ -238,6 +238,9 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
 
       def checkNodeIndex(idxName: String): Unit = ???
       def getUniquenessConstraint(labelName: String, propertyKey: String): Option[UniquenessConstraint] = ???
+      def indexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] = ???
+      def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] = ???
+      def nodeCountByCountStore(labelId: Int): Long = ???
       def checkRelIndex(idxName: String): Unit = ???
       def getOrCreateFromSchemaState[T](key: Any, f: => T): T = ???
       def getRelTypeName(id: Int): String = ???
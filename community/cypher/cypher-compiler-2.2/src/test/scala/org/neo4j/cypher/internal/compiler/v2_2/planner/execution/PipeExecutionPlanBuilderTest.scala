@@ -23,7 +23,7 @@ import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.compiler.v2_2.LabelId
 import org.neo4j.cypher.internal.compiler.v2_2.ast.convert.commands.ExpressionConverters
 import org.neo4j.cypher.internal.compiler.v2_2.ast.convert.commands.ExpressionConverters._
-import org.neo4j.cypher.internal.compiler.v2_2.ast.{Collection, SignedDecimalIntegerLiteral, SignedIntegerLiteral}
+import org.neo4j.cypher.internal.compiler.v2_2.ast.{Collection, SignedDecimalIntegerLiteral, SignedIntegerLiteral, True}
 import org.neo4j.cypher.internal.compiler.v2_2.commands.{expressions => legacy}
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.PipeInfo
 import org.neo4j.cypher.internal.compiler.v2_2.pipes.{EntityByIdExprs => PipeEntityByIdExprs, _}
@@ -149,7 +149,27 @@ class PipeExecutionPlanBuilderTest extends CypherFunSuite with LogicalPlanningTe
     val logicalPlan = Expand(AllNodesScan("a", Set.empty)(solved), "a", Direction.INCOMING, Direction.INCOMING, Seq(), "b", "r1", SimplePatternLength)_
     val pipeInfo = build(logicalPlan)
 
-    pipeInfo.pipe should equal(ExpandPipe( AllNodesScanPipe("a")(), "a", "r1", "b", Direction.INCOMING, Seq() )())
+    pipeInfo.pipe should equal(FusedReadPipe(
+      ExpandPipe( AllNodesScanPipe("a")(), "a", "r1", "b", Direction.INCOMING, Seq() )(),
+      AllNodesScanPipe("a")(),
+      Seq(FusedExpand("a", "r1", "b", Direction.INCOMING, Seq()))
+    ))
+  }
+
+  test("expand and selection on top of a scan are fused") {
+    val expand = Expand(AllNodesScan("a", Set.empty)(solved), "a", Direction.INCOMING, Direction.INCOMING, Seq(), "b", "r1", SimplePatternLength)(solved)
+    val logicalPlan = Selection(Seq(True()(pos)), expand)_
+    val pipeInfo = build(logicalPlan)
+
+    val scanPipe = AllNodesScanPipe("a")()
+    val expandPipe = ExpandPipe(scanPipe, "a", "r1", "b", Direction.INCOMING, Seq())()
+    val expandSteps = Seq(FusedExpand("a", "r1", "b", Direction.INCOMING, Seq()))
+    val predicate = True()(pos).asCommandPredicate
+    pipeInfo.pipe should equal(FusedReadPipe(
+      FilterPipe(FusedReadPipe(expandPipe, scanPipe, expandSteps), predicate)(),
+      scanPipe,
+      expandSteps :+ FusedFilter(predicate)
+    ))
   }
 
   test("simple hash join") {
@@ -163,8 +183,14 @@ class PipeExecutionPlanBuilderTest extends CypherFunSuite with LogicalPlanningTe
 
     pipeInfo.pipe should equal(NodeHashJoinPipe(
       "b",
-      ExpandPipe( AllNodesScanPipe("a")(), "a", "r1", "b", Direction.INCOMING, Seq() )(),
-      ExpandPipe( AllNodesScanPipe("c")(), "c", "r2", "b", Direction.INCOMING, Seq() )()
+      FusedReadPipe(
+        ExpandPipe( AllNodesScanPipe("a")(), "a", "r1", "b", Direction.INCOMING, Seq() )(),
+        AllNodesScanPipe("a")(),
+        Seq(FusedExpand("a", "r1", "b", Direction.INCOMING, Seq()))),
+      FusedReadPipe(
+        ExpandPipe( AllNodesScanPipe("c")(), "c", "r2", "b", Direction.INCOMING, Seq() )(),
+        AllNodesScanPipe("c")(),
+        Seq(FusedExpand("c", "r2", "b", Direction.INCOMING, Seq())))
     )())
   }
 }
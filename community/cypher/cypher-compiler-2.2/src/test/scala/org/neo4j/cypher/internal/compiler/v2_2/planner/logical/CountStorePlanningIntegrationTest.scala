@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.ast._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.BeLikeMatcher._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.{LogicalPlanningTestSupport2, PlannerQuery}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+
+class CountStorePlanningIntegrationTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  strategy = new QueryPlanningStrategy() {
+    def internalPlan(query: PlannerQuery)(implicit context: LogicalPlanningContext, leafPlan: Option[LogicalPlan] = None): LogicalPlan =
+      planSingleQuery(query)
+  }
+
+  test("should plan a count of all nodes from the counts store") {
+    planFor("MATCH (n) RETURN count(n)").plan should beLike {
+      case NodeCountFromCountStore(IdName("count(n)"), None) => ()
+    }
+  }
+
+  test("should plan a count of labeled nodes from the counts store") {
+    planFor("MATCH (n:Awesome) RETURN count(*)").plan should beLike {
+      case NodeCountFromCountStore(IdName("count(*)"), Some(LabelName("Awesome"))) => ()
+    }
+  }
+
+  test("should plan a count of typed relationships from the counts store") {
+    planFor("MATCH ()-[r:X|Y]->() RETURN count(r)").plan should beLike {
+      case RelationshipCountFromCountStore(IdName("count(r)"), Seq(RelTypeName("X"), RelTypeName("Y"))) => ()
+    }
+  }
+
+  test("should not plan a count of nodes with several labels from the counts store") {
+    planFor("MATCH (n:Awesome:Cool) RETURN count(n)").plan should beLike {
+      case _: Aggregation => ()
+    }
+  }
+
+  test("should not plan a count of relationships with labeled end nodes from the counts store") {
+    planFor("MATCH (:Awesome)-[r]->() RETURN count(r)").plan should beLike {
+      case _: Aggregation => ()
+    }
+  }
+
+  test("should not plan a distinct count from the counts store") {
+    planFor("MATCH (n) RETURN count(DISTINCT n)").plan should beLike {
+      case _: Aggregation => ()
+    }
+  }
+
+  test("should not plan counts from the counts store when turned off") {
+    strategy = new QueryPlanningStrategy(PlanningStrategyConfiguration.default.copy(planCountsFromCountStore = false)) {
+      def internalPlan(query: PlannerQuery)(implicit context: LogicalPlanningContext, leafPlan: Option[LogicalPlan] = None): LogicalPlan =
+        planSingleQuery(query)
+    }
+
+    planFor("MATCH (n) RETURN count(n)").plan should beLike {
+      case _: Aggregation => ()
+    }
+  }
+}
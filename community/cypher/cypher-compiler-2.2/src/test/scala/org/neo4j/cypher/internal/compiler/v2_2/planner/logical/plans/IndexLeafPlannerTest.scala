@@ -25,7 +25,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.ast._
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.{uniqueIndexSeekLeafPlanner, indexSeekLeafPlanner}
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.LogicalPlanningContext
 import org.neo4j.cypher.internal.compiler.v2_2.planner.BeLikeMatcher._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.ManyQueryExpression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.{Bound, ManyQueryExpression, NumericSeekRange, PrefixSeekRange}
 
 class IndexLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
 
@@ -166,6 +166,64 @@ class IndexLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSuppor
     }
   }
 
+  test("index range seek when there is an index on the property and it is compared with numbers") {
+    val greaterThan = GreaterThan(property, lit6)_
+    val lessThanOrEqual = LessThanOrEqual(property, lit42)_
+
+    new given {
+      qg = queryGraph(greaterThan, lessThanOrEqual, hasLabels)
+
+      indexOn("Awesome", "prop")
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans should beLike {
+          case Seq(NodeIndexRangeSeek(`idName`, _, _, NumericSeekRange(Some(Bound(`lit6`, false)), Some(Bound(`lit42`, true))), _)) => ()
+        }
+
+        resultPlans.plans.map(_.solved.graph.selections.flatPredicates.toSet) should equal(
+          Seq(Set(greaterThan, lessThanOrEqual, hasLabels)))
+      }
+    }
+  }
+
+  test("index range seek when there is an index on the property and it is matched by a prefix pattern") {
+    new given {
+      qg = queryGraph(RegexMatch(property, StringLiteral("Andr.*")_)_, hasLabels)
+
+      indexOn("Awesome", "prop")
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans should beLike {
+          case Seq(NodeIndexRangeSeek(`idName`, _, _, PrefixSeekRange("Andr"), _)) => ()
+        }
+      }
+    }
+  }
+
+  test("does not plan index range seek for regular expressions that are not prefixes") {
+    new given {
+      qg = queryGraph(RegexMatch(property, StringLiteral("And(r|y).*")_)_, hasLabels)
+
+      indexOn("Awesome", "prop")
+
+      withLogicalPlanningContext { (ctx) =>
+        // when
+        val resultPlans = indexSeekLeafPlanner(qg)(ctx)
+
+        // then
+        resultPlans.plans shouldBe empty
+      }
+    }
+  }
+
   private def queryGraph(predicates: Expression*) =
     QueryGraph(
       selections = Selections(predicates.map(Predicate(Set(idName), _)).toSet),
@@ -22,7 +22,7 @@ package org.neo4j.cypher.internal.compiler.v2_2.profiler
 import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.pipes._
-import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.{DbHits, Rows}
+import org.neo4j.cypher.internal.compiler.v2_2.planDescription.PlanDescription.Arguments.{DbHits, PageCacheHits, PageCacheMisses, Rows, Time}
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{Argument, PlanDescription}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
 import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
@@ -81,6 +81,49 @@ class ProfilerTest extends CypherFunSuite {
     materialize(pipes.createResults(queryState))
   }
 
+  test("should_charge_page_cache_accesses_to_the_operator_that_made_them") {
+    //GIVEN
+    val counters = new FakePageCacheCounters
+    val start = NullPipe()
+    val pipe1 = new PageCachePipe(start, "foo", counters, pins = 5, faults = 1)
+    val pipe2 = new PageCachePipe(pipe1, "bar", counters, pins = 3, faults = 0)
+    val profiler = new Profiler(counters)
+    val queryState = QueryStateHelper.emptyWith(query = mock[QueryContext], decorator = profiler)
+
+    //WHEN
+    materialize(pipe2.createResults(queryState))
+    val decoratedResult = profiler.decorate(pipe2.planDescription, true)
+
+    //THEN
+    val foo = decoratedResult.find("foo").head.arguments
+    foo should contain(PageCacheHits(4))
+    foo should contain(PageCacheMisses(1))
+
+    val bar = decoratedResult.find("bar").head.arguments
+    bar should contain(PageCacheHits(3))
+    bar should contain(PageCacheMisses(0))
+  }
+
+  test("should_report_time_spent_in_each_operator") {
+    //GIVEN
+    val start = NullPipe()
+    val pipe1 = new ProfilerPipe(start, "foo", rows = 10, dbAccess = 0)
+    val pipe2 = new ProfilerPipe(pipe1, "bar", rows = 20, dbAccess = 0)
+    val profiler = new Profiler
+    val queryState = QueryStateHelper.emptyWith(query = mock[QueryContext], decorator = profiler)
+
+    //WHEN
+    materialize(pipe2.createResults(queryState))
+    val decoratedResult = profiler.decorate(pipe2.planDescription, true)
+
+    //THEN
+    Seq("foo", "bar").foreach { name =>
+      val time = decoratedResult.find(name).head.arguments.collectFirst { case Time(nanos) => nanos }
+      time should not be empty
+      time.get should be >= 0L
+    }
+  }
+
   private def assertRecorded(result: PlanDescription, name: String, expectedRows: Int, expectedDbHits: Int) {
     val pipeArgs: Seq[Argument] = result.find(name).flatMap(_.arguments)
 
@@ -118,3 +161,28 @@ case class ProfilerPipe(source: Pipe, name: String, rows: Int, dbAccess: Int)
   }
 
 }
+
+class FakePageCacheCounters extends PageCacheCounters {
+  var pins = 0
+  var faults = 0
+}
+
+case class PageCachePipe(source: Pipe, name: String, counters: FakePageCacheCounters, pins: Int, faults: Int)
+                        (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
+  def planDescription: PlanDescription = source.planDescription.andThen(this, name)
+
+  protected def internalCreateResults(input:Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    input.size
+    counters.pins += pins
+    counters.faults += faults
+    Iterator(ExecutionContext.empty)
+  }
+
+  def symbols: SymbolTable = SymbolTable()
+
+  def dup(sources: List[Pipe]): Pipe = {
+    val (source :: Nil) = sources
+
+    copy(source = source)
+  }
+}
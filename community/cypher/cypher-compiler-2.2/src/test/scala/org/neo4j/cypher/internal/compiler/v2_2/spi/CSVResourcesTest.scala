@@ -175,4 +175,36 @@ class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
         r should equal(expected)
     }
   }
+
+  test("should read files spanning many batches in order") {
+    // given
+    val rowCount = CSVResources.ROWS_PER_BATCH * 3 + 7
+    val url = createCSVTempFileURL {
+      writer =>
+        (0 until rowCount).foreach(i => writer.println(s"$i,x"))
+    }
+
+    //when
+    val result = resources.getCsvIterator(new URL(url)).map(_.head.toInt).toList
+
+    //then
+    result should equal((0 until rowCount).toList)
+  }
+
+  test("should stop reading ahead when the query is closed") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (0 until CSVResources.ROWS_PER_BATCH * (CSVResources.BATCHES_READ_AHEAD + 2)).foreach(i => writer.println(i))
+    }
+    val closer = new TaskCloser
+    val iterator = new CSVResources(closer).getCsvIterator(new URL(url))
+
+    //when
+    iterator.next()
+    closer.close(success = true)
+
+    //then
+    iterator.take(CSVResources.ROWS_PER_BATCH * (CSVResources.BATCHES_READ_AHEAD + 2)).size should be < CSVResources.ROWS_PER_BATCH * (CSVResources.BATCHES_READ_AHEAD + 2)
+  }
 }
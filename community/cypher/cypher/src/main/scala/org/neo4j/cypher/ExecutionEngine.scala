@@ -52,6 +52,8 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
 
   private val parsedQueries = new LRUCache[String, ParsedQuery](getPlanCacheSize)
 
+  private val planCache = new LRUCache[String, (ExecutionPlan, Map[String, Any])](getPlanCacheSize)
+
   @throws(classOf[SyntaxException])
   def profile(query: String): ExtendedExecutionResult = profile(query, Map[String, Any]())
 
@@ -91,12 +93,12 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
       val tx = graph.beginTx()
       val kernelStatement = txBridge.instance()
       val (plan, extractedParameters) = try {
-        // fetch plan cache
-        val cache: LRUCache[String, (ExecutionPlan, Map[String, Any])] = getOrCreateFromSchemaState(kernelStatement, {
+        // the schema state is flushed on schema changes; cached plans decide for themselves whether they are affected
+        getOrCreateFromSchemaState(kernelStatement, {
           cacheMonitor.cacheFlushDetected(kernelStatement)
-          new LRUCache[String, (ExecutionPlan, Map[String, Any])](getPlanCacheSize)
+          new Object
         })
-        cacheAccessor.getOrElseUpdate(cache)(queryText, {
+        cacheAccessor.getOrElseUpdate(planCache)(queryText, _._1.isStale(kernelStatement), {
           touched = true
           val parsedQuery: ParsedQuery = parseQuery(queryText)
           val queryPlan = parsedQuery.plan(kernelStatement)
@@ -30,4 +30,5 @@ trait ExecutionPlan {
   def execute(graph: GraphDatabaseAPI, txInfo: TransactionInfo, params: Map[String, Any]): ExtendedExecutionResult
   def profile(graph: GraphDatabaseAPI, txInfo: TransactionInfo, params: Map[String, Any]): ExtendedExecutionResult
   def isPeriodicCommit: Boolean
+  def isStale(statement: Statement): Boolean
 }
@@ -17,38 +17,19 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.cypher.internal
 
-class CachedPageList
-{
-    Page head, tail;
-    int size = 0;
+import org.neo4j.kernel.api.Statement
 
-    public int size()
-    {
-        return size;
-    }
-
-    public Page removeHead()
-    {
-        Page removedPage = head;
-        head.moveToTailOf( null );
-        return removedPage;
-    }
-
-    public void incrementSize()
-    {
-        size++;
-    }
-
-    public void decrementSize()
-    {
-        size--;
-    }
+/*
+The kernel flushes the schema state on every schema change, so the object kept there under this key is replaced
+whenever the schema changes. Plans from compilers that cannot tell which changes affect them compare it to the one
+they were planned with.
+ */
+object SchemaGeneration {
+  private val creator = new org.neo4j.helpers.Function[SchemaGeneration.type, AnyRef]() {
+    def apply(key: SchemaGeneration.type) = new Object
+  }
 
-    @Override
-    public String toString()
-    {
-        return String.format( "CachedPageList{head=%s, tail=%s, size=%d}", head, tail, size );
-    }
+  def apply(statement: Statement): AnyRef = statement.readOperations().schemaStateGetOrCreate(this, creator)
 }
@@ -35,13 +35,13 @@ case class CompatibilityFor1_9(graph: GraphDatabaseService, queryCacheSize: Int)
   def parseQuery(statementAsText: String, profiled: Boolean) = new ParsedQuery {
     def plan(statement: Statement): (ExecutionPlan, Map[String, Any]) = {
       val planImpl = compiler1_9.prepare(statementAsText)
-      (new ExecutionPlanWrapper(planImpl, profiled), Map.empty)
+      (new ExecutionPlanWrapper(planImpl, profiled, SchemaGeneration(statement)), Map.empty)
     }
 
     def isPeriodicCommit = false
   }
 
-  class ExecutionPlanWrapper(inner: ExecutionPlan_v1_9, profile: Boolean) extends ExecutionPlan {
+  class ExecutionPlanWrapper(inner: ExecutionPlan_v1_9, profile: Boolean, schemaGeneration: AnyRef) extends ExecutionPlan {
 
     private def queryContext(graph: GraphDatabaseAPI) =
       new QueryContext_v1_9(graph)
@@ -55,5 +55,7 @@ case class CompatibilityFor1_9(graph: GraphDatabaseService, queryCacheSize: Int)
       LegacyExecutionResultWrapper(inner.execute(queryContext(graph), txInfo.tx, params), planDescriptionRequested = false, CypherVersion.v1_9)
 
     def isPeriodicCommit = false
+
+    def isStale(statement: Statement) = SchemaGeneration(statement) ne schemaGeneration
   }
 }
@@ -36,13 +36,13 @@ case class CompatibilityFor2_0(graph: GraphDatabaseService, queryCacheSize: Int)
   def parseQuery(statementAsText: String, profiled: Boolean) = new ParsedQuery {
     override def plan(statement: Statement): (ExecutionPlan, Map[String, Any]) = {
       val planImpl = compiler.prepare(statementAsText, new PlanContext_v2_0(statement, graph))
-      (new ExecutionPlanWrapper(planImpl, profiled), Map.empty)
+      (new ExecutionPlanWrapper(planImpl, profiled, SchemaGeneration(statement)), Map.empty)
     }
 
     def isPeriodicCommit = false
   }
 
-  class ExecutionPlanWrapper(inner: ExecutionPlan_v2_0, profiled: Boolean) extends ExecutionPlan {
+  class ExecutionPlanWrapper(inner: ExecutionPlan_v2_0, profiled: Boolean, schemaGeneration: AnyRef) extends ExecutionPlan {
 
     private def queryContext(graph: GraphDatabaseAPI, txInfo: TransactionInfo) = {
       val ctx = new QueryContext_v2_0(graph, txInfo.tx, txInfo.statement)
@@ -58,5 +58,7 @@ case class CompatibilityFor2_0(graph: GraphDatabaseService, queryCacheSize: Int)
       LegacyExecutionResultWrapper(inner.execute(queryContext(graph, txInfo), params), planDescriptionRequested = false, CypherVersion.v2_0)
 
     def isPeriodicCommit = false
+
+    def isStale(statement: Statement) = SchemaGeneration(statement) ne schemaGeneration
   }
 }
@@ -41,13 +41,13 @@ case class CompatibilityFor2_1(graph: GraphDatabaseService, queryCacheSize: Int,
     override def plan(statement: Statement): (ExecutionPlan, Map[String, Any]) = {
       val planContext = new PlanContext_v2_1(statement, kernelAPI, graph)
       val (planImpl, extractedParameters) = compiler.planPreparedQuery(preparedQueryForV_2_1.get, planContext)
-      (new ExecutionPlanWrapper(planImpl, profiled), extractedParameters)
+      (new ExecutionPlanWrapper(planImpl, profiled, SchemaGeneration(statement)), extractedParameters)
     }
 
     def isPeriodicCommit = preparedQueryForV_2_1.map(_.isPeriodicCommit).getOrElse(false)
   }
 
-  class ExecutionPlanWrapper(inner: ExecutionPlan_v2_1, profile: Boolean) extends ExecutionPlan {
+  class ExecutionPlanWrapper(inner: ExecutionPlan_v2_1, profile: Boolean, schemaGeneration: AnyRef) extends ExecutionPlan {
 
     private def queryContext(graph: GraphDatabaseAPI, txInfo: TransactionInfo) = {
       val ctx = new QueryContext_v2_1(graph, txInfo.tx, txInfo.isTopLevelTx, txInfo.statement)
@@ -63,5 +63,7 @@ case class CompatibilityFor2_1(graph: GraphDatabaseService, queryCacheSize: Int,
       LegacyExecutionResultWrapper(inner.execute(queryContext(graph, txInfo), params), planDescriptionRequested = false, CypherVersion.v2_1)
 
     def isPeriodicCommit = inner.isPeriodicCommit
+
+    def isStale(statement: Statement) = SchemaGeneration(statement) ne schemaGeneration
   }
 }
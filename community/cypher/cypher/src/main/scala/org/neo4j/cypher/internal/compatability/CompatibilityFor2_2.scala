@@ -70,6 +70,8 @@ trait CompatibilityFor2_2 {
       ExecutionResultWrapperFor2_2(inner.execute(queryContext(graph, txInfo), params), inner.version)
 
     def isPeriodicCommit = inner.isPeriodicCommit
+
+    def isStale(statement: Statement) = inner.isStale(new TransactionBoundPlanContext(statement, kernelAPI, graph))
   }
 }
 
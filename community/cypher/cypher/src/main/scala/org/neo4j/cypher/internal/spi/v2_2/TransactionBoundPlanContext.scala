@@ -22,11 +22,15 @@ package org.neo4j.cypher.internal.spi.v2_2
 import org.neo4j.cypher.MissingIndexException
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{GraphStatistics, PlanContext}
 import org.neo4j.graphdb.GraphDatabaseService
+import org.neo4j.kernel.GraphDatabaseAPI
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
 import org.neo4j.kernel.api.exceptions.KernelException
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException
 import org.neo4j.kernel.api.index.{IndexDescriptor, InternalIndexState}
 import org.neo4j.kernel.api.{KernelAPI, Statement}
+import org.neo4j.kernel.impl.nioneo.xa.NeoStoreProvider
+
+import scala.collection.JavaConverters._
 
 final class TransactionBoundPlanContext(statement: Statement, kernelAPI: KernelAPI, gdb: GraphDatabaseService)
   extends TransactionBoundTokenContext(statement) with PlanContext {
@@ -65,6 +69,18 @@ final class TransactionBoundPlanContext(statement: Statement, kernelAPI: KernelA
     case _: KernelException => None
   }
 
+  def indexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] =
+    statement.readOperations().indexesGetForLabel(labelId).asScala.flatMap(descriptor => getOnlineIndex(descriptor))
+
+  def uniqueIndexesGetForLabel(labelId: Int): Iterator[IndexDescriptor] =
+    statement.readOperations().uniqueIndexesGetForLabel(labelId).asScala
+
+  // Read straight from the counts store, so that the changes of the current transaction are left out
+  def nodeCountByCountStore(labelId: Int): Long = countsStore.countsForNode(labelId)
+
+  private lazy val countsStore = gdb.asInstanceOf[GraphDatabaseAPI].getDependencyResolver
+    .resolveDependency(classOf[NeoStoreProvider]).evaluate().getCountsStore
+
   def checkNodeIndex(idxName: String) {
     if (!gdb.index().existsForNodes(idxName)) {
       throw new MissingIndexException(idxName)
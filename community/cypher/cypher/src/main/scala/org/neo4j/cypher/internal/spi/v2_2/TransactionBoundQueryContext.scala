@@ -39,6 +39,10 @@ import org.neo4j.cypher.internal.compiler.v2_2.spi._
 import org.neo4j.collection.primitive.PrimitiveLongIterator
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.kernel.impl.core.NodeManager
+import org.neo4j.kernel.impl.util.register.NeoRegisters
+import org.neo4j.register.Registers
+import org.neo4j.cursor.Cursor
 
 final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
                                          var tx: Transaction,
@@ -48,6 +52,9 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
 
   private var open = true
   private val txBridge = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge])
+  private lazy val nodeManager = graph.getDependencyResolver.resolveDependency(classOf[NodeManager])
+  // Cursors are normally closed when exhausted, the ones left open by f.ex. a LIMIT are closed with the query
+  private val openCursors = mutable.Set[Cursor]()
 
   def isOpen = open
 
@@ -57,6 +64,8 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
 
   def close(success: Boolean) {
     try {
+      openCursors.foreach(_.close())
+      openCursors.clear()
       statement.close()
 
       if (success)
@@ -114,9 +123,66 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
     case _     => node.getRelationships(dir, types.map(withName): _*).iterator().asScala
   }
 
+  def expand(nodeId: Long, dir: Direction, typeIds: Seq[Int]): RelationshipCursor = {
+    val relId = NeoRegisters.newRelationshipRegister()
+    val relType = NeoRegisters.newRelTypeRegister()
+    val neighborId = NeoRegisters.newNodeRegister()
+    val types: Array[Int] = if (typeIds.isEmpty) null else typeIds.toArray
+
+    val cursor = statement.readOperations().expand(new SingleInputCursor,
+      NeoRegisters.newNodeRegister(nodeId), Registers.newObjectRegister(types), Registers.newObjectRegister(dir),
+      relId, relType, Registers.newObjectRegister[Direction](), NeoRegisters.newNodeRegister(), neighborId)
+    openCursors += cursor
+
+    new RelationshipCursor {
+      def next() = cursor.next()
+      def relationshipId = relId.read()
+      def relationshipTypeId = relType.read()
+      def otherNodeId = neighborId.read()
+      def relationship: Relationship = nodeManager.newRelationshipProxyById(relId.read())
+      def otherNode: Node = nodeManager.newNodeProxyById(neighborId.read())
+      def close() {
+        if (openCursors.remove(cursor))
+          cursor.close()
+      }
+    }
+  }
+
+  // The input registers of an expand are fixed, so all the input cursor has to do is to allow one row through
+  private class SingleInputCursor extends Cursor {
+    private var done = false
+
+    def next() = {
+      val hasNext = !done
+      done = true
+      hasNext
+    }
+
+    def reset() {
+      done = false
+    }
+
+    def close() {}
+  }
+
+  def nodeCountByCountStore(labelId: Option[Int]): Long =
+    statement.readOperations().countsForNode(labelId.getOrElse(CountsRead.ANY_LABEL))
+
+  def relationshipCountByCountStore(typeId: Option[Int]): Long =
+    statement.readOperations().countsForRelationship(CountsRead.ANY_LABEL,
+      typeId.getOrElse(CountsRead.ANY_RELATIONSHIP_TYPE), CountsRead.ANY_LABEL)
+
   def exactIndexSearch(index: IndexDescriptor, value: Any) =
     mapToScala(statement.readOperations().nodesGetFromIndexLookup(index, value))(nodeOps.getById)
 
+  def numberRangeIndexSearch(index: IndexDescriptor, lower: Option[Number], includeLower: Boolean,
+                             upper: Option[Number], includeUpper: Boolean) =
+    mapToScala(statement.readOperations().nodesGetFromIndexRangeSeekByNumber(
+      index, lower.orNull, includeLower, upper.orNull, includeUpper))(nodeOps.getById)
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String) =
+    mapToScala(statement.readOperations().nodesGetFromIndexRangeSeekByPrefix(index, prefix))(nodeOps.getById)
+
   def exactUniqueIndexSearch(index: IndexDescriptor, value: Any): Option[Node] = {
     val nodeId: Long = statement.readOperations().nodeGetUniqueFromIndexLookup(index, value)
     if (StatementConstants.NO_SUCH_NODE == nodeId) None else Some(nodeOps.getById(nodeId))
@@ -170,6 +236,8 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
       case e: RuntimeException  => throw e
     }
 
+    def proxyById(id: Long) = nodeManager.newNodeProxyById(id)
+
     def all: Iterator[Node] = GlobalGraphOperations.at(graph).getAllNodes.iterator().asScala
 
     def indexGet(name: String, key: String, value: Any): Iterator[Node] =
@@ -206,6 +274,8 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
 
     def getById(id: Long) = graph.getRelationshipById(id)
 
+    def proxyById(id: Long) = nodeManager.newRelationshipProxyById(id)
+
     def all: Iterator[Relationship] =
       GlobalGraphOperations.at(graph).getAllRelationships.iterator().asScala
 
@@ -23,7 +23,7 @@ import org.neo4j.kernel.api
 
 class CypherCompilerStringCacheMonitoringAcceptanceTest extends ExecutionEngineFunSuite {
 
-  case class CacheCounts(hits: Int = 0, misses: Int = 0, flushes: Int = 0)
+  case class CacheCounts(hits: Int = 0, misses: Int = 0, flushes: Int = 0, discards: Int = 0)
 
   class CacheCounter(var counts: CacheCounts = CacheCounts()) extends StringCacheMonitor {
     def cacheMiss(key: String) {
@@ -34,6 +34,10 @@ class CypherCompilerStringCacheMonitoringAcceptanceTest extends ExecutionEngineF
       counts = counts.copy(hits = counts.hits + 1)
     }
 
+    def cacheDiscard(key: String) {
+      counts = counts.copy(discards = counts.discards + 1)
+    }
+
     def cacheFlushDetected(justBeforeKey: api.Statement) {
       counts = counts.copy(flushes = counts.flushes + 1)
     }
@@ -75,7 +79,23 @@ class CypherCompilerStringCacheMonitoringAcceptanceTest extends ExecutionEngineF
     execute("return 42").toList
 
     // then
-    counter.counts should equal(CacheCounts(hits = 3, misses = 3, flushes = 2))
+    counter.counts should equal(CacheCounts(hits = 3, misses = 2, flushes = 2))
+  }
+
+  test("should discard only the plans affected by a schema change") {
+    // given
+    val counter = new CacheCounter()
+    execute("match (n:Person) return n").toList
+    execute("return 42").toList
+    graph.createIndex("Person", "name")
+    kernelMonitors.addMonitorListener(counter)
+
+    // when
+    execute("match (n:Person) return n").toList
+    execute("return 42").toList
+
+    // then
+    counter.counts should equal(CacheCounts(hits = 2, misses = 1, flushes = 1, discards = 1))
   }
 }
 
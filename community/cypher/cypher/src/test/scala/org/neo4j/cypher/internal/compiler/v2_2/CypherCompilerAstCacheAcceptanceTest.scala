@@ -19,16 +19,19 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2
 
-import org.neo4j.cypher.GraphDatabaseTestSupport
+import java.util.concurrent.TimeUnit.MILLISECONDS
+
+import org.neo4j.cypher.{ExecutionEngineTestSupport, GraphDatabaseTestSupport}
 import org.neo4j.cypher.internal.Normal
 import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.ExecutionPlan
+import org.neo4j.helpers.FakeClock
 
-class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphDatabaseTestSupport {
+class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphDatabaseTestSupport with ExecutionEngineTestSupport {
   def createCompiler() = CypherCompilerFactory.ronjaCompiler(graph, 128, kernelMonitors)
 
-  case class CacheCounts(hits: Int = 0, misses: Int = 0, flushes: Int = 0) {
-    override def toString = s"hits = $hits, misses = $misses, flushes = $flushes"
+  case class CacheCounts(hits: Int = 0, misses: Int = 0, flushes: Int = 0, discards: Int = 0) {
+    override def toString = s"hits = $hits, misses = $misses, flushes = $flushes, discards = $discards"
   }
 
   class CacheCounter(var counts: CacheCounts = CacheCounts()) extends AstCacheMonitor {
@@ -40,6 +43,10 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
       counts = counts.copy(misses = counts.misses + 1)
     }
 
+    def cacheDiscard(key: PreparedQuery) {
+      counts = counts.copy(discards = counts.discards + 1)
+    }
+
     def cacheFlushDetected(justBeforeKey: CacheAccessor[PreparedQuery, ExecutionPlan]) {
       counts = counts.copy(flushes = counts.flushes + 1)
     }
@@ -75,6 +82,42 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
     graph.createConstraint("Person", "id")
     graph.inTx { compiler.planQuery("return 42", planContext, Normal) }
 
-    counter.counts should equal(CacheCounts(hits = 0, misses = 2, flushes = 2))
+    counter.counts should equal(CacheCounts(hits = 1, misses = 1, flushes = 2))
+  }
+
+  test("should discard plans for labels that got a new index") {
+    val compiler = createCompiler()
+    val counter = new CacheCounter()
+    compiler.monitors.addMonitorListener(counter)
+
+    graph.inTx { compiler.planQuery("match (n:Person) return n", planContext, Normal) }
+    graph.createIndex("Person", "name")
+    graph.inTx { compiler.planQuery("match (n:Person) return n", planContext, Normal) }
+
+    counter.counts should equal(CacheCounts(hits = 0, misses = 2, flushes = 2, discards = 1))
+  }
+
+  test("should plan labelled queries in a transaction that has already written") {
+    graph.inTx {
+      execute("CREATE (:Person), (:Person)")
+
+      execute("MATCH (n:Person) RETURN count(n) AS c").toList should equal(List(Map("c" -> 2)))
+      execute("MATCH (n:Person) RETURN n").toList should have size 2
+    }
+  }
+
+  test("should not let uncommitted changes make plans stale") {
+    val compiler = createCompiler()
+    val clock = new FakeClock
+    val query = "match (n:Person) return n"
+
+    graph.inTx {
+      (1 to 200).foreach(_ => execute("CREATE (:Person)"))
+
+      val fingerprint = PlanFingerprint(compiler.prepareQuery(query, Normal).statement, planContext, clock)
+      clock.forward(PlanFingerprint.MIN_CHECK_INTERVAL_MILLIS + 1, MILLISECONDS)
+
+      fingerprint.isStale(planContext) should be(false)
+    }
   }
 }
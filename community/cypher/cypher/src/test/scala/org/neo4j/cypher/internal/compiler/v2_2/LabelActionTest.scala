@@ -118,6 +118,11 @@ class SnitchingQueryContext extends QueryContext {
 
   def exactIndexSearch(index: IndexDescriptor, value: Any): Iterator[Node] = ???
 
+  def numberRangeIndexSearch(index: IndexDescriptor, lower: Option[Number], includeLower: Boolean,
+                             upper: Option[Number], includeUpper: Boolean): Iterator[Node] = ???
+
+  def prefixIndexSearch(index: IndexDescriptor, prefix: String): Iterator[Node] = ???
+
   def getNodesByLabel(id: Int): Iterator[Node] = ???
 
   def upgrade(context: QueryContext): LockingQueryContext = ???
@@ -148,6 +153,12 @@ class SnitchingQueryContext extends QueryContext {
 
   def getRelTypeName(id: Int): String = ???
 
+  def expand(nodeId: Long, dir: Direction, typeIds: Seq[Int]) = ???
+
+  def nodeCountByCountStore(labelId: Option[Int]) = ???
+
+  def relationshipCountByCountStore(typeId: Option[Int]) = ???
+
   def relationshipStartNode(rel: Relationship) = ???
 
   def relationshipEndNode(rel: Relationship) = ???
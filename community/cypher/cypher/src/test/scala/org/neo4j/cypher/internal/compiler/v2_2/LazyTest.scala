@@ -30,6 +30,7 @@ import org.neo4j.cypher._
 import org.neo4j.graphdb._
 import org.neo4j.graphdb.Traverser.Order
 import org.neo4j.kernel.GraphDatabaseAPI
+import org.neo4j.kernel.configuration.Config
 import org.neo4j.kernel.api.{Statement, ReadOperations}
 import org.neo4j.kernel.impl.core.{ThreadToStatementContextBridge, NodeManager, NodeProxy}
 import org.neo4j.tooling.GlobalGraphOperations
@@ -202,6 +203,7 @@ class LazyTest extends ExecutionEngineFunSuite {
     when(dependencies.resolveDependency(classOf[ThreadToStatementContextBridge])).thenReturn(bridge)
     when(dependencies.resolveDependency(classOf[NodeManager])).thenReturn(nodeManager)
     when(dependencies.resolveDependency(classOf[org.neo4j.kernel.monitoring.Monitors])).thenReturn(monitors)
+    when(dependencies.resolveDependency(classOf[Config])).thenReturn(new Config())
     when(fakeGraph.beginTx()).thenReturn(tx)
     val nodesIterator = PrimitiveLongCollections.iterator( 0L, 1L, 2L, 3L, 4L, 5L, 6L )
     when(fakeReadStatement.nodesGetAll()).thenReturn(nodesIterator)
@@ -21,10 +21,14 @@ package org.neo4j.cypher.internal.spi.v2_2
 
 import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.helpers.DynamicIterable
+import org.neo4j.cursor.Cursor
 import org.neo4j.graphdb._
+import org.mockito.Matchers.any
 import org.mockito.Mockito._
 import org.neo4j.kernel.api._
 import org.neo4j.kernel.impl.api.{KernelTransactionImplementation, KernelStatement}
+import org.neo4j.kernel.impl.util.register.NeoRegister
+import org.neo4j.register.Register
 import org.neo4j.test.ImpermanentGraphDatabase
 
 class TransactionBoundQueryContextTest extends CypherFunSuite {
@@ -90,6 +94,43 @@ class TransactionBoundQueryContextTest extends CypherFunSuite {
     tx.finish()
   }
 
+  test("should close relationship cursors left open when closing") {
+    // GIVEN
+    val kernelCursor = mock[Cursor]
+    val context = new TransactionBoundQueryContext(graph, outerTx, isTopLevelTx = true, statementExpandingTo(kernelCursor))
+    val cursor = context.expand(0, Direction.OUTGOING, Seq.empty)
+    cursor.next()
+
+    // WHEN
+    context.close(success = true)
+
+    // THEN
+    verify(kernelCursor).close()
+  }
+
+  test("should not close relationship cursors twice") {
+    // GIVEN
+    val kernelCursor = mock[Cursor]
+    val context = new TransactionBoundQueryContext(graph, outerTx, isTopLevelTx = true, statementExpandingTo(kernelCursor))
+    context.expand(0, Direction.OUTGOING, Seq.empty).close()
+
+    // WHEN
+    context.close(success = true)
+
+    // THEN
+    verify(kernelCursor, times(1)).close()
+  }
+
+  private def statementExpandingTo(kernelCursor: Cursor): Statement = {
+    val readOperations = mock[ReadOperations]
+    when(readOperations.expand(any[Cursor], any[NeoRegister.Node.In], any[Register.Object.In[Array[Int]]],
+      any[Register.Object.In[Direction]], any[NeoRegister.Relationship.Out], any[NeoRegister.RelType.Out],
+      any[Register.Object.Out[Direction]], any[NeoRegister.Node.Out], any[NeoRegister.Node.Out])).thenReturn(kernelCursor)
+    val expandingStatement = mock[Statement]
+    when(expandingStatement.readOperations()).thenReturn(readOperations)
+    expandingStatement
+  }
+
   private def createMiniGraph(relTypeName: String): Node = {
     val relType: DynamicRelationshipType = DynamicRelationshipType.withName(relTypeName)
     val tx = graph.beginTx()
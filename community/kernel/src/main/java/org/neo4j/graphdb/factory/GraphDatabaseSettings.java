@@ -37,6 +37,7 @@ import org.neo4j.kernel.impl.cache.MonitorGc;
 import static org.neo4j.helpers.Settings.ANY;
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.BYTES;
+import static org.neo4j.helpers.Settings.DURATION;
 import static org.neo4j.helpers.Settings.FALSE;
 import static org.neo4j.helpers.Settings.INTEGER;
 import static org.neo4j.helpers.Settings.NO_DEFAULT;
@@ -99,6 +100,13 @@ public abstract class GraphDatabaseSettings
     @Description("Used to set the number of Cypher query execution plans that are cached.")
     public static Setting<Integer> query_cache_size = setting( "query_cache_size", INTEGER, "100", min( 0 ) );
 
+    @Description("The number of rows a single Cypher query may hold in memory while sorting, aggregating, removing " +
+            "duplicates or eagerly buffering its results. Beyond that, rows are written to temporary files in the " +
+            "store directory and read back when needed. The state of aggregation functions is not counted and " +
+            "stays in memory, so f.ex. collect() over a single very large group is still limited by the heap.")
+    public static Setting<Integer> query_max_rows_in_memory = setting( "query_max_rows_in_memory", INTEGER, "1000000",
+            min( 1000 ) );
+
     @Description("Determines if Cypher will allow using file URL when importing data using LOAD CSV. Setting this " +
             "value to false will cause Neo4j to fail LOAD CSV queries that import data from the file system")
     public static Setting<Boolean> allow_file_urls = setting( "allow_file_urls", BOOLEAN, TRUE );
@@ -166,6 +174,19 @@ public abstract class GraphDatabaseSettings
                   "Default is 25M" )
     public static final Setting<Long> logical_log_rotation_threshold = setting( "logical_log_rotation_threshold", BYTES, "25M" );
 
+    @Description( "Whether or not new logical log files are filled with zeros up to the rotation threshold when " +
+                  "created, so that appending to them doesn't grow the file. This spares forcing file metadata " +
+                  "with every commit, on file systems where that is costly. Has no effect when " +
+                  "logical_log_rotation_threshold is 0." )
+    public static final Setting<Boolean> logical_log_preallocation = setting( "logical_log_preallocation", BOOLEAN, FALSE );
+
+    @Description( "How often the store is check pointed in the background, which bounds the amount of logical log " +
+                  "that recovery has to replay after a crash. A check point flushes the store and rotates the " +
+                  "logical log if it contains any transactions, so it creates more log files than rotation by size " +
+                  "alone. Take that into account when keeping logical logs by file count. 0, the default, means " +
+                  "that check points only happen when the logical log is rotated due to its size." )
+    public static final Setting<Long> check_point_interval_time = setting( "check_point_interval_time", DURATION, "0" );
+
     @Description("Use a quick approach for rebuilding the ID generators. This give quicker recovery time, " +
             "but will limit the ability to reuse the space of deleted entities.")
     public static final Setting<Boolean> rebuild_idgenerators_fast = setting("rebuild_idgenerators_fast", BOOLEAN, TRUE );
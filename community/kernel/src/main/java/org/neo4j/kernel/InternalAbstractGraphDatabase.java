@@ -85,11 +85,13 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.extension.KernelExtensions;
 import org.neo4j.kernel.guard.Guard;
 import org.neo4j.kernel.impl.api.KernelSchemaStateStore;
+import org.neo4j.kernel.impl.api.LocalTransactionIdAwaiter;
 import org.neo4j.kernel.impl.api.NonTransactionalTokenNameLookup;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
 import org.neo4j.kernel.impl.api.SchemaWriteGuard;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionHeaderInformation;
+import org.neo4j.kernel.impl.api.TransactionIdAwaiter;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
@@ -264,6 +266,7 @@ public abstract class InternalAbstractGraphDatabase
     protected IdGeneratorFactory idGeneratorFactory;
     protected IndexConfigStore indexStore;
     protected TxIdGenerator txIdGenerator;
+    protected TransactionIdAwaiter transactionIdAwaiter;
     protected LifecycledPageCache pageCache;
     protected StoreFactory storeFactory;
     protected DiagnosticsManager diagnosticsManager;
@@ -480,6 +483,8 @@ public abstract class InternalAbstractGraphDatabase
 
         txIdGenerator = life.add( createTxIdGenerator() );
 
+        transactionIdAwaiter = createTransactionIdAwaiter();
+
         lockManager = createLockManager();
 
         idGeneratorFactory = createIdGeneratorFactory();
@@ -686,6 +691,18 @@ public abstract class InternalAbstractGraphDatabase
         } );
     }
 
+    protected TransactionIdAwaiter createTransactionIdAwaiter()
+    {
+        return new LocalTransactionIdAwaiter( new Provider<TransactionIdStore>()
+        {
+            @Override
+            public TransactionIdStore instance()
+            {
+                return neoDataSource.evaluate();
+            }
+        }, Clock.SYSTEM_CLOCK );
+    }
+
     protected Caches createCaches()
     {
         return new DefaultCaches( msgLog, monitors );
@@ -1236,6 +1253,10 @@ public abstract class InternalAbstractGraphDatabase
             {
                 return type.cast( txIdGenerator );
             }
+            else if ( TransactionIdAwaiter.class.isAssignableFrom( type ) && type.isInstance( transactionIdAwaiter ) )
+            {
+                return type.cast( transactionIdAwaiter );
+            }
             else if ( DiagnosticsManager.class.isAssignableFrom( type ) && type.isInstance( diagnosticsManager ) )
             {
                 return type.cast( diagnosticsManager );
@@ -52,6 +52,26 @@ interface DataRead
     PrimitiveLongIterator nodesGetFromIndexLookup( IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException;
 
+    /**
+     * Returns an iterator with the nodes that have a number in the given range as value. A {@code null} bound
+     * leaves the range open at that end.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( IndexDescriptor index, Number lower, boolean includeLower,
+                                                              Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    /**
+     * Returns an iterator with the nodes that have a string starting with the given prefix as value.
+     *
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+     *          if no such index found.
+     */
+    PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( IndexDescriptor index, String prefix )
+            throws IndexNotFoundKernelException;
+
     /**
      * @return an iterator over all nodes in the database.
      */
@@ -136,6 +156,8 @@ interface DataRead
      * Calling {@link org.neo4j.cursor.Cursor#close()} will release any associated resources and delegate
      * the close call to the input cursor.
      *
+     * @param expandTypes the relationship types to expand, or {@code null} to expand relationships of any type.
+     *
      * @param direction signals the direction that the current row relationship goes from your start node to the
      *                  neighbor node. We use this instead of just having start/end node registers, as the core use case
      *                  is returning neighbor nodes, so the signature is optimized for that.
@@ -25,6 +25,7 @@ import java.util.Set;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.exceptions.legacyindex.LegacyIndexNotFoundKernelException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
@@ -360,5 +361,10 @@ public interface TxState
 
     DiffSets<Long> indexUpdates( IndexDescriptor index, Object value );
 
+    /**
+     * The combined index updates for all values accepted by the given filter, as needed by range seeks.
+     */
+    DiffSets<Long> indexUpdatesForRangeSeek( IndexDescriptor index, Predicate<Object> valueFilter );
+
     void indexUpdateProperty( IndexDescriptor descriptor, long nodeId, Object valueBefore, Object valueAfter );
 }
@@ -120,6 +120,8 @@ public interface Status
         MarkedAsFailed( ClientError, "Transaction was marked as both successful and failed. Failure takes precedence" +
                 " and so this transaction was rolled back although it may have looked like it was going to be " +
                 "committed" ),
+        BookmarkTimeout( TransientError, "The database did not catch up with the requested transaction id within " +
+                "the allotted time. Retrying the request, possibly against another instance, may be successful." ),
         ;
 
 
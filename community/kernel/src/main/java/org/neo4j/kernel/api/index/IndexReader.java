@@ -32,6 +32,17 @@ public interface IndexReader extends Resource
 {
     PrimitiveLongIterator lookup( Object value );
 
+    /**
+     * Searches the index for number values in the given range. A {@code null} bound leaves the range open
+     * at that end.
+     */
+    PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower, Number upper, boolean includeUpper );
+
+    /**
+     * Searches the index for string values starting with the given prefix.
+     */
+    PrimitiveLongIterator rangeSeekByPrefix( String prefix );
+
     IndexReader EMPTY = new IndexReader()
     {
         @Override
@@ -40,6 +51,19 @@ public interface IndexReader extends Resource
             return PrimitiveLongCollections.emptyIterator();
         }
 
+        @Override
+        public PrimitiveLongIterator rangeSeekByNumber( Number lower, boolean includeLower, Number upper,
+                                                        boolean includeUpper )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
+        @Override
+        public PrimitiveLongIterator rangeSeekByPrefix( String prefix )
+        {
+            return PrimitiveLongCollections.emptyIterator();
+        }
+
         @Override
         public int getIndexedCount( long nodeId, Object propertyValue )
         {
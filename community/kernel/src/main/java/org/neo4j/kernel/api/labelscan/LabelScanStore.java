@@ -44,7 +44,8 @@ public interface LabelScanStore extends Lifecycle
     LabelScanReader newReader();
 
     /**
-     * Acquire a writer for updating the store.
+     * Acquire a writer for updating the store. Writers may be used concurrently from different threads;
+     * the store itself makes sure that writes to the same nodes don't interfere with each other.
      */
     LabelScanWriter newWriter();
 
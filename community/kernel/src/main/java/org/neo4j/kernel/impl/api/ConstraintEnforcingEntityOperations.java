@@ -215,6 +215,22 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations
         return entityReadOperations.nodesGetFromIndexLookup( state, index, value );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+            Number lower, boolean includeLower, Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromIndexRangeSeekByNumber( state, index, lower, includeLower, upper,
+                includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+            String prefix ) throws IndexNotFoundKernelException
+    {
+        return entityReadOperations.nodesGetFromIndexRangeSeekByPrefix( state, index, prefix );
+    }
+
     @Override
     public long nodeGetUniqueFromIndexLookup(
             KernelStatement state,
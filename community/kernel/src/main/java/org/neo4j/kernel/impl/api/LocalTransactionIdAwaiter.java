@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.helpers.Clock;
+import org.neo4j.helpers.Provider;
+import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
+
+/**
+ * {@link TransactionIdAwaiter} for a single instance, where all transactions are committed locally. Waiting for
+ * a transaction id which isn't committed yet simply polls the {@link TransactionIdStore} until it is.
+ */
+public class LocalTransactionIdAwaiter implements TransactionIdAwaiter
+{
+    static final long POLL_INTERVAL_MILLIS = 10;
+
+    private final Provider<TransactionIdStore> transactionIdStore;
+    private final Clock clock;
+
+    public LocalTransactionIdAwaiter( Provider<TransactionIdStore> transactionIdStore, Clock clock )
+    {
+        this.transactionIdStore = transactionIdStore;
+        this.clock = clock;
+    }
+
+    @Override
+    public long lastCommittedTransactionId()
+    {
+        return transactionIdStore.instance().getLastCommittedTransactionId();
+    }
+
+    @Override
+    public void awaitTransactionId( long txId, long timeout, TimeUnit unit )
+            throws TimeoutException, InterruptedException
+    {
+        long endTime = clock.currentTimeMillis() + unit.toMillis( timeout );
+        while ( lastCommittedTransactionId() < txId )
+        {
+            if ( clock.currentTimeMillis() >= endTime )
+            {
+                throw new TimeoutException( "Transaction " + txId + " not committed within " + timeout + " " +
+                        unit + ", last committed transaction is " + lastCommittedTransactionId() );
+            }
+            Thread.sleep( POLL_INTERVAL_MILLIS );
+        }
+    }
+}
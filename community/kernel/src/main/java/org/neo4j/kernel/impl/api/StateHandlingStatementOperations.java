@@ -615,6 +615,34 @@ public class StateHandlingStatementOperations implements
         return resourceIterator( changeFilteredMatches, committed );
     }
 
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                     Number lower, boolean includeLower,
+                                                                     Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        // The index keeps all numbers as doubles, so ask it for the closed range and compare the actual values
+        PrimitiveLongResourceIterator committed =
+                storeLayer.nodesGetFromIndexRangeSeekByNumber( state, index, lower, true, upper, true );
+        Predicate<Object> range = numberRange( lower, includeLower, upper, includeUpper );
+        PrimitiveLongIterator exactMatches =
+                PrimitiveLongCollections.filter( committed, valueMatch( state, index.getPropertyKeyId(), range ) );
+        PrimitiveLongIterator changeFilteredMatches =
+                filterIndexStateChangesForRangeSeek( state, index, range, exactMatches );
+        return resourceIterator( changeFilteredMatches, committed );
+    }
+
+    @Override
+    public PrimitiveLongIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                     String prefix )
+            throws IndexNotFoundKernelException
+    {
+        PrimitiveLongResourceIterator committed = storeLayer.nodesGetFromIndexRangeSeekByPrefix( state, index, prefix );
+        PrimitiveLongIterator changeFilteredMatches =
+                filterIndexStateChangesForRangeSeek( state, index, stringPrefix( prefix ), committed );
+        return resourceIterator( changeFilteredMatches, committed );
+    }
+
     private PrimitiveLongIterator filterExactIndexMatches(
             KernelStatement state,
             IndexDescriptor index,
@@ -656,6 +684,106 @@ public class StateHandlingStatementOperations implements
         };
     }
 
+    private PrimitiveLongPredicate valueMatch(
+            final KernelStatement state,
+            final int propertyKeyId,
+            final Predicate<Object> valueFilter )
+    {
+        return new PrimitiveLongPredicate()
+        {
+            @Override
+            public boolean accept( long nodeId )
+            {
+                try
+                {
+                    Property property = nodeGetProperty( state, nodeId, propertyKeyId );
+                    return property.isDefined() && valueFilter.accept( ((DefinedProperty) property).value() );
+                }
+                catch ( EntityNotFoundException e )
+                {
+                    // Deleted in this transaction, the transaction state will leave it out anyway
+                    return false;
+                }
+            }
+        };
+    }
+
+    private static Predicate<Object> numberRange( final Number lower, final boolean includeLower,
+                                                  final Number upper, final boolean includeUpper )
+    {
+        return new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                if ( !(value instanceof Number) )
+                {
+                    return false;
+                }
+                Number number = (Number) value;
+                if ( lower != null )
+                {
+                    int comparison = compareNumbers( number, lower );
+                    if ( comparison < 0 || (comparison == 0 && !includeLower) )
+                    {
+                        return false;
+                    }
+                }
+                if ( upper != null )
+                {
+                    int comparison = compareNumbers( number, upper );
+                    if ( comparison > 0 || (comparison == 0 && !includeUpper) )
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    private static int compareNumbers( Number lhs, Number rhs )
+    {
+        if ( isIntegral( lhs ) && isIntegral( rhs ) )
+        {
+            return Long.compare( lhs.longValue(), rhs.longValue() );
+        }
+        return Double.compare( lhs.doubleValue(), rhs.doubleValue() );
+    }
+
+    private static boolean isIntegral( Number number )
+    {
+        return number instanceof Long || number instanceof Integer || number instanceof Short ||
+               number instanceof Byte;
+    }
+
+    private static Predicate<Object> stringPrefix( final String prefix )
+    {
+        return new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                return (value instanceof String || value instanceof Character) &&
+                       value.toString().startsWith( prefix );
+            }
+        };
+    }
+
+    private PrimitiveLongIterator filterIndexStateChangesForRangeSeek( KernelStatement state,
+            IndexDescriptor index, Predicate<Object> valueFilter, PrimitiveLongIterator nodeIds )
+    {
+        if ( state.hasTxStateWithChanges() )
+        {
+            DiffSets<Long> labelPropertyChanges = state.txState().indexUpdatesForRangeSeek( index, valueFilter );
+            DiffSets<Long> nodes = state.txState().addedAndRemovedNodes();
+
+            // Apply to actual index lookup
+            return nodes.augmentWithRemovals( labelPropertyChanges.augment( nodeIds ) );
+        }
+        return nodeIds;
+    }
+
     private PrimitiveLongIterator filterIndexStateChanges( KernelStatement state, IndexDescriptor index,
             Object value, PrimitiveLongIterator nodeIds )
     {
@@ -928,15 +1056,51 @@ public class StateHandlingStatementOperations implements
         long count = storeLayer.countsForNode( labelId );
         if ( statement.hasTxState() )
         {
-            if ( labelId != ReadOperations.ANY_LABEL )
+            if ( labelId == ReadOperations.ANY_LABEL )
             {
-                throw new UnsupportedOperationException( "not implemented" );
+                count += statement.txState().addedAndRemovedNodes().delta();
+            }
+            else
+            {
+                count += labelDelta( statement.txState(), labelId );
             }
-            count += statement.txState().addedAndRemovedNodes().delta();
         }
         return count;
     }
 
+    /**
+     * The number of nodes that have gotten the given label in the transaction, minus the number of nodes that
+     * have lost it, either by having it removed or by being deleted. Only looks at the nodes the transaction
+     * has changed.
+     */
+    private long labelDelta( TxState txState, int labelId )
+    {
+        DiffSets<Long> labelChanges = txState.nodesWithLabelChanged( labelId );
+        long delta = labelChanges.getAdded().size() - labelChanges.getRemoved().size();
+        // Deleting a node doesn't remove its committed labels in the transaction state
+        for ( Long nodeId : txState.addedAndRemovedNodes().getRemoved() )
+        {
+            if ( !labelChanges.isRemoved( nodeId ) && storeNodeHasLabel( nodeId, labelId ) )
+            {
+                delta--;
+            }
+        }
+        return delta;
+    }
+
+    private boolean storeNodeHasLabel( long nodeId, int labelId )
+    {
+        try
+        {
+            return storeLayer.nodeHasLabel( nodeId, labelId );
+        }
+        catch ( EntityNotFoundException e )
+        {
+            throw new IllegalStateException(
+                    "Node " + nodeId + " deleted in this transaction does not exist in the store", e );
+        }
+    }
+
     @Override
     public long countsForRelationship( KernelStatement statement, int startLabelId, int typeId, int endLabelId )
     {
@@ -951,7 +1115,7 @@ public class StateHandlingStatementOperations implements
                 }
                 else
                 {
-                    throw new UnsupportedOperationException( "not implemented" );
+                    count += relationshipTypeDelta( statement.txState(), typeId );
                 }
             }
             else if ( startLabelId == ReadOperations.ANY_LABEL )
@@ -970,6 +1134,53 @@ public class StateHandlingStatementOperations implements
         return count;
     }
 
+    /**
+     * The number of relationships of the given type that the transaction has created, minus the number of
+     * relationships of that type it has deleted. Only looks at the relationships the transaction has changed.
+     */
+    private long relationshipTypeDelta( TxState txState, int typeId )
+    {
+        RelationshipTypeCounter added = new RelationshipTypeCounter( typeId );
+        for ( Long relId : txState.addedAndRemovedRels().getAdded() )
+        {
+            txState.relationshipVisit( relId, added );
+        }
+        RelationshipTypeCounter removed = new RelationshipTypeCounter( typeId );
+        for ( Long relId : txState.addedAndRemovedRels().getRemoved() )
+        {
+            try
+            {
+                storeLayer.relationshipVisit( relId, removed );
+            }
+            catch ( EntityNotFoundException e )
+            {
+                throw new IllegalStateException(
+                        "Relationship " + relId + " deleted in this transaction does not exist in the store", e );
+            }
+        }
+        return added.count - removed.count;
+    }
+
+    private static class RelationshipTypeCounter implements RelationshipVisitor<RuntimeException>
+    {
+        private final int typeId;
+        private long count;
+
+        RelationshipTypeCounter( int typeId )
+        {
+            this.typeId = typeId;
+        }
+
+        @Override
+        public void visit( long relId, int type, long startNode, long endNode )
+        {
+            if ( type == typeId )
+            {
+                count++;
+            }
+        }
+    }
+
     @Override
     public PrimitiveLongIterator nodeGetRelationships( KernelStatement state, long nodeId, Direction direction,
                                                        int[] relTypes ) throws EntityNotFoundException
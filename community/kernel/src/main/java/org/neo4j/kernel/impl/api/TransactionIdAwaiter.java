@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets a client read its own writes by means of transaction id "bookmarks". After committing, a client can ask
+ * for {@link #lastCommittedTransactionId()} and later hand that id to {@link #awaitTransactionId(long, long, TimeUnit)}
+ * on the same or another instance, which will then not execute anything on behalf of the client before that
+ * instance has applied the transaction.
+ */
+public interface TransactionIdAwaiter
+{
+    /**
+     * @return id of the last transaction that is committed and visible on this instance.
+     */
+    long lastCommittedTransactionId();
+
+    /**
+     * Blocks until this instance has applied the transaction with the given id, doing whatever is necessary
+     * to get there, for example pulling updates from a master. Returns immediately if that is already the case.
+     *
+     * @throws TimeoutException if the transaction wasn't applied within the given timeout.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    void awaitTransactionId( long txId, long timeout, TimeUnit unit ) throws TimeoutException, InterruptedException;
+}
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.api;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.impl.api.LegacyIndexApplier.ProviderLookup;
@@ -55,6 +56,7 @@ public class TransactionRepresentationStoreApplier
     private final PropertyLoader propertyLoader;
     private final HighIdTrackerFactory highIdTrackerFactory;
     private final IdOrderingQueue legacyIndexTransactionOrdering;
+    private final Executor indexUpdateExecutor;
 
     public TransactionRepresentationStoreApplier(
             IndexingService indexingService, LabelScanStore labelScanStore, NeoStore neoStore,
@@ -62,6 +64,21 @@ public class TransactionRepresentationStoreApplier
             IndexConfigStore indexConfigStore, HighIdTrackerFactory highIdTrackerFactory,
             IdOrderingQueue legacyIndexTransactionOrdering )
     {
+        this( indexingService, labelScanStore, neoStore, cacheAccess, lockService, legacyIndexProviderLookup,
+                indexConfigStore, highIdTrackerFactory, legacyIndexTransactionOrdering, null );
+    }
+
+    /**
+     * @param indexUpdateExecutor used to update different kinds of indexes concurrently with each other while
+     * applying a transaction, or {@code null} to apply everything on the committing thread.
+     */
+    public TransactionRepresentationStoreApplier(
+            IndexingService indexingService, LabelScanStore labelScanStore, NeoStore neoStore,
+            CacheAccessBackDoor cacheAccess, LockService lockService, ProviderLookup legacyIndexProviderLookup,
+            IndexConfigStore indexConfigStore, HighIdTrackerFactory highIdTrackerFactory,
+            IdOrderingQueue legacyIndexTransactionOrdering, Executor indexUpdateExecutor )
+    {
+        this.indexUpdateExecutor = indexUpdateExecutor;
         this.indexingService = indexingService;
         this.labelScanStore = labelScanStore;
         this.neoStore = neoStore;
@@ -83,7 +100,8 @@ public class TransactionRepresentationStoreApplier
                 highIdTrackerFactory, applyRecovered );
         NeoCommandHandler countStoreApplier = new CountStoreApplier( neoStore.getCountsStore(), neoStore.getNodeStore() );
         NeoCommandHandler indexApplier = new NeoTransactionIndexApplier( indexingService,
-                labelScanStore, neoStore.getNodeStore(), neoStore.getPropertyStore(), cacheAccess, propertyLoader );
+                labelScanStore, neoStore.getNodeStore(), neoStore.getPropertyStore(), cacheAccess, propertyLoader,
+                indexUpdateExecutor );
         NeoCommandHandler legacyIndexApplier = new LegacyIndexApplier( indexConfigStore,
                 legacyIndexProviderLookup, legacyIndexTransactionOrdering, transactionId, applyRecovered );
 
@@ -20,11 +20,16 @@
 package org.neo4j.kernel.impl.api.index;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
@@ -34,7 +39,9 @@ import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.Logging;
 
@@ -44,32 +51,27 @@ import static java.lang.Thread.currentThread;
 import static org.neo4j.helpers.FutureAdapter.latchGuardedValue;
 import static org.neo4j.helpers.ValueGetter.NO_VALUE;
 import static org.neo4j.kernel.impl.api.index.IndexPopulationFailure.failure;
+import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 
 /**
- * Represents one job of initially populating an index over existing data in the database.
- * Scans the store directly.
+ * Represents one job of initially populating one or more indexes over existing data in the database.
+ * Scans the store directly, once for all of its indexes. An index failing to populate, or being cancelled,
+ * doesn't affect the others.
  *
  * @author Mattias Persson
  */
 public class IndexPopulationJob implements Runnable
 {
     private final IndexStoreView storeView;
-    private final String indexUserDescription;
-
-    // NOTE: unbounded queue expected here
-    private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
-
-    private final IndexDescriptor descriptor;
-    private final FailedIndexProxyFactory failureDelegate;
-    private final IndexPopulator populator;
-    private final FlippableIndexProxy flipper;
     private final UpdateableSchemaState updateableSchemaState;
     private final StringLogger log;
     private final CountDownLatch doneSignal = new CountDownLatch( 1 );
+    private final List<IndexPopulation> populations = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
 
     private volatile StoreScan<IndexPopulationFailedKernelException> storeScan;
     private volatile boolean cancelled;
-    private final SchemaIndexProvider.Descriptor providerDescriptor;
+    private volatile boolean populationsCancelled;
 
     public IndexPopulationJob(IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
                               String indexUserDescription,
@@ -78,112 +80,86 @@ public class IndexPopulationJob implements Runnable
                               IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
                               Logging logging)
     {
-        this.descriptor = descriptor;
-        this.providerDescriptor = providerDescriptor;
-        this.populator = populator;
-        this.flipper = flipper;
+        this( storeView, updateableSchemaState, logging );
+        addPopulation( descriptor, providerDescriptor, indexUserDescription, failureDelegateFactory, populator,
+                flipper );
+    }
+
+    public IndexPopulationJob( IndexStoreView storeView, UpdateableSchemaState updateableSchemaState,
+                               Logging logging )
+    {
         this.storeView = storeView;
         this.updateableSchemaState = updateableSchemaState;
-        this.indexUserDescription = indexUserDescription;
-        this.failureDelegate = failureDelegateFactory;
         this.log = logging.getMessagesLog( getClass() );
     }
 
+    /**
+     * Adds an index for this job to populate. All indexes must be added before the job runs.
+     */
+    public IndexPopulation addPopulation( IndexDescriptor descriptor,
+                                          SchemaIndexProvider.Descriptor providerDescriptor,
+                                          String indexUserDescription,
+                                          FailedIndexProxyFactory failureDelegateFactory,
+                                          IndexPopulator populator, FlippableIndexProxy flipper )
+    {
+        IndexPopulation population = new IndexPopulation( descriptor, providerDescriptor, indexUserDescription,
+                failureDelegateFactory, populator, flipper );
+        populations.add( population );
+        return population;
+    }
+
+    /**
+     * Schedules this job, unless one of the other indexes it populates already did so.
+     */
+    public void scheduleOnce( JobScheduler scheduler )
+    {
+        if ( scheduled.compareAndSet( false, true ) )
+        {
+            scheduler.schedule( indexPopulation, this );
+        }
+    }
+
     @Override
     public void run()
     {
         String oldThreadName = currentThread().getName();
-        currentThread().setName( format( "Index populator on %s [runs on: %s]", indexUserDescription, oldThreadName ) );
-        boolean success = false;
-        Throwable failureCause = null;
+        currentThread().setName( format( "Index populator on %s [runs on: %s]", indexUserDescriptions(),
+                oldThreadName ) );
         try
         {
-            try
+            for ( IndexPopulation population : populations )
             {
-                log.info( format("Index population started: [%s]", indexUserDescription) );
-                log.flush();
-                populator.create();
+                population.create();
+            }
 
+            try
+            {
                 indexAllNodes();
-                if ( cancelled )
-                {
-                    // We remain in POPULATING state
-                    return;
-                }
-
-                Callable<Void> duringFlip = new Callable<Void>()
-                {
-                    @Override
-                    public Void call() throws Exception
-                    {
-                        populateFromQueueIfAvailable( Long.MAX_VALUE );
-                        populator.close( true );
-                        updateableSchemaState.clear();
-                        return null;
-                    }
-                };
-
-                flipper.flip( duringFlip, failureDelegate );
-                success = true;
-                log.info( format("Index population completed. Index is now online: [%s]", indexUserDescription) );
-                log.flush();
             }
             catch ( Throwable t )
             {
-                // If the cause of index population failure is a conflict in a (unique) index, the conflict is the
-                // failure
-                if ( t instanceof IndexPopulationFailedKernelException )
-                {
-                    Throwable cause = t.getCause();
-                    if ( cause instanceof IndexEntryConflictException )
-                    {
-                        t = cause;
-                    }
-                }
-
-                // Index conflicts are expected (for unique indexes) so we don't need to log them.
-                if ( !(t instanceof IndexEntryConflictException) /*TODO: && this is a unique index...*/ )
+                for ( IndexPopulation population : populations )
                 {
-                    log.error( format("Failed to populate index: [%s]", indexUserDescription), t );
-                    log.flush();
+                    population.fail( t );
                 }
-
-                // Set failure cause to be stored persistently
-                failureCause = t;
-
-                // The flipper will have already flipped to a failed index context here, but
-                // it will not include the cause of failure, so we do another flip to a failed
-                // context that does.
-
-                // The reason for having the flipper transition to the failed index context in the first
-                // place is that we would otherwise introduce a race condition where updates could come
-                // in to the old context, if something failed in the job we send to the flipper.
-                flipper.flipTo( new FailedIndexProxy( descriptor, providerDescriptor, indexUserDescription,
-                                                      populator, failure( t ) ) );
             }
-            finally
+            if ( cancelled )
             {
-                try
-                {
-                    if ( !success )
-                    {
-                        if ( failureCause != null )
-                        {
-                            populator.markAsFailed( failure( failureCause ).asString() );
-                        }
+                // We remain in POPULATING state
+                return;
+            }
 
-                        populator.close( false );
-                    }
-                }
-                catch ( Throwable e )
-                {
-                    log.error( format("Unable to close failed populator for index: [%s]", indexUserDescription), e );
-                    log.flush();
-                }
+            for ( IndexPopulation population : populations )
+            {
+                population.flip();
             }
         }
         finally
         {
+            for ( IndexPopulation population : populations )
+            {
+                population.closeUnlessDone();
+            }
             doneSignal.countDown();
             currentThread().setName( oldThreadName );
         }
@@ -191,53 +167,138 @@ public class IndexPopulationJob implements Runnable
 
     private void indexAllNodes() throws IndexPopulationFailedKernelException
     {
-        storeScan = storeView.visitNodesWithPropertyAndLabel( descriptor, new Visitor<NodePropertyUpdate,
-                IndexPopulationFailedKernelException>()
+        if ( !anyPopulationActive() )
         {
-            @Override
-            public boolean visit( NodePropertyUpdate update ) throws IndexPopulationFailedKernelException
+            return;
+        }
+
+        if ( populations.size() == 1 )
+        {
+            final IndexPopulation population = populations.get( 0 );
+            storeScan = storeView.visitNodesWithPropertyAndLabel( population.descriptor,
+                    new Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException>()
             {
-                try
+                @Override
+                public boolean visit( NodePropertyUpdate update )
                 {
-                    populator.add( update.getNodeId(), update.getValueAfter() );
-                    populateFromQueueIfAvailable( update.getNodeId() );
+                    population.add( update );
+                    stopScanUnlessAnyPopulationActive();
+                    return false;
                 }
-                catch ( IndexEntryConflictException | IOException conflict )
+            } );
+        }
+        else
+        {
+            storeScan = storeView.visitNodes( labelIds(), propertyKeyIds(),
+                    new Visitor<NodePropertyUpdate, IndexPopulationFailedKernelException>()
+            {
+                @Override
+                public boolean visit( NodePropertyUpdate update )
                 {
-                    throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+                    for ( IndexPopulation population : populations )
+                    {
+                        if ( population.isFor( update ) )
+                        {
+                            population.add( update );
+                        }
+                    }
+                    stopScanUnlessAnyPopulationActive();
+                    return false;
                 }
-                return false;
-            }
-        });
+            }, new Visitor<NodeLabelUpdate, IndexPopulationFailedKernelException>()
+            {
+                @Override
+                public boolean visit( NodeLabelUpdate update )
+                {
+                    // Called for every node, so a good place to let go of indexes dropped during the scan
+                    if ( populationsCancelled )
+                    {
+                        populationsCancelled = false;
+                        for ( IndexPopulation population : populations )
+                        {
+                            if ( population.cancelled )
+                            {
+                                population.closeUnlessDone();
+                            }
+                        }
+                        stopScanUnlessAnyPopulationActive();
+                    }
+                    return false;
+                }
+            } );
+        }
         storeScan.run();
-        try
+    }
+
+    private void stopScanUnlessAnyPopulationActive()
+    {
+        if ( !anyPopulationActive() )
         {
-            populator.verifyDeferredConstraints( storeView );
+            storeScan.stop();
         }
-        catch ( Exception conflict )
+    }
+
+    private boolean anyPopulationActive()
+    {
+        for ( IndexPopulation population : populations )
         {
-            throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+            if ( population.active )
+            {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void populateFromQueueIfAvailable( final long highestIndexedNodeId )
-            throws IndexEntryConflictException, IOException
+    private int[] labelIds()
     {
-        if ( !queue.isEmpty() )
+        List<Integer> ids = new ArrayList<>();
+        for ( IndexPopulation population : populations )
         {
-            try ( IndexUpdater updater = populator.newPopulatingUpdater( storeView ) )
+            if ( !ids.contains( population.descriptor.getLabelId() ) )
             {
-                for ( NodePropertyUpdate update : queue )
-                {
-                    if ( update.getNodeId() <= highestIndexedNodeId )
-                    {
-                        updater.process( update );
-                    }
-                }
+                ids.add( population.descriptor.getLabelId() );
+            }
+        }
+        return toIntArray( ids );
+    }
+
+    private int[] propertyKeyIds()
+    {
+        List<Integer> ids = new ArrayList<>();
+        for ( IndexPopulation population : populations )
+        {
+            if ( !ids.contains( population.descriptor.getPropertyKeyId() ) )
+            {
+                ids.add( population.descriptor.getPropertyKeyId() );
             }
         }
+        return toIntArray( ids );
+    }
+
+    private static int[] toIntArray( List<Integer> list )
+    {
+        int[] array = new int[list.size()];
+        for ( int i = 0; i < array.length; i++ )
+        {
+            array[i] = list.get( i );
+        }
+        return array;
+    }
+
+    private String indexUserDescriptions()
+    {
+        StringBuilder descriptions = new StringBuilder();
+        for ( IndexPopulation population : populations )
+        {
+            descriptions.append( descriptions.length() > 0 ? ", " : "" ).append( population.indexUserDescription );
+        }
+        return descriptions.toString();
     }
 
+    /**
+     * Cancels population of all indexes in this job.
+     */
     public Future<Void> cancel()
     {
         // Stop the population
@@ -252,21 +313,278 @@ public class IndexPopulationJob implements Runnable
 
     /**
      * A transaction happened that produced the given updates. Let this job incorporate its data,
-     * feeding it to the {@link IndexPopulator}.
+     * feeding it to the {@link IndexPopulator}. Only for jobs populating a single index.
      */
     public void update( NodePropertyUpdate update )
     {
-        queue.add( update );
+        assert populations.size() == 1 : "Updates must go to one of the populations of " + this;
+        populations.get( 0 ).update( update );
     }
 
     @Override
     public String toString()
     {
-        return getClass().getSimpleName() + "[populator:" + populator + ", descriptor:" + indexUserDescription + "]";
+        StringBuilder populators = new StringBuilder();
+        for ( IndexPopulation population : populations )
+        {
+            populators.append( populators.length() > 0 ? ", " : "" ).append( population.populator );
+        }
+        return getClass().getSimpleName() + "[populator:" + populators + ", descriptor:" +
+                indexUserDescriptions() + "]";
     }
 
     public void awaitCompletion() throws InterruptedException
     {
         doneSignal.await();
     }
+
+    /**
+     * The population of one of the indexes of this job.
+     */
+    public class IndexPopulation
+    {
+        private final IndexDescriptor descriptor;
+        private final SchemaIndexProvider.Descriptor providerDescriptor;
+        private final String indexUserDescription;
+        private final FailedIndexProxyFactory failureDelegate;
+        private final IndexPopulator populator;
+        private final FlippableIndexProxy flipper;
+        private final CountDownLatch doneSignal = new CountDownLatch( 1 );
+
+        // NOTE: unbounded queue expected here
+        private final Queue<NodePropertyUpdate> queue = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean cancelled;
+        // Whether the populator is created and neither failed, flipped nor closed yet
+        private volatile boolean active;
+
+        IndexPopulation( IndexDescriptor descriptor, SchemaIndexProvider.Descriptor providerDescriptor,
+                         String indexUserDescription, FailedIndexProxyFactory failureDelegate,
+                         IndexPopulator populator, FlippableIndexProxy flipper )
+        {
+            this.descriptor = descriptor;
+            this.providerDescriptor = providerDescriptor;
+            this.indexUserDescription = indexUserDescription;
+            this.failureDelegate = failureDelegate;
+            this.populator = populator;
+            this.flipper = flipper;
+        }
+
+        private void create()
+        {
+            active = true;
+            try
+            {
+                log.info( format("Index population started: [%s]", indexUserDescription) );
+                log.flush();
+                populator.create();
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private boolean isFor( NodePropertyUpdate update )
+        {
+            return update.getPropertyKeyId() == descriptor.getPropertyKeyId() &&
+                    update.forLabel( descriptor.getLabelId() );
+        }
+
+        private void add( NodePropertyUpdate update )
+        {
+            if ( !active || cancelled )
+            {
+                return;
+            }
+            try
+            {
+                populator.add( update.getNodeId(), update.getValueAfter() );
+                populateFromQueueIfAvailable( update.getNodeId() );
+            }
+            catch ( IndexEntryConflictException | IOException conflict )
+            {
+                fail( new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict ) );
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private void flip()
+        {
+            if ( !active || cancelled )
+            {
+                return;
+            }
+            try
+            {
+                try
+                {
+                    populator.verifyDeferredConstraints( storeView );
+                }
+                catch ( Exception conflict )
+                {
+                    throw new IndexPopulationFailedKernelException( descriptor, indexUserDescription, conflict );
+                }
+
+                Callable<Void> duringFlip = new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        populateFromQueueIfAvailable( Long.MAX_VALUE );
+                        populator.close( true );
+                        updateableSchemaState.clear();
+                        return null;
+                    }
+                };
+
+                flipper.flip( duringFlip, failureDelegate );
+                active = false;
+                doneSignal.countDown();
+                log.info( format("Index population completed. Index is now online: [%s]", indexUserDescription) );
+                log.flush();
+            }
+            catch ( Throwable t )
+            {
+                fail( t );
+            }
+        }
+
+        private void fail( Throwable t )
+        {
+            if ( !active )
+            {
+                return;
+            }
+            if ( cancelled )
+            {
+                // This index is going away anyway, remaining in POPULATING state until dropped
+                close( null );
+                return;
+            }
+
+            // If the cause of index population failure is a conflict in a (unique) index, the conflict is the
+            // failure
+            if ( t instanceof IndexPopulationFailedKernelException )
+            {
+                Throwable cause = t.getCause();
+                if ( cause instanceof IndexEntryConflictException )
+                {
+                    t = cause;
+                }
+            }
+
+            // Index conflicts are expected (for unique indexes) so we don't need to log them.
+            if ( !(t instanceof IndexEntryConflictException) /*TODO: && this is a unique index...*/ )
+            {
+                log.error( format("Failed to populate index: [%s]", indexUserDescription), t );
+                log.flush();
+            }
+
+            // The flipper will have already flipped to a failed index context here, but
+            // it will not include the cause of failure, so we do another flip to a failed
+            // context that does.
+
+            // The reason for having the flipper transition to the failed index context in the first
+            // place is that we would otherwise introduce a race condition where updates could come
+            // in to the old context, if something failed in the job we send to the flipper.
+            flipper.flipTo( new FailedIndexProxy( descriptor, providerDescriptor, indexUserDescription,
+                                                  populator, failure( t ) ) );
+            close( failure( t ).asString() );
+        }
+
+        private void closeUnlessDone()
+        {
+            if ( active )
+            {
+                close( null );
+            }
+            doneSignal.countDown();
+        }
+
+        private void close( String failure )
+        {
+            active = false;
+            try
+            {
+                if ( failure != null )
+                {
+                    populator.markAsFailed( failure );
+                }
+
+                populator.close( false );
+            }
+            catch ( Throwable e )
+            {
+                log.error( format("Unable to close failed populator for index: [%s]", indexUserDescription), e );
+                log.flush();
+            }
+            finally
+            {
+                doneSignal.countDown();
+            }
+        }
+
+        private void populateFromQueueIfAvailable( final long highestIndexedNodeId )
+                throws IndexEntryConflictException, IOException
+        {
+            if ( !queue.isEmpty() )
+            {
+                try ( IndexUpdater updater = populator.newPopulatingUpdater( storeView ) )
+                {
+                    // Each update is processed once, as soon as the scan has passed its node. Later ones are
+                    // picked up when the scan gets there, or when flipping.
+                    for ( Iterator<NodePropertyUpdate> updates = queue.iterator(); updates.hasNext(); )
+                    {
+                        NodePropertyUpdate update = updates.next();
+                        if ( update.getNodeId() <= highestIndexedNodeId )
+                        {
+                            updater.process( update );
+                            updates.remove();
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * A transaction happened that produced the given updates. Let this population incorporate its data,
+         * feeding it to the {@link IndexPopulator}.
+         */
+        public void update( NodePropertyUpdate update )
+        {
+            queue.add( update );
+        }
+
+        /**
+         * Cancels population of this index, letting the others of the job carry on.
+         */
+        public Future<Void> cancel()
+        {
+            cancelled = true;
+            boolean allCancelled = true;
+            for ( IndexPopulation population : populations )
+            {
+                allCancelled &= population.cancelled;
+            }
+            if ( allCancelled )
+            {
+                IndexPopulationJob.this.cancel();
+            }
+            else
+            {
+                populationsCancelled = true;
+            }
+            return latchGuardedValue( NO_VALUE, doneSignal, "Index population cancel" );
+        }
+
+        @Override
+        public String toString()
+        {
+            return IndexPopulationJob.this.toString();
+        }
+    }
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -240,7 +241,9 @@ public class IndexingService extends LifecycleAdapter
         // Drop placeholder proxies for indexes that need to be rebuilt
         dropRecoveringIndexes( indexMap, rebuildingDescriptors );
 
-        // Rebuild indexes by recreating and repopulating them
+        // Rebuild indexes by recreating and repopulating them, all in one scan of the store
+        IndexPopulationJob populationJob = new IndexPopulationJob( storeView, updateableSchemaState, logging );
+        List<IndexProxy> rebuildingProxies = new ArrayList<>();
         for ( Map.Entry<Long, Pair<IndexDescriptor, SchemaIndexProvider.Descriptor>> entry :
                 rebuildingDescriptors.entrySet() )
         {
@@ -256,8 +259,13 @@ public class IndexingService extends LifecycleAdapter
              * they will get dropped as soon as recovery is completed by the constraint system.
              */
             IndexProxy indexProxy =
-                createAndStartPopulatingIndexProxy( indexId, indexDescriptor, providerDescriptor, false );
+                createPopulatingIndexProxy( indexId, indexDescriptor, providerDescriptor, false, populationJob );
             indexMap.putIndexProxy( indexId, indexProxy );
+            rebuildingProxies.add( indexProxy );
+        }
+        for ( IndexProxy indexProxy : rebuildingProxies )
+        {
+            indexProxy.start();
         }
 
         indexMapReference.setIndexMap( indexMap );
@@ -289,36 +297,65 @@ public class IndexingService extends LifecycleAdapter
      * will shut down.
      */
     public void createIndex( IndexRule rule )
+    {
+        createIndexes( rule );
+    }
+
+    /*
+     * Creates several indexes, f.ex. all those created in one transaction. Indexes that need populating are
+     * populated together, by a single job doing one scan of the store, instead of one scan per index.
+     *
+     * Same as for createIndex, this is called during transaction commits and must handle errors very well.
+     */
+    public void createIndexes( IndexRule... rules )
     {
         IndexMap indexMap = indexMapReference.getIndexMapCopy();
 
-        long ruleId = rule.getId();
-        IndexProxy index = indexMap.getIndexProxy( ruleId );
-        if (index != null)
+        IndexPopulationJob populationJob = null;
+        List<IndexProxy> populatingProxies = new ArrayList<>();
+        for ( IndexRule rule : rules )
         {
-            // We already have this index
-            return;
-        }
-        final IndexDescriptor descriptor = createDescriptor( rule );
-        SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
-        boolean constraint = rule.isConstraintIndex();
-        if ( state == State.RUNNING )
-        {
-            try
+            long ruleId = rule.getId();
+            IndexProxy index = indexMap.getIndexProxy( ruleId );
+            if ( index != null )
             {
-                index = createAndStartPopulatingIndexProxy( ruleId, descriptor, providerDescriptor, constraint );
+                // We already have this index
+                continue;
             }
-            catch ( IOException e )
+            final IndexDescriptor descriptor = createDescriptor( rule );
+            SchemaIndexProvider.Descriptor providerDescriptor = rule.getProviderDescriptor();
+            boolean constraint = rule.isConstraintIndex();
+            if ( state == State.RUNNING )
             {
-                throw new RuntimeException( e );
+                if ( populationJob == null )
+                {
+                    populationJob = new IndexPopulationJob( storeView, updateableSchemaState, logging );
+                }
+                try
+                {
+                    index = createPopulatingIndexProxy( ruleId, descriptor, providerDescriptor, constraint,
+                            populationJob );
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
+                populatingProxies.add( index );
+            }
+            else
+            {
+                index = createAndStartRecoveringIndexProxy( descriptor, providerDescriptor );
             }
+
+            indexMap.putIndexProxy( ruleId, index );
         }
-        else
+
+        // All indexes have joined the job by now, the first one to start schedules it. Start them before
+        // publishing them, since updates may arrive as soon as they are in the index map.
+        for ( IndexProxy index : populatingProxies )
         {
-            index = createAndStartRecoveringIndexProxy( descriptor, providerDescriptor );
+            index.start();
         }
-
-        indexMap.putIndexProxy( rule.getId(), index );
         indexMapReference.setIndexMap( indexMap );
     }
 
@@ -468,10 +505,11 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
-    private IndexProxy createAndStartPopulatingIndexProxy( final long ruleId,
-                                                           final IndexDescriptor descriptor,
-                                                           final SchemaIndexProvider.Descriptor providerDescriptor,
-                                                           final boolean constraint ) throws IOException
+    private IndexProxy createPopulatingIndexProxy( final long ruleId,
+                                                   final IndexDescriptor descriptor,
+                                                   final SchemaIndexProvider.Descriptor providerDescriptor,
+                                                   final boolean constraint,
+                                                   IndexPopulationJob populationJob ) throws IOException
     {
         final FlippableIndexProxy flipper = new FlippableIndexProxy();
 
@@ -485,8 +523,7 @@ public class IndexingService extends LifecycleAdapter
 
         PopulatingIndexProxy populatingIndex =
             new PopulatingIndexProxy( scheduler, descriptor, providerDescriptor,
-                    failureDelegateFactory, populator, flipper, storeView,
-                indexUserDescription, updateableSchemaState, logging );
+                    failureDelegateFactory, populator, flipper, indexUserDescription, populationJob );
         flipper.flipTo( populatingIndex );
 
         // Prepare for flipping to online mode
@@ -515,9 +552,7 @@ public class IndexingService extends LifecycleAdapter
             }
         } );
 
-        IndexProxy result = contractCheckedProxy( flipper, false );
-        result.start();
-        return result;
+        return contractCheckedProxy( flipper, false );
     }
 
     private IndexProxy createAndStartOnlineIndexProxy( long ruleId,
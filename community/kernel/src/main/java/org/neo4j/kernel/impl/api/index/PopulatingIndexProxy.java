@@ -41,7 +41,6 @@ import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.logging.Logging;
 
 import static org.neo4j.helpers.collection.IteratorUtil.emptyIterator;
-import static org.neo4j.kernel.impl.util.JobScheduler.Group.indexPopulation;
 
 
 public class PopulatingIndexProxy implements IndexProxy
@@ -50,6 +49,7 @@ public class PopulatingIndexProxy implements IndexProxy
     private final IndexDescriptor descriptor;
     private final SchemaIndexProvider.Descriptor providerDescriptor;
     private final IndexPopulationJob job;
+    private final IndexPopulationJob.IndexPopulation population;
 
     public PopulatingIndexProxy( JobScheduler scheduler,
                                  final IndexDescriptor descriptor,
@@ -59,19 +59,36 @@ public class PopulatingIndexProxy implements IndexProxy
                                  FlippableIndexProxy flipper,
                                  IndexStoreView storeView, final String indexUserDescription,
                                  UpdateableSchemaState updateableSchemaState, Logging logging )
+    {
+        this( scheduler, descriptor, providerDescriptor, failureDelegateFactory, writer, flipper,
+                indexUserDescription, new IndexPopulationJob( storeView, updateableSchemaState, logging ) );
+    }
+
+    /**
+     * Populates the index as part of the given, possibly shared, job. The job is scheduled when the first
+     * of its proxies is started.
+     */
+    public PopulatingIndexProxy( JobScheduler scheduler,
+                                 IndexDescriptor descriptor,
+                                 SchemaIndexProvider.Descriptor providerDescriptor,
+                                 FailedIndexProxyFactory failureDelegateFactory,
+                                 IndexPopulator writer,
+                                 FlippableIndexProxy flipper,
+                                 String indexUserDescription,
+                                 IndexPopulationJob job )
     {
         this.scheduler  = scheduler;
         this.descriptor = descriptor;
         this.providerDescriptor = providerDescriptor;
-        this.job  = new IndexPopulationJob( descriptor, providerDescriptor,
-                indexUserDescription, failureDelegateFactory, writer, flipper, storeView,
-                updateableSchemaState, logging );
+        this.job  = job;
+        this.population = job.addPopulation( descriptor, providerDescriptor, indexUserDescription,
+                failureDelegateFactory, writer, flipper );
     }
 
     @Override
     public void start()
     {
-        scheduler.schedule( indexPopulation, job );
+        job.scheduleOnce( scheduler );
     }
 
     @Override
@@ -85,7 +102,7 @@ public class PopulatingIndexProxy implements IndexProxy
                 switch( mode )
                 {
                     case ONLINE:
-                        job.update( update );
+                        population.update( update );
                         break;
 
                     case RECOVERY:
@@ -112,7 +129,7 @@ public class PopulatingIndexProxy implements IndexProxy
     @Override
     public Future<Void> drop()
     {
-        return job.cancel();
+        return population.cancel();
     }
 
     @Override
@@ -142,7 +159,7 @@ public class PopulatingIndexProxy implements IndexProxy
     @Override
     public Future<Void> close()
     {
-        return job.cancel();
+        return population.cancel();
     }
     
     @Override
@@ -1012,6 +1012,29 @@ public final class TxStateImpl implements TxState
         return diffs == null ? DiffSets.<Long>emptyDiffSets() : diffs;
     }
 
+    @Override
+    public DiffSets<Long> indexUpdatesForRangeSeek( IndexDescriptor descriptor, Predicate<Object> valueFilter )
+    {
+        Map<Object, DiffSets<Long>> updates = indexUpdates == null ? null : indexUpdates.get( descriptor );
+        if ( updates == null )
+        {
+            return DiffSets.<Long>emptyDiffSets();
+        }
+        Set<Long> added = new HashSet<>();
+        Set<Long> removed = new HashSet<>();
+        for ( Map.Entry<Object, DiffSets<Long>> entry : updates.entrySet() )
+        {
+            if ( valueFilter.accept( entry.getKey() ) )
+            {
+                added.addAll( entry.getValue().getAdded() );
+                removed.addAll( entry.getValue().getRemoved() );
+            }
+        }
+        // A node that only moved from one value in the range to another is still part of the range
+        removed.removeAll( added );
+        return new DiffSets<>( added, removed );
+    }
+
     @Override
     public void indexUpdateProperty( IndexDescriptor descriptor, long nodeId, Object valueBefore, Object valueAfter )
     {
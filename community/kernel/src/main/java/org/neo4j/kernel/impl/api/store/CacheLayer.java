@@ -348,6 +348,22 @@ public class CacheLayer implements StoreReadLayer
         return diskLayer.nodesGetFromIndexLookup( state, schemaCache.indexId( index ), value );
     }
 
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+            IndexDescriptor index, Number lower, boolean includeLower, Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexRangeSeekByNumber( state, schemaCache.indexId( index ), lower, includeLower,
+                upper, includeUpper );
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state,
+            IndexDescriptor index, String prefix ) throws IndexNotFoundKernelException
+    {
+        return diskLayer.nodesGetFromIndexRangeSeekByPrefix( state, schemaCache.indexId( index ), prefix );
+    }
+
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
             throws SchemaRuleNotFoundException
@@ -294,6 +294,21 @@ public class DiskLayer implements StoreReadLayer
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state,
+            IndexDescriptor index, Number lower, boolean includeLower, Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state,
+            IndexDescriptor index, String prefix ) throws IndexNotFoundKernelException
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
             throws SchemaRuleNotFoundException
@@ -597,6 +612,21 @@ public class DiskLayer implements StoreReadLayer
         return resourceIterator( reader.lookup( value ), reader );
     }
 
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, long index,
+            Number lower, boolean includeLower, Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getIndexReader( index );
+        return resourceIterator( reader.rangeSeekByNumber( lower, includeLower, upper, includeUpper ), reader );
+    }
+
+    public PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, long index,
+            String prefix ) throws IndexNotFoundKernelException
+    {
+        IndexReader reader = state.getIndexReader( index );
+        return resourceIterator( reader.rangeSeekByPrefix( prefix ), reader );
+    }
+
     private Iterator<DefinedProperty> loadAllPropertiesOf( PrimitiveRecord primitiveRecord )
     {
         Collection<PropertyRecord> records = propertyStore.getPropertyRecordChain( primitiveRecord.getNextProp() );
@@ -139,7 +139,10 @@ public class StoreExpandCursor implements Cursor
         {
             try
             {
-                relIterator = store.nodeListRelationships( nodeId.read(), expandDirection.read(), relTypes.read() );
+                int[] types = relTypes.read();
+                relIterator = types == null
+                        ? store.nodeListRelationships( nodeId.read(), expandDirection.read() )
+                        : store.nodeListRelationships( nodeId.read(), expandDirection.read(), types );
                 return true;
             }
             catch ( EntityNotFoundException e )
@@ -128,6 +128,15 @@ public interface StoreReadLayer
     PrimitiveLongResourceIterator nodesGetFromIndexLookup( KernelStatement state, IndexDescriptor index, Object value )
             throws IndexNotFoundKernelException;
 
+    PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByNumber( KernelStatement state, IndexDescriptor index,
+                                                                      Number lower, boolean includeLower,
+                                                                      Number upper, boolean includeUpper )
+            throws IndexNotFoundKernelException;
+
+    PrimitiveLongResourceIterator nodesGetFromIndexRangeSeekByPrefix( KernelStatement state, IndexDescriptor index,
+                                                                      String prefix )
+            throws IndexNotFoundKernelException;
+
     IndexDescriptor indexesGetForLabelAndPropertyKey( int labelId, int propertyKey )
                                                                     throws SchemaRuleNotFoundException;
 
@@ -156,6 +156,17 @@ public interface RecordStore<R extends AbstractBaseRecord> extends IdSequence
         @SafeVarargs
         public final <R extends AbstractBaseRecord> Iterable<R> scan( final RecordStore<R> store,
                 final Predicate<? super R>... filters )
+        {
+            return scan( store, 0, Long.MAX_VALUE, filters );
+        }
+
+        /**
+         * Scans the records with ids in [{@code fromId}, {@code toId}) in id order, which means sequential
+         * page access for the underlying store file.
+         */
+        @SafeVarargs
+        public final <R extends AbstractBaseRecord> Iterable<R> scan( final RecordStore<R> store,
+                final long fromId, final long toId, final Predicate<? super R>... filters )
         {
             return new Iterable<R>()
             {
@@ -164,7 +175,7 @@ public interface RecordStore<R extends AbstractBaseRecord> extends IdSequence
                 {
                     return new PrefetchingIterator<R>()
                     {
-                        final PrimitiveLongIterator ids = new StoreIdIterator( store );
+                        final PrimitiveLongIterator ids = new StoreIdIterator( store, fromId, toId );
 
                         @Override
                         protected R fetchNextOrNull()
@@ -216,22 +227,28 @@ public interface RecordStore<R extends AbstractBaseRecord> extends IdSequence
 
         public <R extends AbstractBaseRecord> void applyFiltered( RecordStore<R> store, Predicate<? super R>... filters ) throws FAILURE
         {
-            apply( store, ProgressListener.NONE, filters );
+            applyFiltered( store, ProgressListener.NONE, filters );
         }
 
         public <R extends AbstractBaseRecord> void applyFiltered( RecordStore<R> store, ProgressListener progressListener,
                 Predicate<? super R>... filters ) throws FAILURE
         {
-            apply( store, progressListener, filters );
+            apply( store, 0, Long.MAX_VALUE, progressListener, filters );
         }
 
-        private <R extends AbstractBaseRecord> void apply( RecordStore<R> store, ProgressListener progressListener,
-                Predicate<? super R>... filters ) throws FAILURE
+        public <R extends AbstractBaseRecord> void applyFiltered( RecordStore<R> store, long fromId, long toId,
+                ProgressListener progressListener, Predicate<? super R>... filters ) throws FAILURE
+        {
+            apply( store, fromId, toId, progressListener, filters );
+        }
+
+        private <R extends AbstractBaseRecord> void apply( RecordStore<R> store, long fromId, long toId,
+                ProgressListener progressListener, Predicate<? super R>... filters ) throws FAILURE
         {
-            for ( R record : scan( store, filters ) )
+            for ( R record : scan( store, fromId, toId, filters ) )
             {
                 store.accept( this, record );
-                progressListener.set( record.getLongId() );
+                progressListener.set( record.getLongId() - fromId );
             }
             progressListener.done();
         }
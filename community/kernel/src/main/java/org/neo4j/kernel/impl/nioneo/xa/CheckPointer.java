@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.xa;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.TokenStore;
+import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.xaframework.PhysicalLogFile;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static java.lang.String.format;
+
+/**
+ * Check points the store in the background, so that the log replayed by recovery is bounded by the check point
+ * interval rather than by the log rotation threshold.
+ * <p>
+ * Each check point first flushes the stores one at a time, pausing after each flush for as long as the flush
+ * took, so that it only gets about half of the I/O time and leaves the rest to committing transactions. Then
+ * the log is {@link PhysicalLogFile#checkPoint() rotated}, which forces everything that is still dirty, mostly
+ * what was written while the stores were being flushed, and starts a new log version for recovery to start from.
+ */
+public class CheckPointer implements Runnable
+{
+    private final TransactionIdStore transactionIdStore;
+    private final Iterable<? extends CommonAbstractStore> stores;
+    private final PhysicalLogFile logFile;
+    private final StringLogger logger;
+    private volatile boolean stopped;
+    private long lastCheckPointedTransactionId;
+
+    public CheckPointer( TransactionIdStore transactionIdStore, Iterable<? extends CommonAbstractStore> stores,
+                         PhysicalLogFile logFile, StringLogger logger )
+    {
+        this.transactionIdStore = transactionIdStore;
+        this.stores = stores;
+        this.logFile = logFile;
+        this.logger = logger;
+        this.lastCheckPointedTransactionId = transactionIdStore.getLastCommittedTransactionId();
+    }
+
+    @Override
+    public synchronized void run()
+    {
+        try
+        {
+            checkPoint();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            // The next check point, or the next log rotation, will try again
+            logger.warn( "Check point failed", e );
+        }
+    }
+
+    private void checkPoint() throws IOException, InterruptedException
+    {
+        long lastCommittedTransactionId = transactionIdStore.getLastCommittedTransactionId();
+        if ( stopped || lastCommittedTransactionId == lastCheckPointedTransactionId )
+        {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        for ( CommonAbstractStore store : stores )
+        {
+            if ( stopped )
+            {
+                return;
+            }
+            long flushStart = System.nanoTime();
+            store.flush();
+            TimeUnit.NANOSECONDS.sleep( System.nanoTime() - flushStart );
+        }
+
+        if ( !stopped && logFile.checkPoint() )
+        {
+            logger.info( format( "Check point at transaction %d took %d ms",
+                    lastCommittedTransactionId, System.currentTimeMillis() - startTime ) );
+        }
+        lastCheckPointedTransactionId = lastCommittedTransactionId;
+    }
+
+    /**
+     * Prevents further check points and waits for one that is under way to finish or give up.
+     */
+    public void stop()
+    {
+        stopped = true;
+        synchronized ( this )
+        {   // Wait for a running check point
+        }
+    }
+
+    /**
+     * @return the record and dynamic record stores of the given {@link NeoStore}, in the order they'll be flushed.
+     */
+    public static List<CommonAbstractStore> storesOf( NeoStore neoStore )
+    {
+        List<CommonAbstractStore> stores = new ArrayList<>();
+        stores.add( neoStore.getNodeStore() );
+        stores.add( neoStore.getNodeStore().getDynamicLabelStore() );
+        stores.add( neoStore.getRelationshipStore() );
+        stores.add( neoStore.getRelationshipGroupStore() );
+        stores.add( neoStore.getPropertyStore() );
+        stores.add( neoStore.getPropertyStore().getStringStore() );
+        stores.add( neoStore.getPropertyStore().getArrayStore() );
+        stores.add( neoStore.getSchemaStore() );
+        for ( TokenStore<?> tokenStore : new TokenStore<?>[] { neoStore.getPropertyKeyTokenStore(),
+                neoStore.getLabelTokenStore(), neoStore.getRelationshipTypeTokenStore() } )
+        {
+            stores.add( tokenStore );
+            stores.add( tokenStore.getNameStore() );
+        }
+        return stores;
+    }
+}
@@ -21,15 +21,25 @@ package org.neo4j.kernel.impl.nioneo.xa;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.xaframework.IOCursor;
 import org.neo4j.kernel.impl.transaction.xaframework.PhysicalTransactionCursor;
 import org.neo4j.kernel.impl.transaction.xaframework.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.VersionAwareLogEntryReader;
 
+/**
+ * Replays the transactions found in a log channel onto a visitor. Reading and deserializing transactions
+ * happens on a separate thread, ahead of the visitor, which applies them one by one in log order.
+ */
 public class LogFileRecoverer implements Visitor<ReadableLogChannel, IOException>
 {
+    static final int TRANSACTIONS_READ_AHEAD = 1024;
+
     private final VersionAwareLogEntryReader logEntryReader;
     private final Visitor<CommittedTransactionRepresentation, IOException> visitor;
 
@@ -46,11 +56,131 @@ public class LogFileRecoverer implements Visitor<ReadableLogChannel, IOException
         // Intentionally don't close the cursor here since after recovery the channel is still used.
         // I dislike this exception to the rule though.
         PhysicalTransactionCursor physicalTransactionCursor = new PhysicalTransactionCursor( channel, logEntryReader );
-        while (physicalTransactionCursor.next() && visitor.visit( physicalTransactionCursor.get() ) );
+        TransactionReader reader = new TransactionReader( physicalTransactionCursor, TRANSACTIONS_READ_AHEAD );
+        reader.start();
+        try
+        {
+            CommittedTransactionRepresentation transaction;
+            while ( (transaction = reader.next()) != null && visitor.visit( transaction ) );
+        }
+        finally
+        {
+            // The channel is used by the log writer after recovery, so the reader must be done with it
+            reader.stopReading();
+        }
         if ( visitor instanceof Closeable )
         {
             ((Closeable) visitor).close();
         }
         return true;
     }
+
+    /**
+     * Reads transactions off of a cursor into a bounded queue. It's never interrupted, since interrupting
+     * a thread blocked in channel I/O closes the channel.
+     */
+    private static class TransactionReader extends Thread
+    {
+        private static final Object END = new Object();
+
+        private final IOCursor<CommittedTransactionRepresentation> cursor;
+        private final BlockingQueue<Object> queue;
+        private volatile boolean stopped;
+
+        TransactionReader( IOCursor<CommittedTransactionRepresentation> cursor, int readAhead )
+        {
+            super( "Recovery log reader" );
+            setDaemon( true );
+            this.cursor = cursor;
+            this.queue = new ArrayBlockingQueue<>( readAhead );
+        }
+
+        @Override
+        public void run()
+        {
+            Object last = END;
+            try
+            {
+                while ( !stopped && cursor.next() )
+                {
+                    put( cursor.get() );
+                }
+            }
+            catch ( IOException | RuntimeException | Error e )
+            {
+                last = e;
+            }
+            put( last );
+        }
+
+        private void put( Object item )
+        {
+            try
+            {
+                while ( !stopped && !queue.offer( item, 10, TimeUnit.MILLISECONDS ) )
+                {   // wait for the applier to catch up
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            }
+        }
+
+        /**
+         * @return the next transaction in the log, or {@code null} if there are no more.
+         */
+        CommittedTransactionRepresentation next() throws IOException
+        {
+            Object item;
+            try
+            {
+                item = queue.take();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while waiting for transactions to recover", e );
+            }
+            if ( item == END )
+            {
+                return null;
+            }
+            if ( item instanceof IOException )
+            {
+                throw (IOException) item;
+            }
+            if ( item instanceof RuntimeException )
+            {
+                throw (RuntimeException) item;
+            }
+            if ( item instanceof Error )
+            {
+                throw (Error) item;
+            }
+            return (CommittedTransactionRepresentation) item;
+        }
+
+        void stopReading() throws IOException
+        {
+            stopped = true;
+            boolean interrupted = false;
+            while ( isAlive() )
+            {
+                try
+                {
+                    join();
+                }
+                catch ( InterruptedException e )
+                {
+                    interrupted = true;
+                }
+            }
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
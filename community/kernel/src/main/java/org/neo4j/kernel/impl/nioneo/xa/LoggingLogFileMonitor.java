@@ -55,6 +55,13 @@ public class LoggingLogFileMonitor implements PhysicalLogFile.Monitor, RecoveryV
         numberOfRecoveredTransactions++;
     }
 
+    @Override
+    public void recoveryProgress( int transactionsRecovered, long elapsedMillis )
+    {
+        logger.info( format( "Recovered %d transactions in %d ms (%d tx/s)", transactionsRecovered, elapsedMillis,
+                transactionsRecovered * 1000L / Math.max( 1, elapsedMillis ) ) );
+    }
+
     @Override
     public void recoveryCompleted()
     {
@@ -26,6 +26,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
@@ -36,6 +39,7 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.graphdb.index.IndexImplementation;
 import org.neo4j.graphdb.index.IndexProviders;
 import org.neo4j.helpers.Exceptions;
+import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.helpers.Provider;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -468,11 +472,14 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
                     logFiles, neoStore, config.get( GraphDatabaseSettings.keep_logical_logs ) );
 
             IdOrderingQueue legacyIndexTransactionOrdering = new SynchronizedArrayIdOrderingQueue( 20 );
+            final ExecutorService indexUpdateExecutor = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(),
+                    new NamedThreadFactory( "Index updates" ).setDaemon( true ) );
             final TransactionRepresentationStoreApplier storeApplier = dependencies.satisfyDependency(
                     new TransactionRepresentationStoreApplier(
                             indexingService, labelScanStore, neoStore,
                             cacheAccess, lockService, legacyIndexProviderLookup, indexConfigStore,
-                            DEFAULT_HIGH_ID_TRACKING, legacyIndexTransactionOrdering ) );
+                            DEFAULT_HIGH_ID_TRACKING, legacyIndexTransactionOrdering, indexUpdateExecutor ) );
 
             LoggingLogFileMonitor logMonitor = new LoggingLogFileMonitor( logging.getMessagesLog( getClass() ) );
             final TransactionRepresentationStoreApplier storeRecoverer =
@@ -484,14 +491,16 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
                     recoveredCount, logMonitor );
             Visitor<ReadableLogChannel, IOException> logFileRecoverer =
                     new LogFileRecoverer( new VersionAwareLogEntryReader(), recoveryVisitor );
-            logFile = dependencies.satisfyDependency( new PhysicalLogFile( fs, logFiles,
-                    config.get( GraphDatabaseSettings.logical_log_rotation_threshold ), logPruneStrategy, neoStore,
-                    neoStore, logMonitor, this, transactionMetadataCache, logFileRecoverer ) );
+            final PhysicalLogFile physicalLogFile = new PhysicalLogFile( fs, logFiles,
+                    config.get( GraphDatabaseSettings.logical_log_rotation_threshold ),
+                    config.get( GraphDatabaseSettings.logical_log_preallocation ), logPruneStrategy, neoStore,
+                    neoStore, logMonitor, this, transactionMetadataCache, logFileRecoverer );
+            logFile = dependencies.satisfyDependency( physicalLogFile );
 
             final LogicalTransactionStore logicalTransactionStore = dependencies.satisfyDependency(
                     new PhysicalLogicalTransactionStore( logFile, txIdGenerator,
                             transactionMetadataCache, neoStore, legacyIndexTransactionOrdering,
-                            config.get( GraphDatabaseSettings.batched_writes ) ) );
+                            config.get( GraphDatabaseSettings.batched_writes ), transactionMonitor ) );
 
             TransactionCommitProcess transactionCommitProcess = dependencies.satisfyDependency(
                                         commitProcessFactory.create( logicalTransactionStore, kernelHealth,
@@ -549,6 +558,44 @@ public class NeoStoreXaDataSource implements NeoStoreProvider, Lifecycle, LogRot
             } );
             life.add( indexingService );
             life.add( labelScanStore );
+            life.add( new LifecycleAdapter()
+            {
+                @Override
+                public void shutdown()
+                {
+                    // Shut down before the indexes, letting updates that are already under way complete
+                    indexUpdateExecutor.shutdown();
+                }
+            } );
+            final CheckPointer checkPointer = new CheckPointer( neoStore, CheckPointer.storesOf( neoStore ),
+                    physicalLogFile, msgLog );
+            final long checkPointInterval = config.get( GraphDatabaseSettings.check_point_interval_time );
+            life.add( new LifecycleAdapter()
+            {
+                private JobScheduler.JobHandle checkPointJob;
+
+                @Override
+                public void start()
+                {
+                    if ( checkPointInterval > 0 )
+                    {
+                        checkPointJob = scheduler.scheduleRecurring( JobScheduler.Group.checkPoint, checkPointer,
+                                checkPointInterval, checkPointInterval, TimeUnit.MILLISECONDS );
+                    }
+                }
+
+                @Override
+                public void stop()
+                {
+                    // Stop before the log file, which does its own final rotation
+                    if ( checkPointJob != null )
+                    {
+                        checkPointJob.cancel( false );
+                        checkPointJob = null;
+                    }
+                    checkPointer.stop();
+                }
+            } );
 
             kernel.registerTransactionHook( transactionEventHandlers );
             neoStore.setRecoveredStatus( true );
@@ -34,13 +34,26 @@ public class RecoveryVisitor implements Visitor<CommittedTransactionRepresentati
     public interface Monitor
     {
         void transactionRecovered( long txId );
+
+        /**
+         * Called every {@link RecoveryVisitor#PROGRESS_INTERVAL} recovered transactions and when recovery
+         * completes, so that progress and throughput of a long recovery can be followed.
+         *
+         * @param transactionsRecovered number of transactions recovered so far.
+         * @param elapsedMillis time spent recovering them.
+         */
+        void recoveryProgress( int transactionsRecovered, long elapsedMillis );
     }
-    
+
+    static final int PROGRESS_INTERVAL = 10_000;
+
     private final TransactionIdStore store;
     private final TransactionRepresentationStoreApplier storeApplier;
     private final AtomicInteger recoveredCount;
     private final Monitor monitor;
     private long lastTransactionIdApplied = -1;
+    private int transactionsRecovered;
+    private long startTime;
 
     public RecoveryVisitor( TransactionIdStore store,
                             TransactionRepresentationStoreApplier storeApplier,
@@ -56,6 +69,10 @@ public class RecoveryVisitor implements Visitor<CommittedTransactionRepresentati
     public boolean visit( CommittedTransactionRepresentation transaction ) throws IOException
     {
         long txId = transaction.getCommitEntry().getTxId();
+        if ( transactionsRecovered == 0 )
+        {
+            startTime = System.currentTimeMillis();
+        }
         try ( LockGroup locks = new LockGroup() )
         {
             storeApplier.apply( transaction.getTransactionRepresentation(), locks, txId, true );
@@ -63,6 +80,10 @@ public class RecoveryVisitor implements Visitor<CommittedTransactionRepresentati
         recoveredCount.incrementAndGet();
         lastTransactionIdApplied = txId;
         monitor.transactionRecovered( txId );
+        if ( ++transactionsRecovered % PROGRESS_INTERVAL == 0 )
+        {
+            monitor.recoveryProgress( transactionsRecovered, System.currentTimeMillis() - startTime );
+        }
         return true;
     }
 
@@ -72,6 +93,7 @@ public class RecoveryVisitor implements Visitor<CommittedTransactionRepresentati
         if ( lastTransactionIdApplied != -1 )
         {
             store.setLastCommittedAndClosedTransactionId( lastTransactionIdApplied );
+            monitor.recoveryProgress( transactionsRecovered, System.currentTimeMillis() - startTime );
         }
     }
 }
@@ -26,6 +26,10 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
@@ -48,6 +52,10 @@ import static org.neo4j.kernel.impl.nioneo.store.labels.NodeLabelsField.parseLab
 /**
  * Gather node and property changes, converting them into logical updates to the indexes.
  * {@link #close()} will actually apply to the indexes.
+ *
+ * When a transaction updates both the label scan store and schema indexes, the label scan store is updated on the
+ * given {@link Executor} while the schema indexes are updated on the calling thread. Both are done before
+ * {@link #apply()} returns, so the transaction still becomes visible in all indexes at once.
  */
 public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
 {
@@ -70,11 +78,24 @@ public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
     private final LabelScanStore labelScanStore;
     private final CacheAccessBackDoor cacheAccess;
     private final PropertyLoader propertyLoader;
+    private final Executor labelScanExecutor;
 
     public NeoTransactionIndexApplier( IndexingService indexingService, LabelScanStore labelScanStore,
             NodeStore nodeStore, PropertyStore propertyStore, CacheAccessBackDoor cacheAccess,
             PropertyLoader propertyLoader )
     {
+        this( indexingService, labelScanStore, nodeStore, propertyStore, cacheAccess, propertyLoader, null );
+    }
+
+    /**
+     * @param labelScanExecutor executes label scan store updates concurrently with schema index updates,
+     * or {@code null} to do all updates on the applying thread.
+     */
+    public NeoTransactionIndexApplier( IndexingService indexingService, LabelScanStore labelScanStore,
+            NodeStore nodeStore, PropertyStore propertyStore, CacheAccessBackDoor cacheAccess,
+            PropertyLoader propertyLoader, Executor labelScanExecutor )
+    {
+        this.labelScanExecutor = labelScanExecutor;
         this.indexingService = indexingService;
         this.labelScanStore = labelScanStore;
         this.nodeStore = nodeStore;
@@ -86,18 +107,92 @@ public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
     @Override
     public void apply()
     {
-        if ( !labelUpdates.isEmpty() )
+        boolean updatesLabels = !labelUpdates.isEmpty();
+        boolean updatesIndexes = !nodeCommands.isEmpty() || !propertyCommands.isEmpty();
+
+        if ( updatesLabels && updatesIndexes && labelScanExecutor != null )
+        {
+            FutureTask<Void> labelScanUpdate = new FutureTask<>( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    updateLabelScanStore();
+                }
+            }, null );
+            try
+            {
+                labelScanExecutor.execute( labelScanUpdate );
+            }
+            catch ( RejectedExecutionException e )
+            {   // Shutting down, do it here instead
+                labelScanUpdate.run();
+            }
+
+            try
+            {
+                updateIndexes();
+            }
+            finally
+            {
+                awaitCompletion( labelScanUpdate );
+            }
+            cacheAccess.applyLabelUpdates( labelUpdates );
+            return;
+        }
+
+        if ( updatesLabels )
         {
             updateLabelScanStore();
             cacheAccess.applyLabelUpdates( labelUpdates );
         }
 
-        if ( !nodeCommands.isEmpty() || !propertyCommands.isEmpty() )
+        if ( updatesIndexes )
         {
             updateIndexes();
         }
     }
 
+    private static void awaitCompletion( FutureTask<Void> task )
+    {
+        boolean interrupted = false;
+        try
+        {
+            while ( true )
+            {
+                try
+                {
+                    task.get();
+                    return;
+                }
+                catch ( InterruptedException e )
+                {   // The update is already under way, and has to complete before this transaction does
+                    interrupted = true;
+                }
+                catch ( ExecutionException e )
+                {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof RuntimeException )
+                    {
+                        throw (RuntimeException) cause;
+                    }
+                    if ( cause instanceof Error )
+                    {
+                        throw (Error) cause;
+                    }
+                    throw new UnderlyingStorageException( cause );
+                }
+            }
+        }
+        finally
+        {
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private void updateIndexes()
     {
         LazyIndexUpdates updates = new LazyIndexUpdates(
@@ -114,21 +209,18 @@ public class NeoTransactionIndexApplier extends NeoCommandHandler.Adapter
     {
         Collections.sort( labelUpdates, nodeLabelUpdateComparator );
         
-        // We only allow a single writer at the time to update the label scan store
-        synchronized ( labelScanStore )
+        // The label scan store serializes writers touching the same part of the store itself
+        try ( LabelScanWriter writer = labelScanStore.newWriter() )
         {
-            try ( LabelScanWriter writer = labelScanStore.newWriter() )
+            for ( NodeLabelUpdate update : labelUpdates )
             {
-                for ( NodeLabelUpdate update : labelUpdates )
-                {
-                    writer.write( update );
-                }
-            }
-            catch ( IOException e )
-            {
-                throw new UnderlyingStorageException( e );
+                writer.write( update );
             }
         }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelException;
@@ -64,6 +65,8 @@ public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
     private final LockGroup lockGroup;
     private final long transactionId;
     private final HighIdTracker highIdTracker;
+    // Indexes created by this transaction, created together once it has been applied so that they share a store scan
+    private final List<IndexRule> createdIndexes = new ArrayList<>();
     
     public NeoTransactionStoreApplier( NeoStore store, IndexingService indexes, CacheAccessBackDoor cacheAccess,
                                        LockService lockService, LockGroup lockGroup, long transactionId,
@@ -295,7 +298,7 @@ public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
                     }
                     break;
                 case CREATE:
-                    indexes.createIndex( (IndexRule) command.getSchemaRule() );
+                    createdIndexes.add( (IndexRule) command.getSchemaRule() );
                     break;
                 case DELETE:
                     indexes.dropIndex( (IndexRule) command.getSchemaRule() );
@@ -359,5 +362,9 @@ public class NeoTransactionStoreApplier extends NeoCommandHandler.Adapter
     public void apply()
     {
         highIdTracker.apply();
+        if ( !createdIndexes.isEmpty() )
+        {
+            indexes.createIndexes( createdIndexes.toArray( new IndexRule[createdIndexes.size()] ) );
+        }
     }
 }
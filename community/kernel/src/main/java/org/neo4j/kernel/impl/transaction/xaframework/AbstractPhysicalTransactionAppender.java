@@ -34,9 +34,19 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogFile logFile;
     private final TransactionIdStore transactionIdStore;
-    private final TransactionLogWriter transactionLogWriter;
+    private final LogEntryWriterv1 logEntryWriter;
     private final LogPositionMarker positionMarker = new LogPositionMarker();
-    private final IndexCommandDetector indexCommandDetector;
+
+    // Commands are serialized by each committing thread into a buffer of its own before the log is locked,
+    // so that only the copying of already serialized bytes has to happen one transaction at a time.
+    private final ThreadLocal<CommandSerializer> commandSerializers = new ThreadLocal<CommandSerializer>()
+    {
+        @Override
+        protected CommandSerializer initialValue()
+        {
+            return new CommandSerializer();
+        }
+    };
 
     // For the graph store and schema indexes order-of-updates are managed by the high level entity locks
     // such that changes are applied to the affected records in the same order that they are written to the
@@ -54,22 +64,23 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
         this.channel = logFile.getWriter();
         this.txIdGenerator = txIdGenerator;
         this.transactionMetadataCache = transactionMetadataCache;
-        this.indexCommandDetector = new IndexCommandDetector( new CommandWriter( channel ) );
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriterv1( channel, indexCommandDetector ) );
+        this.logEntryWriter = new LogEntryWriterv1( channel, new CommandWriter( channel ) );
     }
 
     /**
      * @return whether or not this transaction contains any legacy index changes.
      */
-    private boolean append( TransactionRepresentation transaction, long transactionId ) throws IOException
+    private boolean append( TransactionRepresentation transaction, long transactionId, CommandSerializer commands )
+            throws IOException
     {
         channel.getCurrentPosition( positionMarker );
         LogPosition logPosition = positionMarker.newPosition();
 
-        // Reset command writer so that we, after we've written the transaction, can ask it whether or
-        // not any legacy index command was written. If so then there's additional ordering to care about below.
-        indexCommandDetector.reset();
-        transactionLogWriter.append( transaction, transactionId );
+        logEntryWriter.writeStartEntry( transaction.getMasterId(), transaction.getAuthorId(),
+                transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(),
+                transaction.additionalHeader() );
+        commands.writeTo( channel );
+        logEntryWriter.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
 
         transactionMetadataCache.cacheTransactionMetadata( transactionId, logPosition, transaction.getMasterId(),
                 transaction.getAuthorId(), LogEntryStart.checksum( transaction.additionalHeader(),
@@ -78,11 +89,18 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
         channel.emptyBufferIntoChannelAndClearIt();
 
         // Offer this transaction id to the queue so that the legacy index applier can take part in the ordering
-        if ( indexCommandDetector.hasWrittenAnyLegacyIndexCommand() )
+        if ( commands.hasLegacyIndexCommands() )
         {
             legacyIndexTransactionOrdering.offer( transactionId );
         }
-        return indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
+        return commands.hasLegacyIndexCommands();
+    }
+
+    private CommandSerializer serialize( TransactionRepresentation transaction ) throws IOException
+    {
+        CommandSerializer commands = commandSerializers.get();
+        commands.serialize( transaction );
+        return commands;
     }
 
     @Override
@@ -91,6 +109,7 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
         long transactionId = -1;
         long ticket;
         boolean hasLegacyIndexChanges;
+        CommandSerializer commands = serialize( transaction );
         // Synchronized with logFile to get absolute control over concurrent rotations happening
         synchronized ( logFile )
         {
@@ -98,7 +117,7 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
             // we generate the next transaction id
             logFile.checkRotation();
             transactionId = txIdGenerator.generate( transaction );
-            hasLegacyIndexChanges = append( transaction, transactionId );
+            hasLegacyIndexChanges = append( transaction, transactionId, commands );
             ticket = getCurrentTicket();
         }
 
@@ -135,6 +154,7 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
         long transactionId;
         long ticket;
         boolean hasLegacyIndexChanges;
+        CommandSerializer commands = serialize( transaction.getTransactionRepresentation() );
         // Synchronized with logFile to get absolute control over concurrent rotations happening
         synchronized ( logFile )
         {
@@ -144,7 +164,7 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
             if ( lastCommittedTxId + 1 == candidateTransactionId )
             {
                 transactionId = txIdGenerator.generate( transaction.getTransactionRepresentation() );
-                hasLegacyIndexChanges = append( transaction.getTransactionRepresentation(), transactionId );
+                hasLegacyIndexChanges = append( transaction.getTransactionRepresentation(), transactionId, commands );
                 ticket = getCurrentTicket();
             }
             else if ( lastCommittedTxId + 1 < candidateTransactionId )
@@ -169,6 +189,42 @@ abstract class AbstractPhysicalTransactionAppender implements TransactionAppende
     {   // do nothing
     }
 
+    /**
+     * Serializes the commands of one transaction at a time into a buffer that is later copied into the log.
+     */
+    private static final class CommandSerializer
+    {
+        private final SerializedCommandsChannel commands;
+        private final IndexCommandDetector indexCommandDetector;
+        private final LogEntryWriterv1 writer;
+
+        CommandSerializer()
+        {
+            this.commands = new SerializedCommandsChannel();
+            this.indexCommandDetector = new IndexCommandDetector( new CommandWriter( commands ) );
+            this.writer = new LogEntryWriterv1( commands, indexCommandDetector );
+        }
+
+        void serialize( TransactionRepresentation transaction ) throws IOException
+        {
+            // Reset command writer so that we, after we've serialized the transaction, can ask it whether or
+            // not any legacy index command was written. If so then there's additional ordering to care about.
+            indexCommandDetector.reset();
+            commands.clear();
+            writer.serialize( transaction );
+        }
+
+        void writeTo( WritableLogChannel channel ) throws IOException
+        {
+            commands.writeTo( channel );
+        }
+
+        boolean hasLegacyIndexCommands()
+        {
+            return indexCommandDetector.hasWrittenAnyLegacyIndexCommand();
+        }
+    }
+
     private static final class IndexCommandDetector extends NeoCommandHandler.Delegator
     {
         private boolean hasWrittenAnyLegacyIndexCommand;
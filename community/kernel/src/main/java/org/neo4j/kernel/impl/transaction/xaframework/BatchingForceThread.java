@@ -20,17 +20,20 @@
 package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.io.IOException;
-import java.util.concurrent.locks.LockSupport;
 
 /**
  * Background thread that goes together with {@link BatchingPhysicalTransactionAppender} and performs
- * and {@link Operation} as fast as it can as until it's {@link #halt() halted}.
+ * and {@link Operation} as fast as it can as until it's {@link #halt() halted}. The operation itself waits for
+ * there to be something to force, so this thread never sleeps on a schedule of its own.
  */
 class BatchingForceThread extends Thread
 {
     public interface Operation
     {
         /**
+         * Forces what has been appended since the previous call, waiting a short while for something
+         * to be appended if nothing has.
+         *
          * @return {@code true} if there were transactions that were forced to disk, otherwise {@code false}.
          * @throws IOException
          */
@@ -60,10 +63,7 @@ class BatchingForceThread extends Thread
         {
             try
             {
-                if ( !operation.force() )
-                {
-                    LockSupport.parkNanos( 1_000_000 ); // 1 ms
-                }
+                operation.force();
             }
             catch ( IOException e )
             {
@@ -21,60 +21,105 @@ package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * Forces transactions in batches, as opposed to per transaction. There's a
  * {@link BatchingForceThread background thread} that does the actual forcing, where the committers merely waits
- * for that background thread to complete its round and increment a ticket they're waiting for.
+ * for that background thread to complete a force that covers their transaction.
+ *
+ * Each appended transaction gets a ticket, in the order they are appended. A force covers every ticket handed out
+ * before it started, and wakes up the committers holding those tickets as soon as it completes. When transactions
+ * arrive faster than the log can be forced, the force thread waits up to one arrival interval before forcing,
+ * so that each force covers more transactions. When they arrive slower than that it forces right away.
  */
 public class BatchingPhysicalTransactionAppender extends AbstractPhysicalTransactionAppender
 {
-    private final AtomicLong ongoingForceCounter = new AtomicLong( 0 );
-    private final AtomicLong completedForceCounter = new AtomicLong( 0 );
-    private boolean shutDown;
+    static final long MAX_GATHER_NANOS = MILLISECONDS.toNanos( 1 );
+    private static final long IDLE_WAIT_NANOS = MILLISECONDS.toNanos( 1 );
+    private static final long HEALTH_CHECK_NANOS = MILLISECONDS.toNanos( 10 );
+
+    private final AtomicLong appendedTicket = new AtomicLong( 0 );
+    private final Lock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition forced = lock.newCondition();
+    private long forcedTicket; // guarded by lock
+    private volatile boolean shutDown;
     private final BatchingForceThread forceThread;
-    
+
     public BatchingPhysicalTransactionAppender( LogFile logFile, TxIdGenerator txIdGenerator,
-            TransactionMetadataCache transactionMetadataCache, final TransactionIdStore transactionIdStore,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue legacyIndexTransactionOrdering )
+    {
+        this( logFile, txIdGenerator, transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering,
+                new TransactionCounters() );
+    }
+
+    public BatchingPhysicalTransactionAppender( LogFile logFile, TxIdGenerator txIdGenerator,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue legacyIndexTransactionOrdering, final TransactionMonitor transactionMonitor )
     {
         super( logFile, txIdGenerator, transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering );
         forceThread = new BatchingForceThread( new BatchingForceThread.Operation()
         {
-            private long lastSeenTransactionId;
+            // Moving averages, only touched by the force thread
+            private long averageForceNanos;
+            private long averageArrivalNanos;
+            private long lastForceStart = System.nanoTime();
 
             /**
-             * Called by the forcing thread that forces now and then.
+             * Called by the forcing thread, over and over.
              */
             @Override
             public boolean force() throws IOException
             {
-                long currentTransactionId = transactionIdStore.getLastCommittedTransactionId();
-                ongoingForceCounter.incrementAndGet();
-                if ( currentTransactionId != lastSeenTransactionId )
+                long previousTicket = forcedTicket();
+                long ticket = awaitAppended( previousTicket, IDLE_WAIT_NANOS );
+                if ( ticket == previousTicket )
                 {
-                    synchronized ( channel )
-                    {
-                        channel.force();
-                    }
+                    return false;
                 }
-                completedForceCounter.incrementAndGet();
-                
-                boolean changed = lastSeenTransactionId != currentTransactionId;
-                lastSeenTransactionId = currentTransactionId;
-                return changed;
+
+                if ( averageArrivalNanos < averageForceNanos )
+                {
+                    ticket = awaitAppended( ticket, Math.min( averageArrivalNanos, MAX_GATHER_NANOS ) );
+                }
+
+                long forceStart = System.nanoTime();
+                synchronized ( channel )
+                {
+                    channel.force();
+                }
+                long forceNanos = System.nanoTime() - forceStart;
+                markForced( ticket );
+
+                long transactions = ticket - previousTicket;
+                transactionMonitor.transactionsForced( (int) transactions, forceNanos );
+                averageForceNanos = average( averageForceNanos, forceNanos );
+                averageArrivalNanos = average( averageArrivalNanos, (forceStart - lastForceStart) / transactions );
+                lastForceStart = forceStart;
+                return true;
             }
         } );
         forceThread.start();
     }
 
+    private static long average( long average, long sample )
+    {
+        return average - (average >> 3) + (sample >> 3);
+    }
+
     @Override
     protected long getCurrentTicket()
     {
-        return ongoingForceCounter.get();
+        // Called while still holding the log, right after the transaction has been written to the channel
+        return appendedTicket.incrementAndGet();
     }
 
     /**
@@ -83,14 +128,82 @@ public class BatchingPhysicalTransactionAppender extends AbstractPhysicalTransac
     @Override
     protected void force( long ticket ) throws IOException
     {
-        LockSupport.unpark( forceThread );
-        while ( (ticket == ongoingForceCounter.get() || ticket == completedForceCounter.get()) &&
-                !shutDown && forceThread.checkHealth() )
+        lock.lock();
+        try
+        {
+            appended.signal();
+            while ( forcedTicket < ticket && !shutDown && forceThread.checkHealth() )
+            {
+                // Woken up by the force that covers this ticket, the timeout only makes sure a failing
+                // force thread is noticed
+                forced.awaitNanos( HEALTH_CHECK_NANOS );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while waiting for the transaction to be forced", e );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private long forcedTicket()
+    {
+        lock.lock();
+        try
+        {
+            return forcedTicket;
+        }
+        finally
         {
-            LockSupport.parkNanos( 100_000 ); // 0,1 ms
+            lock.unlock();
         }
     }
-    
+
+    /**
+     * Waits until there's been another transaction appended after the given ticket, or until the timeout passes.
+     *
+     * @return the latest ticket handed out.
+     */
+    private long awaitAppended( long ticket, long timeoutNanos )
+    {
+        lock.lock();
+        try
+        {
+            long remaining = timeoutNanos;
+            while ( appendedTicket.get() == ticket && remaining > 0 )
+            {
+                remaining = appended.awaitNanos( remaining );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        return appendedTicket.get();
+    }
+
+    private void markForced( long ticket )
+    {
+        lock.lock();
+        try
+        {
+            forcedTicket = ticket;
+            forced.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
     @Override
     public void close()
     {
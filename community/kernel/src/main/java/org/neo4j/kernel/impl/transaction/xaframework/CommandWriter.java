@@ -52,9 +52,9 @@ import static org.neo4j.kernel.impl.util.IoPrimitiveUtils.write3bLengthAndString
 
 public class CommandWriter implements NeoCommandHandler
 {
-    private final WritableLogChannel channel;
+    private final WritableChannel channel;
 
-    public CommandWriter( WritableLogChannel channel )
+    public CommandWriter( WritableChannel channel )
     {
         this.channel = channel;
     }
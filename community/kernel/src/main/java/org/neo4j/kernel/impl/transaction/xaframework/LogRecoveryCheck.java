@@ -20,9 +20,13 @@
 package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.neo4j.io.fs.StoreChannel;
 
+import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryByteCodes.EMPTY;
+import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeaderParser.LOG_HEADER_SIZE;
+
 public class LogRecoveryCheck
 {
     private final StoreChannel fileChannel;
@@ -34,6 +38,13 @@ public class LogRecoveryCheck
 
     public boolean recoveryRequired() throws IOException
     {
-        return fileChannel.size() > 16;
+        if ( fileChannel.size() <= LOG_HEADER_SIZE )
+        {
+            return false;
+        }
+
+        // A preallocated log is filled with zeros up to the first entry that gets written to it
+        ByteBuffer firstByte = ByteBuffer.allocate( 1 );
+        return fileChannel.read( firstByte, LOG_HEADER_SIZE ) == 1 && firstByte.get( 0 ) != EMPTY;
     }
 }
@@ -28,6 +28,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeader;
+import org.neo4j.kernel.impl.transaction.xaframework.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.xaframework.log.pruning.LogPruneStrategy;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -47,7 +48,9 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
     public static final String REGEX_DEFAULT_NAME = "neostore\\.transaction\\.db";
     public static final String DEFAULT_VERSION_SUFFIX = ".";
     public static final String REGEX_DEFAULT_VERSION_SUFFIX = "\\.";
+    private static final int PREALLOCATION_CHUNK_SIZE = 1024*1024;
     private final long rotateAtSize;
+    private final boolean preallocate;
     private final FileSystemAbstraction fileSystem;
     private final LogPruneStrategy pruneStrategy;
     private final TransactionIdStore transactionIdStore;
@@ -68,9 +71,27 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
                             LogRotationControl logRotationControl,
                             TransactionMetadataCache transactionMetadataCache,
                             Visitor<ReadableLogChannel, IOException> recoveredDataVisitor )
+    {
+        this( fileSystem, logFiles, rotateAtSize, false, pruneStrategy, transactionIdStore, logVersionRepository,
+                monitor, logRotationControl, transactionMetadataCache, recoveredDataVisitor );
+    }
+
+    /**
+     * @param preallocate whether or not to fill each new log file with zeros up to {@code rotateAtSize}
+     * when it's created. Appending to a file that doesn't have to grow means that forcing it won't have to
+     * update file metadata too. A zero where an entry is expected reads as the end of the log.
+     */
+    public PhysicalLogFile( FileSystemAbstraction fileSystem, PhysicalLogFiles logFiles, long rotateAtSize,
+                            boolean preallocate, LogPruneStrategy pruneStrategy,
+                            TransactionIdStore transactionIdStore,
+                            LogVersionRepository logVersionRepository, Monitor monitor,
+                            LogRotationControl logRotationControl,
+                            TransactionMetadataCache transactionMetadataCache,
+                            Visitor<ReadableLogChannel, IOException> recoveredDataVisitor )
     {
         this.fileSystem = fileSystem;
         this.rotateAtSize = rotateAtSize;
+        this.preallocate = preallocate && rotateAtSize > 0;
         this.pruneStrategy = pruneStrategy;
         this.transactionIdStore = transactionIdStore;
         this.logVersionRepository = logVersionRepository;
@@ -114,6 +135,10 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
     public void shutdown() throws Throwable
     {
         writer.close();
+        if ( preallocate )
+        {
+            trimToLogicalEnd( channel );
+        }
         channel.close();
     }
 
@@ -129,6 +154,10 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
             writeLogHeader( headerBuffer, forVersion, lastTxId );
             transactionMetadataCache.putHeader( forVersion, lastTxId );
             storeChannel.writeAll( headerBuffer );
+            if ( preallocate )
+            {
+                preallocate( storeChannel );
+            }
             monitor.opened( toOpen, forVersion, lastTxId, true );
         }
         byte formatVersion = header == null ? CURRENT_LOG_VERSION : header.logFormatVersion;
@@ -146,10 +175,64 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
             recoveredDataVisitor.visit( recoveredDataChannel );
             // intentionally keep it open since we're continuing using the underlying channel for the writer below
             logRotationControl.forceEverything();
+            if ( preallocate )
+            {
+                // Reading ahead moved the channel past the last transaction, into the zeros. Continue writing
+                // right after the last complete transaction and clear whatever was partially written after it.
+                long endOfLastTransaction = endOfLastCompleteTransaction( toRecover );
+                toRecover.truncate( endOfLastTransaction );
+                toRecover.position( endOfLastTransaction );
+                preallocate( toRecover );
+            }
         }
         monitor.recoveryCompleted();
     }
 
+    private long endOfLastCompleteTransaction( PhysicalLogVersionedStoreChannel channel ) throws IOException
+    {
+        channel.position( LOG_HEADER_SIZE );
+        ReadAheadLogChannel reader = new ReadAheadLogChannel( channel, NO_MORE_CHANNELS, DEFAULT_READ_AHEAD_SIZE );
+        // Not closing the cursor, since that would close the channel
+        PhysicalTransactionCursor transactions =
+                new PhysicalTransactionCursor( reader, new VersionAwareLogEntryReader() );
+        LogPositionMarker marker = new LogPositionMarker();
+        long end = LOG_HEADER_SIZE;
+        while ( transactions.next() )
+        {
+            reader.getCurrentPosition( marker );
+            end = marker.newPosition().getByteOffset();
+        }
+        return end;
+    }
+
+    /**
+     * Cuts the zeros off of a log that won't be appended to anymore. Readers crossing into the next log version
+     * only do so when reaching the end of the file, not when reading a zero.
+     */
+    private void trimToLogicalEnd( StoreChannel storeChannel ) throws IOException
+    {
+        storeChannel.truncate( storeChannel.position() );
+        storeChannel.force( true );
+    }
+
+    /**
+     * Fills the channel with zeros from its current size up to {@link #rotateAtSize}, leaving its position as is.
+     */
+    private void preallocate( StoreChannel storeChannel ) throws IOException
+    {
+        long position = storeChannel.position();
+        ByteBuffer zeros = ByteBuffer.allocateDirect( PREALLOCATION_CHUNK_SIZE );
+        for ( long offset = storeChannel.size(); offset < rotateAtSize; offset += zeros.limit() )
+        {
+            zeros.clear();
+            zeros.limit( (int) Math.min( zeros.capacity(), rotateAtSize - offset ) );
+            storeChannel.writeAll( zeros, offset );
+        }
+        // Make the new size durable once, instead of with every force of the appended transactions
+        storeChannel.force( true );
+        storeChannel.position( position );
+    }
+
     @Override
     public void checkRotation() throws IOException
     {
@@ -175,6 +258,22 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
         doRotate();
     }
 
+    /**
+     * Flushes the store and rotates the log, unless the current log holds no transactions. Recovery starts
+     * from the beginning of the current log version, so this bounds the amount of log replayed after a crash.
+     *
+     * @return {@code true} if the log was rotated.
+     */
+    public synchronized boolean checkPoint() throws IOException
+    {
+        if ( channel.position() <= LOG_HEADER_SIZE )
+        {
+            return false;
+        }
+        doRotate();
+        return true;
+    }
+
     private void doRotate() throws IOException
     {
         /* We synchronize on the writer because we want to have a monitor that another thread
@@ -202,6 +301,10 @@ public class PhysicalLogFile extends LifecycleAdapter implements LogFile
          * The store is now flushed. If we fail now the recovery code will open the
          * current log file and replay everything. That's unnecessary but totally ok.
          */
+        if ( preallocate )
+        {
+            trimToLogicalEnd( currentLog );
+        }
         long newLogVersion = logVersionRepository.incrementAndGetVersion();
         /*
          * The log version is now in the store, flushed and persistent. If we crash
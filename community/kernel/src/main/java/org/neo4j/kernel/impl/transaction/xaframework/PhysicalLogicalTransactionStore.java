@@ -44,11 +44,21 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
     private final TransactionIdStore transactionIdStore;
     private final boolean batchedWrites;
     private final IdOrderingQueue legacyIndexTransactionOrdering;
+    private final TransactionMonitor transactionMonitor;
 
     public PhysicalLogicalTransactionStore( LogFile logFile, TxIdGenerator txIdGenerator,
             TransactionMetadataCache transactionMetadataCache,
             TransactionIdStore transactionIdStore, IdOrderingQueue legacyIndexTransactionOrdering,
             boolean batchedWrites )
+    {
+        this( logFile, txIdGenerator, transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering,
+                batchedWrites, new TransactionCounters() );
+    }
+
+    public PhysicalLogicalTransactionStore( LogFile logFile, TxIdGenerator txIdGenerator,
+            TransactionMetadataCache transactionMetadataCache,
+            TransactionIdStore transactionIdStore, IdOrderingQueue legacyIndexTransactionOrdering,
+            boolean batchedWrites, TransactionMonitor transactionMonitor )
     {
         this.logFile = logFile;
         this.txIdGenerator = txIdGenerator;
@@ -56,6 +66,7 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
         this.transactionIdStore = transactionIdStore;
         this.legacyIndexTransactionOrdering = legacyIndexTransactionOrdering;
         this.batchedWrites = batchedWrites;
+        this.transactionMonitor = transactionMonitor;
     }
 
     @Override
@@ -63,7 +74,8 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
     {
         this.appender = batchedWrites ?
                 new BatchingPhysicalTransactionAppender( logFile, txIdGenerator,
-                        transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering ) :
+                        transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering,
+                        transactionMonitor ) :
                 new PhysicalTransactionAppender( logFile, txIdGenerator,
                         transactionMetadataCache, transactionIdStore, legacyIndexTransactionOrdering );
     }
@@ -101,10 +113,19 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
             LogVersionLocator headerVisitor = new LogVersionLocator( transactionIdToStartFrom );
             logFile.accept( headerVisitor );
 
-            // ask LogFile
-            TransactionPositionLocator transactionPositionLocator =
-                    new TransactionPositionLocator( transactionIdToStartFrom, logEntryReader );
-            logFile.accept( transactionPositionLocator, headerVisitor.getLogPosition() );
+            // scan from the closest transaction before it that we know the position of, if it's in that version
+            LogPosition scanFrom = headerVisitor.getLogPosition();
+            LogPosition closestIndexedPosition = transactionMetadataCache.getClosestIndexedStartPosition(
+                    transactionIdToStartFrom, scanFrom.getLogVersion() );
+            if ( closestIndexedPosition != null )
+            {
+                scanFrom = closestIndexedPosition;
+            }
+
+            // ask LogFile, indexing the transactions passed on the way
+            TransactionPositionLocator transactionPositionLocator = new TransactionPositionLocator(
+                    transactionIdToStartFrom, logEntryReader, transactionMetadataCache );
+            logFile.accept( transactionPositionLocator, scanFrom );
             LogPosition position = transactionPositionLocator.getAndCacheFoundLogPosition( transactionMetadataCache );
             return new PhysicalTransactionCursor( logFile.getReader( position ), logEntryReader );
         }
@@ -150,12 +171,24 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
     {
         private final long startTransactionId;
         private final LogEntryReader<ReadableLogChannel> logEntryReader;
+        private final TransactionMetadataCache sparseIndex;
         private LogEntryStart startEntryForFoundTransaction;
 
         public TransactionPositionLocator( long startTransactionId, LogEntryReader<ReadableLogChannel> logEntryReader )
+        {
+            this( startTransactionId, logEntryReader, null );
+        }
+
+        /**
+         * @param sparseIndex if not {@code null}, the start positions of the transactions passed while looking
+         * are added to its sparse index.
+         */
+        public TransactionPositionLocator( long startTransactionId, LogEntryReader<ReadableLogChannel> logEntryReader,
+                                           TransactionMetadataCache sparseIndex )
         {
             this.startTransactionId = startTransactionId;
             this.logEntryReader = logEntryReader;
+            this.sparseIndex = sparseIndex;
         }
 
         @Override
@@ -172,6 +205,10 @@ public class PhysicalLogicalTransactionStore extends LifecycleAdapter implements
                         break;
                     case TX_1P_COMMIT:
                         LogEntryCommit commit = (LogEntryCommit) logEntry;
+                        if ( sparseIndex != null && startEntry != null )
+                        {
+                            sparseIndex.indexStartPosition( commit.getTxId(), startEntry.getStartPosition() );
+                        }
                         if ( commit.getTxId() == startTransactionId )
                         {
                             startEntryForFoundTransaction = startEntry;
@@ -24,14 +24,27 @@ import java.nio.ByteBuffer;
 
 import static java.lang.Math.min;
 
+/**
+ * Buffers what is written to it, writing to the underlying {@link LogVersionedStoreChannel channel} when the buffer
+ * fills up or when {@link #emptyBufferIntoChannelAndClearIt() asked to}. The buffer is direct, since a heap buffer
+ * would be copied into a temporary direct buffer by the channel on every write anyway.
+ */
 public class PhysicalWritableLogChannel implements WritableLogChannel
 {
+    public static final int DEFAULT_BUFFER_SIZE = 256*1024;
+
     private LogVersionedStoreChannel channel;
-    private final ByteBuffer buffer = ByteBuffer.allocate( 4*1024 );
+    private final ByteBuffer buffer;
 
     public PhysicalWritableLogChannel( LogVersionedStoreChannel channel )
+    {
+        this( channel, DEFAULT_BUFFER_SIZE );
+    }
+
+    public PhysicalWritableLogChannel( LogVersionedStoreChannel channel, int bufferSize )
     {
         this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect( bufferSize );
     }
 
     @Override
@@ -104,10 +117,18 @@ public class PhysicalWritableLogChannel implements WritableLogChannel
     @Override
     public WritableLogChannel put( byte[] value, int length ) throws IOException
     {
+        if ( length >= buffer.capacity() )
+        {
+            // Too big to go through the buffer anyway, such as a whole transaction serialized up front
+            emptyBufferIntoChannelAndClearIt();
+            channel.writeAll( ByteBuffer.wrap( value, 0, length ) );
+            return this;
+        }
+
         int offset = 0;
         while ( offset < length )
         {
-            int chunkSize = min( length, buffer.capacity() >> 1 );
+            int chunkSize = min( length - offset, buffer.capacity() >> 1 );
             bufferWithGuaranteedSpace( chunkSize ).put( value, offset, chunkSize );
             offset += chunkSize;
         }
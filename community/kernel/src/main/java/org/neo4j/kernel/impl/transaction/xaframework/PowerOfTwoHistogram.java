@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent histogram with one bucket per power of two. Bucket {@code 0} counts zeros and bucket {@code n}
+ * counts values in {@code [2^(n-1), 2^n)}, which is precise enough for latencies and batch sizes.
+ */
+public class PowerOfTwoHistogram
+{
+    public static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray counts = new AtomicLongArray( BUCKETS );
+
+    public void record( long value )
+    {
+        counts.incrementAndGet( bucketOf( value ) );
+    }
+
+    public static int bucketOf( long value )
+    {
+        return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros( value );
+    }
+
+    /**
+     * @return the lowest value counted in the given bucket.
+     */
+    public static long lowerBoundOf( int bucket )
+    {
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+    public long count( int bucket )
+    {
+        return counts.get( bucket );
+    }
+
+    public long totalCount()
+    {
+        long total = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            total += counts.get( i );
+        }
+        return total;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( "[" );
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            long count = counts.get( i );
+            if ( count > 0 )
+            {
+                builder.append( builder.length() > 1 ? ", " : "" )
+                       .append( ">=" ).append( lowerBoundOf( i ) ).append( ":" ).append( count );
+            }
+        }
+        return builder.append( "]" ).toString();
+    }
+}
@@ -25,14 +25,13 @@ import java.nio.ByteBuffer;
 import org.neo4j.io.fs.StoreChannel;
 
 import static java.lang.Math.min;
-import static java.lang.System.arraycopy;
 
 /**
  * Basically a sequence of {@link StoreChannel channels} seamlessly seen as one.
  */
 public class ReadAheadLogChannel implements ReadableLogChannel
 {
-    public static final int DEFAULT_READ_AHEAD_SIZE = 1024*4;
+    public static final int DEFAULT_READ_AHEAD_SIZE = 1024*64;
 
     private final ByteBuffer aheadBuffer;
     private LogVersionedStoreChannel channel;
@@ -120,12 +119,10 @@ public class ReadAheadLogChannel implements ReadableLogChannel
         }
 
         // We ran out, try to read some more
-        // start by copying the remaining bytes to the beginning
-        arraycopy( aheadBuffer.array(), aheadBuffer.position(), aheadBuffer.array(), 0, remaining );
-        aheadBuffer.clear();
+        // start by moving the remaining bytes to the beginning
+        aheadBuffer.compact();
 
         // fill the buffer (preferably to the brim)
-        aheadBuffer.position( remaining );
         while ( aheadBuffer.position() < aheadBuffer.capacity() )
         {   // read from the current channel to try and fill the buffer
             int read = channel.read( aheadBuffer );
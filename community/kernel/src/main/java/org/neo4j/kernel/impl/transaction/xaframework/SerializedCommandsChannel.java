@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Heap buffer that the commands of a transaction are serialized into before the log is locked. The serialized
+ * commands can then be copied into the log in one go while holding the lock, see {@link #writeTo(WritableLogChannel)}.
+ * The buffer grows to fit the largest transaction it has seen, but gives back memory after a transaction larger
+ * than {@link #RETAINED_CAPACITY}.
+ */
+class SerializedCommandsChannel implements WritableChannel
+{
+    static final int INITIAL_CAPACITY = 4 * 1024;
+    static final int RETAINED_CAPACITY = 1024 * 1024;
+
+    private ByteBuffer buffer = ByteBuffer.allocate( INITIAL_CAPACITY );
+
+    void clear()
+    {
+        if ( buffer.capacity() > RETAINED_CAPACITY )
+        {
+            buffer = ByteBuffer.allocate( INITIAL_CAPACITY );
+        }
+        buffer.clear();
+    }
+
+    int size()
+    {
+        return buffer.position();
+    }
+
+    /**
+     * Copies everything serialized since the last {@link #clear()} into the given channel.
+     */
+    void writeTo( WritableLogChannel channel ) throws IOException
+    {
+        channel.put( buffer.array(), buffer.position() );
+    }
+
+    @Override
+    public WritableChannel put( byte value )
+    {
+        bufferWithGuaranteedSpace( 1 ).put( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putShort( short value )
+    {
+        bufferWithGuaranteedSpace( 2 ).putShort( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putInt( int value )
+    {
+        bufferWithGuaranteedSpace( 4 ).putInt( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putLong( long value )
+    {
+        bufferWithGuaranteedSpace( 8 ).putLong( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putFloat( float value )
+    {
+        bufferWithGuaranteedSpace( 4 ).putFloat( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel putDouble( double value )
+    {
+        bufferWithGuaranteedSpace( 8 ).putDouble( value );
+        return this;
+    }
+
+    @Override
+    public WritableChannel put( byte[] value, int length )
+    {
+        bufferWithGuaranteedSpace( length ).put( value, 0, length );
+        return this;
+    }
+
+    private ByteBuffer bufferWithGuaranteedSpace( int spaceInBytes )
+    {
+        if ( buffer.remaining() < spaceInBytes )
+        {
+            int capacity = buffer.capacity();
+            while ( capacity - buffer.position() < spaceInBytes )
+            {
+                capacity <<= 1;
+            }
+            ByteBuffer grown = ByteBuffer.allocate( capacity );
+            buffer.flip();
+            grown.put( buffer );
+            buffer = grown;
+        }
+        return buffer;
+    }
+}
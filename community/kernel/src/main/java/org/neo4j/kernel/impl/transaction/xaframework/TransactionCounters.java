@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.transaction.xaframework;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 public class TransactionCounters implements TransactionMonitor
 {
     private final AtomicLong startedTransactionCount = new AtomicLong();
@@ -28,6 +30,8 @@ public class TransactionCounters implements TransactionMonitor
     private final AtomicLong rolledBackTransactionCount = new AtomicLong();
     private final AtomicLong terminatedTransactionCount = new AtomicLong();
     private long peakTransactionCount; // hard to have absolutely atomic, and it doesn't need to be.
+    private final PowerOfTwoHistogram forceLatencyMicros = new PowerOfTwoHistogram();
+    private final PowerOfTwoHistogram transactionsPerForce = new PowerOfTwoHistogram();
 
     @Override
     public void transactionStarted()
@@ -55,6 +59,29 @@ public class TransactionCounters implements TransactionMonitor
         terminatedTransactionCount.incrementAndGet();
     }
 
+    @Override
+    public void transactionsForced( int transactionCount, long forceNanos )
+    {
+        forceLatencyMicros.record( NANOSECONDS.toMicros( forceNanos ) );
+        transactionsPerForce.record( transactionCount );
+    }
+
+    /**
+     * @return how long forcing the log has taken, in microseconds.
+     */
+    public PowerOfTwoHistogram getForceLatencyMicros()
+    {
+        return forceLatencyMicros;
+    }
+
+    /**
+     * @return how many transactions each force of the log has made durable.
+     */
+    public PowerOfTwoHistogram getTransactionsPerForce()
+    {
+        return transactionsPerForce;
+    }
+
     public long getNumberOfActiveTransactions()
     {
         return activeTransactionCount.get();
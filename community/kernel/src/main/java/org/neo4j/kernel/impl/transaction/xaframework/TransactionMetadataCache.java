@@ -19,12 +19,33 @@
  */
 package org.neo4j.kernel.impl.transaction.xaframework;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.neo4j.kernel.impl.cache.LruCache;
 
+/**
+ * Caches the log positions of recent transactions, along with the headers of log versions. Additionally the start
+ * position of every {@link #SPARSE_INDEX_INTERVAL}th transaction seen is kept in a sparse index, so that finding a
+ * transaction that has dropped out of the cache only means scanning from the closest indexed transaction before it,
+ * instead of from the start of its log version.
+ * <p/>
+ * The index is kept in memory only. It's filled by appended transactions and rebuilt lazily after a restart, from
+ * the transactions that scans through older log versions pass, see {@link #indexStartPosition(long, LogPosition)}.
+ * So only the first scan through a part of a log version goes all the way from its header.
+ */
 public class TransactionMetadataCache
 {
+    public static final int SPARSE_INDEX_INTERVAL = 128;
+    static final int SPARSE_INDEX_MAX_SIZE = 100_000;
+
     private final LruCache<Long /*tx id*/, TransactionMetadata> txStartPositionCache;
     private final LruCache<Long /*log version*/, Long /*last committed tx*/> logHeaderCache;
+    private final ConcurrentNavigableMap<Long /*tx id*/, LogPosition> sparseStartPositionIndex =
+            new ConcurrentSkipListMap<>();
+    private final AtomicInteger sparseStartPositionIndexSize = new AtomicInteger();
 
     public TransactionMetadataCache( int headerCacheSize, int transactionCacheSize )
     {
@@ -36,6 +57,8 @@ public class TransactionMetadataCache
     {
         logHeaderCache.clear();
         txStartPositionCache.clear();
+        sparseStartPositionIndex.clear();
+        sparseStartPositionIndexSize.set( 0 );
     }
 
     public void putHeader( long logVersion, long previousLogLastCommittedTx )
@@ -64,9 +87,42 @@ public class TransactionMetadataCache
 
         TransactionMetadata result = new TransactionMetadata( masterId, authorId, position, checksum );
         txStartPositionCache.put( txId, result );
+        indexStartPosition( txId, position );
         return result;
     }
 
+    /**
+     * Keeps the start position of the given transaction in the sparse index, if it's one of the transactions
+     * indexed. Called for every transaction passed while scanning a log, to rebuild the index for that part of it.
+     */
+    public void indexStartPosition( long txId, LogPosition position )
+    {
+        if ( txId % SPARSE_INDEX_INTERVAL != 0 )
+        {
+            return;
+        }
+        if ( sparseStartPositionIndex.put( txId, position ) == null &&
+                sparseStartPositionIndexSize.incrementAndGet() > SPARSE_INDEX_MAX_SIZE )
+        {   // Forget the oldest transaction, being the one most likely to have been pruned already
+            if ( sparseStartPositionIndex.pollFirstEntry() != null )
+            {
+                sparseStartPositionIndexSize.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @param txId the transaction to look for.
+     * @param logVersion the log version known to contain the transaction.
+     * @return the start position of the closest transaction at or before {@code txId} in the sparse index,
+     * or {@code null} if there's none in the given log version.
+     */
+    public LogPosition getClosestIndexedStartPosition( long txId, long logVersion )
+    {
+        Map.Entry<Long, LogPosition> closest = sparseStartPositionIndex.floorEntry( txId );
+        return closest != null && closest.getValue().getLogVersion() == logVersion ? closest.getValue() : null;
+    }
+
     public static class TransactionMetadata
     {
         private final int masterId;
@@ -31,4 +31,12 @@ public interface TransactionMonitor
     void transactionFinished( boolean successful );
 
     void transactionTerminated();
+
+    /**
+     * Called by appenders that force the log for many transactions at a time, after each such force.
+     *
+     * @param transactionCount number of transactions that were made durable by the force.
+     * @param forceNanos time it took to force the log to disk.
+     */
+    void transactionsForced( int transactionCount, long forceNanos );
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import java.io.IOException;
+
+/**
+ * Something that primitives can be written to, like the commands of a transaction. Unlike a
+ * {@link WritableLogChannel} it isn't necessarily backed by a log, so it has no position, format or durability.
+ */
+public interface WritableChannel
+{
+    WritableChannel put( byte value ) throws IOException;
+
+    WritableChannel putShort( short value ) throws IOException;
+
+    WritableChannel putInt( int value ) throws IOException;
+
+    WritableChannel putLong( long value ) throws IOException;
+
+    WritableChannel putFloat( float value ) throws IOException;
+
+    WritableChannel putDouble( double value ) throws IOException;
+
+    WritableChannel put( byte[] value, int length ) throws IOException;
+}
@@ -22,7 +22,7 @@ package org.neo4j.kernel.impl.transaction.xaframework;
 import java.io.Closeable;
 import java.io.IOException;
 
-public interface WritableLogChannel extends Closeable
+public interface WritableLogChannel extends WritableChannel, Closeable
 {
     byte getLogFormatVersion();
 
@@ -37,18 +37,25 @@ public interface WritableLogChannel extends Closeable
      */
     void force() throws IOException;
 
+    @Override
     WritableLogChannel put( byte value ) throws IOException;
 
+    @Override
     WritableLogChannel putShort( short value ) throws IOException;
 
+    @Override
     WritableLogChannel putInt( int value ) throws IOException;
 
+    @Override
     WritableLogChannel putLong( long value ) throws IOException;
 
+    @Override
     WritableLogChannel putFloat( float value ) throws IOException;
 
+    @Override
     WritableLogChannel putDouble( double value ) throws IOException;
 
+    @Override
     WritableLogChannel put( byte[] value, int length ) throws IOException;
 
     void getCurrentPosition( LogPositionMarker positionMarker ) throws IOException;
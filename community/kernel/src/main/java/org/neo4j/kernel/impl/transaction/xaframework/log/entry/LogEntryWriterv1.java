@@ -25,7 +25,7 @@ import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.impl.nioneo.xa.command.Command;
 import org.neo4j.kernel.impl.nioneo.xa.command.NeoCommandHandler;
 import org.neo4j.kernel.impl.transaction.xaframework.TransactionRepresentation;
-import org.neo4j.kernel.impl.transaction.xaframework.WritableLogChannel;
+import org.neo4j.kernel.impl.transaction.xaframework.WritableChannel;
 
 import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryByteCodes.COMMAND;
 import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryByteCodes.TX_1P_COMMIT;
@@ -34,10 +34,10 @@ import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryVe
 
 public class LogEntryWriterv1 implements LogEntryWriter
 {
-    private final WritableLogChannel channel;
+    private final WritableChannel channel;
     private final NeoCommandHandler commandWriter;
 
-    public LogEntryWriterv1( WritableLogChannel channel, NeoCommandHandler commandWriter )
+    public LogEntryWriterv1( WritableChannel channel, NeoCommandHandler commandWriter )
     {
         this.channel = channel;
         this.commandWriter = commandWriter;
@@ -30,7 +30,7 @@ import java.util.Map;
 
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.xaframework.ReadableLogChannel;
-import org.neo4j.kernel.impl.transaction.xaframework.WritableLogChannel;
+import org.neo4j.kernel.impl.transaction.xaframework.WritableChannel;
 
 public abstract class IoPrimitiveUtils
 {
@@ -42,7 +42,7 @@ public abstract class IoPrimitiveUtils
         return new String(chars, "UTF-8");
     }
 
-    public static void write3bLengthAndString( WritableLogChannel channel, String string ) throws IOException
+    public static void write3bLengthAndString( WritableChannel channel, String string ) throws IOException
     {
         byte[] chars = string.getBytes( "UTF-8" );
         // 3 bytes to represent the length (4 is a bit overkill)... maybe
@@ -62,7 +62,7 @@ public abstract class IoPrimitiveUtils
         return new String(chars, "UTF-8");
     }
 
-    public static void write2bLengthAndString( WritableLogChannel channel, String string ) throws IOException
+    public static void write2bLengthAndString( WritableChannel channel, String string ) throws IOException
     {
         byte[] chars = string.getBytes( "UTF-8" );
         channel.putShort( (short)chars.length );
@@ -47,6 +47,11 @@ public interface JobScheduler extends Lifecycle
          */
         heuristics,
         pageCacheEviction,
+
+        /**
+         * Flushes the store in the background to bound recovery time.
+         */
+        checkPoint,
     }
 
     interface JobHandle
@@ -156,6 +156,40 @@ public class LabelCountsTest
         assertEquals( 0, barCount );
     }
 
+    @Test
+    public void shouldIncludeLabelChangesOfTheCurrentTransaction() throws Exception
+    {
+        // given
+        GraphDatabaseService graphDb = db.getGraphDatabaseService();
+        Node n1, n2, n3, n4;
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            n1 = graphDb.createNode( label( "Foo" ) );
+            n2 = graphDb.createNode( label( "Foo" ) );
+            n3 = graphDb.createNode();
+            n4 = graphDb.createNode( label( "Foo" ) );
+
+            tx.success();
+        }
+
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            // when
+            graphDb.createNode( label( "Foo" ) );
+            n1.delete();
+            n2.removeLabel( label( "Foo" ) );
+            n3.addLabel( label( "Foo" ) );
+            n4.removeLabel( label( "Foo" ) );
+            n4.delete();
+            long fooCount = countsForNode( label( "Foo" ) );
+
+            // then
+            assertEquals( 2, fooCount );
+            tx.success();
+        }
+        assertEquals( 2, numberOfNodesWith( label( "Foo" ) ) );
+    }
+
     /** Transactional version of {@link #countsForNode(Label)} */
     private long numberOfNodesWith( Label label )
     {
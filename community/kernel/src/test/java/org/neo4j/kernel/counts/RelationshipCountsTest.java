@@ -234,6 +234,41 @@ public class RelationshipCountsTest
         assertEquals( 6, total );
     }
 
+    @Test
+    public void shouldCountRelationshipsByTypeCreatedAndDeletedInTheCurrentTransaction() throws Exception
+    {
+        // given
+        GraphDatabaseService graphDb = db.getGraphDatabaseService();
+        Relationship foo;
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            foo = graphDb.createNode().createRelationshipTo( graphDb.createNode(), withName( "FOO" ) );
+            graphDb.createNode().createRelationshipTo( graphDb.createNode(), withName( "FOO" ) );
+            graphDb.createNode().createRelationshipTo( graphDb.createNode(), withName( "BAR" ) );
+            tx.success();
+        }
+        long fooDuring, barDuring;
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            foo.delete();
+            graphDb.createNode().createRelationshipTo( graphDb.createNode(), withName( "BAR" ) );
+            graphDb.createNode().createRelationshipTo( graphDb.createNode(), withName( "BAR" ) );
+            fooDuring = countsForRelationship( null, withName( "FOO" ), null );
+            barDuring = countsForRelationship( null, withName( "BAR" ), null );
+            tx.success();
+        }
+
+        // when
+        long fooAfter = numberOfRelationships( withName( "FOO" ) );
+        long barAfter = numberOfRelationships( withName( "BAR" ) );
+
+        // then
+        assertEquals( 1, fooDuring );
+        assertEquals( 3, barDuring );
+        assertEquals( 1, fooAfter );
+        assertEquals( 3, barAfter );
+    }
+
     private long numberOfRelationships( RelationshipType type )
     {
         return numberOfRelationshipsMatching( null, type, null );
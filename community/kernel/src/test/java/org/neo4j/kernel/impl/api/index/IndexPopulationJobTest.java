@@ -49,6 +49,7 @@ import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.PreexistingIndexEntryConflictException;
 import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.impl.api.KernelSchemaStateStore;
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 import org.neo4j.kernel.impl.locking.LockService;
@@ -64,6 +65,7 @@ import org.neo4j.test.OtherThreadExecutor.WorkerCommand;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
@@ -73,6 +75,7 @@ import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -202,6 +205,47 @@ public class IndexPopulationJobTest
         assertEquals( expectedRemoved, populator.removed );
     }
 
+    @Test
+    public void shouldPopulateSeveralIndexesInOneScan() throws Exception
+    {
+        // GIVEN
+        String value = "Mattias";
+        long node1 = createNode( map( name, value ), FIRST );
+        long node2 = createNode( map( name, value ), SECOND );
+        long node3 = createNode( map( age, 31 ), FIRST );
+        long node4 = createNode( map( age, 35, name, value ), FIRST, SECOND );
+        IndexPopulator firstPopulator = mock( IndexPopulator.class );
+        IndexPopulator secondPopulator = mock( IndexPopulator.class );
+        IndexPopulator agePopulator = mock( IndexPopulator.class );
+        IndexStoreView storeView = spy( indexStoreView );
+        IndexPopulationJob job = new IndexPopulationJob( storeView, stateHolder,
+                new SingleLoggingService( StringLogger.DEV_NULL ) );
+        addPopulation( job, FIRST, name, firstPopulator );
+        addPopulation( job, SECOND, name, secondPopulator );
+        addPopulation( job, FIRST, age, agePopulator );
+
+        // WHEN
+        job.run();
+
+        // THEN
+        verify( storeView ).visitNodes( any( int[].class ), any( int[].class ),
+                Matchers.<Visitor<NodePropertyUpdate, RuntimeException>>any(),
+                Matchers.<Visitor<NodeLabelUpdate, RuntimeException>>any() );
+        verify( firstPopulator ).add( node1, value );
+        verify( firstPopulator ).add( node4, value );
+        verify( secondPopulator ).add( node2, value );
+        verify( secondPopulator ).add( node4, value );
+        verify( agePopulator ).add( node3, 31 );
+        verify( agePopulator ).add( node4, 35 );
+        for ( IndexPopulator populator : asList( firstPopulator, secondPopulator, agePopulator ) )
+        {
+            verify( populator ).create();
+            verify( populator ).verifyDeferredConstraints( storeView );
+            verify( populator ).close( true );
+            verifyNoMoreInteractions( populator );
+        }
+    }
+
     @Test
     public void shouldTransitionToFailedStateIfPopulationJobCrashes() throws Exception
     {
@@ -595,6 +639,24 @@ public class IndexPopulationJobTest
                 stateHolder, new SingleLoggingService( logger ) );
     }
 
+    private IndexPopulationJob.IndexPopulation addPopulation( IndexPopulationJob job, Label label,
+                                                              String propertyKey, IndexPopulator populator )
+    {
+        IndexDescriptor descriptor;
+        try ( Transaction tx = db.beginTx() )
+        {
+            ReadOperations statement = ctxProvider.instance().readOperations();
+            descriptor = new IndexDescriptor( statement.labelGetForName( label.name() ),
+                    statement.propertyKeyGetForName( propertyKey ) );
+            tx.success();
+        }
+
+        FlippableIndexProxy flipper = new FlippableIndexProxy();
+        flipper.setFlipTarget( mock( IndexProxyFactory.class ) );
+        return job.addPopulation( descriptor, PROVIDER_DESCRIPTOR, format( ":%s(%s)", label.name(), propertyKey ),
+                mock( FailedIndexProxyFactory.class ), populator, flipper );
+    }
+
     private long createNode( Map<String, Object> properties, Label... labels )
     {
         try ( Transaction tx = db.beginTx() )
@@ -69,7 +69,9 @@ import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -159,6 +161,30 @@ public class IndexingServiceTest
         // We are asserting that the second call to createIndex does not throw an exception.
     }
 
+    @Test
+    public void shouldPopulateIndexesCreatedTogetherInOneStoreScan() throws Exception
+    {
+        // given
+        IndexingService indexingService = newIndexingServiceWithMockedDependencies( populator, accessor,
+                withData( add( 1, "value1" ) ), IteratorUtil.<IndexRule>emptyIterator() );
+
+        life.start();
+
+        // when
+        indexingService.createIndexes( indexRule( 0, labelId, propertyKeyId, PROVIDER_DESCRIPTOR ),
+                indexRule( 1, labelId, propertyKeyId + 1, PROVIDER_DESCRIPTOR ) );
+
+        // then
+        verify( populator, timeout( 1000 ).times( 2 ) ).close( true );
+        verify( storeView, times( 1 ) ).visitNodes( any( int[].class ), any( int[].class ),
+                any( Visitor.class ), any( Visitor.class ) );
+        verify( storeView, never() ).visitNodesWithPropertyAndLabel( any( IndexDescriptor.class ),
+                any( Visitor.class ) );
+        verify( populator, times( 1 ) ).add( 1, "value1" );
+        assertEquals( ONLINE, indexingService.getProxyForRule( 0 ).getState() );
+        assertEquals( ONLINE, indexingService.getProxyForRule( 1 ).getState() );
+    }
+
     @Test
     public void shouldDeliverUpdatesThatOccurDuringPopulationToPopulator() throws Exception
     {
@@ -524,12 +550,17 @@ public class IndexingServiceTest
         {
             when( mock.visitNodesWithPropertyAndLabel( any( IndexDescriptor.class ), visitor( any( Visitor.class ) ) ) )
                     .thenAnswer( this );
+            when( mock.visitNodes( any( int[].class ), any( int[].class ), visitor( any( Visitor.class ) ),
+                    any( Visitor.class ) ) ).thenAnswer( this );
         }
 
         @Override
         public StoreScan<RuntimeException> answer( InvocationOnMock invocation ) throws Throwable
         {
-            final Visitor<NodePropertyUpdate, RuntimeException> visitor = visitor( invocation.getArguments()[1] );
+            // The property update visitor is the one following the descriptor, or the label and property key ids
+            Object[] arguments = invocation.getArguments();
+            final Visitor<NodePropertyUpdate, RuntimeException> visitor =
+                    visitor( arguments[arguments[0] instanceof IndexDescriptor ? 1 : 2] );
             return new StoreScan<RuntimeException>()
             {
                 @Override
@@ -28,6 +28,7 @@ import java.util.Set;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.helpers.Predicate;
 
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.toPrimitiveIterator;
 
@@ -54,6 +55,20 @@ class HashBasedIndex extends InMemoryIndexImplementation
         return nodes == null ? PrimitiveLongCollections.emptyIterator() : toPrimitiveIterator( nodes.iterator() );
     }
 
+    @Override
+    PrimitiveLongIterator doRangeSeek( Predicate<Object> encodedValueFilter )
+    {
+        Set<Long> nodes = new HashSet<>();
+        for ( Map.Entry<Object, Set<Long>> entry : data.entrySet() )
+        {
+            if ( encodedValueFilter.accept( entry.getKey() ) )
+            {
+                nodes.addAll( entry.getValue() );
+            }
+        }
+        return toPrimitiveIterator( nodes.iterator() );
+    }
+
     @Override
     void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently )
     {
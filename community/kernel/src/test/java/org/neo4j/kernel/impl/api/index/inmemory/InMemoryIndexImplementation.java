@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.index.inmemory;
 import java.util.Set;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.helpers.Predicate;
 import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.kernel.api.index.ArrayEncoder;
 import org.neo4j.kernel.api.index.IndexReader;
@@ -36,6 +37,41 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
         return doLookup( encode( value ) );
     }
 
+    @Override
+    public final PrimitiveLongIterator rangeSeekByNumber( final Number lower, final boolean includeLower,
+                                                         final Number upper, final boolean includeUpper )
+    {
+        return doRangeSeek( new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                if ( !(value instanceof Double) )
+                {
+                    return false;
+                }
+                double number = (Double) value;
+                return (lower == null || number > lower.doubleValue() ||
+                        (includeLower && number == lower.doubleValue())) &&
+                       (upper == null || number < upper.doubleValue() ||
+                        (includeUpper && number == upper.doubleValue()));
+            }
+        } );
+    }
+
+    @Override
+    public final PrimitiveLongIterator rangeSeekByPrefix( final String prefix )
+    {
+        return doRangeSeek( new Predicate<Object>()
+        {
+            @Override
+            public boolean accept( Object value )
+            {
+                return value instanceof String && ((String) value).startsWith( prefix );
+            }
+        } );
+    }
+
     final void add( long nodeId, Object propertyValue, boolean applyIdempotently )
     {
         doAdd( encode( propertyValue ), nodeId, applyIdempotently );
@@ -48,6 +84,8 @@ abstract class InMemoryIndexImplementation implements IndexReader, BoundedIterab
 
     abstract PrimitiveLongIterator doLookup( Object propertyValue );
 
+    abstract PrimitiveLongIterator doRangeSeek( Predicate<Object> encodedValueFilter );
+
     abstract void doAdd( Object propertyValue, long nodeId, boolean applyIdempotently );
 
     abstract void doRemove( Object propertyValue, long nodeId );
@@ -253,14 +253,17 @@ public class InMemoryLabelScanStore implements LabelScanStore
                     }
                 }
 
-                // Update the internal map with those changes
-                for ( int i = 0; i < addedIndex; i++ )
+                // Update the internal map with those changes, writers may be used concurrently
+                synchronized ( data )
                 {
-                    nodeSetForAdding( added[i] ).add( update.getNodeId() );
-                }
-                for ( int i = 0; i < removedIndex; i++ )
-                {
-                    nodeSetForRemoving( removed[i] ).remove( update.getNodeId() );
+                    for ( int i = 0; i < addedIndex; i++ )
+                    {
+                        nodeSetForAdding( added[i] ).add( update.getNodeId() );
+                    }
+                    for ( int i = 0; i < removedIndex; i++ )
+                    {
+                        nodeSetForRemoving( removed[i] ).remove( update.getNodeId() );
+                    }
                 }
             }
 
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.nioneo.xa;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import org.neo4j.kernel.impl.nioneo.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.xaframework.PhysicalLogFile;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CheckPointerTest
+{
+    private final TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
+    private final CommonAbstractStore firstStore = mock( CommonAbstractStore.class );
+    private final CommonAbstractStore secondStore = mock( CommonAbstractStore.class );
+    private final PhysicalLogFile logFile = mock( PhysicalLogFile.class );
+
+    @Test
+    public void shouldFlushStoresAndThenCheckPointLogWhenTransactionsHaveBeenCommitted() throws Exception
+    {
+        // GIVEN
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 5L, 10L );
+        CheckPointer checkPointer = newCheckPointer();
+
+        // WHEN
+        checkPointer.run();
+
+        // THEN
+        InOrder order = inOrder( firstStore, secondStore, logFile );
+        order.verify( firstStore ).flush();
+        order.verify( secondStore ).flush();
+        order.verify( logFile ).checkPoint();
+    }
+
+    @Test
+    public void shouldNotCheckPointWhenNoTransactionsHaveBeenCommitted() throws Exception
+    {
+        // GIVEN
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 5L, 10L, 10L );
+        CheckPointer checkPointer = newCheckPointer();
+        checkPointer.run();
+
+        // WHEN
+        checkPointer.run();
+
+        // THEN
+        verify( firstStore ).flush();
+        verify( logFile ).checkPoint();
+    }
+
+    @Test
+    public void shouldNotCheckPointAfterStopped() throws Exception
+    {
+        // GIVEN
+        when( transactionIdStore.getLastCommittedTransactionId() ).thenReturn( 5L, 10L );
+        CheckPointer checkPointer = newCheckPointer();
+
+        // WHEN
+        checkPointer.stop();
+        checkPointer.run();
+
+        // THEN
+        verify( firstStore, never() ).flush();
+        verify( logFile, never() ).checkPoint();
+    }
+
+    private CheckPointer newCheckPointer()
+    {
+        return new CheckPointer( transactionIdStore, Arrays.asList( firstStore, secondStore ), logFile,
+                StringLogger.DEV_NULL );
+    }
+}
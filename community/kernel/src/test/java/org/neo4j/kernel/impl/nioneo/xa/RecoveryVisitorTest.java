@@ -94,4 +94,25 @@ public class RecoveryVisitorTest
 
         verify( store, times( 1 ) ).setLastCommittedAndClosedTransactionId( commitEntry.getTxId() );
     }
+
+    @Test
+    public void shouldReportRecoveryProgressAtIntervalsAndWhenClosed() throws IOException
+    {
+        // GIVEN
+        Monitor monitor = mock( RecoveryVisitor.Monitor.class );
+        final RecoveryVisitor visitor = new RecoveryVisitor( store, storeApplier, recoveredCount, monitor );
+        final CommittedTransactionRepresentation transaction = new CommittedTransactionRepresentation( startEntry,
+                new PhysicalTransactionRepresentation( Collections.<Command>emptySet() ), commitEntry );
+
+        // WHEN
+        for ( int i = 0; i < RecoveryVisitor.PROGRESS_INTERVAL + 1; i++ )
+        {
+            visitor.visit( transaction );
+        }
+        visitor.close();
+
+        // THEN
+        verify( monitor ).recoveryProgress( eq( RecoveryVisitor.PROGRESS_INTERVAL ), anyLong() );
+        verify( monitor ).recoveryProgress( eq( RecoveryVisitor.PROGRESS_INTERVAL + 1 ), anyLong() );
+    }
 }
@@ -69,10 +69,11 @@ public class SchemaRuleCommandTest
 
         // WHEN
         executor.visitSchemaRuleCommand( command );
+        executor.apply();
 
         // THEN
         verify( store ).updateRecord( first( afterRecords ) );
-        verify( indexes ).createIndex( rule );
+        verify( indexes ).createIndexes( rule );
     }
 
     @Test
@@ -25,6 +25,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -42,7 +46,9 @@ import org.neo4j.kernel.impl.nioneo.xa.LazyIndexUpdates;
 import org.neo4j.kernel.impl.nioneo.xa.PropertyLoader;
 import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -171,4 +177,49 @@ public class NeoTransactionIndexApplierTest
         assertTrue( result );
         verify( indexingService, never() ).updateIndexes( Matchers.<LazyIndexUpdates>any() );
     }
+
+    @Test
+    public void shouldUpdateLabelScanStoreOnExecutorWhileUpdatingIndexes() throws Exception
+    {
+        // given
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicInteger executed = new AtomicInteger();
+        try
+        {
+            final NeoTransactionIndexApplier applier = new NeoTransactionIndexApplier( indexingService,
+                    labelScanStore, nodeStore, propertyStore, cacheAccess, propertyLoader, new Executor()
+            {
+                @Override
+                public void execute( Runnable command )
+                {
+                    executed.incrementAndGet();
+                    executor.execute( command );
+                }
+            } );
+
+            final NodeRecord before = new NodeRecord( 11 );
+            before.setLabelField( 17, Collections.<DynamicRecord>emptySet() );
+            final NodeRecord after = new NodeRecord( 12 );
+            after.setLabelField( 18, Collections.<DynamicRecord>emptySet() );
+            final Command.NodeCommand command = new Command.NodeCommand().init( before, after );
+
+            LabelScanWriter writer = mock( LabelScanWriter.class );
+            when( labelScanStore.newWriter() ).thenReturn( writer );
+
+            // when
+            applier.visitNodeCommand( command );
+            applier.apply();
+
+            // then both updates are done by the time apply returns, the label scan store on the executor
+            assertEquals( 1, executed.get() );
+            verify( writer, times( 1 ) ).write( any( NodeLabelUpdate.class ) );
+            verify( writer, times( 1 ) ).close();
+            verify( indexingService, times( 1 ) ).updateIndexes( any( LazyIndexUpdates.class ) );
+            verify( cacheAccess, times( 1 ) ).applyLabelUpdates( Matchers.<Collection<NodeLabelUpdate>>any() );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
 }
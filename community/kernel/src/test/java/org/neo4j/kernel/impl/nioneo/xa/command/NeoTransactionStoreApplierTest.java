@@ -67,6 +67,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import static org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier.DEFAULT_HIGH_ID_TRACKING;
@@ -565,15 +567,48 @@ public class NeoTransactionStoreApplierTest
 
         // when
         final boolean result = applier.visitSchemaRuleCommand( command );
+        applyAndClose( applier );
 
         // then
         assertTrue( result );
 
         verify( schemaStore, times( 1 ) ).updateRecord( record );
-        verify( indexingService, times( 1 ) ).createIndex( rule );
+        verify( indexingService, times( 1 ) ).createIndexes( rule );
         verify( cacheAccess, times( 1 ) ).addSchemaRule( rule );
     }
 
+    @Test
+    public void shouldCreateAllIndexesOfATransactionTogetherOnceItHasBeenApplied() throws IOException
+    {
+        // given
+        final NeoTransactionStoreApplier applier = newApplier( false );
+        final SchemaIndexProvider.Descriptor provider = new SchemaIndexProvider.Descriptor( "K", "X.Y" );
+        final IndexRule rule1 = IndexRule.indexRule( 0, 1, 2, provider );
+        final IndexRule rule2 = IndexRule.indexRule( 1, 1, 3, provider );
+
+        // when
+        applier.visitSchemaRuleCommand( createSchemaRuleCommand( 21, rule1 ) );
+        applier.visitSchemaRuleCommand( createSchemaRuleCommand( 22, rule2 ) );
+
+        // then
+        verifyZeroInteractions( indexingService );
+
+        // when
+        applyAndClose( applier );
+
+        // then
+        verify( indexingService, times( 1 ) ).createIndexes( rule1, rule2 );
+        verifyNoMoreInteractions( indexingService );
+    }
+
+    private Command.SchemaRuleCommand createSchemaRuleCommand( long recordId, IndexRule rule )
+    {
+        final DynamicRecord record = DynamicRecord.dynamicRecord( recordId, true );
+        record.setCreated();
+        return new Command.SchemaRuleCommand().init( Collections.<DynamicRecord>emptyList(),
+                Arrays.asList( record ), rule );
+    }
+
     @Test
     public void shouldApplyCreateIndexRuleSchemaRuleCommandToTheStoreInRecovery() throws IOException
     {
@@ -595,7 +630,7 @@ public class NeoTransactionStoreApplierTest
 
         verify( schemaStore, times( 1 ) ).setHighestPossibleIdInUse( record.getId() );
         verify( schemaStore, times( 1 ) ).updateRecord( record );
-        verify( indexingService, times( 1 ) ).createIndex( rule );
+        verify( indexingService, times( 1 ) ).createIndexes( rule );
         verify( cacheAccess, times( 1 ) ).addSchemaRule( rule );
     }
 
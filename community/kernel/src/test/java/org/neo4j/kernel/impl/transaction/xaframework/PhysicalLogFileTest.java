@@ -22,6 +22,8 @@ package org.neo4j.kernel.impl.transaction.xaframework;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -31,16 +33,23 @@ import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.DefaultFileSystemAbstraction;
+import org.neo4j.kernel.impl.nioneo.store.NodeRecord;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
+import org.neo4j.kernel.impl.nioneo.xa.command.Command;
 import org.neo4j.kernel.impl.transaction.xaframework.PhysicalLogFile.Monitor;
+import org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogEntryWriterv1;
 import org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeader;
+import org.neo4j.kernel.impl.transaction.xaframework.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.xaframework.log.pruning.LogPruneStrategyFactory;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.test.TargetDirectory;
 import org.neo4j.test.TargetDirectory.TestDirectory;
 
+import static java.util.Arrays.asList;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -50,6 +59,7 @@ import static org.mockito.Mockito.verify;
 import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeaderParser.LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeaderParser.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeaderParser.writeLogHeader;
+import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogVersions.CURRENT_LOG_VERSION;
 
 public class PhysicalLogFileTest
 {
@@ -231,6 +241,153 @@ public class PhysicalLogFileTest
         }
     }
 
+    @Test
+    public void shouldPreallocateNewLogFileAndTrimItToWhatWasWrittenOnShutdown() throws Exception
+    {
+        // GIVEN
+        String name = "log";
+        LifeSupport life = new LifeSupport();
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), name, fs );
+        LogFile logFile = life.add( new PhysicalLogFile( fs, logFiles, 1000, true,
+                LogPruneStrategyFactory.NO_PRUNING, transactionIdStore, logVersionRepository, mock( Monitor.class ),
+                mock( LogRotationControl.class ), new TransactionMetadataCache( 10, 100 ), NO_RECOVERY_EXPECTED ) );
+        File file = logFiles.getLogFileForVersion( 1L );
+
+        // WHEN
+        life.start();
+        try
+        {
+            assertEquals( 1000, fs.getFileSize( file ) );
+            WritableLogChannel writer = logFile.getWriter();
+            writer.putInt( 45 );
+            writer.putLong( 4854587 );
+            writer.emptyBufferIntoChannelAndClearIt();
+            writer.force();
+            assertEquals( 1000, fs.getFileSize( file ) );
+        }
+        finally
+        {
+            life.shutdown();
+        }
+
+        // THEN
+        assertEquals( LOG_HEADER_SIZE + 4 + 8, fs.getFileSize( file ) );
+    }
+
+    @Test
+    public void shouldNotRequireRecoveryForPreallocatedLogWithoutEntries() throws Exception
+    {
+        // GIVEN
+        File file = new File( directory.directory(), "log.1" );
+        writeSomeData( file, new Visitor<ByteBuffer, IOException>()
+        {
+            @Override
+            public boolean visit( ByteBuffer buffer ) throws IOException
+            {
+                writeLogHeader( buffer, 1, 3 );
+                buffer.clear();
+                buffer.position( LOG_HEADER_SIZE + 100 );
+                return true;
+            }
+        } );
+
+        // WHEN
+        try ( StoreChannel channel = fs.open( file, "r" ) )
+        {
+            // THEN
+            assertFalse( new LogRecoveryCheck( channel ).recoveryRequired() );
+        }
+    }
+
+    @Test
+    public void shouldRecoverPreallocatedLogAndContinueRightAfterTheLastCompleteTransaction() throws Exception
+    {
+        // GIVEN a preallocated log with one complete and one partially written transaction, as after a crash
+        String name = "log";
+        int rotateAtSize = 10_000;
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( directory.directory(), name, fs );
+        File file = logFiles.getLogFileForVersion( 1L );
+        long endOfCompleteTransaction;
+        try ( PhysicalLogVersionedStoreChannel channel = new PhysicalLogVersionedStoreChannel(
+                fs.open( file, "rw" ), 1L, CURRENT_LOG_VERSION ) )
+        {
+            PhysicalWritableLogChannel writer = new PhysicalWritableLogChannel( channel );
+            writeLogHeader( writer, 1L, 5L );
+            LogEntryWriterv1 entryWriter = new LogEntryWriterv1( writer, new CommandWriter( writer ) );
+            new TransactionLogWriter( entryWriter ).append( transactionWithNodes( 1, 2 ), 6L );
+            writer.emptyBufferIntoChannelAndClearIt();
+            endOfCompleteTransaction = channel.position();
+            entryWriter.writeStartEntry( -1, -1, 0, 5L, new byte[0] );
+            entryWriter.writeCommandEntry( nodeCommand( 3 ) );
+            writer.emptyBufferIntoChannelAndClearIt();
+            ByteBuffer zeros = ByteBuffer.allocate( (int) (rotateAtSize - channel.position()) );
+            channel.writeAll( zeros, channel.position() );
+        }
+        assertEquals( rotateAtSize, fs.getFileSize( file ) );
+
+        final List<Long> recoveredTransactions = new ArrayList<>();
+        LifeSupport life = new LifeSupport();
+        LogFile logFile = life.add( new PhysicalLogFile( fs, logFiles, rotateAtSize, true,
+                LogPruneStrategyFactory.NO_PRUNING, transactionIdStore, logVersionRepository, mock( Monitor.class ),
+                mock( LogRotationControl.class ), new TransactionMetadataCache( 10, 100 ),
+                new Visitor<ReadableLogChannel, IOException>()
+                {
+                    @Override
+                    public boolean visit( ReadableLogChannel channel ) throws IOException
+                    {
+                        // Not closing the cursor, since that would close the channel the log continues to use
+                        PhysicalTransactionCursor transactions =
+                                new PhysicalTransactionCursor( channel, new VersionAwareLogEntryReader() );
+                        while ( transactions.next() )
+                        {
+                            recoveredTransactions.add( transactions.get().getCommitEntry().getTxId() );
+                        }
+                        return true;
+                    }
+                } ) );
+
+        // WHEN
+        life.start();
+        try
+        {
+            // THEN
+            assertEquals( asList( 6L ), recoveredTransactions );
+            assertEquals( rotateAtSize, fs.getFileSize( file ) );
+            WritableLogChannel writer = logFile.getWriter();
+            LogPositionMarker positionMarker = new LogPositionMarker();
+            writer.getCurrentPosition( positionMarker );
+            assertEquals( endOfCompleteTransaction, positionMarker.newPosition().getByteOffset() );
+            writer.putLong( 4854587 );
+            writer.emptyBufferIntoChannelAndClearIt();
+            writer.force();
+            assertEquals( rotateAtSize, fs.getFileSize( file ) );
+        }
+        finally
+        {
+            life.shutdown();
+        }
+        assertEquals( endOfCompleteTransaction + 8, fs.getFileSize( file ) );
+    }
+
+    private TransactionRepresentation transactionWithNodes( long... nodeIds )
+    {
+        List<Command> commands = new ArrayList<>();
+        for ( long nodeId : nodeIds )
+        {
+            commands.add( nodeCommand( nodeId ) );
+        }
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( new byte[0], -1, -1, 0, 5L, 0 );
+        return transaction;
+    }
+
+    private Command nodeCommand( long nodeId )
+    {
+        NodeRecord after = new NodeRecord( nodeId, false, -1, -1 );
+        after.setInUse( true );
+        return new Command.NodeCommand().init( new NodeRecord( nodeId, false, -1, -1 ), after );
+    }
+
     private void writeSomeData( File file, Visitor<ByteBuffer, IOException> visitor ) throws IOException
     {
         try ( StoreChannel channel = fs.open( file, "rw" ) )
@@ -87,6 +87,47 @@ public class PhysicalWritableLogChannelTest
         assertArrayEquals( byteArrayValue, readByteArray );
     }
 
+    @Test
+    public void shouldWriteByteArraysOfAnySize() throws Exception
+    {
+        // GIVEN
+        final File file = new File( directory.directory(), "file" );
+        PhysicalWritableLogChannel channel = new PhysicalWritableLogChannel(
+                new PhysicalLogVersionedStoreChannel( fs.open( file, "rw" ), 1, (byte) -1 /* ignored */ ), 4*1024 );
+        byte[] small = bytes( 100 );
+        byte[] medium = bytes( 3000 );
+        byte[] large = bytes( 100_000 );
+
+        // WHEN
+        channel.putInt( 42 );
+        channel.put( small, small.length );
+        channel.put( medium, medium.length );
+        channel.put( large, large.length );
+        channel.putInt( 43 );
+        channel.close();
+
+        // THEN
+        ByteBuffer contents = readFile( file );
+        assertEquals( 42, contents.getInt() );
+        for ( byte[] expected : new byte[][] {small, medium, large} )
+        {
+            byte[] read = new byte[expected.length];
+            contents.get( read );
+            assertArrayEquals( expected, read );
+        }
+        assertEquals( 43, contents.getInt() );
+    }
+
+    private static byte[] bytes( int length )
+    {
+        byte[] bytes = new byte[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
     private ByteBuffer readFile( File file ) throws IOException
     {
         try ( StoreChannel channel = fs.open( file, "r" ) )
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.xaframework;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PowerOfTwoHistogramTest
+{
+    @Test
+    public void shouldCountValuesInPowerOfTwoBuckets() throws Exception
+    {
+        // GIVEN
+        PowerOfTwoHistogram histogram = new PowerOfTwoHistogram();
+
+        // WHEN
+        for ( long value : new long[] {0, 1, 2, 3, 4, 7, 8, 1000, Long.MAX_VALUE} )
+        {
+            histogram.record( value );
+        }
+
+        // THEN
+        assertEquals( 1, histogram.count( 0 ) );
+        assertEquals( 1, histogram.count( 1 ) );
+        assertEquals( 2, histogram.count( 2 ) );
+        assertEquals( 2, histogram.count( 3 ) );
+        assertEquals( 1, histogram.count( 4 ) );
+        assertEquals( 1, histogram.count( PowerOfTwoHistogram.bucketOf( 1000 ) ) );
+        assertEquals( 1, histogram.count( PowerOfTwoHistogram.BUCKETS - 1 ) );
+        assertEquals( 9, histogram.totalCount() );
+        assertEquals( 512, PowerOfTwoHistogram.lowerBoundOf( PowerOfTwoHistogram.bucketOf( 1000 ) ) );
+    }
+}
@@ -130,4 +130,41 @@ public class TransactionMetadataCacheTest
         assertEquals( -1, logHeader );
         assertNull( metadata );
     }
+
+    @Test
+    public void shouldFindClosestIndexedTransactionBeforeTheOneAskedForInTheSameLogVersion()
+    {
+        // given
+        final TransactionMetadataCache cache = new TransactionMetadataCache( 2, 2 );
+        final int interval = TransactionMetadataCache.SPARSE_INDEX_INTERVAL;
+        for ( long txId = 1; txId <= interval * 3; txId++ )
+        {
+            long logVersion = txId <= interval * 2 ? 0 : 1;
+            cache.cacheTransactionMetadata( txId, new LogPosition( logVersion, txId * 10 ), 0, 1, 2 );
+        }
+
+        // then
+        assertNull( cache.getClosestIndexedStartPosition( interval - 1, 0 ) );
+        assertEquals( new LogPosition( 0, interval * 10 ), cache.getClosestIndexedStartPosition( interval + 5, 0 ) );
+        assertEquals( new LogPosition( 0, interval * 20 ),
+                cache.getClosestIndexedStartPosition( interval * 2, 0 ) );
+        assertNull( cache.getClosestIndexedStartPosition( interval * 2 + 5, 1 ) );
+        assertEquals( new LogPosition( 1, interval * 30 ),
+                cache.getClosestIndexedStartPosition( interval * 3 + 5, 1 ) );
+    }
+
+    @Test
+    public void shouldClearTheSparseIndex()
+    {
+        // given
+        final TransactionMetadataCache cache = new TransactionMetadataCache( 2, 2 );
+        final long txId = TransactionMetadataCache.SPARSE_INDEX_INTERVAL;
+        cache.cacheTransactionMetadata( txId, new LogPosition( 3, 4 ), 0, 1, 2 );
+
+        // when
+        cache.clear();
+
+        // then
+        assertNull( cache.getClosestIndexedStartPosition( txId, 3 ) );
+    }
 }
@@ -26,6 +26,7 @@ import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TransactionMonitorTest
 {
@@ -78,4 +79,26 @@ public class TransactionMonitorTest
             db.shutdown();
         }
     }
+
+    @Test
+    public void shouldRecordForcesOfTheLog() throws Exception
+    {
+        GraphDatabaseAPI db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try
+        {
+            TransactionCounters monitor = db.getDependencyResolver().resolveDependency( TransactionCounters.class );
+            long forcesBefore = monitor.getForceLatencyMicros().totalCount();
+            try ( Transaction tx = db.beginTx() )
+            {
+                db.createNode();
+                tx.success();
+            }
+            assertTrue( monitor.getForceLatencyMicros().totalCount() > forcesBefore );
+            assertTrue( monitor.getTransactionsPerForce().totalCount() > forcesBefore );
+        }
+        finally
+        {
+            db.shutdown();
+        }
+    }
 }
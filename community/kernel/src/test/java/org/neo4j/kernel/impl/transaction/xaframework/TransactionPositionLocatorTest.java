@@ -77,6 +77,28 @@ public class TransactionPositionLocatorTest
         );
     }
 
+    @Test
+    public void shouldIndexTheTransactionsPassedWhileLooking() throws IOException
+    {
+        // given
+        long indexedTxId = TransactionMetadataCache.SPARSE_INDEX_INTERVAL;
+        LogPosition indexedPosition = new LogPosition( 1, 64 );
+        LogEntryStart indexedStart = new LogEntryStart( 0, 0, 0, 0, null, indexedPosition );
+        TransactionMetadataCache cache = new TransactionMetadataCache( 10, 10 );
+        final PhysicalLogicalTransactionStore.TransactionPositionLocator locator =
+                new PhysicalLogicalTransactionStore.TransactionPositionLocator( indexedTxId + 1, logEntryReader,
+                        cache );
+
+        when( logEntryReader.readLogEntry( channel ) ).thenReturn( indexedStart, command,
+                new OnePhaseCommit( indexedTxId, 0 ), start, command, new OnePhaseCommit( indexedTxId + 1, 0 ), null );
+
+        // when
+        locator.visit( indexedPosition, channel );
+
+        // then
+        assertEquals( indexedPosition, cache.getClosestIndexedStartPosition( indexedTxId + 1, 1 ) );
+    }
+
     @Test
     public void shouldNotFindTransactionLogPosition() throws IOException
     {
@@ -25,17 +25,17 @@ import java.util.Iterator;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.SearcherManager;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.kernel.api.direct.AllEntriesLabelScanReader;
+import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 
 public interface LabelScanStorageStrategy
 {
     PrimitiveLongIterator nodesWithLabel( IndexSearcher searcher, int labelId );
 
-    AllEntriesLabelScanReader newNodeLabelReader( SearcherManager searcher );
+    AllEntriesLabelScanReader newNodeLabelReader( BoundedIterable<Document> documents );
 
     Iterator<Long> labelsForNode( IndexSearcher searcher, long nodeId );
 
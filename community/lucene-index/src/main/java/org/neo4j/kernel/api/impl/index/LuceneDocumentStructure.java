@@ -24,8 +24,10 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.FieldInfo.IndexOptions;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
 import org.apache.lucene.util.NumericUtils;
 
 import org.neo4j.kernel.api.index.ArrayEncoder;
@@ -205,6 +207,23 @@ public class LuceneDocumentStructure
         throw new IllegalArgumentException( format( "Unable to create newQuery for %s", value ) );
     }
 
+    /**
+     * Numbers are indexed in their prefix coded form, which sorts the same way as the numbers themselves, so a range
+     * of numbers is a range of terms.
+     */
+    public Query newRangeSeekByNumberQuery( Number lower, boolean includeLower, Number upper, boolean includeUpper )
+    {
+        return new TermRangeQuery( ValueEncoding.Number.key(),
+                lower == null ? null : NumericUtils.doubleToPrefixCoded( lower.doubleValue() ),
+                upper == null ? null : NumericUtils.doubleToPrefixCoded( upper.doubleValue() ),
+                includeLower, includeUpper );
+    }
+
+    public Query newRangeSeekByPrefixQuery( String prefix )
+    {
+        return new PrefixQuery( new Term( ValueEncoding.String.key(), prefix ) );
+    }
+
     public Term newQueryForChangeOrRemove( long nodeId )
     {
         return new Term( NODE_ID_KEY, "" + nodeId );
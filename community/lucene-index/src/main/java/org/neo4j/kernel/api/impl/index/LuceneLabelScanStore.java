@@ -21,7 +21,13 @@ package org.neo4j.kernel.api.impl.index;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexNotFoundException;
@@ -36,7 +42,9 @@ import org.apache.lucene.store.LockObtainFailedException;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.kernel.api.direct.AllEntriesLabelScanReader;
+import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.kernel.api.labelscan.LabelScanReader;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
@@ -47,18 +55,41 @@ import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.concat;
+import static org.neo4j.helpers.collection.Iterables.concatResourceIterators;
+import static org.neo4j.helpers.collection.IteratorUtil.emptyIterator;
+
+/**
+ * {@link LabelScanStore} keeping its data in one Lucene index per partition, where each partition covers a fixed
+ * range of node ids. Partition 0 lives in the store directory itself and the others in sub directories, created
+ * as nodes with higher ids get labels. Writers lock one partition at a time, so concurrent writes to different
+ * partitions don't wait for each other.
+ *
+ * Each partition has its own {@link IndexWriter}, buffering updates until they are committed. To keep the memory
+ * used by all of them bounded, a partition that a writer leaves is committed right away once the updates not yet
+ * committed in any partition exceed {@link #DEFAULT_MAX_UNCOMMITTED_UPDATES}.
+ */
 public class LuceneLabelScanStore
-        implements LabelScanStore, LabelScanStorageStrategy.StorageService
+        implements LabelScanStore
 {
+    // Must be a multiple of the number of nodes per document of any BitmapDocumentFormat
+    static final long DEFAULT_NODES_PER_PARTITION = 1 << 23;
+    // Matches the max buffered documents of a single index writer
+    static final long DEFAULT_MAX_UNCOMMITTED_UPDATES = 100_000;
+    private static final String PARTITION_DIRECTORY_PREFIX = "partition-";
+
     private final LabelScanStorageStrategy strategy;
     private final DirectoryFactory directoryFactory;
     private final LuceneIndexWriterFactory writerFactory;
     // We get in a full store stream here in case we need to fully rebuild the store if it's missing or corrupted.
     private final FullStoreChangeStream fullStoreStream;
     private final Monitor monitor;
-    private Directory directory;
-    private SearcherManager searcherManager;
-    private IndexWriter writer;
+    private final long nodesPerPartition;
+    private final long maxUncommittedUpdates;
+    // Updates written to any partition since it was last committed
+    private final AtomicLong uncommittedUpdates = new AtomicLong();
+    // Indexed by partition, with gaps for partitions not created yet
+    private volatile Partition[] partitions = new Partition[0];
     private boolean needsRebuild;
     private final File directoryLocation;
     private final FileSystemAbstraction fs;
@@ -125,6 +156,15 @@ public class LuceneLabelScanStore
     public LuceneLabelScanStore( LabelScanStorageStrategy strategy, DirectoryFactory directoryFactory,
             File directoryLocation, FileSystemAbstraction fs, LuceneIndexWriterFactory writerFactory,
             FullStoreChangeStream fullStoreStream, Monitor monitor )
+    {
+        this( strategy, directoryFactory, directoryLocation, fs, writerFactory, fullStoreStream, monitor,
+                DEFAULT_NODES_PER_PARTITION, DEFAULT_MAX_UNCOMMITTED_UPDATES );
+    }
+
+    LuceneLabelScanStore( LabelScanStorageStrategy strategy, DirectoryFactory directoryFactory,
+            File directoryLocation, FileSystemAbstraction fs, LuceneIndexWriterFactory writerFactory,
+            FullStoreChangeStream fullStoreStream, Monitor monitor, long nodesPerPartition,
+            long maxUncommittedUpdates )
     {
         this.strategy = strategy;
         this.directoryFactory = directoryFactory;
@@ -133,42 +173,51 @@ public class LuceneLabelScanStore
         this.writerFactory = writerFactory;
         this.fullStoreStream = fullStoreStream;
         this.monitor = monitor;
+        this.nodesPerPartition = nodesPerPartition;
+        this.maxUncommittedUpdates = maxUncommittedUpdates;
     }
 
     @Override
-    public void deleteDocuments( Term documentTerm ) throws IOException
-    {
-        writer.deleteDocuments( documentTerm );
-    }
-
-    @Override
-    public void updateDocument( Term documentTerm, Document document ) throws IOException
-    {
-        writer.updateDocument( documentTerm, document );
-    }
-
-    @Override
-    public IndexSearcher acquireSearcher()
-    {
-        return searcherManager.acquire();
-    }
-
-    @Override
-    public void refreshSearcher() throws IOException
+    public AllEntriesLabelScanReader newAllEntriesReader()
     {
-        searcherManager.maybeRefresh();
-    }
+        final List<LuceneAllDocumentsReader> readers = new ArrayList<>();
+        for ( Partition partition : partitions() )
+        {
+            readers.add( new LuceneAllDocumentsReader( partition.searcherManager ) );
+        }
+        return strategy.newNodeLabelReader( new BoundedIterable<Document>()
+        {
+            @Override
+            public long maxCount()
+            {
+                long maxCount = 0;
+                for ( LuceneAllDocumentsReader reader : readers )
+                {
+                    maxCount += reader.maxCount();
+                }
+                return maxCount;
+            }
 
-    @Override
-    public void releaseSearcher( IndexSearcher searcher ) throws IOException
-    {
-        searcherManager.release( searcher );
-    }
+            @Override
+            public Iterator<Document> iterator()
+            {
+                List<Iterator<Document>> iterators = new ArrayList<>();
+                for ( LuceneAllDocumentsReader reader : readers )
+                {
+                    iterators.add( reader.iterator() );
+                }
+                return Iterables.concat( iterators.iterator() );
+            }
 
-    @Override
-    public AllEntriesLabelScanReader newAllEntriesReader()
-    {
-        return strategy.newNodeLabelReader( searcherManager );
+            @Override
+            public void close()
+            {
+                for ( LuceneAllDocumentsReader reader : readers )
+                {
+                    reader.close();
+                }
+            }
+        } );
     }
 
     @Override
@@ -184,7 +233,10 @@ public class LuceneLabelScanStore
     {
         try
         {
-            writer.commit();
+            for ( Partition partition : partitions() )
+            {
+                partition.commit();
+            }
         }
         catch ( IOException e )
         {
@@ -195,13 +247,23 @@ public class LuceneLabelScanStore
     @Override
     public LabelScanReader newReader()
     {
-        final IndexSearcher searcher = acquireSearcher();
+        final List<Partition> partitions = partitions();
+        final IndexSearcher[] searchers = new IndexSearcher[partitions.size()];
+        for ( int i = 0; i < searchers.length; i++ )
+        {
+            searchers[i] = partitions.get( i ).acquireSearcher();
+        }
         return new LabelScanReader()
         {
             @Override
             public PrimitiveLongIterator nodesWithLabel( int labelId )
             {
-                return strategy.nodesWithLabel( searcher, labelId );
+                List<PrimitiveLongIterator> nodes = new ArrayList<>( searchers.length );
+                for ( IndexSearcher searcher : searchers )
+                {
+                    nodes.add( strategy.nodesWithLabel( searcher, labelId ) );
+                }
+                return concat( nodes.iterator() );
             }
 
             @Override
@@ -209,7 +271,10 @@ public class LuceneLabelScanStore
             {
                 try
                 {
-                    releaseSearcher( searcher );
+                    for ( int i = 0; i < searchers.length; i++ )
+                    {
+                        partitions.get( i ).releaseSearcher( searchers[i] );
+                    }
                 }
                 catch ( IOException e )
                 {
@@ -220,7 +285,15 @@ public class LuceneLabelScanStore
             @Override
             public Iterator<Long> labelsForNode( long nodeId )
             {
-                return strategy.labelsForNode(searcher, nodeId);
+                int index = partitionOf( nodeId );
+                for ( int i = 0; i < searchers.length; i++ )
+                {
+                    if ( partitions.get( i ).index == index )
+                    {
+                        return strategy.labelsForNode( searchers[i], nodeId );
+                    }
+                }
+                return emptyIterator();
             }
         };
     }
@@ -228,34 +301,48 @@ public class LuceneLabelScanStore
     @Override
     public ResourceIterator<File> snapshotStoreFiles() throws IOException
     {
-        return new LuceneSnapshotter().snapshot( directoryLocation, writer );
+        List<ResourceIterator<File>> snapshots = new ArrayList<>();
+        for ( Partition partition : partitions() )
+        {
+            snapshots.add( new LuceneSnapshotter().snapshot( partition.location, partition.writer ) );
+        }
+        return concatResourceIterators( snapshots.iterator() );
     }
 
     @Override
     public void init() throws IOException
     {
         monitor.init();
-        directory = directoryFactory.open( directoryLocation );
         if ( !indexExists() )
         {   // This is the first time we start up this scan store, prepare to rebuild from scratch later.
             monitor.noIndex();
             prepareRebuildOfIndex();
         }
 
+        List<Partition> opened = new ArrayList<>();
         try
         {
-            // Try to open it, this will throw exception if index is corrupt.
+            // Try to open them, this will throw exception if an index is corrupt.
             // Opening it directly using the writer may hide corruption problems.
-            IndexReader.open( directory ).close();
-
-            writer = writerFactory.create( directory );
+            for ( int index : existingPartitions() )
+            {
+                Partition partition = new Partition( index );
+                partition.open( true );
+                opened.add( partition );
+            }
         }
         catch ( IndexNotFoundException e )
         {
-            // No index present, create one
+            // No index present, create one. All partitions are rebuilt together.
             monitor.noIndex();
+            for ( Partition partition : opened )
+            {
+                partition.close();
+            }
             prepareRebuildOfIndex();
-            writer = writerFactory.create( directory );
+            Partition partition = new Partition( 0 );
+            partition.open( false );
+            opened = Collections.singletonList( partition );
         }
         catch ( LockObtainFailedException e )
         {
@@ -270,7 +357,13 @@ public class LuceneLabelScanStore
                     "To trigger a rebuild, ensure the database is stopped, delete the files in '" +
                     directoryLocation.getAbsolutePath() + "', and then start the database again." );
         }
-        searcherManager = new SearcherManager( writer, true, new SearcherFactory() );
+
+        Partition[] partitions = new Partition[opened.get( opened.size() - 1 ).index + 1];
+        for ( Partition partition : opened )
+        {
+            partitions[partition.index] = partition;
+        }
+        this.partitions = partitions;
     }
 
     @Override
@@ -305,16 +398,90 @@ public class LuceneLabelScanStore
     @Override
     public void shutdown() throws IOException
     {
-        searcherManager.close();
-        writer.close( true );
-        directory.close();
-        directory = null;
+        for ( Partition partition : partitions() )
+        {
+            partition.close();
+        }
+        partitions = new Partition[0];
     }
 
+    /**
+     * Acquire a writer for updating the store. Writers may be used concurrently. Each one holds the lock of the
+     * partition it currently writes to, so writes to different partitions proceed in parallel.
+     */
     @Override
     public LabelScanWriter newWriter()
     {
-        return strategy.acquireWriter( this );
+        return new PartitionedWriter();
+    }
+
+    private int partitionOf( long nodeId )
+    {
+        return (int) (nodeId / nodesPerPartition);
+    }
+
+    private List<Partition> partitions()
+    {
+        List<Partition> result = new ArrayList<>();
+        for ( Partition partition : partitions )
+        {
+            if ( partition != null )
+            {
+                result.add( partition );
+            }
+        }
+        return result;
+    }
+
+    private Partition partition( int index ) throws IOException
+    {
+        Partition[] partitions = this.partitions;
+        if ( index < partitions.length && partitions[index] != null )
+        {
+            return partitions[index];
+        }
+
+        synchronized ( this )
+        {
+            partitions = this.partitions;
+            if ( index < partitions.length && partitions[index] != null )
+            {
+                return partitions[index];
+            }
+
+            Partition partition = new Partition( index );
+            partition.open( false );
+            Partition[] grown = new Partition[Math.max( partitions.length, index + 1 )];
+            System.arraycopy( partitions, 0, grown, 0, partitions.length );
+            grown[index] = partition;
+            this.partitions = grown;
+            return partition;
+        }
+    }
+
+    private List<Integer> existingPartitions()
+    {
+        List<Integer> indexes = new ArrayList<>();
+        indexes.add( 0 );
+        File[] files = fs.listFiles( directoryLocation );
+        if ( files != null )
+        {
+            for ( File file : files )
+            {
+                String name = file.getName();
+                if ( fs.isDirectory( file ) && name.startsWith( PARTITION_DIRECTORY_PREFIX ) )
+                {
+                    indexes.add( Integer.parseInt( name.substring( PARTITION_DIRECTORY_PREFIX.length() ) ) );
+                }
+            }
+        }
+        Collections.sort( indexes );
+        return indexes;
+    }
+
+    private File partitionLocation( int index )
+    {
+        return index == 0 ? directoryLocation : new File( directoryLocation, PARTITION_DIRECTORY_PREFIX + index );
     }
 
     private boolean indexExists()
@@ -329,10 +496,163 @@ public class LuceneLabelScanStore
 
     private void prepareRebuildOfIndex() throws IOException
     {
-        directory.close();
         fs.deleteRecursively( directoryLocation );
         fs.mkdirs( directoryLocation );
         needsRebuild = true;
-        directory = directoryFactory.open( directoryLocation );
+    }
+
+    /**
+     * The Lucene index holding the documents for one range of node ids.
+     */
+    private class Partition implements LabelScanStorageStrategy.StorageService
+    {
+        private final int index;
+        private final File location;
+        // Held by a writer for as long as it writes to this partition
+        private final Lock lock = new ReentrantLock();
+        private final AtomicLong uncommitted = new AtomicLong();
+        private Directory directory;
+        private IndexWriter writer;
+        private SearcherManager searcherManager;
+
+        Partition( int index )
+        {
+            this.index = index;
+            this.location = partitionLocation( index );
+        }
+
+        void open( boolean verify ) throws IOException
+        {
+            if ( index > 0 )
+            {
+                fs.mkdirs( location );
+            }
+            directory = directoryFactory.open( location );
+            if ( verify )
+            {
+                IndexReader.open( directory ).close();
+            }
+            writer = writerFactory.create( directory );
+            searcherManager = new SearcherManager( writer, true, new SearcherFactory() );
+        }
+
+        void written()
+        {
+            uncommitted.incrementAndGet();
+            uncommittedUpdates.incrementAndGet();
+        }
+
+        void commit() throws IOException
+        {
+            long updates = uncommitted.getAndSet( 0 );
+            writer.commit();
+            uncommittedUpdates.addAndGet( -updates );
+        }
+
+        void close() throws IOException
+        {
+            if ( searcherManager != null )
+            {
+                searcherManager.close();
+            }
+            if ( writer != null )
+            {
+                writer.close( true );
+            }
+            directory.close();
+        }
+
+        @Override
+        public void deleteDocuments( Term documentTerm ) throws IOException
+        {
+            writer.deleteDocuments( documentTerm );
+        }
+
+        @Override
+        public void updateDocument( Term documentTerm, Document document ) throws IOException
+        {
+            writer.updateDocument( documentTerm, document );
+        }
+
+        @Override
+        public IndexSearcher acquireSearcher()
+        {
+            return searcherManager.acquire();
+        }
+
+        @Override
+        public void refreshSearcher() throws IOException
+        {
+            searcherManager.maybeRefresh();
+        }
+
+        @Override
+        public void releaseSearcher( IndexSearcher searcher ) throws IOException
+        {
+            searcherManager.release( searcher );
+        }
+    }
+
+    /**
+     * Writes each update to the partition of its node. Updates come in order of ascending node id, so a writer
+     * moves through the partitions in order and never holds more than one partition lock at a time.
+     */
+    private class PartitionedWriter implements LabelScanWriter
+    {
+        private Partition partition;
+        private LabelScanWriter writer;
+
+        @Override
+        public void write( NodeLabelUpdate update ) throws IOException
+        {
+            int index = partitionOf( update.getNodeId() );
+            if ( partition == null || partition.index != index )
+            {
+                if ( partition != null && index < partition.index )
+                {
+                    throw new IllegalArgumentException(
+                            "NodeLabelUpdates must be supplied in order of ascending node id" );
+                }
+
+                closePartitionWriter();
+                Partition next = partition( index );
+                next.lock.lock();
+                partition = next;
+                writer = strategy.acquireWriter( partition );
+            }
+            writer.write( update );
+            partition.written();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            closePartitionWriter();
+        }
+
+        private void closePartitionWriter() throws IOException
+        {
+            if ( partition == null )
+            {
+                return;
+            }
+            try
+            {
+                if ( writer != null )
+                {
+                    writer.close();
+                }
+                if ( uncommittedUpdates.get() > maxUncommittedUpdates )
+                {
+                    partition.commit();
+                }
+            }
+            finally
+            {
+                partition.lock.unlock();
+                partition = null;
+                writer = null;
+            }
+        }
     }
 }
@@ -24,14 +24,15 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.document.NumericField;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.kernel.api.direct.AllEntriesLabelScanReader;
+import org.neo4j.kernel.api.direct.BoundedIterable;
 import org.neo4j.kernel.api.impl.index.bitmaps.BitmapFormat;
 import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 
@@ -40,7 +41,7 @@ import static org.neo4j.helpers.collection.IteratorUtil.emptyIterator;
 
 /**
  * {@link org.neo4j.kernel.api.labelscan.LabelScanStore} implemented using Lucene. There's only one big index for all labels
- * because the Lucene document structure handles that quite efficiently.
+ * in each partition of node ids because the Lucene document structure handles that quite efficiently.
  *
  * With {@link BitmapFormat#_32 32bit bitmaps} it would look as follows:
  *
@@ -89,9 +90,9 @@ public class NodeRangeDocumentLabelScanStorageStrategy implements LabelScanStora
     }
 
     @Override
-    public AllEntriesLabelScanReader newNodeLabelReader( SearcherManager searcherManager )
+    public AllEntriesLabelScanReader newNodeLabelReader( BoundedIterable<Document> documents )
     {
-        return new LuceneAllEntriesLabelScanReader( new LuceneAllDocumentsReader( searcherManager ), format );
+        return new LuceneAllEntriesLabelScanReader( documents, format );
     }
 
     @Override
@@ -120,7 +120,44 @@ public class LuceneIndexAccessorTest
         reader.close();
     }
 
-    private final long nodeId = 1, nodeId2 = 2;
+    @Test
+    public void canSeekRangesOfNumbers() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( nodeId, -5 ),
+                add( nodeId2, 40 ),
+                add( nodeId3, 40.5d ),
+                add( nodeId4, "40" ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asSet( nodeId2, nodeId3 ), asUniqueSet( reader.rangeSeekByNumber( 0, true, null, false ) ) );
+        assertEquals( asSet( nodeId3 ), asUniqueSet( reader.rangeSeekByNumber( 40, false, 41, true ) ) );
+        assertEquals( asSet( nodeId, nodeId2 ), asUniqueSet( reader.rangeSeekByNumber( null, false, 40, true ) ) );
+        assertEquals( asSet( nodeId ), asUniqueSet( reader.rangeSeekByNumber( null, false, 40, false ) ) );
+        reader.close();
+    }
+
+    @Test
+    public void canSeekStringsByPrefix() throws Exception
+    {
+        // GIVEN
+        updateAndCommit( asList(
+                add( nodeId, "Andreas" ),
+                add( nodeId2, "Andrew" ),
+                add( nodeId3, "Anna" ),
+                add( nodeId4, 40 ) ) );
+        IndexReader reader = accessor.newReader();
+
+        // THEN
+        assertEquals( asSet( nodeId, nodeId2 ), asUniqueSet( reader.rangeSeekByPrefix( "Andr" ) ) );
+        assertEquals( asSet( nodeId, nodeId2, nodeId3 ), asUniqueSet( reader.rangeSeekByPrefix( "An" ) ) );
+        assertEquals( emptySetOf( Long.class ), asUniqueSet( reader.rangeSeekByPrefix( "4" ) ) );
+        reader.close();
+    }
+
+    private final long nodeId = 1, nodeId2 = 2, nodeId3 = 3, nodeId4 = 4;
     private final Object value = "value", value2 = 40;
     private final LuceneDocumentStructure documentLogic = new LuceneDocumentStructure();
     private final IndexWriterStatus writerLogic = new IndexWriterStatus();
@@ -33,7 +33,12 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.LockObtainFailedException;
 import org.junit.After;
 import org.junit.Before;
@@ -58,6 +63,7 @@ import org.neo4j.unsafe.batchinsert.LabelScanWriter;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
@@ -366,6 +372,88 @@ public class LuceneLabelScanStoreTest
         reader.close();
     }
 
+    @Test
+    public void shouldKeepNodesInPartitionsByNodeId() throws Exception
+    {
+        // GIVEN
+        usePartitionsOf( 128 );
+        int labelId1 = 1, labelId2 = 2;
+        long nodeId1 = 10, nodeId2 = 130, nodeId3 = 1000;
+        start( asList(
+                labelChanges( nodeId1, NO_LABELS, new long[] { labelId1 } ),
+                labelChanges( nodeId2, NO_LABELS, new long[] { labelId1, labelId2 } ),
+                labelChanges( nodeId3, NO_LABELS, new long[] { labelId2 } )
+        ) );
+
+        // WHEN
+        LabelScanReader reader = store.newReader();
+
+        // THEN
+        assertTrue( new File( dir, "partition-1" ).isDirectory() );
+        assertTrue( new File( dir, "partition-7" ).isDirectory() );
+        assertFalse( new File( dir, "partition-2" ).exists() );
+        assertThat( asSet( reader.labelsForNode( nodeId2 ) ), hasItems( (long) labelId1, (long) labelId2 ) );
+        reader.close();
+        assertNodesForLabel( labelId1, nodeId1, nodeId2 );
+        assertNodesForLabel( labelId2, nodeId2, nodeId3 );
+    }
+
+    @Test
+    public void shouldCommitPartitionsLeftBehindWhenTooManyUpdatesAreUncommitted() throws Exception
+    {
+        // GIVEN
+        usePersistentDirectory();
+        usePartitionsOf( 128 );
+        allowUncommittedUpdates( 0 );
+        start();
+
+        // WHEN
+        write( iterator(
+                labelChanges( 10, NO_LABELS, new long[] { 1 } ),
+                labelChanges( 130, NO_LABELS, new long[] { 1 } ) ) );
+
+        // THEN
+        try ( IndexReader committed = IndexReader.open( FSDirectory.open( dir ) ) )
+        {
+            assertEquals( 1, committed.numDocs() );
+        }
+        assertNodesForLabel( 1, 10, 130 );
+    }
+
+    @Test
+    public void shouldNotBlockWritersOfDifferentPartitions() throws Exception
+    {
+        // GIVEN
+        usePartitionsOf( 128 );
+        final int labelId = 1;
+        start();
+        LabelScanWriter firstWriter = store.newWriter();
+        firstWriter.write( labelChanges( 10, NO_LABELS, new long[] { labelId } ) );
+
+        // WHEN
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            executor.submit( new Callable<Void>()
+            {
+                @Override
+                public Void call() throws Exception
+                {
+                    write( iterator( labelChanges( 200, NO_LABELS, new long[] { labelId } ) ) );
+                    return null;
+                }
+            } ).get( 10, SECONDS );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        firstWriter.close();
+
+        // THEN
+        assertNodesForLabel( labelId, 10, 200 );
+    }
+
     private Set<Long> gaps( Set<Long> ids, int expectedCount )
     {
         Set<Long> gaps = new HashSet<>();
@@ -419,6 +507,8 @@ public class LuceneLabelScanStoreTest
     private final File dir = TargetDirectory.forTest( getClass() ).cleanDirectory( "lucene" );
     private final Random random = new Random();
     private DirectoryFactory directoryFactory = new DirectoryFactory.InMemoryDirectoryFactory();
+    private long nodesPerPartition = LuceneLabelScanStore.DEFAULT_NODES_PER_PARTITION;
+    private long maxUncommittedUpdates = LuceneLabelScanStore.DEFAULT_MAX_UNCOMMITTED_UPDATES;
     private LifeSupport life;
     private TrackingMonitor monitor;
     private LuceneLabelScanStore store;
@@ -433,6 +523,16 @@ public class LuceneLabelScanStoreTest
         directoryFactory = DirectoryFactory.PERSISTENT;
     }
 
+    private void usePartitionsOf( long nodesPerPartition )
+    {
+        this.nodesPerPartition = nodesPerPartition;
+    }
+
+    private void allowUncommittedUpdates( long maxUncommittedUpdates )
+    {
+        this.maxUncommittedUpdates = maxUncommittedUpdates;
+    }
+
     private void start()
     {
         start( noData() );
@@ -445,7 +545,7 @@ public class LuceneLabelScanStoreTest
         store = life.add( new LuceneLabelScanStore(
                 strategy,
                 directoryFactory, dir, new DefaultFileSystemAbstraction(), standard(), asStream( existingData ),
-                monitor ) );
+                monitor, nodesPerPartition, maxUncommittedUpdates ) );
         life.start();
         assertTrue( monitor.initCalled );
     }
@@ -97,6 +97,8 @@ import static org.neo4j.kernel.impl.util.JobScheduler.Group.serverTransactionTim
 import static org.neo4j.server.configuration.Configurator.DATABASE_LOCATION_PROPERTY_KEY;
 import static org.neo4j.server.configuration.Configurator.DEFAULT_DATABASE_LOCATION_PROPERTY_KEY;
 import static org.neo4j.server.configuration.Configurator.DEFAULT_SCRIPT_SANDBOXING_ENABLED;
+import static org.neo4j.server.configuration.Configurator.BOOKMARK_TIMEOUT;
+import static org.neo4j.server.configuration.Configurator.DEFAULT_BOOKMARK_TIMEOUT;
 import static org.neo4j.server.configuration.Configurator.DEFAULT_TRANSACTION_TIMEOUT;
 import static org.neo4j.server.configuration.Configurator.SCRIPT_SANDBOXING_ENABLED_KEY;
 import static org.neo4j.server.configuration.Configurator.TRANSACTION_TIMEOUT;
@@ -308,7 +310,9 @@ public abstract class AbstractNeoServer implements NeoServer
                 new TransitionalPeriodTransactionMessContainer( database.getGraph() ),
                 new ServerExecutionEngine( database.getGraph(), logging.getMessagesLog( ExecutionEngine.class ) ),
                 transactionRegistry,
-                baseUri(), logging.getMessagesLog( TransactionFacade.class )
+                baseUri(),
+                SECONDS.toMillis( configurator.configuration().getInt( BOOKMARK_TIMEOUT, DEFAULT_BOOKMARK_TIMEOUT ) ),
+                logging.getMessagesLog( TransactionFacade.class )
         );
     }
 
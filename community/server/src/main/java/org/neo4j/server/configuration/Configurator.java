@@ -110,6 +110,9 @@ public interface Configurator
     String TRANSACTION_TIMEOUT = "org.neo4j.server.transaction.timeout";
     int DEFAULT_TRANSACTION_TIMEOUT = 60/*seconds*/;
 
+    String BOOKMARK_TIMEOUT = "org.neo4j.server.transaction.bookmark_timeout";
+    int DEFAULT_BOOKMARK_TIMEOUT = 10/*seconds*/;
+
     Configuration configuration();
 
     Map<String, String> getDatabaseTuningProperties();
@@ -88,6 +88,24 @@ public class ExecutionResultSerializer
         }
     }
 
+    /**
+     * Will get called at most once, after a successful commit. The bookmark is the id of the last transaction
+     * committed on this instance, which clients can hand back to this or another instance to make sure they see
+     * their own writes. This method is not allowed to throw exceptions.
+     */
+    public void transactionBookmark( long lastCommittedTxId )
+    {
+        try
+        {
+            ensureResultsFieldClosed();
+            out.writeNumberField( "bookmark", lastCommittedTxId );
+        }
+        catch ( IOException e )
+        {
+            loggedIOException( e );
+        }
+    }
+
     /**
      * Will get called at most once per statement. Throws IOException so that upstream executor can decide whether
      * to execute further statements.
@@ -21,6 +21,7 @@ package org.neo4j.server.rest.transactional;
 
 import org.neo4j.cypher.javacompat.internal.ServerExecutionEngine;
 import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.server.rest.transactional.error.BookmarkTimeout;
 import org.neo4j.server.rest.transactional.error.TransactionLifecycleException;
 import org.neo4j.server.rest.web.TransactionUriScheme;
 
@@ -28,6 +29,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Transactional actions contains the business logic for executing statements against Neo4j across long-running
@@ -56,13 +60,16 @@ public class TransactionFacade
     private final TransactionRegistry registry;
     private final StringLogger log;
     private final URI baseUri;
+    private final long bookmarkTimeoutMillis;
 
     public TransactionFacade( TransitionalPeriodTransactionMessContainer kernel, ServerExecutionEngine engine,
-                              TransactionRegistry registry, URI baseUri, StringLogger log )
+                              TransactionRegistry registry, URI baseUri, long bookmarkTimeoutMillis,
+                              StringLogger log )
     {
         this.kernel = kernel;
         this.engine = engine;
         this.registry = registry;
+        this.bookmarkTimeoutMillis = bookmarkTimeoutMillis;
         this.log = log;
         try {
           this.baseUri = new URI(baseUri+"db/data");
@@ -76,6 +83,27 @@ public class TransactionFacade
         return new TransactionHandle( kernel, engine, registry, uriScheme, log );
     }
 
+    /**
+     * Blocks until the transaction with the given id, as handed out in the "bookmark" field of a previous
+     * commit, is visible on this instance.
+     */
+    public void awaitBookmark( long txId ) throws TransactionLifecycleException
+    {
+        try
+        {
+            kernel.awaitTransactionId( txId, bookmarkTimeoutMillis, MILLISECONDS );
+        }
+        catch ( TimeoutException e )
+        {
+            throw new BookmarkTimeout( txId, e );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new BookmarkTimeout( txId, e );
+        }
+    }
+
     public TransactionHandle findTransactionHandle( long txId ) throws TransactionLifecycleException
     {
         return registry.acquire( txId );
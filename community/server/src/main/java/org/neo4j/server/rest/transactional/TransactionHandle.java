@@ -161,6 +161,10 @@ public class TransactionHandle implements TransactionTerminationHandle
         }
         finally
         {
+            if ( errors.isEmpty() )
+            {
+                output.transactionBookmark( txManagerFacade.lastCommittedTransactionId() );
+            }
             output.errors( errors );
             output.finish();
         }
@@ -19,19 +19,25 @@
  */
 package org.neo4j.server.rest.transactional;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.api.TransactionIdAwaiter;
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 
 public class TransitionalPeriodTransactionMessContainer
 {
     private final GraphDatabaseAPI db;
     private final ThreadToStatementContextBridge txBridge;
+    private final TransactionIdAwaiter txIdAwaiter;
 
     public TransitionalPeriodTransactionMessContainer( GraphDatabaseAPI db )
     {
         this.db = db;
         this.txBridge = db.getDependencyResolver().resolveDependency( ThreadToStatementContextBridge.class );
+        this.txIdAwaiter = db.getDependencyResolver().resolveDependency( TransactionIdAwaiter.class );
     }
 
     public TransitionalTxManagementKernelTransaction newTransaction()
@@ -44,4 +50,15 @@ public class TransitionalPeriodTransactionMessContainer
         return new TransitionalTxManagementKernelTransaction( txInterruptor, txBridge );
     }
 
+    public long lastCommittedTransactionId()
+    {
+        return txIdAwaiter.lastCommittedTransactionId();
+    }
+
+    public void awaitTransactionId( long txId, long timeout, TimeUnit unit )
+            throws TimeoutException, InterruptedException
+    {
+        txIdAwaiter.awaitTransactionId( txId, timeout, unit );
+    }
+
 }
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -41,6 +42,7 @@ import org.neo4j.server.rest.transactional.ExecutionResultSerializer;
 import org.neo4j.server.rest.transactional.TransactionFacade;
 import org.neo4j.server.rest.transactional.TransactionHandle;
 import org.neo4j.server.rest.transactional.TransactionTerminationHandle;
+import org.neo4j.server.rest.transactional.error.BookmarkTimeout;
 import org.neo4j.server.rest.transactional.error.Neo4jError;
 import org.neo4j.server.rest.transactional.error.TransactionLifecycleException;
 
@@ -54,6 +56,12 @@ import static java.util.Arrays.asList;
 @Path("/transaction")
 public class TransactionalService
 {
+    /**
+     * Clients may pass the "bookmark" of an earlier commit in this header when beginning a transaction, to make
+     * sure that the transaction sees what was committed, even if it runs against another instance in a cluster.
+     */
+    public static final String BOOKMARK_HEADER = "X-Neo4j-Bookmark";
+
     private final TransactionFacade facade;
     private final TransactionUriScheme uriScheme;
 
@@ -66,10 +74,12 @@ public class TransactionalService
     @POST
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
-    public Response executeStatementsInNewTransaction( final InputStream input )
+    public Response executeStatementsInNewTransaction( @HeaderParam(BOOKMARK_HEADER) final Long bookmark,
+                                                       final InputStream input )
     {
         try
         {
+            awaitBookmark( bookmark );
             TransactionHandle transactionHandle = facade.newTransactionHandle( uriScheme );
             return createdResponse( transactionHandle, executeStatements( input, transactionHandle ) );
         }
@@ -119,11 +129,13 @@ public class TransactionalService
     @Path("/commit")
     @Consumes({MediaType.APPLICATION_JSON})
     @Produces({MediaType.APPLICATION_JSON})
-    public Response commitNewTransaction( final InputStream input )
+    public Response commitNewTransaction( @HeaderParam(BOOKMARK_HEADER) final Long bookmark,
+                                          final InputStream input )
     {
         final TransactionHandle transactionHandle;
         try
         {
+            awaitBookmark( bookmark );
             transactionHandle = facade.newTransactionHandle( uriScheme );
         }
         catch ( TransactionLifecycleException e )
@@ -151,9 +163,18 @@ public class TransactionalService
         return okResponse( rollback( transactionHandle ) );
     }
 
+    private void awaitBookmark( Long bookmark ) throws TransactionLifecycleException
+    {
+        if ( bookmark != null )
+        {
+            facade.awaitBookmark( bookmark );
+        }
+    }
+
     private Response invalidTransaction( TransactionLifecycleException e )
     {
-        return Response.status( Response.Status.NOT_FOUND )
+        return Response.status( e instanceof BookmarkTimeout ? Response.Status.SERVICE_UNAVAILABLE
+                                                             : Response.Status.NOT_FOUND )
                 .entity( serializeError( e.toNeo4jError() ) )
                 .build();
     }
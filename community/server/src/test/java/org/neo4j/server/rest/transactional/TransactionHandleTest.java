@@ -175,6 +175,7 @@ public class TransactionHandleTest
 
         InOrder outputOrder = inOrder( output );
         outputOrder.verify( output ).statementResult( null, false, (ResultDataContent[]) null );
+        outputOrder.verify( output ).transactionBookmark( anyLong() );
         outputOrder.verify( output ).errors( argThat( hasNoErrors() ) );
         outputOrder.verify( output ).finish();
         verifyNoMoreInteractions( output );
@@ -193,6 +194,7 @@ public class TransactionHandleTest
         ExtendedExecutionResult result = mock( ExtendedExecutionResult.class );
         when( engine.execute( "query", map() ) ).thenReturn( result );
         when( registry.begin( any( TransactionHandle.class ) ) ).thenReturn( 1337l );
+        when( kernel.lastCommittedTransactionId() ).thenReturn( 42l );
         TransactionHandle handle = new TransactionHandle( kernel, engine,
                                                           registry, uriScheme, StringLogger.DEV_NULL );
         ExecutionResultSerializer output = mock( ExecutionResultSerializer.class );
@@ -208,6 +210,7 @@ public class TransactionHandleTest
 
         InOrder outputOrder = inOrder( output );
         outputOrder.verify( output ).statementResult( result, false, (ResultDataContent[])null );
+        outputOrder.verify( output ).transactionBookmark( 42l );
         outputOrder.verify( output ).errors( argThat( hasNoErrors() ) );
         outputOrder.verify( output ).finish();
         verifyNoMoreInteractions( output );
@@ -19,6 +19,8 @@
  */
 package org.neo4j.backup;
 
+import java.io.IOException;
+
 import org.jboss.netty.buffer.ChannelBuffer;
 
 import org.neo4j.com.Client;
@@ -28,8 +30,10 @@ import org.neo4j.com.ProtocolVersion;
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.RequestType;
 import org.neo4j.com.Response;
+import org.neo4j.com.Serializer;
 import org.neo4j.com.TargetCaller;
 import org.neo4j.com.monitor.RequestMonitor;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.com.storecopy.ToNetworkStoreWriter;
 import org.neo4j.kernel.impl.nioneo.store.StoreId;
@@ -65,6 +69,19 @@ class BackupClient extends Client<TheBackupInterface> implements TheBackupInterf
                 Protocol.VOID_DESERIALIZER );
     }
 
+    @Override
+    public Response<Void> changedPagesBackup( final StoreFileChecksums knownChecksums, StoreWriter storeWriter )
+    {
+        return sendRequest( BackupRequestType.CHANGED_PAGES_BACKUP, RequestContext.EMPTY, new Serializer()
+        {
+            @Override
+            public void write( ChannelBuffer buffer ) throws IOException
+            {
+                knownChecksums.serialize( buffer );
+            }
+        }, new Protocol.FileStreamsDeserializer( storeWriter ) );
+    }
+
     @Override
     protected boolean shouldCheckStoreId( RequestType<TheBackupInterface> type )
     {
@@ -90,6 +107,16 @@ class BackupClient extends Client<TheBackupInterface> implements TheBackupInterf
             {
                 return master.incrementalBackup( context );
             }
+        }, Protocol.VOID_SERIALIZER ),
+        CHANGED_PAGES_BACKUP( new TargetCaller<TheBackupInterface, Void>()
+        {
+            @Override
+            public Response<Void> call( TheBackupInterface master, RequestContext context,
+                    ChannelBuffer input, ChannelBuffer target )
+            {
+                return master.changedPagesBackup( StoreFileChecksums.deserialize( input ),
+                        new ToNetworkStoreWriter( target, new Monitors() ) );
+            }
         }, Protocol.VOID_SERIALIZER )
 
         ;
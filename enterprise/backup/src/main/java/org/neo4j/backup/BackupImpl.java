@@ -23,6 +23,7 @@ import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.com.storecopy.ResponsePacker;
 import org.neo4j.com.storecopy.StoreCopyServer;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
@@ -74,6 +75,23 @@ class BackupImpl implements TheBackupInterface
         }
     }
 
+    @Override
+    public Response<Void> changedPagesBackup( StoreFileChecksums knownChecksums, StoreWriter writer )
+    {
+        try ( StoreWriter storeWriter = writer )
+        {
+            backupMonitor.startCopyingFiles();
+            RequestContext copyStartContext = storeCopyServer.flushStoresAndStreamChangedPages( storeWriter,
+                    knownChecksums );
+            ResponsePacker responsePacker = new StoreCopyResponsePacker( logicalTransactionStore,
+                    transactionIdStore, logFileInformation, db,
+                    copyStartContext.lastAppliedTransaction() + 1 ); // mandatory transaction id
+            long optionalTransactionId = boBackACoupleOfTransactionsIfRequired(
+                    copyStartContext.lastAppliedTransaction() ); // optional transaction id
+            return responsePacker.packResponse( anonymous( optionalTransactionId ), null/*no response object*/ );
+        }
+    }
+
     private long boBackACoupleOfTransactionsIfRequired( long transactionWhenStartingCopy )
     {
         int atLeast = 10;
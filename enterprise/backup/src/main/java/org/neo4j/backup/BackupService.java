@@ -32,6 +32,7 @@ import org.neo4j.com.Response;
 import org.neo4j.com.monitor.RequestMonitor;
 import org.neo4j.com.storecopy.ResponseUnpacker.TxHandler;
 import org.neo4j.com.storecopy.StoreCopyClient;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.com.storecopy.TransactionCommittingResponseUnpacker;
 import org.neo4j.consistency.ConsistencyCheckService;
@@ -54,6 +55,7 @@ import org.neo4j.kernel.configuration.ConfigParam;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.nioneo.store.MismatchingStoreIdException;
 import org.neo4j.kernel.impl.nioneo.store.NeoStore;
+import org.neo4j.kernel.impl.nioneo.store.StoreId;
 import org.neo4j.kernel.impl.nioneo.store.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.xaframework.MissingLogDataException;
@@ -173,23 +175,112 @@ class BackupService
         bumpMessagesDotLogFile( targetDirectory, timestamp );
         if ( checkConsistency )
         {
-            try
-            {
-                consistent = new ConsistencyCheckService().runFullConsistencyCheck( targetDirectory,
-                        tuningConfiguration, ProgressMonitorFactory.textual( System.err ), logger ).isSuccessful();
-            }
-            catch ( ConsistencyCheckIncompleteException e )
-            {
-                logger.error( "Consistency check incomplete", e );
-            }
-            finally
+            consistent = checkConsistency( targetDirectory, tuningConfiguration );
+        }
+        return new BackupOutcome( lastCommittedTx, consistent );
+    }
+
+    /**
+     * Brings an existing backup up to date by copying only the store file pages that differ from the
+     * source database, as opposed to replaying transactions. This works even if the source no longer has
+     * the transaction logs needed for {@link #doIncrementalBackup(String, int, String, boolean) an incremental
+     * backup}, at the cost of reading all store files on both sides to compare page checksums.
+     */
+    BackupOutcome doChangedPagesBackup( final String sourceHostNameOrIp, final int sourcePort, String targetDirectory,
+            boolean checkConsistency, Config tuningConfiguration )
+    {
+        if ( !directoryContainsDb( targetDirectory ) )
+        {
+            throw new RuntimeException( targetDirectory + " doesn't contain a database" );
+        }
+        Map<String, String> params = tuningConfiguration.getParams();
+        params.put( GraphDatabaseSettings.store_dir.name(), targetDirectory );
+        tuningConfiguration.applyChanges( params );
+        long timestamp = System.currentTimeMillis();
+        boolean consistent = !checkConsistency; // default to true if we're not checking consistency
+
+        // Starting the existing backup makes sure it's recovered before its pages are compared
+        GraphDatabaseAPI targetDb = startTemporaryDb( targetDirectory );
+        final StoreId storeId = targetDb.storeId();
+        targetDb.shutdown();
+        try
+        {
+            StoreCopyClient storeCopier = new StoreCopyClient( tuningConfiguration, loadKernelExtensions(),
+                    new ConsoleLogger( StringLogger.SYSTEM ), new DevNullLoggingService(), fileSystem );
+            storeCopier.copyChangedPages( new StoreCopyClient.StoreDiffRequester()
             {
-                logger.flush();
-            }
+                private BackupClient client;
+
+                @Override
+                public Response<?> copyChangedPages( StoreFileChecksums knownChecksums, StoreWriter writer )
+                {
+                    Monitors monitors = new Monitors();
+                    client = new BackupClient( sourceHostNameOrIp, sourcePort, new DevNullLoggingService(), storeId,
+                            monitors.newMonitor( ByteCounterMonitor.class ),
+                            monitors.newMonitor( RequestMonitor.class ) );
+                    client.start();
+                    return client.changedPagesBackup( knownChecksums, writer );
+                }
+
+                @Override
+                public void done()
+                {
+                    if ( client != null )
+                    {
+                        client.stop();
+                    }
+                }
+            } );
+        }
+        catch ( MismatchingStoreIdException e )
+        {
+            throw new RuntimeException( DIFFERENT_STORE, e );
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+        long lastCommittedTx = lastCommittedTxOf( targetDirectory );
+        bumpMessagesDotLogFile( targetDirectory, timestamp );
+        if ( checkConsistency )
+        {
+            consistent = checkConsistency( targetDirectory, tuningConfiguration );
         }
         return new BackupOutcome( lastCommittedTx, consistent );
     }
 
+    private static long lastCommittedTxOf( String targetDirectory )
+    {
+        GraphDatabaseAPI targetDb = startTemporaryDb( targetDirectory );
+        try
+        {
+            return targetDb.getDependencyResolver().resolveDependency( TransactionIdStore.class )
+                    .getLastCommittedTransactionId();
+        }
+        finally
+        {
+            targetDb.shutdown();
+        }
+    }
+
+    private boolean checkConsistency( String targetDirectory, Config tuningConfiguration )
+    {
+        try
+        {
+            return new ConsistencyCheckService().runFullConsistencyCheck( targetDirectory,
+                    tuningConfiguration, ProgressMonitorFactory.textual( System.err ), logger ).isSuccessful();
+        }
+        catch ( ConsistencyCheckIncompleteException e )
+        {
+            logger.error( "Consistency check incomplete", e );
+            return false;
+        }
+        finally
+        {
+            logger.flush();
+        }
+    }
+
     BackupOutcome doIncrementalBackup( String sourceHostNameOrIp, int sourcePort, String targetDirectory,
             boolean verification ) throws IncrementalBackupNotPossibleException
     {
@@ -236,8 +327,18 @@ class BackupService
         {
             try
             {
-                // Our existing backup is out of date.
-                logger.info( "Existing backup is too far out of date, a new full backup will be performed." );
+                // Our existing backup is out of date, but most of its pages are likely still the same.
+                logger.info( "Existing backup is too far out of date, changed store pages will be copied." );
+                return doChangedPagesBackup( sourceHostNameOrIp, sourcePort, targetDirectory, verification, config );
+            }
+            catch ( RuntimeException changedPagesFailure )
+            {
+                logger.warn( "Failed to copy changed store pages.", changedPagesFailure );
+            }
+
+            try
+            {
+                logger.info( "A new full backup will be performed." );
                 File targetDirFile = new File( targetDirectory );
                 FileUtils.deleteRecursively( targetDirFile );
                 return doFullBackup( sourceHostNameOrIp, sourcePort, targetDirFile.getAbsolutePath(), verification,
@@ -21,6 +21,7 @@ package org.neo4j.backup;
 
 import org.neo4j.com.Response;
 import org.neo4j.com.RequestContext;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 
 public interface TheBackupInterface
@@ -28,4 +29,6 @@ public interface TheBackupInterface
     Response<Void> fullBackup( StoreWriter writer );
     
     Response<Void> incrementalBackup( RequestContext context );
+
+    Response<Void> changedPagesBackup( StoreFileChecksums knownChecksums, StoreWriter writer );
 }
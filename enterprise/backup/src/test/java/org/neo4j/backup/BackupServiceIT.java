@@ -366,12 +366,15 @@ public class BackupServiceIT
         db = deleteLogFilesAndRestart( config, db );
 
         // when
-        backupService.doIncrementalBackupOrFallbackToFull(
+        BackupService.BackupOutcome outcome = backupService.doIncrementalBackupOrFallbackToFull(
                 BACKUP_HOST, backupPort, backupDir.getAbsolutePath(), false, defaultConfig() );
 
         // Then
+        long lastCommittedTx = db.getDependencyResolver().resolveDependency( TransactionIdStore.class )
+                .getLastCommittedTransactionId();
         db.shutdown();
         assertEquals( DbRepresentation.of( storeDir ), DbRepresentation.of( backupDir ) );
+        assertEquals( lastCommittedTx, outcome.getLastCommittedTx() );
     }
 
     private GraphDatabaseAPI deleteLogFilesAndRestart( Map<String, String> config, GraphDatabaseAPI db )
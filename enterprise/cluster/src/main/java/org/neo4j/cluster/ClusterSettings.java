@@ -28,6 +28,7 @@ import org.neo4j.helpers.HostnamePort;
 import static org.neo4j.helpers.Settings.ANY;
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.DURATION;
+import static org.neo4j.helpers.Settings.FALSE;
 import static org.neo4j.helpers.Settings.HOSTNAME_PORT;
 import static org.neo4j.helpers.Settings.MANDATORY;
 import static org.neo4j.helpers.Settings.STRING;
@@ -81,6 +82,11 @@ public class ClusterSettings
     public static final Setting<HostnamePort> cluster_server = setting( "ha.cluster_server", HOSTNAME_PORT,
             "0.0.0.0:5001-5099" );
 
+    @Description( "Whether to send cluster messages in a compact binary format instead of Java serialization. " +
+            "Instances read both formats, but older versions only read Java serialization, so only enable this " +
+            "once every instance in the cluster runs a version that reads the compact format." )
+    public static final Setting<Boolean> compact_messages = setting( "ha.compact_messages", BOOLEAN, FALSE );
+
     @Description( "Whether to allow this instance to create a cluster if unable to join." )
     public static final Setting<Boolean> allow_init_cluster = setting( "ha.allow_init_cluster", BOOLEAN, TRUE );
 
@@ -115,6 +115,12 @@ public class NetworkedServerFactory
             {
                 return config.get( ClusterSettings.cluster_server ).getPort();
             }
+
+            @Override
+            public boolean compactMessages()
+            {
+                return config.get( ClusterSettings.compact_messages );
+            }
         }, receiver, logging );
 
         ExecutorLifecycleAdapter stateMachineExecutor = new ExecutorLifecycleAdapter( new Factory<ExecutorService>()
@@ -128,6 +128,8 @@ public class ClusterClient extends LifecycleAdapter
         long clusterJoinTimeout(); // Whether to timeout the whole process or not
 
         String name(); // Cluster client name, if any
+
+        boolean compactMessages(); // Whether to send messages in the compact format, off by default
     }
 
     public static Configuration adapt( final Config config )
@@ -248,6 +250,12 @@ public class ClusterClient extends LifecycleAdapter
             {
                 return config.get( ClusterSettings.instance_name );
             }
+
+            @Override
+            public boolean compactMessages()
+            {
+                return config.get( ClusterSettings.compact_messages );
+            }
         };
     }
 
@@ -323,6 +331,12 @@ public class ClusterClient extends LifecycleAdapter
             {
                 return config.getAddress().getPort();
             }
+
+            @Override
+            public boolean compactMessages()
+            {
+                return config.compactMessages();
+            }
         }, receiver, logging );
 
         ExecutorLifecycleAdapter stateMachineExecutor = new ExecutorLifecycleAdapter( new Factory<ExecutorService>()
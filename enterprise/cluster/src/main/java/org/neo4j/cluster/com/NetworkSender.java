@@ -50,11 +50,13 @@ import org.jboss.netty.channel.SimpleChannelHandler;
 import org.jboss.netty.channel.group.ChannelGroup;
 import org.jboss.netty.channel.group.DefaultChannelGroup;
 import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
 import org.jboss.netty.handler.codec.serialization.ObjectEncoder;
 import org.jboss.netty.util.ThreadNameDeterminer;
 import org.jboss.netty.util.ThreadRenamingRunnable;
 
 import org.neo4j.cluster.com.message.Message;
+import org.neo4j.cluster.com.message.MessageCodec;
 import org.neo4j.cluster.com.message.MessageSender;
 import org.neo4j.cluster.com.message.MessageType;
 import org.neo4j.helpers.Listeners;
@@ -85,6 +87,8 @@ public class NetworkSender
         int defaultPort(); // This is the default port to try to connect to
 
         int port(); // This is the port we are listening on
+
+        boolean compactMessages(); // Whether to send messages in the MessageCodec format, which older versions can't read
     }
 
     public interface NetworkChannelsListener
@@ -401,7 +405,16 @@ public class NetworkSender
         public ChannelPipeline getPipeline() throws Exception
         {
             ChannelPipeline pipeline = Channels.pipeline();
-            pipeline.addLast( "frameEncoder", new ObjectEncoder( 2048 ) );
+            if ( config.compactMessages() )
+            {
+                pipeline.addLast( "frameEncoder", new LengthFieldPrepender( 4 ) );
+                pipeline.addLast( "messageEncoder", new MessageCodec.Encoder(
+                        new MessageCodec( NetworkNodePipelineFactory.this.getClass().getClassLoader() ) ) );
+            }
+            else
+            {
+                pipeline.addLast( "frameEncoder", new ObjectEncoder( 2048 ) );
+            }
             pipeline.addLast( "sender", new NetworkMessageSender() );
             return pipeline;
         }
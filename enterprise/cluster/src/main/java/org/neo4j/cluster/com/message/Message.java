@@ -113,6 +113,11 @@ public class Message<MESSAGETYPE extends MessageType>
         return this;
     }
 
+    Map<String, String> getHeaders()
+    {
+        return headers;
+    }
+
     public boolean hasHeader( String name )
     {
         return headers.containsKey( name );
@@ -0,0 +1,450 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cluster.com.message;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferInputStream;
+import org.jboss.netty.buffer.ChannelBufferOutputStream;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneDecoder;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+import org.jboss.netty.handler.codec.serialization.ObjectDecoder;
+
+import org.neo4j.cluster.protocol.atomicbroadcast.Payload;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.AcceptorMessage;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.AtomicBroadcastMessage;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.InstanceId;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.LearnerMessage;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.ProposerMessage;
+import org.neo4j.cluster.protocol.cluster.ClusterMessage;
+import org.neo4j.cluster.protocol.election.ElectionMessage;
+import org.neo4j.cluster.protocol.heartbeat.HeartbeatMessage;
+import org.neo4j.cluster.protocol.omega.OmegaMessage;
+import org.neo4j.cluster.protocol.snapshot.SnapshotMessage;
+
+/**
+ * Compact binary format for {@link Message messages} sent between cluster instances.
+ * <p/>
+ * Message types and the standard headers are written as single byte references into fixed tables, and the
+ * payloads of the Paxos messages, which make up the bulk of the traffic, are written field by field.
+ * Anything else falls back to Java serialization.
+ * <p/>
+ * Every message starts with a format version byte. The {@link Decoder} also reads messages sent by older
+ * instances with Netty's {@link org.jboss.netty.handler.codec.serialization.ObjectEncoder}, which start with
+ * the version byte of a serialization stream instead, so that a cluster can be upgraded one instance at a time.
+ */
+public class MessageCodec
+{
+    private static final Charset UTF8 = Charset.forName( "UTF-8" );
+
+    @SuppressWarnings( "unchecked" )
+    private static final Class<? extends Enum<?>>[] MESSAGE_TYPES = new Class[]{
+            ClusterMessage.class, HeartbeatMessage.class, AcceptorMessage.class, ProposerMessage.class,
+            LearnerMessage.class, AtomicBroadcastMessage.class, ElectionMessage.class, SnapshotMessage.class,
+            OmegaMessage.class
+    };
+    private static final String[] HEADERS = new String[]{
+            Message.TO, Message.FROM, Message.CONVERSATION_ID, Message.CREATED_BY, Message.INSTANCE_ID,
+            InstanceId.INSTANCE
+    };
+    private static final byte UNKNOWN = -1;
+
+    public static final int MAX_MESSAGE_SIZE = 1024 * 1000;
+    private static final byte FORMAT_VERSION = 1;
+    // What messages written by ObjectEncoder start with
+    private static final byte LEGACY_FORMAT = ObjectStreamConstants.STREAM_VERSION;
+
+    private static final byte NULL = 0;
+    private static final byte PAYLOAD = 1;
+    private static final byte PREPARE = 2;
+    private static final byte ACCEPT = 3;
+    private static final byte PROMISE = 4;
+    private static final byte REJECT_PREPARE = 5;
+    private static final byte ACCEPTED = 6;
+    private static final byte REJECT_ACCEPT = 7;
+    private static final byte LEARN = 8;
+    private static final byte LEARN_REQUEST = 9;
+    private static final byte LEARN_FAILED = 10;
+    private static final byte SERIALIZED = 127;
+
+    private final ClassLoader classLoader;
+    private final LegacyDecoder legacyDecoder;
+
+    public MessageCodec( ClassLoader classLoader )
+    {
+        this.classLoader = classLoader;
+        this.legacyDecoder = new LegacyDecoder( classLoader );
+    }
+
+    public void encode( Message<?> message, ChannelBuffer target ) throws IOException
+    {
+        target.writeByte( FORMAT_VERSION );
+        writeMessageType( message.getMessageType(), target );
+
+        Map<String, String> headers = message.getHeaders();
+        target.writeByte( headers.size() );
+        for ( Map.Entry<String, String> header : headers.entrySet() )
+        {
+            byte reference = indexOf( HEADERS, header.getKey() );
+            target.writeByte( reference );
+            if ( reference == UNKNOWN )
+            {
+                writeString( header.getKey(), target );
+            }
+            writeString( header.getValue(), target );
+        }
+
+        writeValue( message.getPayload(), target );
+    }
+
+    /**
+     * Decodes a frame received on the given channel, which may be in the format of older versions.
+     */
+    public Message<?> decode( ChannelHandlerContext ctx, Channel channel, ChannelBuffer source ) throws IOException
+    {
+        if ( source.getByte( source.readerIndex() ) == LEGACY_FORMAT )
+        {
+            return legacyDecoder.decodeFrame( ctx, channel, source );
+        }
+        return decode( source );
+    }
+
+    /**
+     * Decodes a frame in the current format. Frames of older versions can only be decoded along with the
+     * channel they were received on, see {@link #decode(ChannelHandlerContext, Channel, ChannelBuffer)}.
+     */
+    public Message<?> decode( ChannelBuffer source ) throws IOException
+    {
+        byte version = source.readByte();
+        if ( version != FORMAT_VERSION )
+        {
+            throw new IOException( "Unknown cluster message format version " + version );
+        }
+
+        MessageType messageType = readMessageType( source );
+
+        int headerCount = source.readUnsignedByte();
+        String[] headers = new String[headerCount * 2];
+        for ( int i = 0; i < headers.length; i += 2 )
+        {
+            byte reference = source.readByte();
+            headers[i] = reference == UNKNOWN ? readString( source ) : HEADERS[reference];
+            headers[i + 1] = readString( source );
+        }
+
+        Message<?> message = new Message<>( messageType, readValue( source ) );
+        for ( int i = 0; i < headers.length; i += 2 )
+        {
+            message.setHeader( headers[i], headers[i + 1] );
+        }
+        return message;
+    }
+
+    private void writeMessageType( MessageType messageType, ChannelBuffer target ) throws IOException
+    {
+        byte reference = messageType instanceof Enum
+                ? indexOf( MESSAGE_TYPES, ((Enum<?>) messageType).getDeclaringClass() ) : UNKNOWN;
+        target.writeByte( reference );
+        if ( reference == UNKNOWN )
+        {
+            writeSerialized( messageType, target );
+        }
+        else
+        {
+            target.writeByte( ((Enum<?>) messageType).ordinal() );
+        }
+    }
+
+    private MessageType readMessageType( ChannelBuffer source ) throws IOException
+    {
+        byte reference = source.readByte();
+        if ( reference == UNKNOWN )
+        {
+            return (MessageType) readSerialized( source );
+        }
+        return (MessageType) MESSAGE_TYPES[reference].getEnumConstants()[source.readUnsignedByte()];
+    }
+
+    private void writeValue( Object value, ChannelBuffer target ) throws IOException
+    {
+        if ( value == null )
+        {
+            target.writeByte( NULL );
+        }
+        else if ( value.getClass() == Payload.class )
+        {
+            Payload payload = (Payload) value;
+            target.writeByte( PAYLOAD );
+            target.writeInt( payload.getLen() );
+            target.writeBytes( payload.getBuf(), 0, payload.getLen() );
+        }
+        else if ( value.getClass() == AcceptorMessage.PrepareState.class )
+        {
+            target.writeByte( PREPARE );
+            target.writeLong( ((AcceptorMessage.PrepareState) value).getBallot() );
+        }
+        else if ( value.getClass() == AcceptorMessage.AcceptState.class )
+        {
+            AcceptorMessage.AcceptState accept = (AcceptorMessage.AcceptState) value;
+            target.writeByte( ACCEPT );
+            target.writeLong( accept.getBallot() );
+            writeValue( accept.getValue(), target );
+        }
+        else if ( value.getClass() == ProposerMessage.PromiseState.class )
+        {
+            ProposerMessage.PromiseState promise = (ProposerMessage.PromiseState) value;
+            target.writeByte( PROMISE );
+            target.writeLong( promise.getBallot() );
+            writeValue( promise.getValue(), target );
+        }
+        else if ( value.getClass() == ProposerMessage.RejectPrepare.class )
+        {
+            target.writeByte( REJECT_PREPARE );
+            target.writeLong( ((ProposerMessage.RejectPrepare) value).getBallot() );
+        }
+        else if ( value.getClass() == ProposerMessage.AcceptedState.class )
+        {
+            target.writeByte( ACCEPTED );
+        }
+        else if ( value.getClass() == ProposerMessage.RejectAcceptState.class )
+        {
+            target.writeByte( REJECT_ACCEPT );
+        }
+        else if ( value.getClass() == LearnerMessage.LearnState.class )
+        {
+            target.writeByte( LEARN );
+            writeValue( ((LearnerMessage.LearnState) value).getValue(), target );
+        }
+        else if ( value.getClass() == LearnerMessage.LearnRequestState.class )
+        {
+            target.writeByte( LEARN_REQUEST );
+        }
+        else if ( value.getClass() == LearnerMessage.LearnFailedState.class )
+        {
+            target.writeByte( LEARN_FAILED );
+        }
+        else
+        {
+            target.writeByte( SERIALIZED );
+            writeSerialized( value, target );
+        }
+    }
+
+    private Object readValue( ChannelBuffer source ) throws IOException
+    {
+        byte type = source.readByte();
+        switch ( type )
+        {
+        case NULL:
+            return null;
+        case PAYLOAD:
+            byte[] bytes = new byte[source.readInt()];
+            source.readBytes( bytes );
+            return new Payload( bytes, bytes.length );
+        case PREPARE:
+            return new AcceptorMessage.PrepareState( source.readLong() );
+        case ACCEPT:
+            return new AcceptorMessage.AcceptState( source.readLong(), readValue( source ) );
+        case PROMISE:
+            return new ProposerMessage.PromiseState( source.readLong(), readValue( source ) );
+        case REJECT_PREPARE:
+            return new ProposerMessage.RejectPrepare( source.readLong() );
+        case ACCEPTED:
+            return new ProposerMessage.AcceptedState();
+        case REJECT_ACCEPT:
+            return new ProposerMessage.RejectAcceptState();
+        case LEARN:
+            return new LearnerMessage.LearnState( readValue( source ) );
+        case LEARN_REQUEST:
+            return new LearnerMessage.LearnRequestState();
+        case LEARN_FAILED:
+            return new LearnerMessage.LearnFailedState();
+        case SERIALIZED:
+            return readSerialized( source );
+        default:
+            throw new IOException( "Unknown value type " + type );
+        }
+    }
+
+    private static void writeSerialized( Object value, ChannelBuffer target ) throws IOException
+    {
+        int lengthIndex = target.writerIndex();
+        target.writeInt( 0 );
+        try ( ObjectOutputStream out = new ObjectOutputStream( new ChannelBufferOutputStream( target ) ) )
+        {
+            out.writeObject( value );
+        }
+        target.setInt( lengthIndex, target.writerIndex() - lengthIndex - 4 );
+    }
+
+    private Object readSerialized( ChannelBuffer source ) throws IOException
+    {
+        int length = source.readInt();
+        try ( ObjectInputStream in = new ClassLoaderObjectInputStream(
+                new ChannelBufferInputStream( source, length ), classLoader ) )
+        {
+            return in.readObject();
+        }
+        catch ( ClassNotFoundException e )
+        {
+            throw new IOException( e );
+        }
+    }
+
+    private static void writeString( String value, ChannelBuffer target )
+    {
+        byte[] bytes = value.getBytes( UTF8 );
+        target.writeShort( bytes.length );
+        target.writeBytes( bytes );
+    }
+
+    private static String readString( ChannelBuffer source )
+    {
+        byte[] bytes = new byte[source.readUnsignedShort()];
+        source.readBytes( bytes );
+        return new String( bytes, UTF8 );
+    }
+
+    private static byte indexOf( Object[] table, Object value )
+    {
+        for ( int i = 0; i < table.length; i++ )
+        {
+            if ( table[i].equals( value ) )
+            {
+                return (byte) i;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static class ClassLoaderObjectInputStream extends ObjectInputStream
+    {
+        private final ClassLoader classLoader;
+
+        ClassLoaderObjectInputStream( InputStream in, ClassLoader classLoader ) throws IOException
+        {
+            super( in );
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass( ObjectStreamClass desc ) throws IOException, ClassNotFoundException
+        {
+            try
+            {
+                return Class.forName( desc.getName(), false, classLoader );
+            }
+            catch ( ClassNotFoundException e )
+            {
+                return super.resolveClass( desc );
+            }
+        }
+    }
+
+    /**
+     * Reads a frame written by {@link org.jboss.netty.handler.codec.serialization.ObjectEncoder}, the
+     * length field of which has already been stripped.
+     */
+    private static class LegacyDecoder extends ObjectDecoder
+    {
+        LegacyDecoder( ClassLoader classLoader )
+        {
+            super( MAX_MESSAGE_SIZE, classLoader );
+        }
+
+        Message<?> decodeFrame( ChannelHandlerContext ctx, Channel channel, ChannelBuffer frame ) throws IOException
+        {
+            ChannelBuffer length = ChannelBuffers.buffer( 4 );
+            length.writeInt( frame.readableBytes() );
+            try
+            {
+                return (Message<?>) decode( ctx, channel, ChannelBuffers.wrappedBuffer( length, frame ) );
+            }
+            catch ( IOException e )
+            {
+                throw e;
+            }
+            catch ( Exception e )
+            {
+                throw new IOException( e );
+            }
+        }
+    }
+
+    /**
+     * Netty handler encoding outgoing {@link Message messages}. Expects a length field to be prepended
+     * further down the pipeline.
+     */
+    public static class Encoder extends OneToOneEncoder
+    {
+        private final MessageCodec codec;
+
+        public Encoder( MessageCodec codec )
+        {
+            this.codec = codec;
+        }
+
+        @Override
+        protected Object encode( ChannelHandlerContext ctx, Channel channel, Object msg ) throws Exception
+        {
+            if ( !(msg instanceof Message) )
+            {
+                return msg;
+            }
+            ChannelBuffer buffer = ChannelBuffers.dynamicBuffer( 256 );
+            codec.encode( (Message<?>) msg, buffer );
+            return buffer;
+        }
+    }
+
+    /**
+     * Netty handler decoding incoming frames into {@link Message messages}.
+     */
+    public static class Decoder extends OneToOneDecoder
+    {
+        private final MessageCodec codec;
+
+        public Decoder( MessageCodec codec )
+        {
+            this.codec = codec;
+        }
+
+        @Override
+        protected Object decode( ChannelHandlerContext ctx, Channel channel, Object msg ) throws Exception
+        {
+            if ( !(msg instanceof ChannelBuffer) )
+            {
+                return msg;
+            }
+            return codec.decode( ctx, channel, (ChannelBuffer) msg );
+        }
+    }
+}
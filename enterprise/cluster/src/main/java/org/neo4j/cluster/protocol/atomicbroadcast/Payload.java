@@ -30,6 +30,9 @@ import java.io.ObjectOutput;
 public class Payload
         implements Externalizable
 {
+    // Marks a length that doesn't fit in the single length byte, and follows as an int
+    private static final int LONG_LENGTH = 0xFF;
+
     private byte[] buf;
     private int len;
 
@@ -60,7 +63,16 @@ public class Payload
     public void writeExternal( ObjectOutput out )
             throws IOException
     {
-        out.write( len );
+        // Lengths that fit are written as a single byte, as older versions do, so that they can still read them
+        if ( len < LONG_LENGTH )
+        {
+            out.write( len );
+        }
+        else
+        {
+            out.write( LONG_LENGTH );
+            out.writeInt( len );
+        }
         out.write( buf, 0, len );
     }
 
@@ -69,7 +81,11 @@ public class Payload
             throws IOException, ClassNotFoundException
     {
         len = in.read();
+        if ( len == LONG_LENGTH )
+        {
+            len = in.readInt();
+        }
         buf = new byte[len];
-        in.read( buf, 0, len );
+        in.readFully( buf, 0, len );
     }
 }
@@ -19,21 +19,45 @@
  */
 package org.neo4j.cluster.protocol.atomicbroadcast.multipaxos;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 
 /**
- * Store of Paxos instances, from a proposer perspective
+ * Store of Paxos instances, from a proposer perspective.
+ * <p/>
+ * Instance ids are handed out sequentially, so instances are kept in a fixed size array indexed by id. An instance
+ * occupying a slot is replaced by a new one only once it's either been delivered or never got beyond
+ * {@link PaxosInstance.State#empty}. The rare instance that collides with a slot still in progress, f.ex. while
+ * a lagging learner is catching up, is kept on the side. Once delivered it moves into its slot if that is free,
+ * otherwise it stays on the side and the oldest such delivered instances are evicted beyond
+ * {@link #MAX_DELIVERED_OVERFLOW}. This bounds the number of delivered instances kept around for answering learn
+ * requests. Instances still in progress are never evicted.
  */
 public class PaxosInstanceStore
 {
-    private static final int MAX_STORED = 100;
+    static final int MAX_STORED = 1024;
+    static final int MAX_DELIVERED_OVERFLOW = 100;
 
-    private int queued = 0;
-    private Queue<InstanceId> delivered = new LinkedList<InstanceId>();
-    private Map<InstanceId, PaxosInstance> instances = new HashMap<InstanceId, PaxosInstance>();
+    private final PaxosInstance[] instances;
+    private final Map<InstanceId, PaxosInstance> overflow;
+    // Delivered instances in the overflow, in order of delivery
+    private final Queue<InstanceId> deliveredOverflow;
+
+    public PaxosInstanceStore()
+    {
+        this( new PaxosInstance[MAX_STORED], new HashMap<InstanceId, PaxosInstance>(), new LinkedList<InstanceId>() );
+    }
+
+    private PaxosInstanceStore( PaxosInstance[] instances, Map<InstanceId, PaxosInstance> overflow,
+                                Queue<InstanceId> deliveredOverflow )
+    {
+        this.instances = instances;
+        this.overflow = overflow;
+        this.deliveredOverflow = deliveredOverflow;
+    }
 
     public PaxosInstance getPaxosInstance( InstanceId instanceId )
     {
@@ -42,47 +66,90 @@ public class PaxosInstanceStore
             throw new NullPointerException( "InstanceId may not be null" );
         }
 
-        PaxosInstance instance = instances.get( instanceId );
+        int slot = slot( instanceId );
+        PaxosInstance instance = instances[slot];
+        if ( instance != null && instance.id.equals( instanceId ) )
+        {
+            return instance;
+        }
+
+        instance = overflow.get( instanceId );
         if ( instance == null )
         {
             instance = new PaxosInstance( this, instanceId );
-            instances.put( instanceId, instance );
+            if ( isReplaceable( instances[slot] ) )
+            {
+                instances[slot] = instance;
+            }
+            else
+            {
+                overflow.put( instanceId, instance );
+            }
         }
         return instance;
     }
 
     public void delivered( InstanceId instanceId )
     {
-        queued++;
-        delivered.offer( instanceId );
+        PaxosInstance instance = overflow.get( instanceId );
+        if ( instance == null )
+        {
+            return;
+        }
 
-        if ( queued > MAX_STORED )
+        int slot = slot( instanceId );
+        if ( isReplaceable( instances[slot] ) )
+        {
+            overflow.remove( instanceId );
+            instances[slot] = instance;
+        }
+        else if ( !deliveredOverflow.contains( instanceId ) )
         {
-            InstanceId removeInstanceId = delivered.poll();
-            instances.remove( removeInstanceId );
-            queued--;
+            deliveredOverflow.offer( instanceId );
+            if ( deliveredOverflow.size() > MAX_DELIVERED_OVERFLOW )
+            {
+                overflow.remove( deliveredOverflow.poll() );
+            }
         }
     }
 
     public void leave()
     {
-        queued = 0;
-        delivered.clear();
-        instances.clear();
+        Arrays.fill( instances, null );
+        overflow.clear();
+        deliveredOverflow.clear();
     }
 
     public PaxosInstanceStore snapshot()
     {
-        PaxosInstanceStore snapshotStore = new PaxosInstanceStore();
-        snapshotStore.queued = queued;
-        snapshotStore.delivered = new LinkedList<>(delivered);
-        for ( Map.Entry<InstanceId, PaxosInstance> instance : instances.entrySet() )
+        PaxosInstanceStore snapshotStore = new PaxosInstanceStore( new PaxosInstance[instances.length],
+                new HashMap<InstanceId, PaxosInstance>(), new LinkedList<>( deliveredOverflow ) );
+        for ( int i = 0; i < instances.length; i++ )
         {
-            snapshotStore.instances.put( instance.getKey(), instance.getValue().snapshot(snapshotStore) );
+            if ( instances[i] != null )
+            {
+                snapshotStore.instances[i] = instances[i].snapshot( snapshotStore );
+            }
+        }
+        for ( Map.Entry<InstanceId, PaxosInstance> instance : overflow.entrySet() )
+        {
+            snapshotStore.overflow.put( instance.getKey(), instance.getValue().snapshot( snapshotStore ) );
         }
         return snapshotStore;
     }
 
+    private int slot( InstanceId instanceId )
+    {
+        return (int) (instanceId.getId() & (instances.length - 1));
+    }
+
+    private static boolean isReplaceable( PaxosInstance instance )
+    {
+        return instance == null ||
+               instance.isState( PaxosInstance.State.delivered ) ||
+               instance.isState( PaxosInstance.State.empty );
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -97,15 +164,15 @@ public class PaxosInstanceStore
 
         PaxosInstanceStore that = (PaxosInstanceStore) o;
 
-        if ( queued != that.queued )
+        if ( !Arrays.equals( instances, that.instances ) )
         {
             return false;
         }
-        if ( !delivered.equals( that.delivered ) )
+        if ( !overflow.equals( that.overflow ) )
         {
             return false;
         }
-        if ( !instances.equals( that.instances ) )
+        if ( !deliveredOverflow.equals( that.deliveredOverflow ) )
         {
             return false;
         }
@@ -116,9 +183,9 @@ public class PaxosInstanceStore
     @Override
     public int hashCode()
     {
-        int result = queued;
-        result = 31 * result + delivered.hashCode();
-        result = 31 * result + instances.hashCode();
+        int result = Arrays.hashCode( instances );
+        result = 31 * result + overflow.hashCode();
+        result = 31 * result + deliveredOverflow.hashCode();
         return result;
     }
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cluster;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URI;
@@ -34,9 +35,12 @@ import java.util.concurrent.Future;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.core.joran.spi.JoranException;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.slf4j.LoggerFactory;
 
 import org.neo4j.cluster.com.message.Message;
+import org.neo4j.cluster.com.message.MessageCodec;
 import org.neo4j.cluster.com.message.MessageType;
 import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.InMemoryAcceptorInstanceStore;
 import org.neo4j.cluster.protocol.cluster.ClusterConfiguration;
@@ -70,6 +74,8 @@ public class NetworkMock
     private Logging logging;
     protected final StringLogger logger;
     private final List<Pair<Future<?>, Runnable>> futureWaiter;
+    private MessageCodec wireCodec;
+    private long wireBytes;
 
 
     public NetworkMock( Monitors monitors, long tickDuration, MultipleFailureLatencyStrategy strategy,
@@ -86,6 +92,23 @@ public class NetworkMock
         futureWaiter = new LinkedList<Pair<Future<?>, Runnable>>();
     }
 
+    /**
+     * Makes every message sent between servers go through the given codec, as it would over a real network.
+     */
+    public void encodeMessagesWith( MessageCodec codec )
+    {
+        this.wireCodec = codec;
+    }
+
+    /**
+     * @return the number of bytes of encoded messages sent so far, if {@link #encodeMessagesWith(MessageCodec)
+     * encoding} is used.
+     */
+    public long getWireBytes()
+    {
+        return wireBytes;
+    }
+
     public TestProtocolServer addServer( int serverId, URI serverUri )
     {
         TestProtocolServer server = newTestProtocolServer( serverId, serverUri );
@@ -200,7 +223,7 @@ public class NetworkMock
             {
                 TestProtocolServer server = participants.get( to );
                 logger.debug( "Send to " + to + ": " + message );
-                messageDeliveries.add( new MessageDelivery( now + delay, message, server ) );
+                messageDeliveries.add( new MessageDelivery( now + delay, overTheWire( message ), server ) );
             }
         }
 
@@ -218,6 +241,25 @@ public class NetworkMock
         return messageDeliveries.size();
     }
 
+    private Message overTheWire( Message message )
+    {
+        if ( wireCodec == null )
+        {
+            return message;
+        }
+        try
+        {
+            ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+            wireCodec.encode( message, buffer );
+            wireBytes += buffer.readableBytes();
+            return wireCodec.decode( buffer );
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
     public void tick( int iterations )
     {
         for ( int i = 0; i < iterations; i++ )
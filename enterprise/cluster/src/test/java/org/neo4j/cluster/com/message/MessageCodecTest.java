@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cluster.com.message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.buffer.HeapChannelBufferFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelConfig;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.serialization.ObjectEncoder;
+import org.junit.Test;
+
+import org.neo4j.cluster.protocol.atomicbroadcast.Payload;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.AcceptorMessage;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.InstanceId;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.LearnerMessage;
+import org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.ProposerMessage;
+import org.neo4j.cluster.protocol.heartbeat.HeartbeatMessage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MessageCodecTest
+{
+    private final MessageCodec codec = new MessageCodec( getClass().getClassLoader() );
+
+    @Test
+    public void shouldRoundTripPaxosMessages() throws Exception
+    {
+        assertRoundTrips( Message.to( AcceptorMessage.prepare, URI.create( "cluster://server2" ),
+                new AcceptorMessage.PrepareState( 1234 ) ).setHeader( InstanceId.INSTANCE, "42" ) );
+        assertRoundTrips( Message.to( ProposerMessage.promise, URI.create( "cluster://server1" ),
+                new ProposerMessage.PromiseState( 1234, "value" ) ) );
+        assertRoundTrips( Message.to( ProposerMessage.rejectPrepare, URI.create( "cluster://server1" ),
+                new ProposerMessage.RejectPrepare( 5 ) ) );
+        assertRoundTrips( Message.to( ProposerMessage.accepted, URI.create( "cluster://server1" ),
+                new ProposerMessage.AcceptedState() ) );
+        assertRoundTrips( Message.to( LearnerMessage.learnRequest, URI.create( "cluster://server3" ),
+                new LearnerMessage.LearnRequestState() ) );
+        assertRoundTrips( Message.internal( HeartbeatMessage.sendHeartbeat ) );
+    }
+
+    @Test
+    public void shouldRoundTripBroadcastPayloadsNestedInPaxosStates() throws Exception
+    {
+        // Given
+        byte[] bytes = new byte[1000];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            bytes[i] = (byte) i;
+        }
+        Message<?> message = Message.to( LearnerMessage.learn, URI.create( "cluster://server2" ),
+                new LearnerMessage.LearnState( new Payload( bytes, bytes.length ) ) )
+                .setHeader( Message.FROM, "cluster://server1" )
+                .setHeader( Message.CONVERSATION_ID, "conversation" )
+                .setHeader( "custom", "header" );
+
+        // When
+        Message<?> read = roundTrip( message );
+
+        // Then
+        assertEquals( LearnerMessage.learn, read.getMessageType() );
+        assertEquals( "cluster://server1", read.getHeader( Message.FROM ) );
+        assertEquals( "conversation", read.getHeader( Message.CONVERSATION_ID ) );
+        assertEquals( "header", read.getHeader( "custom" ) );
+        Payload payload = (Payload) ((LearnerMessage.LearnState) read.getPayload()).getValue();
+        assertEquals( bytes.length, payload.getLen() );
+        assertArrayEquals( bytes, payload.getBuf() );
+    }
+
+    @Test
+    public void shouldFallBackToJavaSerializationForOtherPayloads() throws Exception
+    {
+        assertRoundTrips( Message.to( AcceptorMessage.accept, URI.create( "cluster://server2" ),
+                new AcceptorMessage.AcceptState( 7, new InstanceId( 3 ) ) ) );
+    }
+
+    @Test
+    public void shouldSerializePayloadsLongerThan255Bytes() throws Exception
+    {
+        // Given
+        byte[] bytes = new byte[300];
+        bytes[299] = 99;
+
+        // When
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try ( ObjectOutputStream out = new ObjectOutputStream( bout ) )
+        {
+            out.writeObject( new Payload( bytes, bytes.length ) );
+        }
+        Payload read;
+        try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bout.toByteArray() ) ) )
+        {
+            read = (Payload) in.readObject();
+        }
+
+        // Then
+        assertEquals( bytes.length, read.getLen() );
+        assertArrayEquals( bytes, read.getBuf() );
+    }
+
+    @Test
+    public void shouldReadMessagesInTheFormatOfOlderVersions() throws Exception
+    {
+        // Given
+        Message<?> message = Message.to( ProposerMessage.promise, URI.create( "cluster://server1" ),
+                new ProposerMessage.PromiseState( 1234, "value" ) ).setHeader( Message.FROM, "cluster://server2" );
+        ChannelBuffer legacyFrame = (ChannelBuffer) new LegacyEncoder().encode( message );
+        legacyFrame.readInt(); // The length field is stripped by the frame decoder
+
+        // When
+        ChannelHandlerContext context = context();
+        Message<?> read = codec.decode( context, context.getChannel(), legacyFrame );
+
+        // Then
+        assertEquals( message, read );
+        assertEquals( "cluster://server2", read.getHeader( Message.FROM ) );
+    }
+
+    @Test
+    public void shouldRejectUnknownFormatVersions() throws Exception
+    {
+        // Given
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        codec.encode( Message.internal( HeartbeatMessage.sendHeartbeat ), buffer );
+        buffer.setByte( buffer.readerIndex(), 42 );
+
+        // When
+        try
+        {
+            codec.decode( buffer );
+            fail( "Should not decode a message of an unknown format version" );
+        }
+        catch ( IOException e )
+        {
+            // Then
+            assertTrue( e.getMessage().contains( "42" ) );
+        }
+    }
+
+    private void assertRoundTrips( Message<?> message ) throws Exception
+    {
+        assertEquals( message, roundTrip( message ) );
+    }
+
+    private Message<?> roundTrip( Message<?> message ) throws Exception
+    {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        codec.encode( message, buffer );
+        Message<?> read = codec.decode( buffer );
+        assertTrue( "Not all of the message was read", !buffer.readable() );
+        return read;
+    }
+
+    /**
+     * Writes messages the way older versions do, with plain {@link ObjectEncoder Java serialization}.
+     */
+    private static class LegacyEncoder extends ObjectEncoder
+    {
+        Object encode( Object message ) throws Exception
+        {
+            ChannelHandlerContext context = context();
+            return encode( context, context.getChannel(), message );
+        }
+    }
+
+    private static ChannelHandlerContext context()
+    {
+        ChannelConfig config = mock( ChannelConfig.class );
+        when( config.getBufferFactory() ).thenReturn( HeapChannelBufferFactory.getInstance() );
+        Channel channel = mock( Channel.class );
+        when( channel.getConfig() ).thenReturn( config );
+        ChannelHandlerContext context = mock( ChannelHandlerContext.class );
+        when( context.getChannel() ).thenReturn( channel );
+        return context;
+    }
+}
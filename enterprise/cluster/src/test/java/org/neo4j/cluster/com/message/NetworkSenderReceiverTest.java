@@ -165,6 +165,12 @@ public class NetworkSenderReceiverTest
                 {
                     return 5001;
                 }
+
+                @Override
+                public boolean compactMessages()
+                {
+                    return true;
+                }
             }, receiver, loggingMock );
 
             sender.init();
@@ -299,6 +305,12 @@ public class NetworkSenderReceiverTest
                 {
                     return conf.get( ClusterSettings.cluster_server ).getPort();
                 }
+
+                @Override
+                public boolean compactMessages()
+                {
+                    return conf.get( ClusterSettings.compact_messages );
+                }
             }, networkReceiver, new DevNullLoggingService() ) );
 
             life.add( new LifecycleAdapter()
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cluster.protocol.atomicbroadcast.multipaxos;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.neo4j.cluster.FixedNetworkLatencyStrategy;
+import org.neo4j.cluster.MultipleFailureLatencyStrategy;
+import org.neo4j.cluster.NetworkMock;
+import org.neo4j.cluster.TestProtocolServer;
+import org.neo4j.cluster.com.message.MessageCodec;
+import org.neo4j.cluster.protocol.atomicbroadcast.AtomicBroadcast;
+import org.neo4j.cluster.protocol.atomicbroadcast.AtomicBroadcastListener;
+import org.neo4j.cluster.protocol.atomicbroadcast.Payload;
+import org.neo4j.cluster.protocol.cluster.Cluster;
+import org.neo4j.cluster.timeout.FixedTimeoutStrategy;
+import org.neo4j.cluster.timeout.MessageTimeoutStrategy;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures atomic broadcast throughput through the in-memory network, with all messages going through the
+ * {@link MessageCodec wire format}. The number of broadcasts is kept small enough for this to run as part
+ * of the regular build, raise it for more accurate numbers.
+ */
+public class MultiPaxosThroughputTest
+{
+    private static final int CLUSTER_SIZE = 3;
+    private static final int BROADCASTS = 2000;
+    private static final int PAYLOAD_SIZE = 512;
+    private static final int MAX_TICKS = 100_000;
+
+    @Test
+    public void shouldDeliverAllBroadcastsToAllInstances() throws Exception
+    {
+        // Given
+        NetworkMock network = new NetworkMock( new Monitors(), 10,
+                new MultipleFailureLatencyStrategy( new FixedNetworkLatencyStrategy( 0 ) ),
+                new MessageTimeoutStrategy( new FixedTimeoutStrategy( 1000 ) ) );
+        network.encodeMessagesWith( new MessageCodec( getClass().getClassLoader() ) );
+        List<TestProtocolServer> nodes = formCluster( network );
+
+        final AtomicInteger received = new AtomicInteger();
+        for ( TestProtocolServer node : nodes )
+        {
+            node.newClient( AtomicBroadcast.class ).addAtomicBroadcastListener( new AtomicBroadcastListener()
+            {
+                @Override
+                public void receive( Payload value )
+                {
+                    received.incrementAndGet();
+                }
+            } );
+        }
+        AtomicBroadcast broadcaster = nodes.get( 0 ).newClient( AtomicBroadcast.class );
+        long wireBytesBefore = network.getWireBytes();
+
+        // When
+        for ( int i = 0; i < BROADCASTS; i++ )
+        {
+            byte[] bytes = new byte[PAYLOAD_SIZE];
+            bytes[0] = (byte) i;
+            broadcaster.broadcast( new Payload( bytes, bytes.length ) );
+            network.tick();
+        }
+        // Heartbeat timeouts are always pending once the cluster has formed, so tick until all is delivered
+        for ( int ticks = 0; received.get() < BROADCASTS * CLUSTER_SIZE && ticks < MAX_TICKS; ticks++ )
+        {
+            network.tick();
+        }
+
+        // Then
+        assertEquals( BROADCASTS * CLUSTER_SIZE, received.get() );
+        assertTrue( network.getWireBytes() - wireBytesBefore >= (long) BROADCASTS * PAYLOAD_SIZE );
+    }
+
+    private List<TestProtocolServer> formCluster( NetworkMock network ) throws Exception
+    {
+        List<TestProtocolServer> nodes = new ArrayList<>();
+        TestProtocolServer server = network.addServer( 1, URI.create( "cluster://server1" ) );
+        server.newClient( Cluster.class ).create( "default" );
+        network.tickUntilDone();
+        nodes.add( server );
+
+        for ( int i = 1; i < CLUSTER_SIZE; i++ )
+        {
+            TestProtocolServer protocolServer = network.addServer( i + 1, new URI( "cluster://server" + (i + 1) ) );
+            protocolServer.newClient( Cluster.class ).join( "default", new URI( "cluster://server1" ) );
+            network.tick( 100 );
+            nodes.add( protocolServer );
+        }
+        return nodes;
+    }
+}
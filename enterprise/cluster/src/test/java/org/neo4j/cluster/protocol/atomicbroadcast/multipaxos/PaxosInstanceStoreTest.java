@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cluster.protocol.atomicbroadcast.multipaxos;
+
+import java.net.URI;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.PaxosInstanceStore.MAX_DELIVERED_OVERFLOW;
+import static org.neo4j.cluster.protocol.atomicbroadcast.multipaxos.PaxosInstanceStore.MAX_STORED;
+
+public class PaxosInstanceStoreTest
+{
+    private final PaxosInstanceStore store = new PaxosInstanceStore();
+
+    @Test
+    public void shouldKeepDeliveredInstanceWhoseSlotIsStillInProgress() throws Exception
+    {
+        // GIVEN a lagging learner still working on an instance
+        inProgress( 3 );
+
+        // WHEN an instance using the same slot is delivered
+        PaxosInstance delivered = store.getPaxosInstance( new InstanceId( MAX_STORED + 3 ) );
+        delivered.delivered();
+
+        // THEN it is still there to answer learn requests
+        assertSame( delivered, store.getPaxosInstance( new InstanceId( MAX_STORED + 3 ) ) );
+        assertTrue( store.getPaxosInstance( new InstanceId( 3 ) ).isState( PaxosInstance.State.p1_pending ) );
+    }
+
+    @Test
+    public void shouldMoveDeliveredInstanceIntoItsSlotOnceFree() throws Exception
+    {
+        // GIVEN
+        PaxosInstance lagging = inProgress( 3 );
+        PaxosInstance delivered = store.getPaxosInstance( new InstanceId( MAX_STORED + 3 ) );
+
+        // WHEN
+        lagging.delivered();
+        delivered.delivered();
+
+        // THEN
+        assertSame( delivered, store.getPaxosInstance( new InstanceId( MAX_STORED + 3 ) ) );
+    }
+
+    @Test
+    public void shouldEvictOldestDeliveredOverflowInstancesBeyondTheBound() throws Exception
+    {
+        // GIVEN a lagging learner holding up more slots than the delivered overflow may keep
+        for ( int i = 0; i <= MAX_DELIVERED_OVERFLOW; i++ )
+        {
+            inProgress( i );
+        }
+
+        // WHEN
+        PaxosInstance newest = null;
+        for ( int i = 0; i <= MAX_DELIVERED_OVERFLOW; i++ )
+        {
+            newest = store.getPaxosInstance( new InstanceId( MAX_STORED + i ) );
+            newest.delivered();
+        }
+
+        // THEN the oldest delivered one is gone, but none of those in progress
+        assertTrue( store.getPaxosInstance( new InstanceId( MAX_STORED ) ).isState( PaxosInstance.State.empty ) );
+        assertSame( newest, store.getPaxosInstance( new InstanceId( MAX_STORED + MAX_DELIVERED_OVERFLOW ) ) );
+        for ( int i = 0; i <= MAX_DELIVERED_OVERFLOW; i++ )
+        {
+            assertTrue( store.getPaxosInstance( new InstanceId( i ) ).isState( PaxosInstance.State.p1_pending ) );
+        }
+    }
+
+    private PaxosInstance inProgress( long id )
+    {
+        PaxosInstance instance = store.getPaxosInstance( new InstanceId( id ) );
+        instance.propose( 1, Collections.<URI>emptyList() );
+        return instance;
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import org.neo4j.io.fs.StoreChannel;
+
+import static org.neo4j.com.storecopy.StoreFileChecksums.CHECKSUM_SIZE;
+import static org.neo4j.com.storecopy.StoreFileChecksums.PAGE_SIZE;
+import static org.neo4j.com.storecopy.StoreFileChecksums.checksum;
+import static org.neo4j.com.storecopy.StoreFileChecksums.newDigest;
+import static org.neo4j.com.storecopy.StoreFileChecksums.newPageBuffer;
+import static org.neo4j.com.storecopy.StoreFileChecksums.readPage;
+
+/**
+ * Produces the pages of a store file that differ from a set of known page checksums, in the format
+ * read by {@link ToFilePageDiffStoreWriter}:
+ *
+ * <pre>
+ * fileLength: long
+ * ( pageId: long, length: int, checksum: byte[32], data: byte[length] )*
+ * </pre>
+ *
+ * Pages are read lazily from the file as the channel is read, so that only a single page is held in memory.
+ */
+class ChangedPagesChannel implements ReadableByteChannel
+{
+    static final int PAGE_HEADER_SIZE = 8 + 4 + CHECKSUM_SIZE;
+
+    private final StoreChannel source;
+    private final byte[][] knownChecksums;
+    private final long pageCount;
+    private final ByteBuffer page = newPageBuffer();
+    private final MessageDigest digest = newDigest();
+    private final ByteBuffer pending = ByteBuffer.allocate( PAGE_HEADER_SIZE + PAGE_SIZE );
+    private long nextPageId;
+    private int changedPages;
+
+    /**
+     * @param knownChecksums page checksums the receiving side has, or {@code null} if it doesn't have
+     * this file at all, in which case all pages are produced.
+     */
+    ChangedPagesChannel( StoreChannel source, byte[][] knownChecksums ) throws IOException
+    {
+        this.source = source;
+        this.knownChecksums = knownChecksums;
+        long fileLength = source.size();
+        this.pageCount = (fileLength + PAGE_SIZE - 1) / PAGE_SIZE;
+        pending.putLong( fileLength );
+        pending.flip();
+    }
+
+    @Override
+    public int read( ByteBuffer dst ) throws IOException
+    {
+        int transferred = 0;
+        while ( dst.hasRemaining() )
+        {
+            if ( !pending.hasRemaining() && !nextChangedPage() )
+            {
+                break;
+            }
+            int chunk = Math.min( dst.remaining(), pending.remaining() );
+            ByteBuffer slice = pending.duplicate();
+            slice.limit( slice.position() + chunk );
+            dst.put( slice );
+            pending.position( pending.position() + chunk );
+            transferred += chunk;
+        }
+        return transferred == 0 && !pending.hasRemaining() && nextPageId >= pageCount ? -1 : transferred;
+    }
+
+    private boolean nextChangedPage() throws IOException
+    {
+        while ( nextPageId < pageCount )
+        {
+            long pageId = nextPageId++;
+            readPage( source, pageId, page );
+            byte[] checksum = checksum( digest, page );
+            if ( knownChecksums == null || pageId >= knownChecksums.length ||
+                 !Arrays.equals( knownChecksums[(int) pageId], checksum ) )
+            {
+                pending.clear();
+                pending.putLong( pageId );
+                pending.putInt( page.remaining() );
+                pending.put( checksum );
+                pending.put( page );
+                pending.flip();
+                changedPages++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int changedPages()
+    {
+        return changedPages;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return source.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        source.close();
+    }
+}
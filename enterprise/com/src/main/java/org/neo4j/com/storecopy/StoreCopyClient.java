@@ -24,6 +24,8 @@ import java.io.FileFilter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.com.Response;
@@ -38,6 +40,8 @@ import org.neo4j.io.fs.FileUtils;
 import org.neo4j.kernel.InternalAbstractGraphDatabase;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.index.IndexConfigStore;
+import org.neo4j.kernel.impl.nioneo.store.NeoStore;
 import org.neo4j.kernel.impl.nioneo.store.ReadOnlyTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.xaframework.CommandWriter;
 import org.neo4j.kernel.impl.transaction.xaframework.CommittedTransactionRepresentation;
@@ -58,6 +62,7 @@ import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.Monitors;
 
 import static org.neo4j.helpers.Format.bytes;
+import static org.neo4j.helpers.SillyUtils.nonNull;
 import static org.neo4j.kernel.impl.transaction.xaframework.log.entry.LogHeaderParser.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.xaframework.log.pruning.LogPruneStrategyFactory.NO_PRUNING;
 
@@ -89,6 +94,18 @@ public class StoreCopyClient
         void done();
     }
 
+    /**
+     * Used for refreshing an existing, but outdated, copy of a store in place. The requester is handed
+     * checksums of the pages of the store files already present and should issue a request that streams
+     * back only the pages that differ, in the format written by {@link ToFilePageDiffStoreWriter}.
+     */
+    public interface StoreDiffRequester
+    {
+        Response<?> copyChangedPages( StoreFileChecksums knownChecksums, StoreWriter writer ) throws IOException;
+
+        void done();
+    }
+
     public StoreCopyClient( Config config, Iterable<KernelExtensionFactory<?>> kernelExtensions,
             ConsoleLogger console, Logging logging, FileSystemAbstraction fs )
     {
@@ -137,6 +154,98 @@ public class StoreCopyClient
         }
     }
 
+    /**
+     * Brings the existing store in the configured store directory up to date by applying only the pages that
+     * differ from the source, followed by the transactions committed while those pages were streamed.
+     * This doesn't rely on the source still having the transaction logs since the store was last updated.
+     */
+    public void copyChangedPages( StoreDiffRequester requester ) throws IOException
+    {
+        File storeDir = config.get( InternalAbstractGraphDatabase.Configuration.store_dir );
+        Collection<File> storeFiles = new ArrayList<>();
+        gatherExistingStoreFiles( storeDir, storeFiles );
+        StoreFileChecksums knownChecksums = StoreFileChecksums.of( fs, storeDir, storeFiles );
+
+        // The existing transaction logs and id files describe a store that the changed pages will replace.
+        // Id files will be rebuilt when recovering below.
+        for ( File file : nonNull( fs.listFiles( storeDir ) ) )
+        {
+            if ( isTransactionLogFile( file.getName() ) || file.getName().endsWith( ".id" ) )
+            {
+                fs.deleteFile( file );
+            }
+        }
+
+        ToFilePageDiffStoreWriter diffWriter = new ToFilePageDiffStoreWriter( storeDir, fs );
+        try ( Response response = requester.copyChangedPages( knownChecksums,
+                decorateWithProgressIndicator( diffWriter ) ) )
+        {
+            writeTransactionsToActiveLogFile( storeDir, response );
+        }
+        finally
+        {
+            requester.done();
+        }
+
+        // Files that no longer exist at the source, f.ex. index files that have been merged away
+        for ( String path : knownChecksums.paths() )
+        {
+            if ( !diffWriter.writtenPaths().contains( path ) )
+            {
+                fs.deleteFile( new File( storeDir, path ) );
+            }
+        }
+
+        // Run recovery, so that the transactions we just wrote into the active log will be applied.
+        GraphDatabaseService graphDatabaseService = newTempDatabase( storeDir );
+        graphDatabaseService.shutdown();
+    }
+
+    /**
+     * Mirrors what the source lists as store files: the neostore files and index configuration at the top
+     * level and the contents of the index directories below it.
+     */
+    private void gatherExistingStoreFiles( File storeDir, Collection<File> target )
+    {
+        for ( File file : nonNull( fs.listFiles( storeDir ) ) )
+        {
+            String name = file.getName();
+            if ( fs.isDirectory( file ) )
+            {
+                if ( !name.equals( TEMP_COPY_DIRECTORY_NAME ) )
+                {
+                    gatherAllFiles( file, target );
+                }
+            }
+            else if ( name.equals( IndexConfigStore.INDEX_DB_FILE_NAME ) ||
+                    (name.startsWith( NeoStore.DEFAULT_NAME ) && !isTransactionLogFile( name ) &&
+                     !name.endsWith( ".id" )) )
+            {
+                target.add( file );
+            }
+        }
+    }
+
+    private void gatherAllFiles( File directory, Collection<File> target )
+    {
+        for ( File file : nonNull( fs.listFiles( directory ) ) )
+        {
+            if ( fs.isDirectory( file ) )
+            {
+                gatherAllFiles( file, target );
+            }
+            else
+            {
+                target.add( file );
+            }
+        }
+    }
+
+    private static boolean isTransactionLogFile( String name )
+    {
+        return name.startsWith( PhysicalLogFile.DEFAULT_NAME + PhysicalLogFile.DEFAULT_VERSION_SUFFIX );
+    }
+
     private void writeTransactionsToActiveLogFile( File storeDir, Response<?> response ) throws IOException
     {
         LifeSupport life = new LifeSupport();
@@ -90,4 +90,41 @@ public class StoreCopyServer
             throw new ServerFailureException( e );
         }
     }
+
+    /**
+     * Like {@link #flushStoresAndStreamStoreFiles(StoreWriter)}, but only streams the pages of each store file
+     * that differ from the given checksums. Every store file is still mentioned in the stream, so that the
+     * receiving side can tell which of its files no longer exist here.
+     *
+     * @return a {@link RequestContext} specifying at which point the store copy started.
+     */
+    public RequestContext flushStoresAndStreamChangedPages( StoreWriter writer, StoreFileChecksums knownChecksums )
+    {
+        try
+        {
+            long transactionIdWhenStartingCopy = transactionIdStore.getLastCommittedTransactionId();
+            dataSource.forceEverything();
+            ByteBuffer temporaryBuffer = ByteBuffer.allocateDirect( 1024 * 1024 );
+
+            try ( ResourceIterator<File> files = dataSource.listStoreFiles() )
+            {
+                while ( files.hasNext() )
+                {
+                    File file = files.next();
+                    String path = relativePath( storeDirectory, file );
+                    try ( ChangedPagesChannel changedPages =
+                                  new ChangedPagesChannel( fileSystem.open( file, "r" ), knownChecksums.get( path ) ) )
+                    {
+                        writer.write( path, changedPages, temporaryBuffer, true );
+                    }
+                }
+            }
+
+            return anonymous( transactionIdWhenStartingCopy - 1 );
+        }
+        catch ( IOException e )
+        {
+            throw new ServerFailureException( e );
+        }
+    }
 }
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+import static org.neo4j.com.Protocol.readString;
+import static org.neo4j.com.Protocol.writeString;
+import static org.neo4j.io.fs.FileUtils.relativePath;
+
+/**
+ * Checksums of fixed size pages of a set of store files, keyed by the path of each file relative to
+ * its store directory. A client holding an old copy of a store sends these to the server, which can then
+ * stream only the pages that differ, see {@link StoreCopyServer#flushStoresAndStreamChangedPages}.
+ *
+ * A page with a matching checksum is never sent, so the checksum is a SHA-256 digest rather than a CRC,
+ * where a collision would silently leave a stale page behind.
+ */
+public class StoreFileChecksums
+{
+    public static final int PAGE_SIZE = 64 * 1024;
+    public static final int CHECKSUM_SIZE = 32;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Map<String, byte[][]> pageChecksums = new HashMap<>();
+
+    public void add( String path, byte[][] checksums )
+    {
+        pageChecksums.put( path, checksums );
+    }
+
+    /**
+     * @return the page checksums of the file with the given relative path, or {@code null} if that
+     * file isn't known.
+     */
+    public byte[][] get( String path )
+    {
+        return pageChecksums.get( path );
+    }
+
+    public Set<String> paths()
+    {
+        return pageChecksums.keySet();
+    }
+
+    public static StoreFileChecksums of( FileSystemAbstraction fs, File baseDir, Collection<File> files )
+            throws IOException
+    {
+        StoreFileChecksums result = new StoreFileChecksums();
+        ByteBuffer page = newPageBuffer();
+        MessageDigest digest = newDigest();
+        for ( File file : files )
+        {
+            try ( StoreChannel channel = fs.open( file, "r" ) )
+            {
+                result.add( relativePath( baseDir, file ), checksumPages( channel, page, digest ) );
+            }
+        }
+        return result;
+    }
+
+    public static byte[][] checksumPages( StoreChannel channel, ByteBuffer page, MessageDigest digest )
+            throws IOException
+    {
+        long size = channel.size();
+        byte[][] checksums = new byte[(int) ((size + PAGE_SIZE - 1) / PAGE_SIZE)][];
+        for ( int pageId = 0; pageId < checksums.length; pageId++ )
+        {
+            readPage( channel, pageId, page );
+            checksums[pageId] = checksum( digest, page );
+        }
+        return checksums;
+    }
+
+    /**
+     * Reads the page with the given id into {@code page}, leaving it flipped and ready to be read.
+     * The last page of a file may be shorter than {@link #PAGE_SIZE}.
+     */
+    static void readPage( StoreChannel channel, long pageId, ByteBuffer page ) throws IOException
+    {
+        page.clear();
+        long position = pageId * PAGE_SIZE;
+        int read;
+        while ( page.hasRemaining() && (read = channel.read( page, position )) != -1 )
+        {
+            position += read;
+        }
+        page.flip();
+    }
+
+    /**
+     * @return the SHA-256 digest of the remaining bytes of {@code page}, leaving its position untouched.
+     * The given digest, from {@link #newDigest()}, is reset first so that it can be reused for every page.
+     */
+    static byte[] checksum( MessageDigest digest, ByteBuffer page )
+    {
+        digest.reset();
+        digest.update( page.duplicate() );
+        return digest.digest();
+    }
+
+    /**
+     * @return a digest for {@link #checksum(MessageDigest, ByteBuffer) checksumming} pages. Not thread safe,
+     * so one is needed per file copy or checksum run.
+     */
+    static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( DIGEST_ALGORITHM );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException( e );
+        }
+    }
+
+    static ByteBuffer newPageBuffer()
+    {
+        return ByteBuffer.allocate( PAGE_SIZE );
+    }
+
+    public void serialize( ChannelBuffer buffer )
+    {
+        buffer.writeInt( pageChecksums.size() );
+        for ( Map.Entry<String, byte[][]> file : pageChecksums.entrySet() )
+        {
+            writeString( buffer, file.getKey() );
+            byte[][] checksums = file.getValue();
+            buffer.writeInt( checksums.length );
+            for ( byte[] checksum : checksums )
+            {
+                buffer.writeBytes( checksum );
+            }
+        }
+    }
+
+    public static StoreFileChecksums deserialize( ChannelBuffer buffer )
+    {
+        StoreFileChecksums result = new StoreFileChecksums();
+        int files = buffer.readInt();
+        for ( int i = 0; i < files; i++ )
+        {
+            String path = readString( buffer );
+            byte[][] checksums = new byte[buffer.readInt()][CHECKSUM_SIZE];
+            for ( byte[] checksum : checksums )
+            {
+                buffer.readBytes( checksum );
+            }
+            result.add( path, checksums );
+        }
+        return result;
+    }
+}
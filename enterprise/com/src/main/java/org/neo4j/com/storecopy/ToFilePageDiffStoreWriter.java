@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+import static org.neo4j.com.storecopy.ChangedPagesChannel.PAGE_HEADER_SIZE;
+import static org.neo4j.com.storecopy.StoreFileChecksums.CHECKSUM_SIZE;
+import static org.neo4j.com.storecopy.StoreFileChecksums.PAGE_SIZE;
+import static org.neo4j.com.storecopy.StoreFileChecksums.checksum;
+import static org.neo4j.com.storecopy.StoreFileChecksums.newDigest;
+import static org.neo4j.com.storecopy.StoreFileChecksums.newPageBuffer;
+
+/**
+ * Applies streams of changed pages, as produced by {@link ChangedPagesChannel}, onto existing store files
+ * in a directory. Every page is verified against its checksum before it is written.
+ */
+public class ToFilePageDiffStoreWriter implements StoreWriter
+{
+    private final File basePath;
+    private final FileSystemAbstraction fs;
+    private final ByteBuffer header = ByteBuffer.allocate( PAGE_HEADER_SIZE );
+    private final ByteBuffer page = newPageBuffer();
+    private final MessageDigest digest = newDigest();
+    private final Set<String> writtenPaths = new HashSet<>();
+
+    public ToFilePageDiffStoreWriter( File graphDbStoreDir, FileSystemAbstraction fs )
+    {
+        this.basePath = graphDbStoreDir;
+        this.fs = fs;
+    }
+
+    @Override
+    public int write( String path, ReadableByteChannel data, ByteBuffer temporaryBuffer,
+            boolean hasData ) throws IOException
+    {
+        File file = new File( basePath, path );
+        fs.mkdirs( file.getParentFile() );
+        int totalWritten = 0;
+        try ( StoreChannel channel = fs.open( file, "rw" ) )
+        {
+            readFully( data, header, 8, false );
+            long fileLength = header.getLong();
+            while ( readFully( data, header, PAGE_HEADER_SIZE, true ) )
+            {
+                long pageId = header.getLong();
+                int length = header.getInt();
+                byte[] expectedChecksum = new byte[CHECKSUM_SIZE];
+                header.get( expectedChecksum );
+                if ( length < 0 || length > PAGE_SIZE )
+                {
+                    throw new IOException( "Invalid length " + length + " of page " + pageId + " in " + path );
+                }
+                readFully( data, page, length, false );
+                if ( !Arrays.equals( checksum( digest, page ), expectedChecksum ) )
+                {
+                    throw new IOException( "Checksum mismatch for page " + pageId + " in " + path );
+                }
+                channel.writeAll( page, pageId * PAGE_SIZE );
+                totalWritten += length;
+            }
+            if ( channel.size() > fileLength )
+            {
+                channel.truncate( fileLength );
+            }
+            channel.force( false );
+        }
+        writtenPaths.add( path );
+        return totalWritten;
+    }
+
+    /**
+     * @return whether or not {@code length} bytes could be read into the buffer. End of stream
+     * before any byte has been read is only accepted if {@code endAllowed} is {@code true}.
+     */
+    private static boolean readFully( ReadableByteChannel data, ByteBuffer buffer, int length, boolean endAllowed )
+            throws IOException
+    {
+        buffer.clear();
+        buffer.limit( length );
+        while ( buffer.hasRemaining() )
+        {
+            // Reading into a slice since some channels, f.ex. BlockLogReader, expect the buffer to start at 0
+            int read = data.read( buffer.slice() );
+            if ( read == -1 )
+            {
+                if ( endAllowed && buffer.position() == 0 )
+                {
+                    return false;
+                }
+                throw new EOFException( "Unexpected end of page stream" );
+            }
+            buffer.position( buffer.position() + read );
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * @return the relative paths of all files that the source sent, changed or not.
+     */
+    public Set<String> writtenPaths()
+    {
+        return writtenPaths;
+    }
+
+    @Override
+    public void close()
+    {
+        // Do nothing
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static java.util.Arrays.asList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.com.storecopy.StoreFileChecksums.PAGE_SIZE;
+
+public class ToFilePageDiffStoreWriterTest
+{
+    @Rule
+    public EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+
+    private final File sourceDir = new File( "source" );
+    private final File targetDir = new File( "target" );
+
+    @Test
+    public void shouldOnlyTransferChangedAndAppendedPages() throws Exception
+    {
+        // Given
+        byte[] original = data( PAGE_SIZE * 3, (byte) 1 );
+        write( new File( targetDir, "neostore.nodestore.db" ), original );
+        byte[] changed = Arrays.copyOf( original, PAGE_SIZE * 4 + 10 );
+        Arrays.fill( changed, PAGE_SIZE + 5, PAGE_SIZE + 20, (byte) 7 );
+        Arrays.fill( changed, PAGE_SIZE * 3, changed.length, (byte) 9 );
+        write( new File( sourceDir, "neostore.nodestore.db" ), changed );
+
+        // When
+        int written = transfer( "neostore.nodestore.db" );
+
+        // Then
+        assertEquals( PAGE_SIZE * 2 + 10, written );
+        assertArrayEquals( changed, read( new File( targetDir, "neostore.nodestore.db" ) ) );
+    }
+
+    @Test
+    public void shouldTruncateFilesThatHaveShrunk() throws Exception
+    {
+        // Given
+        byte[] original = data( PAGE_SIZE * 2 + 100, (byte) 3 );
+        write( new File( targetDir, "neostore.relationshipstore.db" ), original );
+        byte[] shrunk = Arrays.copyOf( original, PAGE_SIZE + 50 );
+        write( new File( sourceDir, "neostore.relationshipstore.db" ), shrunk );
+
+        // When
+        transfer( "neostore.relationshipstore.db" );
+
+        // Then
+        assertArrayEquals( shrunk, read( new File( targetDir, "neostore.relationshipstore.db" ) ) );
+    }
+
+    @Test
+    public void shouldTransferAllPagesOfFilesUnknownToTheTarget() throws Exception
+    {
+        // Given
+        byte[] data = data( PAGE_SIZE * 2 + 1, (byte) 5 );
+        write( new File( sourceDir, "neostore.propertystore.db" ), data );
+
+        // When
+        int written = transfer( "neostore.propertystore.db" );
+
+        // Then
+        assertEquals( data.length, written );
+        assertArrayEquals( data, read( new File( targetDir, "neostore.propertystore.db" ) ) );
+    }
+
+    @Test
+    public void shouldOnlyTransferPagesThatDifferFromDeserializedChecksums() throws Exception
+    {
+        // Given
+        EphemeralFileSystemAbstraction fs = fsRule.get();
+        byte[] original = data( PAGE_SIZE * 2, (byte) 2 );
+        File targetFile = new File( targetDir, "neostore.nodestore.db" );
+        write( targetFile, original );
+        byte[] changed = original.clone();
+        changed[PAGE_SIZE + 17]++;
+        write( new File( sourceDir, "neostore.nodestore.db" ), changed );
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        StoreFileChecksums.of( fs, targetDir, asList( targetFile ) ).serialize( buffer );
+
+        // When
+        StoreFileChecksums knownChecksums = StoreFileChecksums.deserialize( buffer );
+        int written;
+        try ( ChangedPagesChannel changedPages = new ChangedPagesChannel(
+                fs.open( new File( sourceDir, "neostore.nodestore.db" ), "r" ),
+                knownChecksums.get( "neostore.nodestore.db" ) ) )
+        {
+            written = new ToFilePageDiffStoreWriter( targetDir, fs ).write(
+                    "neostore.nodestore.db", changedPages, ByteBuffer.allocate( 1024 ), true );
+        }
+
+        // Then
+        assertEquals( PAGE_SIZE, written );
+        assertArrayEquals( changed, read( targetFile ) );
+    }
+
+    private int transfer( String path ) throws IOException
+    {
+        EphemeralFileSystemAbstraction fs = fsRule.get();
+        fs.mkdirs( targetDir );
+        File targetFile = new File( targetDir, path );
+        StoreFileChecksums knownChecksums = fs.fileExists( targetFile ) ?
+                StoreFileChecksums.of( fs, targetDir, asList( targetFile ) ) : new StoreFileChecksums();
+        ToFilePageDiffStoreWriter writer = new ToFilePageDiffStoreWriter( targetDir, fs );
+        try ( ChangedPagesChannel changedPages = new ChangedPagesChannel(
+                fs.open( new File( sourceDir, path ), "r" ), knownChecksums.get( path ) ) )
+        {
+            return writer.write( path, changedPages, ByteBuffer.allocate( 1024 ), true );
+        }
+    }
+
+    private static byte[] data( int length, byte seed )
+    {
+        byte[] data = new byte[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            data[i] = (byte) (seed + i);
+        }
+        return data;
+    }
+
+    private void write( File file, byte[] data ) throws IOException
+    {
+        fsRule.get().mkdirs( file.getParentFile() );
+        try ( StoreChannel channel = fsRule.get().create( file ) )
+        {
+            channel.writeAll( ByteBuffer.wrap( data ) );
+        }
+    }
+
+    private byte[] read( File file ) throws IOException
+    {
+        try ( StoreChannel channel = fsRule.get().open( file, "r" ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() );
+            while ( buffer.hasRemaining() && channel.read( buffer ) != -1 )
+            {
+            }
+            return buffer.array();
+        }
+    }
+}
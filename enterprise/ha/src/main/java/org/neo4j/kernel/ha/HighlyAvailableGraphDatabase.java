@@ -23,6 +23,8 @@ import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.jboss.netty.logging.InternalLoggerFactory;
 
@@ -46,6 +48,7 @@ import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.graphdb.TransactionFailureException;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.graphdb.index.IndexManager;
+import org.neo4j.helpers.Clock;
 import org.neo4j.helpers.Factory;
 import org.neo4j.helpers.NamedThreadFactory;
 import org.neo4j.helpers.Predicate;
@@ -88,6 +91,7 @@ import org.neo4j.kernel.ha.transaction.OnDiskLastTxIdGetter;
 import org.neo4j.kernel.ha.transaction.TransactionPropagator;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionHeaderInformation;
+import org.neo4j.kernel.impl.api.TransactionIdAwaiter;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationStoreApplier;
 import org.neo4j.kernel.impl.cache.CacheProvider;
@@ -203,6 +207,19 @@ public class HighlyAvailableGraphDatabase extends InternalAbstractGraphDatabase
         diagnosticsManager.appendProvider( new HighAvailabilityDiagnostics( memberStateMachine, clusterClient ) );
     }
 
+    @Override
+    protected TransactionIdAwaiter createTransactionIdAwaiter()
+    {
+        return new UpdatePullingTransactionIdAwaiter( super.createTransactionIdAwaiter(), new Provider<UpdatePuller>()
+        {
+            @Override
+            public UpdatePuller instance()
+            {
+                return updatePuller;
+            }
+        }, Clock.SYSTEM_CLOCK );
+    }
+
     @Override
     protected UpgradeConfiguration createUpgradeConfiguration()
     {
@@ -633,6 +650,26 @@ public class HighlyAvailableGraphDatabase extends InternalAbstractGraphDatabase
         return memberStateMachine.getCurrentState() == HighAvailabilityMemberState.MASTER;
     }
 
+    /**
+     * @return id of the last transaction applied on this instance. Read right after committing a transaction
+     * this is a bookmark which can be handed to {@link #awaitTransactionId(long, long, TimeUnit)} on any
+     * instance in the cluster to be sure that the transaction is visible there.
+     */
+    public long lastCommittedTransactionId()
+    {
+        return transactionIdAwaiter.lastCommittedTransactionId();
+    }
+
+    /**
+     * Waits until this instance has applied the transaction with the given id, pulling updates from the master
+     * if this instance is a slave that is behind.
+     */
+    public void awaitTransactionId( long txId, long timeout, TimeUnit unit )
+            throws TimeoutException, InterruptedException
+    {
+        transactionIdAwaiter.awaitTransactionId( txId, timeout, unit );
+    }
+
     @Override
     public DependencyResolver getDependencyResolver()
     {
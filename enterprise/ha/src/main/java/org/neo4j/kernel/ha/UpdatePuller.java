@@ -94,6 +94,15 @@ public class UpdatePuller implements Lifecycle
         }
     }
 
+    /**
+     * @return whether or not this instance currently pulls updates from a master, i.e. whether it's
+     * a started slave.
+     */
+    public boolean isPullingUpdates()
+    {
+        return pullUpdates;
+    }
+
     @Override
     public void init() throws Throwable
     {
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.helpers.Clock;
+import org.neo4j.helpers.Provider;
+import org.neo4j.kernel.impl.api.TransactionIdAwaiter;
+
+/**
+ * {@link TransactionIdAwaiter} for HA. A slave which is behind the requested transaction id pulls updates from the
+ * master, synchronously and only for as long as it is behind, instead of waiting for the next scheduled pull.
+ * A master, or an instance which isn't a slave at the moment, falls back to waiting for the transaction to be
+ * committed locally.
+ */
+public class UpdatePullingTransactionIdAwaiter implements TransactionIdAwaiter
+{
+    static final long RETRY_INTERVAL_MILLIS = 10;
+
+    private final TransactionIdAwaiter local;
+    private final Provider<UpdatePuller> updatePuller;
+    private final Clock clock;
+
+    public UpdatePullingTransactionIdAwaiter( TransactionIdAwaiter local, Provider<UpdatePuller> updatePuller,
+                                              Clock clock )
+    {
+        this.local = local;
+        this.updatePuller = updatePuller;
+        this.clock = clock;
+    }
+
+    @Override
+    public long lastCommittedTransactionId()
+    {
+        return local.lastCommittedTransactionId();
+    }
+
+    @Override
+    public void awaitTransactionId( long txId, long timeout, TimeUnit unit )
+            throws TimeoutException, InterruptedException
+    {
+        long endTime = clock.currentTimeMillis() + unit.toMillis( timeout );
+        Exception lastFailure = null;
+        while ( local.lastCommittedTransactionId() < txId )
+        {
+            long remaining = endTime - clock.currentTimeMillis();
+            if ( remaining <= 0 )
+            {
+                TimeoutException timeoutException = new TimeoutException( "Transaction " + txId +
+                        " not applied within " + timeout + " " + unit + ", last applied transaction is " +
+                        local.lastCommittedTransactionId() );
+                if ( lastFailure != null )
+                {
+                    timeoutException.initCause( lastFailure );
+                }
+                throw timeoutException;
+            }
+
+            UpdatePuller puller = updatePuller.instance();
+            if ( puller == null || !puller.isPullingUpdates() )
+            {
+                local.awaitTransactionId( txId, remaining, TimeUnit.MILLISECONDS );
+                return;
+            }
+
+            try
+            {
+                puller.pullUpdates();
+            }
+            catch ( Exception e )
+            {
+                // Keep trying until we time out, the master may just be switching
+                lastFailure = e;
+            }
+
+            if ( local.lastCommittedTransactionId() < txId )
+            {
+                Thread.sleep( RETRY_INTERVAL_MILLIS );
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2002-2014 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.neo4j.helpers.FakeClock;
+import org.neo4j.helpers.Provider;
+import org.neo4j.kernel.impl.api.TransactionIdAwaiter;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class UpdatePullingTransactionIdAwaiterTest
+{
+    private final TransactionIdAwaiter local = mock( TransactionIdAwaiter.class );
+    private final UpdatePuller updatePuller = mock( UpdatePuller.class );
+    private final FakeClock clock = new FakeClock();
+    private final UpdatePullingTransactionIdAwaiter awaiter = new UpdatePullingTransactionIdAwaiter( local,
+            new Provider<UpdatePuller>()
+            {
+                @Override
+                public UpdatePuller instance()
+                {
+                    return updatePuller;
+                }
+            }, clock );
+
+    @Test
+    public void shouldNotPullUpdatesIfAlreadyCaughtUp() throws Exception
+    {
+        // Given
+        when( local.lastCommittedTransactionId() ).thenReturn( 10l );
+
+        // When
+        awaiter.awaitTransactionId( 10, 1, TimeUnit.SECONDS );
+
+        // Then
+        verifyZeroInteractions( updatePuller );
+    }
+
+    @Test
+    public void shouldPullUpdatesOnSlaveUntilCaughtUp() throws Exception
+    {
+        // Given
+        when( updatePuller.isPullingUpdates() ).thenReturn( true );
+        when( local.lastCommittedTransactionId() ).thenReturn( 5l, 5l, 7l, 7l, 10l );
+
+        // When
+        awaiter.awaitTransactionId( 10, 1, TimeUnit.SECONDS );
+
+        // Then
+        verify( updatePuller, times( 2 ) ).pullUpdates();
+    }
+
+    @Test
+    public void shouldWaitForLocalCommitIfNotSlave() throws Exception
+    {
+        // Given
+        when( updatePuller.isPullingUpdates() ).thenReturn( false );
+        when( local.lastCommittedTransactionId() ).thenReturn( 5l );
+
+        // When
+        awaiter.awaitTransactionId( 10, 1, TimeUnit.SECONDS );
+
+        // Then
+        verify( local ).awaitTransactionId( 10, 1000, TimeUnit.MILLISECONDS );
+        verify( updatePuller, times( 0 ) ).pullUpdates();
+    }
+
+    @Test
+    public void shouldTimeOutWithLastPullFailureAsCause() throws Exception
+    {
+        // Given
+        when( updatePuller.isPullingUpdates() ).thenReturn( true );
+        when( local.lastCommittedTransactionId() ).thenReturn( 5l );
+        final IOException failure = new IOException( "Master unavailable" );
+        doAnswer( new Answer<Void>()
+        {
+            @Override
+            public Void answer( InvocationOnMock invocation ) throws Throwable
+            {
+                clock.forward( 600, TimeUnit.MILLISECONDS );
+                throw failure;
+            }
+        } ).when( updatePuller ).pullUpdates();
+
+        // When
+        try
+        {
+            awaiter.awaitTransactionId( 10, 1, TimeUnit.SECONDS );
+            fail( "Should have timed out" );
+        }
+        catch ( TimeoutException e )
+        {
+            // Then
+            assertSame( failure, e.getCause() );
+            verify( updatePuller, times( 2 ) ).pullUpdates();
+            verify( local, times( 0 ) ).awaitTransactionId( anyLong(), anyLong(), any( TimeUnit.class ) );
+        }
+    }
+}